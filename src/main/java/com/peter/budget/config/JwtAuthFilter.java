@@ -37,11 +37,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        if (jwtService.isTokenValid(token)) {
-            Long userId = jwtService.extractUserId(token);
-            String email = jwtService.extractEmail(token);
-
-            UserPrincipal principal = new UserPrincipal(userId, email);
+        jwtService.verifyAccessToken(token).ifPresent(verified -> {
+            UserPrincipal principal = new UserPrincipal(verified.userId(), verified.email());
 
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     principal,
@@ -51,7 +48,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
-        }
+        });
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,45 @@
+package com.peter.budget.config;
+
+import com.peter.budget.service.profiling.QueryProfiler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Profiles the SQL each request runs. Requests are named by their route pattern, e.g.
+ * {@code GET /api/v1/transactions/{id}}, so meter tags stay bounded.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryProfilingFilter extends OncePerRequestFilter {
+
+    private final QueryProfiler queryProfiler;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        boolean owner = queryProfiler.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (owner) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                queryProfiler.end("http", request.getMethod() + " " + (pattern != null ? pattern : "unmapped"));
+            }
+        }
+    }
+}
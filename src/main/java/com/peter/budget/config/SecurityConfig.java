@@ -1,6 +1,8 @@
 package com.peter.budget.config;
 
 import com.peter.budget.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -38,6 +40,12 @@ public class SecurityConfig {
     private final UserRepository userRepository;
     private final SecurityErrorHandler securityErrorHandler;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:${server.port:8080}}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -46,9 +54,13 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses (SSE) re-dispatch asynchronously after the
+                        // original request has already been authenticated.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/v1/auth/register", "/api/v1/auth/login", "/api/v1/auth/refresh").permitAll()
-                        .requestMatchers("/actuator/health/**", "/health", "/error").permitAll()
+                        .requestMatchers(this::isManagementRequest).permitAll()
+                        .requestMatchers("/health", "/error").permitAll()
                         .anyRequest().authenticated())
                 .exceptionHandling(exceptions -> exceptions
                         .authenticationEntryPoint(securityErrorHandler)
@@ -59,6 +71,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // The actuator is served on management.server.port only, which is not exposed
+    // publicly, so the scrape needs no token there. On the API port it is never opened,
+    // even when both ports are configured to be the same.
+    private boolean isManagementRequest(HttpServletRequest request) {
+        return managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && request.getRequestURI().startsWith("/actuator/");
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
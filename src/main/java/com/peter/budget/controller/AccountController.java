@@ -1,18 +1,24 @@
 package com.peter.budget.controller;
 
 import com.peter.budget.config.JwtAuthFilter;
+import com.peter.budget.model.dto.AccountBalanceDto;
 import com.peter.budget.model.dto.AccountCreateRequest;
 import com.peter.budget.model.dto.AccountDeletionPreviewDto;
 import com.peter.budget.model.dto.AccountDto;
 import com.peter.budget.model.dto.AccountNetWorthCategoryUpdateRequest;
 import com.peter.budget.model.dto.AccountSummaryDto;
+import com.peter.budget.model.dto.NetWorthSnapshotDto;
 import com.peter.budget.service.AccountService;
+import com.peter.budget.service.BalanceHistoryService;
+import com.peter.budget.service.NetWorthSnapshotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -21,6 +27,8 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final NetWorthSnapshotService netWorthSnapshotService;
+    private final BalanceHistoryService balanceHistoryService;
 
     @GetMapping
     public ResponseEntity<List<AccountDto>> getAccounts(
@@ -44,6 +52,15 @@ public class AccountController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/net-worth/history")
+    public ResponseEntity<List<NetWorthSnapshotDto>> getNetWorthHistory(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<NetWorthSnapshotDto> history = netWorthSnapshotService.getHistory(principal.userId(), startDate, endDate);
+        return ResponseEntity.ok(history);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AccountDto> getAccount(
             @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
@@ -52,6 +69,26 @@ public class AccountController {
         return ResponseEntity.ok(account);
     }
 
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<AccountBalanceDto> getBalanceOn(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        AccountBalanceDto balance = balanceHistoryService.getBalanceOn(principal.userId(), id, date);
+        return ResponseEntity.ok(balance);
+    }
+
+    @GetMapping("/{id}/balances")
+    public ResponseEntity<List<AccountBalanceDto>> getBalanceHistory(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<AccountBalanceDto> balances = balanceHistoryService.getBalanceHistory(
+                principal.userId(), id, startDate, endDate);
+        return ResponseEntity.ok(balances);
+    }
+
     @GetMapping("/{id}/deletion-preview")
     public ResponseEntity<AccountDeletionPreviewDto> getDeletionPreview(
             @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
@@ -1,9 +1,12 @@
 package com.peter.budget.controller;
 
 import com.peter.budget.config.JwtAuthFilter;
+import com.peter.budget.exception.ApiException;
 import com.peter.budget.model.dto.ConnectionDto;
 import com.peter.budget.model.dto.SimpleFinSetupRequest;
+import com.peter.budget.model.dto.SyncJobDto;
 import com.peter.budget.model.dto.SyncResultDto;
+import com.peter.budget.service.job.SyncJobService;
 import com.peter.budget.service.simplefin.SimpleFinSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +23,7 @@ import java.util.List;
 public class ConnectionController {
 
     private final SimpleFinSyncService syncService;
+    private final SyncJobService syncJobService;
 
     @GetMapping
     public ResponseEntity<List<ConnectionDto>> getConnections(
@@ -36,20 +40,65 @@ public class ConnectionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(connection);
     }
 
+    /**
+     * Deprecated in favour of {@code POST /{id}/sync-jobs}. Runs the sync as a queued job and
+     * waits for it; answers {@code 202} with the job when it is still running after the wait.
+     */
+    @Deprecated
     @PostMapping("/{id}/sync")
-    public ResponseEntity<SyncResultDto> syncConnection(
+    public ResponseEntity<?> syncConnection(
             @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
             @PathVariable Long id) {
-        SyncResultDto result = syncService.syncConnection(principal.userId(), id);
-        return ResponseEntity.ok(result);
+        return awaitSync(principal.userId(), id, false);
     }
 
+    /** Deprecated in favour of {@code POST /{id}/sync-jobs?full=true}; see {@link #syncConnection}. */
+    @Deprecated
     @PostMapping("/{id}/sync/full")
-    public ResponseEntity<SyncResultDto> fullSyncConnection(
+    public ResponseEntity<?> fullSyncConnection(
             @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
             @PathVariable Long id) {
-        SyncResultDto result = syncService.syncConnection(principal.userId(), id, true);
-        return ResponseEntity.ok(result);
+        return awaitSync(principal.userId(), id, true);
+    }
+
+    @PostMapping("/{id}/sync-jobs")
+    public ResponseEntity<SyncJobDto> enqueueSync(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean full) {
+        SyncJobDto job = syncJobService.enqueueConnectionSync(principal.userId(), id, full);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{id}/sync-jobs")
+    public ResponseEntity<List<SyncJobDto>> getSyncJobs(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(syncJobService.getConnectionJobs(principal.userId(), id));
+    }
+
+    @GetMapping("/sync-jobs/{jobId}")
+    public ResponseEntity<SyncJobDto> getSyncJob(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @PathVariable Long jobId) {
+        return ResponseEntity.ok(syncJobService.getJob(principal.userId(), jobId));
+    }
+
+    private ResponseEntity<?> awaitSync(Long userId, Long connectionId, boolean fullSync) {
+        SyncJobDto job = syncJobService.runConnectionSync(userId, connectionId, fullSync);
+        return switch (job.getStatus()) {
+            case SUCCEEDED -> ResponseEntity.ok(SyncResultDto.builder()
+                    .success(true)
+                    .message(job.getResultMessage())
+                    .accountsSynced(job.getAccountsSynced())
+                    .transactionsAdded(job.getTransactionsAdded())
+                    .transactionsUpdated(job.getTransactionsUpdated())
+                    .writesSkipped(job.getWritesSkipped())
+                    .syncedAt(job.getFinishedAt())
+                    .build());
+            case FAILED -> throw ApiException.internal(job.getErrorMessage());
+            default -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        };
     }
 
     @DeleteMapping("/{id}")
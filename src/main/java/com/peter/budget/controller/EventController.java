@@ -0,0 +1,24 @@
+package com.peter.budget.controller;
+
+import com.peter.budget.config.JwtAuthFilter;
+import com.peter.budget.service.event.UserEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final UserEventService userEventService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamEvents(
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal) {
+        return userEventService.stream(principal.userId());
+    }
+}
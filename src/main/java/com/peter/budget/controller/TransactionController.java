@@ -13,10 +13,12 @@ import com.peter.budget.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -91,9 +93,22 @@ public class TransactionController {
 
     @GetMapping("/transfers")
     public ResponseEntity<List<TransferPairDto>> getTransfers(
-            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal) {
-        List<TransferPairDto> transfers = transactionService.getTransfers(principal.userId());
-        return ResponseEntity.ok(transfers);
+            @AuthenticationPrincipal JwtAuthFilter.UserPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        TransactionService.TransferPairPage page = transactionService.getTransfers(
+                principal.userId(), startDate, endDate, limit, offset);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasMore()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("limit", limit)
+                    .replaceQueryParam("offset", offset + limit)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.pairs());
     }
 
     @PostMapping("/{id}/mark-as-transfer")
@@ -0,0 +1,20 @@
+package com.peter.budget.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetWorthSnapshotDto {
+    private LocalDate date;
+    private BigDecimal totalAssets;
+    private BigDecimal totalLiabilities;
+    private BigDecimal netWorth;
+}
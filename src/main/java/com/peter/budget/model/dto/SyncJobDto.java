@@ -0,0 +1,33 @@
+package com.peter.budget.model.dto;
+
+import com.peter.budget.model.enums.SyncJobStatus;
+import com.peter.budget.model.enums.SyncJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncJobDto {
+    private Long id;
+    private Long connectionId;
+    private SyncJobType jobType;
+    private SyncJobStatus status;
+    private boolean fullSync;
+    private int attempts;
+    private String progressMessage;
+    private int accountsSynced;
+    private int transactionsAdded;
+    private int transactionsUpdated;
+    private int writesSkipped;
+    private String resultMessage;
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.peter.budget.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncProgressDto {
+    private Long jobId;
+    private Long connectionId;
+    private String message;
+    private int accountsSynced;
+    private int transactionsAdded;
+}
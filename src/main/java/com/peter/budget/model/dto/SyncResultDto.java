@@ -17,6 +17,6 @@ public class SyncResultDto {
     private int accountsSynced;
     private int transactionsAdded;
     private int transactionsUpdated;
-    private int transfersDetected;
+    private int writesSkipped;
     private Instant syncedAt;
 }
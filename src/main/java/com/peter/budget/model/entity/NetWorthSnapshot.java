@@ -0,0 +1,21 @@
+package com.peter.budget.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetWorthSnapshot {
+    private Long userId;
+    private LocalDate snapshotDate;
+    private BigDecimal totalAssets;
+    private BigDecimal totalLiabilities;
+    private BigDecimal netWorth;
+}
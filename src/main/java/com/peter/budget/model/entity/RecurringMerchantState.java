@@ -0,0 +1,32 @@
+package com.peter.budget.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringMerchantState {
+    private Long id;
+    private Long userId;
+    private String merchantKey;
+    private String displayName;
+    private int transactionCount;
+    private BigDecimal amountSum;
+    private BigDecimal amountMin;
+    private BigDecimal amountMax;
+    private Instant firstPostedAt;
+    private Instant lastPostedAt;
+    @Builder.Default
+    private Map<Long, Integer> categoryCounts = new HashMap<>();
+    private Instant createdAt;
+    private Instant updatedAt;
+}
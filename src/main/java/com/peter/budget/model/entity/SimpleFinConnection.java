@@ -25,6 +25,10 @@ public class SimpleFinConnection {
     private String errorMessage;
     private int requestsToday;
     private Instant requestsResetAt;
+    private int consecutiveEmptySyncs;
+    private int consecutiveFailedSyncs;
+    private Instant lastNewDataAt;
+    private Instant nextSyncAfter;
     private Instant createdAt;
     private Instant updatedAt;
 }
@@ -0,0 +1,38 @@
+package com.peter.budget.model.entity;
+
+import com.peter.budget.model.enums.SyncJobStatus;
+import com.peter.budget.model.enums.SyncJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncJob {
+    private Long id;
+    private Long userId;
+    private Long connectionId;
+    private SyncJobType jobType;
+    private SyncJobStatus status;
+    private boolean fullSync;
+    private int attempts;
+    private Instant runAfter;
+    private String lockedBy;
+    private Instant lockedAt;
+    private String progressMessage;
+    private int accountsSynced;
+    private int transactionsAdded;
+    private int transactionsUpdated;
+    private int writesSkipped;
+    private String resultMessage;
+    private String errorMessage;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.peter.budget.model.enums;
+
+public enum SyncJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
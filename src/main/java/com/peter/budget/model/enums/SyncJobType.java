@@ -0,0 +1,10 @@
+package com.peter.budget.model.enums;
+
+public enum SyncJobType {
+    CONNECTION_SYNC,
+    TRANSFER_DETECTION,
+    RECURRING_DETECTION,
+    CONNECTION_SUMMARY,
+    NET_WORTH_SNAPSHOT,
+    BALANCE_HISTORY
+}
@@ -0,0 +1,18 @@
+package com.peter.budget.model.enums;
+
+public enum UserEventType {
+    SYNC_PROGRESS("sync-progress"),
+    SYNC_COMPLETED("sync-completed"),
+    CATEGORIES_CHANGED("categories-changed"),
+    TRANSFERS_CHANGED("transfers-changed");
+
+    private final String eventName;
+
+    UserEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,165 @@
+package com.peter.budget.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class AccountBalanceHistoryRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<DailyBalance> DAILY_BALANCE_MAPPER = (rs, rowNum) ->
+            new DailyBalance(rs.getDate("balance_date").toLocalDate(), rs.getBigDecimal("balance"));
+
+    private static final RowMapper<HistoryState> STATE_MAPPER = (rs, rowNum) -> {
+        Date anchorDate = rs.getDate("anchor_date");
+        Date firstDate = rs.getDate("first_date");
+        Timestamp computedAt = rs.getTimestamp("computed_at");
+        return new HistoryState(
+                anchorDate != null ? anchorDate.toLocalDate() : null,
+                rs.getBigDecimal("anchor_balance"),
+                firstDate != null ? firstDate.toLocalDate() : null,
+                rs.getLong("transaction_count"),
+                computedAt != null ? computedAt.toInstant() : null
+        );
+    };
+
+    public Optional<HistoryState> findState(Long accountId) {
+        String sql = "SELECT * FROM account_balance_history_states WHERE account_id = :accountId";
+        var results = jdbcTemplate.query(sql, new MapSqlParameterSource("accountId", accountId),
+                Objects.requireNonNull(STATE_MAPPER));
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    /**
+     * Creates the account's history state if missing and locks it for the rest of the
+     * transaction, so a post-sync refresh and a refresh triggered by a read cannot rewrite
+     * the same days at once.
+     */
+    public HistoryState lockState(Long accountId) {
+        String insertSql = """
+            INSERT INTO account_balance_history_states (account_id, transaction_count, updated_at)
+            SELECT :accountId, 0, :now
+            WHERE NOT EXISTS (SELECT 1 FROM account_balance_history_states WHERE account_id = :accountId)
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(insertSql, params);
+
+        String selectSql = """
+            SELECT * FROM account_balance_history_states
+            WHERE account_id = :accountId
+            FOR UPDATE
+            """;
+        return jdbcTemplate.queryForObject(selectSql, params, STATE_MAPPER);
+    }
+
+    public void saveState(Long accountId, HistoryState state) {
+        String sql = """
+            UPDATE account_balance_history_states SET
+                anchor_date = :anchorDate, anchor_balance = :anchorBalance, first_date = :firstDate,
+                transaction_count = :transactionCount, computed_at = :computedAt, updated_at = :now
+            WHERE account_id = :accountId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("anchorDate", Date.valueOf(state.anchorDate()))
+                .addValue("anchorBalance", state.anchorBalance())
+                .addValue("firstDate", Date.valueOf(state.firstDate()))
+                .addValue("transactionCount", state.transactionCount())
+                .addValue("computedAt", Timestamp.from(state.computedAt()))
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(sql, params);
+    }
+
+    public Optional<BigDecimal> findBalanceOn(Long accountId, LocalDate date) {
+        String sql = """
+            SELECT balance FROM account_daily_balances
+            WHERE account_id = :accountId AND balance_date = :date
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("date", Date.valueOf(date));
+        var results = jdbcTemplate.queryForList(sql, params, BigDecimal.class);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    public List<DailyBalance> findBetween(Long accountId, LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT balance_date, balance FROM account_daily_balances
+            WHERE account_id = :accountId AND balance_date >= :startDate AND balance_date <= :endDate
+            ORDER BY balance_date
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+        return jdbcTemplate.query(sql, params, Objects.requireNonNull(DAILY_BALANCE_MAPPER));
+    }
+
+    /**
+     * Replaces the account's stored days from {@code fromDate} on, or all of them when
+     * {@code fromDate} is {@code null}, with {@code balances}.
+     */
+    public void replaceFrom(Long accountId, LocalDate fromDate, List<DailyBalance> balances) {
+        var params = new MapSqlParameterSource("accountId", accountId);
+        if (fromDate == null) {
+            jdbcTemplate.update("DELETE FROM account_daily_balances WHERE account_id = :accountId", params);
+        } else {
+            params.addValue("fromDate", Date.valueOf(fromDate));
+            jdbcTemplate.update("""
+                DELETE FROM account_daily_balances
+                WHERE account_id = :accountId AND balance_date >= :fromDate
+                """, params);
+        }
+
+        String insertSql = """
+            INSERT INTO account_daily_balances (account_id, balance_date, balance)
+            VALUES (:accountId, :balanceDate, :balance)
+            """;
+        MapSqlParameterSource[] batch = balances.stream()
+                .map(balance -> new MapSqlParameterSource()
+                        .addValue("accountId", accountId)
+                        .addValue("balanceDate", Date.valueOf(balance.date()))
+                        .addValue("balance", balance.balance()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(insertSql, batch);
+    }
+
+    /** Adds {@code delta} to every stored day before {@code beforeDate}. */
+    public int shiftBefore(Long accountId, LocalDate beforeDate, BigDecimal delta) {
+        String sql = """
+            UPDATE account_daily_balances SET balance = balance + :delta
+            WHERE account_id = :accountId AND balance_date < :beforeDate
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("beforeDate", Date.valueOf(beforeDate))
+                .addValue("delta", delta);
+        return jdbcTemplate.update(sql, params);
+    }
+
+    public record DailyBalance(LocalDate date, BigDecimal balance) {}
+
+    /**
+     * The reported balance and day the stored history was walked back from, the first stored
+     * day, and the ledger size and time it was computed at. {@code computedAt} is {@code null}
+     * until the first build.
+     */
+    public record HistoryState(LocalDate anchorDate, BigDecimal anchorBalance, LocalDate firstDate,
+                               long transactionCount, Instant computedAt) {}
+}
@@ -62,6 +62,11 @@ public class AccountRepository {
         return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
     }
 
+    public List<Long> findDistinctUserIdsWithActiveAccounts() {
+        String sql = "SELECT DISTINCT user_id FROM accounts WHERE is_active = true ORDER BY user_id";
+        return jdbcTemplate.queryForList(sql, new MapSqlParameterSource(), Long.class);
+    }
+
     public Optional<Account> findById(Long id) {
         String sql = "SELECT * FROM accounts WHERE id = :id";
         var params = new MapSqlParameterSource("id", id);
@@ -0,0 +1,79 @@
+package com.peter.budget.repository;
+
+import com.peter.budget.model.entity.NetWorthSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+@Repository
+@RequiredArgsConstructor
+public class NetWorthSnapshotRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<NetWorthSnapshot> ROW_MAPPER = (rs, rowNum) ->
+            NetWorthSnapshot.builder()
+                    .userId(rs.getLong("user_id"))
+                    .snapshotDate(rs.getDate("snapshot_date").toLocalDate())
+                    .totalAssets(rs.getBigDecimal("total_assets"))
+                    .totalLiabilities(rs.getBigDecimal("total_liabilities"))
+                    .netWorth(rs.getBigDecimal("net_worth"))
+                    .build();
+
+    public List<NetWorthSnapshot> findByUserIdBetween(Long userId, LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT * FROM net_worth_snapshots
+            WHERE user_id = :userId AND snapshot_date >= :startDate AND snapshot_date <= :endDate
+            ORDER BY snapshot_date
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("startDate", Date.valueOf(startDate))
+                .addValue("endDate", Date.valueOf(endDate));
+        return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
+    }
+
+    /**
+     * Writes the user's snapshot for its date, replacing one taken earlier that day. If two
+     * writers race to create the row, the loser's insert fails on the key and it updates instead.
+     */
+    public void upsert(NetWorthSnapshot snapshot) {
+        String updateSql = """
+            UPDATE net_worth_snapshots SET
+                total_assets = :totalAssets, total_liabilities = :totalLiabilities,
+                net_worth = :netWorth, updated_at = :now
+            WHERE user_id = :userId AND snapshot_date = :snapshotDate
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", snapshot.getUserId())
+                .addValue("snapshotDate", Date.valueOf(snapshot.getSnapshotDate()))
+                .addValue("totalAssets", snapshot.getTotalAssets())
+                .addValue("totalLiabilities", snapshot.getTotalLiabilities())
+                .addValue("netWorth", snapshot.getNetWorth())
+                .addValue("now", Timestamp.from(Instant.now()));
+        if (jdbcTemplate.update(updateSql, params) > 0) {
+            return;
+        }
+
+        String insertSql = """
+            INSERT INTO net_worth_snapshots (user_id, snapshot_date, total_assets, total_liabilities,
+                net_worth, created_at, updated_at)
+            VALUES (:userId, :snapshotDate, :totalAssets, :totalLiabilities, :netWorth, :now, :now)
+            """;
+        try {
+            jdbcTemplate.update(insertSql, params);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(updateSql, params);
+        }
+    }
+}
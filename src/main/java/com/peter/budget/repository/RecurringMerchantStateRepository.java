@@ -0,0 +1,196 @@
+package com.peter.budget.repository;
+
+import com.peter.budget.model.entity.RecurringMerchantState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class RecurringMerchantStateRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<RecurringMerchantState> ROW_MAPPER = (rs, rowNum) ->
+            RecurringMerchantState.builder()
+                    .id(rs.getLong("id"))
+                    .userId(rs.getLong("user_id"))
+                    .merchantKey(rs.getString("merchant_key"))
+                    .displayName(rs.getString("display_name"))
+                    .transactionCount(rs.getInt("transaction_count"))
+                    .amountSum(rs.getBigDecimal("amount_sum"))
+                    .amountMin(rs.getBigDecimal("amount_min"))
+                    .amountMax(rs.getBigDecimal("amount_max"))
+                    .firstPostedAt(rs.getTimestamp("first_posted_at").toInstant())
+                    .lastPostedAt(rs.getTimestamp("last_posted_at").toInstant())
+                    .categoryCounts(decodeCategoryCounts(rs.getString("category_counts")))
+                    .createdAt(rs.getTimestamp("created_at").toInstant())
+                    .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                    .build();
+
+    public List<RecurringMerchantState> findByUserIdAndMerchantKeys(Long userId, Collection<String> merchantKeys) {
+        if (merchantKeys.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+            SELECT * FROM recurring_merchant_states
+            WHERE user_id = :userId AND merchant_key IN (:merchantKeys)
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("merchantKeys", merchantKeys);
+        return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
+    }
+
+    public void deleteByUserId(Long userId) {
+        String sql = "DELETE FROM recurring_merchant_states WHERE user_id = :userId";
+        jdbcTemplate.update(sql, new MapSqlParameterSource("userId", userId));
+    }
+
+    /**
+     * Drops the user's merchant states and clears the last full rebuild, so the next detection
+     * run rebuilds from every transaction. Call it whenever transactions are deleted: the
+     * incremental path only folds in new ids and would otherwise keep counting deleted rows.
+     */
+    public void resetForUser(Long userId) {
+        deleteByUserId(userId);
+        String sql = """
+            UPDATE recurring_detection_cursors SET last_full_rebuild_at = NULL, updated_at = :now
+            WHERE user_id = :userId
+            """;
+        jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("now", Timestamp.from(Instant.now())));
+    }
+
+    public void saveAll(Collection<RecurringMerchantState> states) {
+        Instant now = Instant.now();
+        List<MapSqlParameterSource> inserts = states.stream()
+                .filter(state -> state.getId() == null)
+                .map(state -> buildParams(state, now))
+                .toList();
+        List<MapSqlParameterSource> updates = states.stream()
+                .filter(state -> state.getId() != null)
+                .map(state -> buildParams(state, now).addValue("id", state.getId()))
+                .toList();
+
+        if (!inserts.isEmpty()) {
+            String sql = """
+                INSERT INTO recurring_merchant_states (user_id, merchant_key, display_name, transaction_count,
+                    amount_sum, amount_min, amount_max, first_posted_at, last_posted_at, category_counts,
+                    created_at, updated_at)
+                VALUES (:userId, :merchantKey, :displayName, :transactionCount,
+                    :amountSum, :amountMin, :amountMax, :firstPostedAt, :lastPostedAt, :categoryCounts,
+                    :now, :now)
+                """;
+            jdbcTemplate.batchUpdate(sql, inserts.toArray(MapSqlParameterSource[]::new));
+        }
+        if (!updates.isEmpty()) {
+            String sql = """
+                UPDATE recurring_merchant_states SET
+                    display_name = :displayName, transaction_count = :transactionCount,
+                    amount_sum = :amountSum, amount_min = :amountMin, amount_max = :amountMax,
+                    first_posted_at = :firstPostedAt, last_posted_at = :lastPostedAt,
+                    category_counts = :categoryCounts, updated_at = :now
+                WHERE id = :id
+                """;
+            jdbcTemplate.batchUpdate(sql, updates.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    /**
+     * Creates the user's detection cursor if missing and locks it for the rest of the
+     * transaction, so concurrent detection runs for one user cannot fold the same
+     * transactions into the merchant states twice.
+     */
+    public DetectionCursor lockCursor(Long userId) {
+        String insertSql = """
+            INSERT INTO recurring_detection_cursors (user_id, last_transaction_id, updated_at)
+            SELECT :userId, 0, :now
+            WHERE NOT EXISTS (SELECT 1 FROM recurring_detection_cursors WHERE user_id = :userId)
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(insertSql, params);
+
+        String selectSql = """
+            SELECT last_transaction_id, last_full_rebuild_at FROM recurring_detection_cursors
+            WHERE user_id = :userId
+            FOR UPDATE
+            """;
+        return jdbcTemplate.queryForObject(selectSql, params, (rs, rowNum) -> {
+            Timestamp lastFullRebuild = rs.getTimestamp("last_full_rebuild_at");
+            return new DetectionCursor(
+                    rs.getLong("last_transaction_id"),
+                    lastFullRebuild != null ? lastFullRebuild.toInstant() : null
+            );
+        });
+    }
+
+    public void updateCursor(Long userId, DetectionCursor cursor) {
+        String sql = """
+            UPDATE recurring_detection_cursors SET
+                last_transaction_id = :lastTransactionId, last_full_rebuild_at = :lastFullRebuildAt,
+                updated_at = :now
+            WHERE user_id = :userId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("lastTransactionId", cursor.lastTransactionId())
+                .addValue("lastFullRebuildAt", cursor.lastFullRebuildAt() != null
+                        ? Timestamp.from(cursor.lastFullRebuildAt()) : null)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(sql, params);
+    }
+
+    private MapSqlParameterSource buildParams(RecurringMerchantState s, Instant now) {
+        return new MapSqlParameterSource()
+                .addValue("userId", s.getUserId())
+                .addValue("merchantKey", s.getMerchantKey())
+                .addValue("displayName", s.getDisplayName())
+                .addValue("transactionCount", s.getTransactionCount())
+                .addValue("amountSum", s.getAmountSum())
+                .addValue("amountMin", s.getAmountMin())
+                .addValue("amountMax", s.getAmountMax())
+                .addValue("firstPostedAt", Timestamp.from(s.getFirstPostedAt()))
+                .addValue("lastPostedAt", Timestamp.from(s.getLastPostedAt()))
+                .addValue("categoryCounts", encodeCategoryCounts(s.getCategoryCounts()))
+                .addValue("now", Timestamp.from(now));
+    }
+
+    // Stored as "categoryId:count,categoryId:count"; a merchant rarely spans more than a few categories.
+    static String encodeCategoryCounts(Map<Long, Integer> counts) {
+        if (counts == null || counts.isEmpty()) {
+            return null;
+        }
+        return counts.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    static Map<Long, Integer> decodeCategoryCounts(String encoded) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (encoded == null || encoded.isBlank()) {
+            return counts;
+        }
+        for (String entry : encoded.split(",")) {
+            int separator = entry.indexOf(':');
+            counts.put(Long.parseLong(entry.substring(0, separator)), Integer.parseInt(entry.substring(separator + 1)));
+        }
+        return counts;
+    }
+
+    public record DetectionCursor(long lastTransactionId, Instant lastFullRebuildAt) {}
+}
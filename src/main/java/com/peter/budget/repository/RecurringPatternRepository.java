@@ -13,8 +13,9 @@ import org.springframework.stereotype.Repository;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Objects;
 
@@ -63,26 +64,15 @@ public class RecurringPatternRepository {
         return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
     }
 
-    public List<RecurringPattern> findUpcomingBills(Long userId, LocalDate startDate, LocalDate endDate) {
+    public List<RecurringPattern> findActiveBillsByUserId(Long userId) {
         String sql = """
             SELECT * FROM recurring_patterns
             WHERE user_id = :userId AND is_active = true AND is_bill = true
-              AND next_expected_date BETWEEN :startDate AND :endDate
-            ORDER BY next_expected_date
             """;
-        var params = new MapSqlParameterSource()
-                .addValue("userId", userId)
-                .addValue("startDate", Date.valueOf(startDate))
-                .addValue("endDate", Date.valueOf(endDate));
+        var params = new MapSqlParameterSource("userId", userId);
         return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
     }
 
-    public List<RecurringPattern> findBillsForMonth(Long userId, int year, int month) {
-        LocalDate startOfMonth = LocalDate.of(year, month, 1);
-        LocalDate endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
-        return findUpcomingBills(userId, startOfMonth, endOfMonth);
-    }
-
     public Optional<RecurringPattern> findById(Long id) {
         String sql = "SELECT * FROM recurring_patterns WHERE id = :id";
         var params = new MapSqlParameterSource("id", id);
@@ -99,18 +89,6 @@ public class RecurringPatternRepository {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
-    public Optional<RecurringPattern> findByMerchantPattern(Long userId, String merchantPattern) {
-        String sql = """
-            SELECT * FROM recurring_patterns
-            WHERE user_id = :userId AND UPPER(merchant_pattern) = UPPER(:merchantPattern)
-            """;
-        var params = new MapSqlParameterSource()
-                .addValue("userId", userId)
-                .addValue("merchantPattern", merchantPattern);
-        var results = jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
-        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
-    }
-
     public RecurringPattern save(RecurringPattern pattern) {
         if (pattern.getId() == null) {
             return insert(pattern);
@@ -164,6 +142,67 @@ public class RecurringPatternRepository {
         return pattern;
     }
 
+    /**
+     * Batch-inserts new patterns and assigns their generated ids.
+     */
+    public void insertAll(Collection<RecurringPattern> patterns) {
+        if (patterns.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            INSERT INTO recurring_patterns (user_id, name, merchant_pattern, expected_amount,
+                amount_variance, frequency, day_of_week, day_of_month, next_expected_date,
+                category_id, is_bill, is_active, last_occurrence_at, created_at, updated_at)
+            VALUES (:userId, :name, :merchantPattern, :expectedAmount,
+                :amountVariance, :frequency, :dayOfWeek, :dayOfMonth, :nextExpectedDate,
+                :categoryId, :isBill, :isActive, :lastOccurrenceAt, :now, :now)
+            """;
+
+        Instant now = Instant.now();
+        List<RecurringPattern> ordered = List.copyOf(patterns);
+        MapSqlParameterSource[] batch = ordered.stream()
+                .map(pattern -> buildParams(pattern).addValue("now", Timestamp.from(now)))
+                .toArray(MapSqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(sql, batch, keyHolder, new String[]{"id"});
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < ordered.size(); i++) {
+            RecurringPattern pattern = ordered.get(i);
+            pattern.setId(((Number) keys.get(i).get("id")).longValue());
+            pattern.setCreatedAt(now);
+            pattern.setUpdatedAt(now);
+        }
+    }
+
+    public void updateAll(Collection<RecurringPattern> patterns) {
+        if (patterns.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            UPDATE recurring_patterns SET
+                name = :name, merchant_pattern = :merchantPattern, expected_amount = :expectedAmount,
+                amount_variance = :amountVariance, frequency = :frequency, day_of_week = :dayOfWeek,
+                day_of_month = :dayOfMonth, next_expected_date = :nextExpectedDate,
+                category_id = :categoryId, is_bill = :isBill, is_active = :isActive,
+                last_occurrence_at = :lastOccurrenceAt, updated_at = :now
+            WHERE id = :id
+            """;
+
+        Instant now = Instant.now();
+        MapSqlParameterSource[] batch = patterns.stream()
+                .map(pattern -> buildParams(pattern)
+                        .addValue("id", pattern.getId())
+                        .addValue("now", Timestamp.from(now)))
+                .toArray(MapSqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(sql, batch);
+        patterns.forEach(pattern -> pattern.setUpdatedAt(now));
+    }
+
     private MapSqlParameterSource buildParams(RecurringPattern p) {
         return new MapSqlParameterSource()
                 .addValue("userId", p.getUserId())
@@ -0,0 +1,64 @@
+package com.peter.budget.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Repository
+@RequiredArgsConstructor
+public class SchedulerLockRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the named lock until {@code lockedUntil} if nobody holds it at {@code now}.
+     * The conditional update is atomic on every database, so of several nodes firing
+     * the same schedule only one sees a changed row.
+     *
+     * @return {@code true} when this caller now holds the lock
+     */
+    public boolean tryAcquire(String lockName, String owner, Instant now, Instant lockedUntil) {
+        String updateSql = """
+            UPDATE scheduler_locks SET
+                locked_until = :lockedUntil, locked_at = :now, locked_by = :owner
+            WHERE lock_name = :lockName AND locked_until <= :now
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("lockName", lockName)
+                .addValue("owner", owner)
+                .addValue("now", Timestamp.from(now))
+                .addValue("lockedUntil", Timestamp.from(lockedUntil));
+        if (jdbcTemplate.update(updateSql, params) > 0) {
+            return true;
+        }
+
+        String insertSql = """
+            INSERT INTO scheduler_locks (lock_name, locked_until, locked_at, locked_by)
+            SELECT :lockName, :lockedUntil, :now, :owner
+            WHERE NOT EXISTS (SELECT 1 FROM scheduler_locks WHERE lock_name = :lockName)
+            """;
+        try {
+            return jdbcTemplate.update(insertSql, params) > 0;
+        } catch (DuplicateKeyException e) {
+            // Another node created the row first and therefore holds the lock.
+            return false;
+        }
+    }
+
+    public void release(String lockName, String owner, Instant lockedUntil) {
+        String sql = """
+            UPDATE scheduler_locks SET locked_until = :lockedUntil
+            WHERE lock_name = :lockName AND locked_by = :owner
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("lockName", lockName)
+                .addValue("owner", owner)
+                .addValue("lockedUntil", Timestamp.from(lockedUntil));
+        jdbcTemplate.update(sql, params);
+    }
+}
@@ -26,6 +26,8 @@ public class SimpleFinConnectionRepository {
     private static final RowMapper<SimpleFinConnection> ROW_MAPPER = (rs, rowNum) -> {
         Timestamp lastSync = rs.getTimestamp("last_sync_at");
         Timestamp requestsReset = rs.getTimestamp("requests_reset_at");
+        Timestamp lastNewData = rs.getTimestamp("last_new_data_at");
+        Timestamp nextSyncAfter = rs.getTimestamp("next_sync_after");
         return SimpleFinConnection.builder()
                 .id(rs.getLong("id"))
                 .userId(rs.getLong("user_id"))
@@ -40,6 +42,10 @@ public class SimpleFinConnectionRepository {
                 .errorMessage(rs.getString("error_message"))
                 .requestsToday(rs.getInt("requests_today"))
                 .requestsResetAt(requestsReset != null ? requestsReset.toInstant() : null)
+                .consecutiveEmptySyncs(rs.getInt("consecutive_empty_syncs"))
+                .consecutiveFailedSyncs(rs.getInt("consecutive_failed_syncs"))
+                .lastNewDataAt(lastNewData != null ? lastNewData.toInstant() : null)
+                .nextSyncAfter(nextSyncAfter != null ? nextSyncAfter.toInstant() : null)
                 .createdAt(rs.getTimestamp("created_at").toInstant())
                 .updatedAt(rs.getTimestamp("updated_at").toInstant())
                 .build();
@@ -51,6 +57,11 @@ public class SimpleFinConnectionRepository {
         return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
     }
 
+    public List<Long> findDistinctUserIds() {
+        String sql = "SELECT DISTINCT user_id FROM simplefin_connections ORDER BY user_id";
+        return jdbcTemplate.queryForList(sql, new MapSqlParameterSource(), Long.class);
+    }
+
     public Optional<SimpleFinConnection> findById(Long id) {
         String sql = "SELECT * FROM simplefin_connections WHERE id = :id";
         var params = new MapSqlParameterSource("id", id);
@@ -67,12 +78,21 @@ public class SimpleFinConnectionRepository {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
+    /**
+     * Connections whose planned next sync time has passed (or that have no plan yet and
+     * were last synced over four hours ago). Connections that recently yielded new data
+     * come first, so they get the remaining quota ahead of idle ones.
+     */
     public List<SimpleFinConnection> findDueForSync() {
         String sql = """
             SELECT * FROM simplefin_connections
             WHERE sync_status != 'IN_PROGRESS'
-              AND (last_sync_at IS NULL OR last_sync_at < :fourHoursAgo)
+              AND (
+                  (next_sync_after IS NULL AND (last_sync_at IS NULL OR last_sync_at < :fourHoursAgo))
+                  OR next_sync_after <= :now
+              )
               AND (requests_today < 24 OR requests_reset_at < :now)
+            ORDER BY consecutive_empty_syncs, last_sync_at NULLS FIRST, id
             """;
         Instant now = Instant.now();
         var params = new MapSqlParameterSource()
@@ -94,11 +114,13 @@ public class SimpleFinConnectionRepository {
                 initial_sync_completed,
                 backfill_cursor_date,
                 last_sync_at, sync_status, error_message, requests_today, requests_reset_at,
+                consecutive_empty_syncs, consecutive_failed_syncs, last_new_data_at, next_sync_after,
                 created_at, updated_at)
             VALUES (:userId, :accessUrlEncrypted, :institutionName,
                 :initialSyncCompleted,
                 :backfillCursorDate,
                 :lastSyncAt, :syncStatus, :errorMessage, :requestsToday, :requestsResetAt,
+                :consecutiveEmptySyncs, :consecutiveFailedSyncs, :lastNewDataAt, :nextSyncAfter,
                 :createdAt, :updatedAt)
             """;
 
@@ -117,6 +139,8 @@ public class SimpleFinConnectionRepository {
         return connection;
     }
 
+    // Request counters are owned by tryReserveRequest and deliberately not written here,
+    // so saving a connection loaded before a concurrent sync cannot roll its quota back.
     private SimpleFinConnection update(SimpleFinConnection connection) {
         String sql = """
             UPDATE simplefin_connections SET
@@ -124,7 +148,8 @@ public class SimpleFinConnectionRepository {
                 initial_sync_completed = :initialSyncCompleted,
                 backfill_cursor_date = :backfillCursorDate,
                 last_sync_at = :lastSyncAt, sync_status = :syncStatus, error_message = :errorMessage,
-                requests_today = :requestsToday, requests_reset_at = :requestsResetAt,
+                consecutive_empty_syncs = :consecutiveEmptySyncs, consecutive_failed_syncs = :consecutiveFailedSyncs,
+                last_new_data_at = :lastNewDataAt, next_sync_after = :nextSyncAfter,
                 updated_at = :updatedAt
             WHERE id = :id
             """;
@@ -153,10 +178,36 @@ public class SimpleFinConnectionRepository {
                 .addValue("errorMessage", c.getErrorMessage())
                 .addValue("requestsToday", c.getRequestsToday())
                 .addValue("requestsResetAt", c.getRequestsResetAt() != null ?
-                        Timestamp.from(c.getRequestsResetAt()) : null);
+                        Timestamp.from(c.getRequestsResetAt()) : null)
+                .addValue("consecutiveEmptySyncs", c.getConsecutiveEmptySyncs())
+                .addValue("consecutiveFailedSyncs", c.getConsecutiveFailedSyncs())
+                .addValue("lastNewDataAt", c.getLastNewDataAt() != null ?
+                        Timestamp.from(c.getLastNewDataAt()) : null)
+                .addValue("nextSyncAfter", c.getNextSyncAfter() != null ?
+                        Timestamp.from(c.getNextSyncAfter()) : null);
     }
 
-    public void incrementRequestCount(Long id) {
+    public void updateInstitutionName(Long id, String institutionName) {
+        String sql = """
+            UPDATE simplefin_connections SET institution_name = :institutionName, updated_at = :now
+            WHERE id = :id
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("institutionName", institutionName)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Reserves one SimpleFIN request against the connection's daily budget in a single
+     * conditional update. The counter resets once {@code requests_reset_at} has passed.
+     * Concurrent callers cannot both take the last slot, because the row lock serializes
+     * them and the second caller re-checks the {@code WHERE} clause.
+     *
+     * @return {@code true} if a request slot was reserved
+     */
+    public boolean tryReserveRequest(Long id, int maxDailyRequests) {
         Instant now = Instant.now();
         Instant tomorrow = now.plusSeconds(24 * 60 * 60);
 
@@ -174,13 +225,23 @@ public class SimpleFinConnectionRepository {
                 END,
                 updated_at = :now
             WHERE id = :id
+              AND (requests_reset_at IS NULL OR requests_reset_at < :now OR requests_today < :maxDailyRequests)
             """;
 
         var params = new MapSqlParameterSource()
                 .addValue("id", id)
+                .addValue("maxDailyRequests", maxDailyRequests)
                 .addValue("now", Timestamp.from(now))
                 .addValue("tomorrow", Timestamp.from(tomorrow));
-        jdbcTemplate.update(sql, params);
+        return jdbcTemplate.update(sql, params) > 0;
+    }
+
+    public Optional<Instant> findRequestsResetAt(Long id) {
+        String sql = "SELECT requests_reset_at FROM simplefin_connections WHERE id = :id";
+        var results = jdbcTemplate.queryForList(sql, new MapSqlParameterSource("id", id), Timestamp.class);
+        return results.isEmpty() || results.get(0) == null
+                ? Optional.empty()
+                : Optional.of(results.get(0).toInstant());
     }
 
     public void deleteById(Long id) {
@@ -0,0 +1,457 @@
+package com.peter.budget.repository;
+
+import com.peter.budget.model.entity.SyncJob;
+import com.peter.budget.model.enums.SyncJobStatus;
+import com.peter.budget.model.enums.SyncJobType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class SyncJobRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<SyncJob> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp lockedAt = rs.getTimestamp("locked_at");
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        return SyncJob.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getLong("user_id"))
+                .connectionId(rs.getObject("connection_id", Long.class))
+                .jobType(SyncJobType.valueOf(rs.getString("job_type")))
+                .status(SyncJobStatus.valueOf(rs.getString("status")))
+                .fullSync(rs.getBoolean("full_sync"))
+                .attempts(rs.getInt("attempts"))
+                .runAfter(rs.getTimestamp("run_after").toInstant())
+                .lockedBy(rs.getString("locked_by"))
+                .lockedAt(lockedAt != null ? lockedAt.toInstant() : null)
+                .progressMessage(rs.getString("progress_message"))
+                .accountsSynced(rs.getInt("accounts_synced"))
+                .transactionsAdded(rs.getInt("transactions_added"))
+                .transactionsUpdated(rs.getInt("transactions_updated"))
+                .writesSkipped(rs.getInt("writes_skipped"))
+                .resultMessage(rs.getString("result_message"))
+                .errorMessage(rs.getString("error_message"))
+                .startedAt(startedAt != null ? startedAt.toInstant() : null)
+                .finishedAt(finishedAt != null ? finishedAt.toInstant() : null)
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .build();
+    };
+
+    public Optional<SyncJob> findById(Long id) {
+        String sql = "SELECT * FROM sync_jobs WHERE id = :id";
+        var params = new MapSqlParameterSource("id", id);
+        var results = jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    public Optional<SyncJob> findByIdAndUserId(Long id, Long userId) {
+        String sql = "SELECT * FROM sync_jobs WHERE id = :id AND user_id = :userId";
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("userId", userId);
+        var results = jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    public List<SyncJob> findRecentByConnectionId(Long connectionId, int limit) {
+        String sql = """
+            SELECT * FROM sync_jobs
+            WHERE connection_id = :connectionId
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("connectionId", connectionId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
+    }
+
+    /**
+     * Returns the queued or running job of the given type for a connection, if any.
+     */
+    public Optional<SyncJob> findActiveByConnectionId(Long connectionId, SyncJobType jobType) {
+        String sql = """
+            SELECT * FROM sync_jobs
+            WHERE connection_id = :connectionId
+              AND job_type = :jobType
+              AND status IN ('QUEUED', 'RUNNING')
+            ORDER BY id
+            LIMIT 1
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("connectionId", connectionId)
+                .addValue("jobType", jobType.name());
+        var results = jdbcTemplate.query(sql, params, Objects.requireNonNull(ROW_MAPPER));
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+
+    /**
+     * Lets a queued job that is waiting for a later {@code run_after} be claimed right away.
+     */
+    public void runNow(Long id) {
+        String sql = """
+            UPDATE sync_jobs SET run_after = :now, updated_at = :now
+            WHERE id = :id AND status = 'QUEUED' AND run_after > :now
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(sql, params);
+    }
+
+    public boolean hasActiveJob(Long userId, SyncJobType jobType) {
+        String sql = """
+            SELECT COUNT(*) FROM sync_jobs
+            WHERE user_id = :userId
+              AND job_type = :jobType
+              AND status IN ('QUEUED', 'RUNNING')
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("jobType", jobType.name());
+        Integer count = jdbcTemplate.queryForObject(sql, params, Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Inserts a queued job.
+     *
+     * @throws DuplicateKeyException when an identical job is already active (see {@link #activeKey})
+     */
+    public SyncJob insert(SyncJob job) {
+        String sql = """
+            INSERT INTO sync_jobs (user_id, connection_id, job_type, status, full_sync, attempts,
+                                   run_after, active_key, created_at, updated_at)
+            VALUES (:userId, :connectionId, :jobType, 'QUEUED', :fullSync, 0, :runAfter, :activeKey, :now, :now)
+            """;
+        Instant now = Instant.now();
+        Instant runAfter = job.getRunAfter() != null ? job.getRunAfter() : now;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", job.getUserId())
+                .addValue("connectionId", job.getConnectionId())
+                .addValue("jobType", job.getJobType().name())
+                .addValue("fullSync", job.isFullSync())
+                .addValue("runAfter", Timestamp.from(runAfter))
+                .addValue("activeKey", activeKey(job.getJobType(), job.getUserId(), job.getConnectionId()))
+                .addValue("now", Timestamp.from(now));
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(sql, params, keyHolder, new String[]{"id"});
+        job.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        job.setStatus(SyncJobStatus.QUEUED);
+        job.setAttempts(0);
+        job.setRunAfter(runAfter);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return job;
+    }
+
+    /**
+     * Inserts a queued job unless an identical one (same user, connection and type)
+     * is already waiting, so back-to-back syncs collapse into a single run. The unique
+     * {@code active_key} catches callers that race past the {@code NOT EXISTS} check.
+     *
+     * @return {@code true} when a new row was inserted
+     */
+    public boolean enqueueIfAbsent(Long userId, Long connectionId, SyncJobType jobType) {
+        String connectionFilter = connectionId != null
+                ? "connection_id = :connectionId"
+                : "connection_id IS NULL";
+        String sql = """
+            INSERT INTO sync_jobs (user_id, connection_id, job_type, status, attempts, run_after,
+                                   active_key, created_at, updated_at)
+            SELECT :userId, :connectionId, :jobType, 'QUEUED', 0, :now, :activeKey, :now, :now
+            WHERE NOT EXISTS (
+                SELECT 1 FROM sync_jobs
+                WHERE user_id = :userId
+                  AND job_type = :jobType
+                  AND status = 'QUEUED'
+                  AND %s
+            )
+            """.formatted(connectionFilter);
+
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("connectionId", connectionId)
+                .addValue("jobType", jobType.name())
+                .addValue("activeKey", activeKey(jobType, userId, connectionId))
+                .addValue("now", Timestamp.from(Instant.now()));
+        try {
+            return jdbcTemplate.update(sql, params) > 0;
+        } catch (DuplicateKeyException e) {
+            // A concurrent caller queued the same job first.
+            return false;
+        }
+    }
+
+    // A connection sync spends SimpleFIN quota, so only one may be queued or running per
+    // connection; its key is held until the job finishes. Other jobs hold theirs only
+    // while queued (claimRunnable clears it), so work can still queue behind a running copy,
+    // and take it back when they are requeued.
+    static String activeKey(SyncJobType jobType, Long userId, Long connectionId) {
+        if (jobType == SyncJobType.CONNECTION_SYNC) {
+            return jobType.name() + ":" + connectionId;
+        }
+        return jobType.name() + ":" + userId + ":" + (connectionId != null ? connectionId : "-");
+    }
+
+    /**
+     * Locks up to {@code limit} runnable jobs and marks them as running for the given worker.
+     * Rows already locked by another worker are skipped, so concurrent pollers never
+     * claim the same job. Must be called inside a transaction.
+     */
+    public List<SyncJob> claimRunnable(String workerId, int limit) {
+        String selectSql = """
+            SELECT id FROM sync_jobs
+            WHERE status = 'QUEUED' AND run_after <= :now
+            ORDER BY run_after, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+
+        Instant now = Instant.now();
+        var selectParams = new MapSqlParameterSource()
+                .addValue("now", Timestamp.from(now))
+                .addValue("limit", limit);
+        List<Long> ids = jdbcTemplate.queryForList(selectSql, selectParams, Long.class);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String updateSql = """
+            UPDATE sync_jobs SET
+                status = 'RUNNING',
+                attempts = attempts + 1,
+                active_key = CASE WHEN job_type = 'CONNECTION_SYNC' THEN active_key END,
+                locked_by = :workerId,
+                locked_at = :now,
+                started_at = :now,
+                updated_at = :now
+            WHERE id IN (:ids)
+            """;
+        var updateParams = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("workerId", workerId)
+                .addValue("now", Timestamp.from(now));
+        jdbcTemplate.update(updateSql, updateParams);
+
+        String reloadSql = "SELECT * FROM sync_jobs WHERE id IN (:ids) ORDER BY run_after, id";
+        return jdbcTemplate.query(reloadSql, new MapSqlParameterSource("ids", ids), Objects.requireNonNull(ROW_MAPPER));
+    }
+
+    /**
+     * Stores the latest progress of a running job. Also refreshes {@code locked_at}
+     * so long-running syncs keep their lease and are not requeued as stale. Only the
+     * worker holding the lease can write, so a worker whose lease expired cannot
+     * overwrite the progress of the run that replaced it.
+     */
+    public void recordProgress(Long id, String workerId, String message, int accountsSynced, int transactionsAdded) {
+        String sql = """
+            UPDATE sync_jobs SET
+                progress_message = :message, accounts_synced = :accountsSynced,
+                transactions_added = :transactionsAdded, locked_at = :now, updated_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND locked_by = :workerId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("workerId", workerId)
+                .addValue("message", message)
+                .addValue("accountsSynced", accountsSynced)
+                .addValue("transactionsAdded", transactionsAdded)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(sql, params);
+    }
+
+    public void recordResult(Long id, String workerId, int accountsSynced, int transactionsAdded,
+                             int transactionsUpdated, int writesSkipped, String resultMessage) {
+        String sql = """
+            UPDATE sync_jobs SET
+                accounts_synced = :accountsSynced, transactions_added = :transactionsAdded,
+                transactions_updated = :transactionsUpdated, writes_skipped = :writesSkipped,
+                result_message = :resultMessage, progress_message = NULL, updated_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND locked_by = :workerId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("workerId", workerId)
+                .addValue("accountsSynced", accountsSynced)
+                .addValue("transactionsAdded", transactionsAdded)
+                .addValue("transactionsUpdated", transactionsUpdated)
+                .addValue("writesSkipped", writesSkipped)
+                .addValue("resultMessage", resultMessage)
+                .addValue("now", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Extends the lease on every job the worker is still running, whatever its type.
+     *
+     * @return the number of leases extended
+     */
+    public int heartbeat(String workerId) {
+        String sql = """
+            UPDATE sync_jobs SET locked_at = :now, updated_at = :now
+            WHERE status = 'RUNNING' AND locked_by = :workerId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("workerId", workerId)
+                .addValue("now", Timestamp.from(Instant.now()));
+        return jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * The status updates below only apply while the given worker still holds the
+     * job's lease. They return {@code false} when the lease expired and the job was
+     * requeued or claimed by another worker, which then owns its status.
+     */
+    public boolean markSucceeded(Long id, String workerId) {
+        String sql = """
+            UPDATE sync_jobs SET
+                status = 'SUCCEEDED', locked_by = NULL, locked_at = NULL, active_key = NULL,
+                error_message = NULL,
+                finished_at = :now, updated_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND locked_by = :workerId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("workerId", workerId)
+                .addValue("now", Timestamp.from(Instant.now()));
+        return jdbcTemplate.update(sql, params) > 0;
+    }
+
+    /**
+     * Requeues the job for another attempt. When an identical job was queued while this
+     * one ran, that job already covers the retry and this one is failed instead.
+     */
+    public boolean markForRetry(SyncJob job, Instant runAfter, String errorMessage) {
+        var params = new MapSqlParameterSource()
+                .addValue("workerId", job.getLockedBy())
+                .addValue("runAfter", Timestamp.from(runAfter))
+                .addValue("errorMessage", errorMessage);
+        return requeue(job, "locked_by = :workerId", params)
+                || supersede(job, "locked_by = :workerId", params);
+    }
+
+    public boolean markFailed(Long id, String workerId, String errorMessage) {
+        String sql = """
+            UPDATE sync_jobs SET
+                status = 'FAILED', locked_by = NULL, locked_at = NULL, active_key = NULL,
+                error_message = :errorMessage,
+                finished_at = :now, updated_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND locked_by = :workerId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("workerId", workerId)
+                .addValue("errorMessage", errorMessage)
+                .addValue("now", Timestamp.from(Instant.now()));
+        return jdbcTemplate.update(sql, params) > 0;
+    }
+
+    /**
+     * Fails jobs whose worker stopped heartbeating (crash, redeploy) on their last
+     * allowed attempt. Each claim counts as an attempt, so a job that keeps taking its
+     * worker down is not handed out forever.
+     */
+    public int failStale(Instant lockedBefore, int maxAttempts, String errorMessage) {
+        String sql = """
+            UPDATE sync_jobs SET
+                status = 'FAILED', locked_by = NULL, locked_at = NULL, active_key = NULL,
+                error_message = :errorMessage,
+                finished_at = :now, updated_at = :now
+            WHERE status = 'RUNNING' AND locked_at < :lockedBefore AND attempts >= :maxAttempts
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("lockedBefore", Timestamp.from(lockedBefore))
+                .addValue("maxAttempts", maxAttempts)
+                .addValue("errorMessage", errorMessage)
+                .addValue("now", Timestamp.from(Instant.now()));
+        return jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Returns jobs left in {@code RUNNING} by a worker that stopped heartbeating
+     * (crash, redeploy) to the queue so another worker can pick them up. A job whose
+     * identical copy was queued in the meantime is failed instead.
+     *
+     * @return the number of jobs requeued
+     */
+    public int requeueStale(Instant lockedBefore) {
+        String sql = "SELECT * FROM sync_jobs WHERE status = 'RUNNING' AND locked_at < :lockedBefore ORDER BY id";
+        List<SyncJob> stale = jdbcTemplate.query(sql,
+                new MapSqlParameterSource("lockedBefore", Timestamp.from(lockedBefore)),
+                Objects.requireNonNull(ROW_MAPPER));
+
+        int requeued = 0;
+        for (SyncJob job : stale) {
+            var params = new MapSqlParameterSource()
+                    .addValue("lockedBefore", Timestamp.from(lockedBefore))
+                    .addValue("runAfter", Timestamp.from(job.getRunAfter()))
+                    .addValue("errorMessage", job.getErrorMessage());
+            if (requeue(job, "locked_at < :lockedBefore", params)) {
+                requeued++;
+            } else {
+                params.addValue("errorMessage", "Worker lease expired; an identical job is already queued");
+                supersede(job, "locked_at < :lockedBefore", params);
+            }
+        }
+        return requeued;
+    }
+
+    // Requeued jobs take back the active_key that claimRunnable cleared (connection syncs
+    // never gave theirs up), unless an identical job has been queued under it meanwhile.
+    private boolean requeue(SyncJob job, String guard, MapSqlParameterSource params) {
+        params.addValue("id", job.getId())
+                .addValue("activeKey", activeKey(job.getJobType(), job.getUserId(), job.getConnectionId()))
+                .addValue("now", Timestamp.from(Instant.now()));
+        String sql = """
+            UPDATE sync_jobs SET
+                status = 'QUEUED', locked_by = NULL, locked_at = NULL, active_key = :activeKey,
+                error_message = :errorMessage, run_after = :runAfter, updated_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND %s
+              AND NOT EXISTS (
+                  SELECT 1 FROM sync_jobs queued WHERE queued.active_key = :activeKey AND queued.id <> :id
+              )
+            """.formatted(guard);
+        return jdbcTemplate.update(sql, params) > 0;
+    }
+
+    // The identical queued job will do the work, so this one finishes without a retry.
+    private boolean supersede(SyncJob job, String guard, MapSqlParameterSource params) {
+        params.addValue("id", job.getId())
+                .addValue("now", Timestamp.from(Instant.now()));
+        String sql = """
+            UPDATE sync_jobs SET
+                status = 'FAILED', locked_by = NULL, locked_at = NULL, active_key = NULL,
+                error_message = :errorMessage,
+                finished_at = :now, updated_at = :now
+            WHERE id = :id AND status = 'RUNNING' AND %s
+            """.formatted(guard);
+        return jdbcTemplate.update(sql, params) > 0;
+    }
+
+    public int deleteFinishedBefore(Instant cutoff) {
+        String sql = """
+            DELETE FROM sync_jobs
+            WHERE status IN ('SUCCEEDED', 'FAILED') AND finished_at < :cutoff
+            """;
+        var params = new MapSqlParameterSource("cutoff", Timestamp.from(cutoff));
+        return jdbcTemplate.update(sql, params);
+    }
+}
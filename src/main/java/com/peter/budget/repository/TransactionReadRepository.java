@@ -11,10 +11,15 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Objects;
+import java.util.TreeMap;
 
 @Repository
 @RequiredArgsConstructor
@@ -39,6 +44,54 @@ public class TransactionReadRepository {
         return jdbcTemplate.query(sql, params, Objects.requireNonNull(TransactionRowMappers.TRANSACTION_ROW_MAPPER));
     }
 
+    /**
+     * Transactions on the user's active accounts with an id above {@code afterId}, in
+     * insertion order. Used to feed only new rows into incremental recurring detection.
+     */
+    public List<Transaction> findByActiveAccountsAfterId(Long userId, long afterId) {
+        String sql = """
+            SELECT t.* FROM transactions t
+            JOIN accounts a ON t.account_id = a.id
+            WHERE a.user_id = :userId AND a.is_active = true AND t.id > :afterId
+            ORDER BY t.id
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("afterId", afterId);
+        return jdbcTemplate.query(sql, params, Objects.requireNonNull(TransactionRowMappers.TRANSACTION_ROW_MAPPER));
+    }
+
+    public List<String> findDistinctDescriptionsByActiveAccountsThroughId(Long userId, long throughId) {
+        String sql = """
+            SELECT DISTINCT t.description FROM transactions t
+            JOIN accounts a ON t.account_id = a.id
+            WHERE a.user_id = :userId AND a.is_active = true AND t.id <= :throughId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("throughId", throughId);
+        return jdbcTemplate.queryForList(sql, params, String.class);
+    }
+
+    public List<Transaction> findByActiveAccountsAndDescriptionsThroughId(Long userId, Collection<String> descriptions,
+                                                                          long throughId) {
+        if (descriptions.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+            SELECT t.* FROM transactions t
+            JOIN accounts a ON t.account_id = a.id
+            WHERE a.user_id = :userId AND a.is_active = true
+              AND t.id <= :throughId AND t.description IN (:descriptions)
+            ORDER BY t.id
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("throughId", throughId)
+                .addValue("descriptions", descriptions);
+        return jdbcTemplate.query(sql, params, Objects.requireNonNull(TransactionRowMappers.TRANSACTION_ROW_MAPPER));
+    }
+
     public List<Transaction> findByUserIdWithFilters(Long userId, boolean includeTransfers,
                                                       LocalDate startDate, LocalDate endDate,
                                                       String descriptionQuery,
@@ -116,17 +169,55 @@ public class TransactionReadRepository {
         return jdbcTemplate.query(Objects.requireNonNull(sql.toString()), params, Objects.requireNonNull(TransactionRowMappers.TRANSACTION_ROW_MAPPER));
     }
 
-    public List<Transaction> findTransfersByUserId(Long userId) {
-        String sql = """
-            SELECT t.* FROM transactions t
-            JOIN accounts a ON t.account_id = a.id
-            WHERE a.user_id = :userId AND t.is_internal_transfer = true
-            ORDER BY t.posted_at DESC
-            """;
+    /**
+     * Linked transfer pairs with both legs and both account names in one query. Each pair is
+     * returned once, from its outgoing leg, newest first; the date range applies to that leg.
+     */
+    public List<TransferPairRow> findTransferPairsByUserId(Long userId, LocalDate startDate, LocalDate endDate,
+                                                           int limit, int offset) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT f.id AS from_id, fa.name AS from_account_name,
+                   t.id AS to_id, ta.name AS to_account_name,
+                   ABS(f.amount) AS amount, f.posted_at, f.description
+            FROM transactions f
+            JOIN accounts fa ON fa.id = f.account_id
+            JOIN transactions t ON t.id = f.transfer_pair_id
+            JOIN accounts ta ON ta.id = t.account_id
+            WHERE fa.user_id = :userId
+              AND ta.user_id = :userId
+              AND (f.is_internal_transfer = true OR t.is_internal_transfer = true)
+              AND (f.amount < t.amount OR (f.amount = t.amount AND f.id < t.id))
+            """);
         var params = new MapSqlParameterSource("userId", userId);
-        return jdbcTemplate.query(sql, params, Objects.requireNonNull(TransactionRowMappers.TRANSACTION_ROW_MAPPER));
+
+        if (startDate != null) {
+            sql.append(" AND f.posted_at >= :startDate");
+            params.addValue("startDate", Timestamp.from(startDate.atStartOfDay().toInstant(ZoneOffset.UTC)));
+        }
+        if (endDate != null) {
+            sql.append(" AND f.posted_at < :endDate");
+            params.addValue("endDate", Timestamp.from(endDate.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC)));
+        }
+
+        sql.append(" ORDER BY f.posted_at DESC, f.id DESC LIMIT :limit OFFSET :offset");
+        params.addValue("limit", limit);
+        params.addValue("offset", offset);
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new TransferPairRow(
+                rs.getLong("from_id"),
+                rs.getString("from_account_name"),
+                rs.getLong("to_id"),
+                rs.getString("to_account_name"),
+                rs.getBigDecimal("amount"),
+                rs.getTimestamp("posted_at").toInstant(),
+                rs.getString("description")
+        ));
     }
 
+    public record TransferPairRow(Long fromTransactionId, String fromAccountName,
+                                  Long toTransactionId, String toAccountName,
+                                  BigDecimal amount, Instant postedAt, String description) {}
+
     public List<Transaction> findByUserIdAndCategorizationRuleId(Long userId, Long ruleId, int limit, int offset) {
         String sql = """
             SELECT t.* FROM transactions t
@@ -151,6 +242,20 @@ public class TransactionReadRepository {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
 
+    /** Account id of each given transaction, keyed by transaction id. Missing ids are left out. */
+    public Map<Long, Long> findAccountIdsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        String sql = "SELECT id, account_id FROM transactions WHERE id IN (:ids)";
+        var params = new MapSqlParameterSource("ids", ids);
+        Map<Long, Long> accountIds = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            accountIds.put(rs.getLong("id"), rs.getLong("account_id"));
+        });
+        return accountIds;
+    }
+
     public Optional<Transaction> findByIdAndUserId(Long id, Long userId) {
         String sql = """
             SELECT t.* FROM transactions t
@@ -222,6 +327,83 @@ public class TransactionReadRepository {
         return ts.toInstant().atZone(ZoneOffset.UTC).toLocalDate();
     }
 
+    // CAST(posted_at AS DATE) would cut days in the session time zone; posted dates are UTC
+    // days everywhere else, so instants are read back and cut in Java.
+    public List<LocalDate> findDistinctPostedDatesByConnectionId(Long connectionId, LocalDate since) {
+        String sql = """
+            SELECT DISTINCT t.posted_at FROM transactions t
+            JOIN accounts a ON t.account_id = a.id
+            WHERE a.connection_id = :connectionId AND t.posted_at >= :since
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("connectionId", connectionId)
+                .addValue("since", Timestamp.from(since.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        return jdbcTemplate.queryForList(sql, params, Timestamp.class).stream()
+                .map(ts -> ts.toInstant().atZone(ZoneOffset.UTC).toLocalDate())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Net amount posted per UTC day for one account, for days after {@code afterDate} (or all
+     * days when it is {@code null}) through {@code throughDate}. Rows are summed per posted
+     * instant in SQL and per day in Java, so the day boundary does not depend on the session
+     * time zone.
+     */
+    public NavigableMap<LocalDate, BigDecimal> sumDailyAmountsByAccountId(Long accountId, LocalDate afterDate,
+                                                                      LocalDate throughDate) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT posted_at, SUM(amount) AS net_amount
+            FROM transactions
+            WHERE account_id = :accountId AND posted_at < :throughEnd
+            """);
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("throughEnd", Timestamp.from(throughDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        if (afterDate != null) {
+            sql.append(" AND posted_at >= :afterEnd");
+            params.addValue("afterEnd", Timestamp.from(afterDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        }
+        sql.append(" GROUP BY posted_at");
+
+        NavigableMap<LocalDate, BigDecimal> amounts = new TreeMap<>();
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            LocalDate postedDate = rs.getTimestamp("posted_at").toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+            amounts.merge(postedDate, rs.getBigDecimal("net_amount"), BigDecimal::add);
+        });
+        return amounts;
+    }
+
+    /**
+     * How an account's ledger changed since {@code since}: its current size, how many rows were
+     * added, and the earliest posted day among rows added or edited. A size that does not match
+     * the previous size plus the added rows means rows were deleted.
+     */
+    public LedgerChanges findLedgerChangesByAccountId(Long accountId, Instant since) {
+        String sql = """
+            SELECT
+                COUNT(*) AS total_count,
+                COALESCE(SUM(CASE WHEN created_at > :since THEN 1 ELSE 0 END), 0) AS added_count,
+                MIN(CASE WHEN updated_at > :since THEN posted_at END) AS changed_from
+            FROM transactions
+            WHERE account_id = :accountId
+            """;
+        var params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("since", Timestamp.from(since));
+        return jdbcTemplate.queryForObject(sql, params, (rs, rowNum) -> {
+            Timestamp changedFrom = rs.getTimestamp("changed_from");
+            return new LedgerChanges(
+                    rs.getLong("total_count"),
+                    rs.getLong("added_count"),
+                    changedFrom != null ? changedFrom.toInstant().atZone(ZoneOffset.UTC).toLocalDate() : null
+            );
+        });
+    }
+
+    public record LedgerChanges(long totalCount, long addedCount, LocalDate changedFrom) {}
+
     public TransactionCoverageStats getCoverageByUserId(Long userId) {
         String sql = """
             SELECT
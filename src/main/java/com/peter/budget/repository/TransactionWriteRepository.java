@@ -10,7 +10,10 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Repository
@@ -135,6 +138,47 @@ public class TransactionWriteRepository {
         jdbcTemplate.update(sql, params);
     }
 
+    /**
+     * Marks transactions as occurrences of their detected recurring pattern, with one
+     * set-based update per pattern. Rows already pointing at the same pattern are not
+     * rewritten. {@code updated_at} is left alone: the link is derived metadata, not an
+     * edit, and balance history treats a newer {@code updated_at} as a changed amount.
+     */
+    public void linkRecurringPatterns(Map<Long, Long> patternIdByTransactionId) {
+        if (patternIdByTransactionId.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            UPDATE transactions SET
+                recurring_pattern_id = :patternId,
+                is_recurring = true
+            WHERE id IN (:ids)
+              AND (recurring_pattern_id IS NULL OR recurring_pattern_id <> :patternId OR is_recurring = false)
+            """;
+
+        Map<Long, List<Long>> transactionIdsByPatternId = new LinkedHashMap<>();
+        patternIdByTransactionId.forEach((transactionId, patternId) ->
+                transactionIdsByPatternId.computeIfAbsent(patternId, id -> new ArrayList<>()).add(transactionId));
+        transactionIdsByPatternId.forEach((patternId, transactionIds) -> {
+            var params = new MapSqlParameterSource()
+                    .addValue("patternId", patternId)
+                    .addValue("ids", transactionIds);
+            jdbcTemplate.update(sql, params);
+        });
+    }
+
+    public void unlinkRecurringPattern(Long patternId) {
+        String sql = """
+            UPDATE transactions SET
+                recurring_pattern_id = NULL,
+                is_recurring = false
+            WHERE recurring_pattern_id = :patternId
+            """;
+        var params = new MapSqlParameterSource("patternId", patternId);
+        jdbcTemplate.update(sql, params);
+    }
+
     public void clearCategoryForUserAndCategoryIds(Long userId, List<Long> categoryIds, Long uncategorizedCategoryId) {
         if (categoryIds == null || categoryIds.isEmpty()) {
             return;
@@ -0,0 +1,50 @@
+package com.peter.budget.scheduler;
+
+import com.peter.budget.repository.SchedulerLockRepository;
+import com.peter.budget.service.profiling.QueryProfiler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database-backed lock that lets each scheduled job run on a single node when
+ * several replicas share the same database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final QueryProfiler queryProfiler;
+
+    private final String nodeId = "node-" + UUID.randomUUID();
+
+    /**
+     * Runs {@code task} only if the named lock is free. The lock expires after
+     * {@code lockAtMostFor} even if this node dies mid-run, and is held for at least
+     * {@code lockAtLeastFor} so nodes whose clocks fire slightly later skip the run.
+     *
+     * @return {@code true} if the task ran on this node
+     */
+    public boolean runExclusively(String lockName, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task) {
+        Instant startedAt = Instant.now();
+        if (!lockRepository.tryAcquire(lockName, nodeId, startedAt, startedAt.plus(lockAtMostFor))) {
+            log.debug("Skipping {}: lock held by another node", lockName);
+            return false;
+        }
+
+        try {
+            queryProfiler.profile("scheduler", lockName, task);
+            return true;
+        } finally {
+            Instant earliestRelease = startedAt.plus(lockAtLeastFor);
+            Instant now = Instant.now();
+            lockRepository.release(lockName, nodeId, now.isAfter(earliestRelease) ? now : earliestRelease);
+        }
+    }
+}
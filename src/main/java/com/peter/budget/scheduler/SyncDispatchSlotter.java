@@ -0,0 +1,40 @@
+package com.peter.budget.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Assigns each connection a fixed slot inside the dispatch window that follows a
+ * scheduled run, so syncs start spread across the window instead of all at the cron
+ * time. The slot comes from a hash of the connection id. Each connection therefore
+ * keeps the same offset from run to run, and ids that arrive in sequence still land
+ * far apart.
+ */
+@Component
+public class SyncDispatchSlotter {
+
+    @Value("${app.scheduler.dispatch-window-minutes:30}")
+    private long dispatchWindowMinutes;
+
+    public Instant slotFor(Long connectionId, Instant windowStart) {
+        long windowSeconds = Duration.ofMinutes(dispatchWindowMinutes).toSeconds();
+        if (windowSeconds <= 0 || connectionId == null) {
+            return windowStart;
+        }
+        return windowStart.plusSeconds(Math.floorMod(mix(connectionId), windowSeconds));
+    }
+
+    // 64-bit finalizer from MurmurHash3; spreads consecutive ids across the window.
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,15 +1,17 @@
 package com.peter.budget.scheduler;
 
 import com.peter.budget.model.entity.SimpleFinConnection;
+import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.RefreshTokenRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
-import com.peter.budget.service.RecurringDetectionService;
-import com.peter.budget.service.simplefin.SimpleFinSyncService;
+import com.peter.budget.service.job.SyncJobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @Slf4j
@@ -17,81 +19,111 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SyncScheduler {
 
+    // Every schedule runs under a database lock so only one replica acts on it.
+    // Scheduled syncs are queued as jobs that any replica's worker pool can claim.
+    private static final Duration SYNC_LOCK_AT_MOST = Duration.ofMinutes(30);
+    private static final Duration MAINTENANCE_LOCK_AT_MOST = Duration.ofHours(2);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(1);
+
     private final SimpleFinConnectionRepository connectionRepository;
-    private final SimpleFinSyncService syncService;
-    private final RecurringDetectionService recurringService;
+    private final AccountRepository accountRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final SyncJobService syncJobService;
+    private final SchedulerLockService lockService;
+    private final SyncDispatchSlotter dispatchSlotter;
 
     @Scheduled(cron = "0 30 6 * * *")
     public void morningSyncAll() {
-        log.info("Starting morning sync for all connections");
-        syncAllConnections();
+        lockService.runExclusively("morningSyncAll", SYNC_LOCK_AT_MOST, LOCK_AT_LEAST, () -> {
+            log.info("Starting morning sync for all connections");
+            syncAllConnections();
+        });
     }
 
     @Scheduled(cron = "0 0 20 * * *")
     public void eveningSyncAll() {
-        log.info("Starting evening sync for all connections");
-        syncAllConnections();
+        lockService.runExclusively("eveningSyncAll", SYNC_LOCK_AT_MOST, LOCK_AT_LEAST, () -> {
+            log.info("Starting evening sync for all connections");
+            syncAllConnections();
+        });
     }
 
-    @Scheduled(fixedRate = 4 * 60 * 60 * 1000)
+    // Runs hourly, but each connection is only due once its planned next sync
+    // (see SyncCadencePlanner) has passed, so quiet institutions are polled less.
+    // A cron fires at the same instant on every replica, so the lock lets exactly one
+    // of them run each hour; a fixed rate would fire at each node's own start offset.
+    @Scheduled(cron = "0 0 * * * *", zone = "UTC")
     public void periodicSync() {
-        log.info("Starting periodic sync for eligible connections");
-        syncEligibleConnections();
+        lockService.runExclusively("periodicSync", SYNC_LOCK_AT_MOST, LOCK_AT_LEAST, () -> {
+            log.info("Starting periodic sync for eligible connections");
+            syncEligibleConnections();
+        });
     }
 
     @Scheduled(cron = "0 0 2 * * *")
     public void nightlyMaintenance() {
-        log.info("Running nightly maintenance tasks");
+        lockService.runExclusively("nightlyMaintenance", MAINTENANCE_LOCK_AT_MOST, LOCK_AT_LEAST, () -> {
+            log.info("Running nightly maintenance tasks");
+
+            refreshTokenRepository.deleteExpired();
+            log.info("Cleaned up expired refresh tokens");
 
-        refreshTokenRepository.deleteExpired();
-        log.info("Cleaned up expired refresh tokens");
+            int purgedJobs = syncJobService.purgeFinishedBefore(Instant.now().minus(Duration.ofDays(7)));
+            log.info("Purged {} finished sync jobs", purgedJobs);
+        });
     }
 
+    // Queues one detection job per user rather than running detection inline, so
+    // users are processed once each, in parallel on the job workers, and a restart
+    // mid-sweep leaves the remaining jobs queued instead of losing them.
     @Scheduled(cron = "0 0 3 * * SUN")
     public void weeklyRecurringDetection() {
-        log.info("Running weekly recurring pattern detection");
-        List<SimpleFinConnection> connections = connectionRepository.findDueForSync();
+        lockService.runExclusively("weeklyRecurringDetection", MAINTENANCE_LOCK_AT_MOST, LOCK_AT_LEAST, () -> {
+            log.info("Running weekly recurring pattern detection");
+            List<Long> userIds = connectionRepository.findDistinctUserIds();
+            int queued = syncJobService.enqueueRecurringDetection(userIds);
+            log.info("Queued recurring detection for {} of {} users", queued, userIds.size());
+        });
+    }
 
-        for (SimpleFinConnection connection : connections) {
-            try {
-                int detected = recurringService.detectRecurringPatterns(connection.getUserId());
-                log.info("Detected {} recurring patterns for user {}", detected, connection.getUserId());
-            } catch (Exception e) {
-                log.error("Error detecting patterns for user {}", connection.getUserId(), e);
-            }
-        }
+    // Late in the day so each user's point reflects the day's final balances, including
+    // users with only manual accounts, who never sync. Snapshot dates are UTC days, so the
+    // cron runs on UTC too.
+    @Scheduled(cron = "0 55 23 * * *", zone = "UTC")
+    public void dailyNetWorthSnapshots() {
+        lockService.runExclusively("dailyNetWorthSnapshots", MAINTENANCE_LOCK_AT_MOST, LOCK_AT_LEAST, () -> {
+            List<Long> userIds = accountRepository.findDistinctUserIdsWithActiveAccounts();
+            int queued = syncJobService.enqueueNetWorthSnapshots(userIds);
+            log.info("Queued net-worth snapshots for {} of {} users", queued, userIds.size());
+        });
     }
 
     private void syncAllConnections() {
         List<SimpleFinConnection> connections = connectionRepository.findDueForSync();
         log.info("Found {} connections to sync", connections.size());
-
-        for (SimpleFinConnection connection : connections) {
-            try {
-                syncService.syncConnection(connection.getUserId(), connection.getId());
-                log.info("Successfully synced connection {} for user {}",
-                        connection.getId(), connection.getUserId());
-            } catch (Exception e) {
-                log.error("Failed to sync connection {} for user {}",
-                        connection.getId(), connection.getUserId(), e);
-            }
-        }
+        enqueueSyncs(connections);
     }
 
     private void syncEligibleConnections() {
         List<SimpleFinConnection> connections = connectionRepository.findDueForSync();
         log.info("Found {} eligible connections for periodic sync", connections.size());
+        enqueueSyncs(connections);
+    }
 
+    private void enqueueSyncs(List<SimpleFinConnection> connections) {
+        Instant windowStart = Instant.now();
+        int queued = 0;
         for (SimpleFinConnection connection : connections) {
             try {
-                syncService.syncConnection(connection.getUserId(), connection.getId());
-                log.info("Successfully synced connection {} for user {}",
-                        connection.getId(), connection.getUserId());
+                Instant runAfter = dispatchSlotter.slotFor(connection.getId(), windowStart);
+                if (syncJobService.enqueueScheduledSync(connection.getUserId(), connection.getId(), runAfter)) {
+                    queued++;
+                }
             } catch (Exception e) {
-                log.error("Failed to sync connection {} for user {}",
+                log.error("Failed to queue sync for connection {} for user {}",
                         connection.getId(), connection.getUserId(), e);
             }
         }
+        log.info("Queued {} connection syncs", queued);
     }
 }
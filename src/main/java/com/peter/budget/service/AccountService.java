@@ -10,9 +10,11 @@ import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.enums.AccountNetWorthCategory;
 import com.peter.budget.model.enums.AccountType;
 import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -25,6 +27,7 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final TransactionReadRepository transactionReadRepository;
+    private final RecurringMerchantStateRepository merchantStateRepository;
 
     public List<AccountDto> getAccounts(Long userId) {
         return accountRepository.findActiveByUserId(userId).stream()
@@ -92,6 +95,7 @@ public class AccountService {
                 .build();
     }
 
+    @Transactional
     public void deleteAccount(Long userId, Long accountId) {
         Account account = accountRepository.findByIdAndUserId(accountId, userId)
                 .orElseThrow(() -> ApiException.notFound("Account not found"));
@@ -101,6 +105,7 @@ public class AccountService {
         }
 
         accountRepository.deleteByIdAndUserId(accountId, userId);
+        merchantStateRepository.resetForUser(userId);
     }
 
     public AccountDto updateNetWorthCategory(Long userId, Long accountId, AccountNetWorthCategoryUpdateRequest request) {
@@ -113,6 +118,22 @@ public class AccountService {
 
     public AccountSummaryDto getAccountSummary(Long userId) {
         List<Account> accounts = accountRepository.findActiveByUserId(userId);
+        NetWorthTotals totals = calculateNetWorth(accounts);
+
+        List<AccountDto> accountDtos = accounts.stream()
+                .map(this::toDto)
+                .toList();
+
+        return AccountSummaryDto.builder()
+                .totalAssets(totals.totalAssets())
+                .totalLiabilities(totals.totalLiabilities())
+                .netWorth(totals.netWorth())
+                .accounts(accountDtos)
+                .build();
+    }
+
+    /** Totals for the account summary and the daily net-worth snapshots. */
+    public NetWorthTotals calculateNetWorth(List<Account> accounts) {
         BigDecimal totalAssets = BigDecimal.ZERO;
         BigDecimal totalLiabilities = BigDecimal.ZERO;
 
@@ -131,20 +152,11 @@ public class AccountService {
             }
         }
 
-        BigDecimal netWorth = totalAssets.subtract(totalLiabilities);
-
-        List<AccountDto> accountDtos = accounts.stream()
-                .map(this::toDto)
-                .toList();
-
-        return AccountSummaryDto.builder()
-                .totalAssets(totalAssets)
-                .totalLiabilities(totalLiabilities)
-                .netWorth(netWorth)
-                .accounts(accountDtos)
-                .build();
+        return new NetWorthTotals(totalAssets, totalLiabilities, totalAssets.subtract(totalLiabilities));
     }
 
+    public record NetWorthTotals(BigDecimal totalAssets, BigDecimal totalLiabilities, BigDecimal netWorth) {}
+
     private boolean isLiabilityType(AccountType accountType) {
         return accountType == AccountType.CREDIT_CARD
                 || accountType == AccountType.LOAN;
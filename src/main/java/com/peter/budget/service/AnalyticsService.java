@@ -9,6 +9,7 @@ import com.peter.budget.model.entity.Category;
 import com.peter.budget.model.enums.CategoryType;
 import com.peter.budget.repository.BudgetTargetRepository;
 import com.peter.budget.repository.TransactionAnalyticsRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -37,6 +38,7 @@ public class AnalyticsService {
     private final BudgetTargetRepository budgetTargetRepository;
     private final CategoryViewService categoryViewService;
 
+    @Timed(value = "budget.analytics", extraTags = {"query", "spending-by-category"})
     public SpendingByCategoryDto getSpendingByCategory(Long userId, LocalDate startDate, LocalDate endDate) {
         if (startDate == null) {
             startDate = LocalDate.now().withDayOfMonth(1);
@@ -86,6 +88,7 @@ public class AnalyticsService {
                 .build();
     }
 
+    @Timed(value = "budget.analytics", extraTags = {"query", "trends"})
     public TrendDto getTrends(Long userId, int months) {
         List<TrendDto.MonthlyTrend> trends = new ArrayList<>();
 
@@ -123,6 +126,7 @@ public class AnalyticsService {
                 .build();
     }
 
+    @Timed(value = "budget.analytics", extraTags = {"query", "budget-insights"})
     public BudgetInsightsDto getBudgetInsights(Long userId, String monthRaw, Integer historyMonthsRaw) {
         YearMonth month = normalizeMonth(monthRaw);
         int historyMonths = normalizeHistoryMonths(historyMonthsRaw);
@@ -247,6 +251,7 @@ public class AnalyticsService {
                 .build();
     }
 
+    @Timed(value = "budget.analytics", extraTags = {"query", "cash-flow"})
     public CashFlowDto getCashFlow(Long userId, LocalDate startDate, LocalDate endDate) {
         if (startDate == null) {
             startDate = LocalDate.now().withDayOfMonth(1);
@@ -5,6 +5,7 @@ import com.peter.budget.model.entity.CategorizationRuleCondition;
 import com.peter.budget.model.enums.PatternType;
 import com.peter.budget.model.enums.RuleConditionOperator;
 import com.peter.budget.repository.CategorizationRuleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,7 @@ public class AutoCategorizationService {
     private final CategorizationRuleRepository ruleRepository;
     private final CategoryViewService categoryViewService;
 
+    @Timed(value = "budget.categorize", description = "Rule evaluation for one transaction")
     public CategorizationMatch categorize(
             Long userId,
             Long accountId,
@@ -0,0 +1,103 @@
+package com.peter.budget.service;
+
+import com.peter.budget.exception.ApiException;
+import com.peter.budget.model.dto.AccountBalanceDto;
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.repository.AccountBalanceHistoryRepository;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.HistoryState;
+import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.service.balance.BalanceHistoryApplicationService;
+import com.peter.budget.service.balance.BalanceHistoryEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Balance-over-time reads for an account, served from the stored end-of-day balances. A read
+ * refreshes the history first only if the account's reported balance has changed since it was
+ * built, which covers manual accounts and syncs whose post-sync refresh has not run yet.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceHistoryService {
+
+    private static final int DEFAULT_HISTORY_DAYS = 365;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceHistoryRepository historyRepository;
+    private final BalanceHistoryApplicationService applicationService;
+    private final BalanceHistoryEngine engine;
+
+    /** @return the number of accounts refreshed */
+    public int refreshConnection(Long connectionId) {
+        int refreshed = 0;
+        for (Account account : accountRepository.findByConnectionId(connectionId)) {
+            if (account.isActive()) {
+                applicationService.refresh(account);
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * The account's balance at the end of {@code date}. Days after the latest reported balance
+     * return that balance, and days before the first transaction return the opening balance.
+     */
+    public AccountBalanceDto getBalanceOn(Long userId, Long accountId, LocalDate date) {
+        Account account = accountRepository.findByIdAndUserId(accountId, userId)
+                .orElseThrow(() -> ApiException.notFound("Account not found"));
+        HistoryState state = ensureCurrent(account);
+
+        BigDecimal balance;
+        if (date.isAfter(state.anchorDate())) {
+            balance = state.anchorBalance();
+        } else {
+            LocalDate storedDate = date.isBefore(state.firstDate()) ? state.firstDate() : date;
+            balance = historyRepository.findBalanceOn(accountId, storedDate).orElse(null);
+        }
+        return AccountBalanceDto.builder()
+                .date(date)
+                .balance(balance)
+                .build();
+    }
+
+    /** Stored end-of-day balances in the range, oldest first. */
+    public List<AccountBalanceDto> getBalanceHistory(Long userId, Long accountId,
+                                                     LocalDate startDate, LocalDate endDate) {
+        if (endDate == null) {
+            endDate = LocalDate.now(ZoneOffset.UTC);
+        }
+        if (startDate == null) {
+            startDate = endDate.minusDays(DEFAULT_HISTORY_DAYS - 1);
+        }
+        if (startDate.isAfter(endDate)) {
+            throw ApiException.badRequest("startDate must be on or before endDate");
+        }
+
+        Account account = accountRepository.findByIdAndUserId(accountId, userId)
+                .orElseThrow(() -> ApiException.notFound("Account not found"));
+        ensureCurrent(account);
+
+        return historyRepository.findBetween(accountId, startDate, endDate).stream()
+                .map(balance -> AccountBalanceDto.builder()
+                        .date(balance.date())
+                        .balance(balance.balance())
+                        .build())
+                .toList();
+    }
+
+    private HistoryState ensureCurrent(Account account) {
+        Optional<HistoryState> state = historyRepository.findState(account.getId());
+        boolean current = state.isPresent()
+                && state.get().computedAt() != null
+                && engine.anchorDate(account, LocalDate.now(ZoneOffset.UTC)).equals(state.get().anchorDate())
+                && engine.anchorBalance(account).compareTo(state.get().anchorBalance()) == 0;
+        return current ? state.get() : applicationService.refresh(account);
+    }
+}
@@ -9,7 +9,9 @@ import com.peter.budget.model.entity.CategorizationRule;
 import com.peter.budget.model.entity.CategorizationRuleCondition;
 import com.peter.budget.model.enums.PatternType;
 import com.peter.budget.model.enums.RuleConditionOperator;
+import com.peter.budget.model.enums.UserEventType;
 import com.peter.budget.repository.CategorizationRuleRepository;
+import com.peter.budget.service.event.UserEventService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +43,7 @@ public class CategorizationRuleService {
     private final CategorizationRuleRepository categorizationRuleRepository;
     private final CategoryViewService categoryViewService;
     private final TransactionService transactionService;
+    private final UserEventService userEventService;
 
     public List<CategorizationRuleDto> getRulesForUser(Long userId) {
         return categorizationRuleRepository.findByUserId(userId).stream()
@@ -70,6 +73,7 @@ public class CategorizationRuleService {
 
         rule = categorizationRuleRepository.save(rule);
         transactionService.backfillCategorizationRules(userId);
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
         return toDto(rule);
     }
 
@@ -98,6 +102,7 @@ public class CategorizationRuleService {
 
         rule = categorizationRuleRepository.save(rule);
         transactionService.backfillCategorizationRules(userId);
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
         return toDto(rule);
     }
 
@@ -111,6 +116,7 @@ public class CategorizationRuleService {
         }
 
         categorizationRuleRepository.deleteById(rule.getId());
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
     }
 
     private void assertCategoryAccessible(Long userId, Long categoryId) {
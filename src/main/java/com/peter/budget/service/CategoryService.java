@@ -6,11 +6,13 @@ import com.peter.budget.model.dto.CategoryDto;
 import com.peter.budget.model.entity.Category;
 import com.peter.budget.model.entity.CategoryOverride;
 import com.peter.budget.model.enums.CategoryType;
+import com.peter.budget.model.enums.UserEventType;
 import com.peter.budget.repository.CategorizationRuleRepository;
 import com.peter.budget.repository.CategoryOverrideRepository;
 import com.peter.budget.repository.CategoryRepository;
 import com.peter.budget.repository.RecurringPatternRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
+import com.peter.budget.service.event.UserEventService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +34,7 @@ public class CategoryService {
     private final CategorizationRuleRepository categorizationRuleRepository;
     private final CategoryViewService categoryViewService;
     private final UncategorizedCategoryService uncategorizedCategoryService;
+    private final UserEventService userEventService;
 
     public List<CategoryDto> getCategoriesForUser(Long userId) {
         List<Category> allCategories = categoryViewService.getEffectiveCategoriesForUser(userId);
@@ -69,6 +72,7 @@ public class CategoryService {
                 .build();
 
         category = categoryRepository.save(category);
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
         return toDto(category);
     }
 
@@ -98,6 +102,7 @@ public class CategoryService {
         }
 
         category = categoryRepository.save(category);
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
         return toDto(category);
     }
 
@@ -113,6 +118,7 @@ public class CategoryService {
         List<Category> allCategories = categoryViewService.getEffectiveCategoriesForUser(userId);
         List<Category> categoryTree = collectCategoryTree(category.getId(), allCategories);
         removeCategoryTreeForUser(userId, categoryTree, uncategorizedCategoryId);
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
     }
 
     private CategoryDto updateSystemCategory(Long userId, Category category, CategoryCreateRequest request) {
@@ -137,6 +143,7 @@ public class CategoryService {
         categoryOverride.setHidden(false);
 
         categoryOverrideRepository.save(categoryOverride);
+        userEventService.publishChanged(userId, UserEventType.CATEGORIES_CHANGED);
 
         Category updatedCategory = categoryViewService.getEffectiveCategoryByIdForUser(userId, category.getId())
                 .orElseThrow(() -> ApiException.notFound("Category not found"));
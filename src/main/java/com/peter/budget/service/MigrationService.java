@@ -23,8 +23,10 @@ import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.BudgetTargetRepository;
 import com.peter.budget.repository.CategorizationRuleRepository;
 import com.peter.budget.repository.CategoryRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.RecurringPatternRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
+import com.peter.budget.service.recurring.BillCalendar;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -55,7 +57,9 @@ public class MigrationService {
     private final CategorizationRuleRepository categorizationRuleRepository;
     private final BudgetTargetRepository budgetTargetRepository;
     private final RecurringPatternRepository recurringPatternRepository;
+    private final RecurringMerchantStateRepository recurringMerchantStateRepository;
     private final UncategorizedCategoryService uncategorizedCategoryService;
+    private final BillCalendar billCalendar;
 
     @Transactional
     public MigrationImportResponse importSnapshot(Long userId, MigrationImportRequest request) {
@@ -82,6 +86,7 @@ public class MigrationService {
         int budgetsImported = importBudgets(userId, request.getBudgets(), categoryIdMap);
 
         int recurringImported = importRecurringPatterns(userId, request.getRecurringPatterns(), categoryIdMap);
+        billCalendar.invalidate(userId);
 
         log.info("Migration import complete for user {}: {} accounts, {} categories, {} transactions, {} rules, {} budgets, {} recurring",
                 userId, accountsImported, categoriesImported, transactionsImported, rulesImported, budgetsImported, recurringImported);
@@ -109,6 +114,8 @@ public class MigrationService {
         jdbcTemplate.update("DELETE FROM accounts WHERE user_id = :userId", params);
         jdbcTemplate.update("DELETE FROM category_overrides WHERE user_id = :userId", params);
         jdbcTemplate.update("DELETE FROM categories WHERE user_id = :userId", params);
+        // Re-imported transactions get new ids, which incremental detection would count again.
+        recurringMerchantStateRepository.resetForUser(userId);
     }
 
     private Map<Long, Long> importCategories(Long userId, List<SnapshotCategory> categories, Long uncategorizedCategoryId) {
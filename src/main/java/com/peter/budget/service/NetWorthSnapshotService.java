@@ -0,0 +1,66 @@
+package com.peter.budget.service;
+
+import com.peter.budget.exception.ApiException;
+import com.peter.budget.model.dto.NetWorthSnapshotDto;
+import com.peter.budget.model.entity.NetWorthSnapshot;
+import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.NetWorthSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Keeps one net-worth row per user per day, so charts read stored points instead of
+ * replaying balances. A snapshot is written after each sync and by a nightly job; later
+ * writes on the same day replace earlier ones, so each row holds the day's last known value.
+ * Days are UTC days, like the posted dates of transactions.
+ */
+@Service
+@RequiredArgsConstructor
+public class NetWorthSnapshotService {
+
+    private static final int DEFAULT_HISTORY_DAYS = 365;
+
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final NetWorthSnapshotRepository snapshotRepository;
+
+    public NetWorthSnapshot recordSnapshot(Long userId) {
+        AccountService.NetWorthTotals totals = accountService.calculateNetWorth(
+                accountRepository.findActiveByUserId(userId));
+        NetWorthSnapshot snapshot = NetWorthSnapshot.builder()
+                .userId(userId)
+                .snapshotDate(LocalDate.now(ZoneOffset.UTC))
+                .totalAssets(totals.totalAssets())
+                .totalLiabilities(totals.totalLiabilities())
+                .netWorth(totals.netWorth())
+                .build();
+        snapshotRepository.upsert(snapshot);
+        return snapshot;
+    }
+
+    /** Stored snapshots in the range, oldest first. Days without a snapshot are left out. */
+    public List<NetWorthSnapshotDto> getHistory(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (endDate == null) {
+            endDate = LocalDate.now(ZoneOffset.UTC);
+        }
+        if (startDate == null) {
+            startDate = endDate.minusDays(DEFAULT_HISTORY_DAYS - 1);
+        }
+        if (startDate.isAfter(endDate)) {
+            throw ApiException.badRequest("startDate must be on or before endDate");
+        }
+
+        return snapshotRepository.findByUserIdBetween(userId, startDate, endDate).stream()
+                .map(snapshot -> NetWorthSnapshotDto.builder()
+                        .date(snapshot.getSnapshotDate())
+                        .totalAssets(snapshot.getTotalAssets())
+                        .totalLiabilities(snapshot.getTotalLiabilities())
+                        .netWorth(snapshot.getNetWorth())
+                        .build())
+                .toList();
+    }
+}
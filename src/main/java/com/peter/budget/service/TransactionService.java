@@ -13,6 +13,7 @@ import com.peter.budget.model.entity.Category;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.CategorizationRuleRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,15 +24,18 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    static final int MAX_TRANSFER_PAGE_SIZE = 500;
+
     private final TransactionReadRepository transactionReadRepository;
     private final TransactionWriteRepository transactionWriteRepository;
     private final AccountRepository accountRepository;
@@ -40,6 +44,7 @@ public class TransactionService {
     private final CategoryViewService categoryViewService;
     private final UncategorizedCategoryService uncategorizedCategoryService;
     private final TransferDetectionService transferDetectionService;
+    private final RecurringMerchantStateRepository merchantStateRepository;
 
     public List<TransactionDto> getTransactions(Long userId, boolean includeTransfers,
                                                   LocalDate startDate, LocalDate endDate,
@@ -79,22 +84,14 @@ public class TransactionService {
                 sortAsc
         );
 
-        Map<Long, Account> accountCache = new HashMap<>();
-        Map<Long, Category> categoryMap = categoryViewService.getEffectiveCategoryMapForUser(userId);
-
-        return transactions.stream()
-                .map(tx -> toDto(tx, accountCache, categoryMap))
-                .toList();
+        return toDtos(userId, transactions);
     }
 
     public TransactionDto getTransaction(Long userId, Long transactionId) {
         Transaction tx = transactionReadRepository.findByIdAndUserId(transactionId, userId)
                 .orElseThrow(() -> ApiException.notFound("Transaction not found"));
 
-        Map<Long, Account> accountCache = new HashMap<>();
-        Map<Long, Category> categoryMap = categoryViewService.getEffectiveCategoryMapForUser(userId);
-
-        return toDto(tx, accountCache, categoryMap);
+        return toDto(userId, tx);
     }
 
     @Transactional
@@ -157,9 +154,7 @@ public class TransactionService {
             accountRepository.save(account);
         }
 
-        Map<Long, Account> accountCache = new HashMap<>();
-        Map<Long, Category> categoryMap = categoryViewService.getEffectiveCategoryMapForUser(userId);
-        return toDto(saved, accountCache, categoryMap);
+        return toDto(userId, saved);
     }
 
     public List<TransactionDto> getTransactionsForCategorizationRule(Long userId, Long ruleId, int limit, int offset) {
@@ -169,12 +164,7 @@ public class TransactionService {
         List<Transaction> transactions = transactionReadRepository.findByUserIdAndCategorizationRuleId(
                 userId, ruleId, limit, offset);
 
-        Map<Long, Account> accountCache = new HashMap<>();
-        Map<Long, Category> categoryMap = categoryViewService.getEffectiveCategoryMapForUser(userId);
-
-        return transactions.stream()
-                .map(tx -> toDto(tx, accountCache, categoryMap))
-                .toList();
+        return toDtos(userId, transactions);
     }
 
     public TransactionCoverageDto getTransactionCoverage(Long userId) {
@@ -270,9 +260,7 @@ public class TransactionService {
 
         tx = transactionWriteRepository.save(tx);
 
-        Map<Long, Account> accountCache = new HashMap<>();
-        Map<Long, Category> categoryMap = categoryViewService.getEffectiveCategoryMapForUser(userId);
-        return toDto(tx, accountCache, categoryMap);
+        return toDto(userId, tx);
     }
 
     @Transactional
@@ -289,6 +277,7 @@ public class TransactionService {
         }
 
         transactionWriteRepository.deleteById(transactionId);
+        merchantStateRepository.resetForUser(userId);
         accountRepository.findByIdAndUserId(tx.getAccountId(), userId).ifPresent(account -> {
             if (shouldTrackBalanceFromManualTransactions(account)) {
                 applyBalanceDelta(account, tx.getAmount().negate());
@@ -297,8 +286,25 @@ public class TransactionService {
         });
     }
 
-    public List<TransferPairDto> getTransfers(Long userId) {
-        return transferDetectionService.getTransferPairs(userId);
+    /**
+     * One page of transfer pairs, newest first. One extra pair is read to tell whether
+     * another page follows, so callers can point at it instead of truncating silently.
+     */
+    public TransferPairPage getTransfers(Long userId, LocalDate startDate, LocalDate endDate,
+                                         int limit, int offset) {
+        if (limit < 0) {
+            throw ApiException.badRequest("limit must not be negative");
+        }
+        if (limit > MAX_TRANSFER_PAGE_SIZE) {
+            throw ApiException.badRequest("limit must be at most " + MAX_TRANSFER_PAGE_SIZE);
+        }
+        if (offset < 0) {
+            throw ApiException.badRequest("offset must not be negative");
+        }
+        List<TransferPairDto> pairs = transferDetectionService.getTransferPairs(
+                userId, startDate, endDate, limit + 1, offset);
+        boolean hasMore = pairs.size() > limit;
+        return new TransferPairPage(hasMore ? pairs.subList(0, limit) : pairs, hasMore);
     }
 
     @Transactional
@@ -311,25 +317,43 @@ public class TransactionService {
         transferDetectionService.unlinkTransfer(userId, transactionId);
     }
 
-    private TransactionDto toDto(Transaction tx, Map<Long, Account> accountCache,
-                                   Map<Long, Category> categoryMap) {
-        Account account = accountCache.computeIfAbsent(
-                tx.getAccountId(),
-                id -> accountRepository.findById(id).orElse(null)
-        );
+    private TransactionDto toDto(Long userId, Transaction tx) {
+        return toDtos(userId, List.of(tx)).get(0);
+    }
+
+    /**
+     * Loads everything the DTOs reference up front: the user's accounts, effective categories and
+     * the account of each transfer pair leg, one query each. Mapping then only reads these maps.
+     */
+    private List<TransactionDto> toDtos(Long userId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Account> accountsById = accountRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        Map<Long, Category> categoryMap = categoryViewService.getEffectiveCategoryMapForUser(userId);
+        Map<Long, Long> pairAccountIds = transactionReadRepository.findAccountIdsByIds(transactions.stream()
+                .map(Transaction::getTransferPairId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        return transactions.stream()
+                .map(tx -> toDto(tx, accountsById, pairAccountIds, categoryMap))
+                .toList();
+    }
+
+    private TransactionDto toDto(Transaction tx, Map<Long, Account> accountsById,
+                                   Map<Long, Long> pairAccountIds, Map<Long, Category> categoryMap) {
+        Account account = accountsById.get(tx.getAccountId());
 
         Category category = tx.getCategoryId() != null ? categoryMap.get(tx.getCategoryId()) : null;
 
         String transferPairAccountName = null;
         if (tx.getTransferPairId() != null) {
-            Transaction pairTx = transactionReadRepository.findById(tx.getTransferPairId()).orElse(null);
-            if (pairTx != null) {
-                Account pairAccount = accountCache.computeIfAbsent(
-                        pairTx.getAccountId(),
-                        id -> accountRepository.findById(id).orElse(null)
-                );
-                transferPairAccountName = pairAccount != null ? pairAccount.getName() : null;
-            }
+            Long pairAccountId = pairAccountIds.get(tx.getTransferPairId());
+            Account pairAccount = pairAccountId != null ? accountsById.get(pairAccountId) : null;
+            transferPairAccountName = pairAccount != null ? pairAccount.getName() : null;
         }
 
         return TransactionDto.builder()
@@ -391,4 +415,6 @@ public class TransactionService {
     private boolean shouldTrackBalanceFromManualTransactions(Account account) {
         return account.getConnectionId() == null;
     }
+
+    public record TransferPairPage(List<TransferPairDto> pairs, boolean hasMore) {}
 }
@@ -6,9 +6,12 @@ import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.AccountType;
 import com.peter.budget.model.enums.CategoryType;
+import com.peter.budget.model.enums.UserEventType;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
+import com.peter.budget.service.event.UserEventService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -37,7 +41,9 @@ public class TransferDetectionService {
     private final TransactionWriteRepository transactionWriteRepository;
     private final AccountRepository accountRepository;
     private final CategoryViewService categoryViewService;
+    private final UserEventService userEventService;
 
+    @Timed(value = "budget.transfers.detect", description = "Transfer detection over a user's unpaired transactions")
     @Transactional
     public int detectTransfers(Long userId) {
         List<Transaction> unpairedTransactions = transactionReadRepository.findUnpairedByUserId(userId);
@@ -91,6 +97,9 @@ public class TransferDetectionService {
             }
         }
 
+        if (transfersDetected > 0) {
+            userEventService.publishChanged(userId, UserEventType.TRANSFERS_CHANGED);
+        }
         return transfersDetected;
     }
 
@@ -183,6 +192,7 @@ public class TransferDetectionService {
         }
 
         linkAsTransfer(userId, tx1, tx2);
+        userEventService.publishChanged(userId, UserEventType.TRANSFERS_CHANGED);
     }
 
     @Transactional
@@ -195,50 +205,24 @@ public class TransferDetectionService {
         }
 
         transactionWriteRepository.unlinkTransferPair(transactionId);
+        userEventService.publishChanged(userId, UserEventType.TRANSFERS_CHANGED);
     }
 
-    public List<TransferPairDto> getTransferPairs(Long userId) {
-        List<Transaction> transfers = transactionReadRepository.findTransfersByUserId(userId);
-        Map<Long, Account> accountCache = new HashMap<>();
-        Set<Long> processedPairs = new HashSet<>();
-        List<TransferPairDto> pairs = new ArrayList<>();
-
-        for (Transaction tx : transfers) {
-            if (tx.getTransferPairId() == null || processedPairs.contains(tx.getId())) {
-                continue;
-            }
-
-            Transaction pairTx = transactionReadRepository.findById(tx.getTransferPairId()).orElse(null);
-            if (pairTx == null) continue;
-
-            processedPairs.add(tx.getId());
-            processedPairs.add(pairTx.getId());
-
-            Account fromAccount = accountCache.computeIfAbsent(
-                    tx.getAmount().compareTo(BigDecimal.ZERO) < 0 ? tx.getAccountId() : pairTx.getAccountId(),
-                    id -> accountRepository.findById(id).orElse(null)
-            );
-            Account toAccount = accountCache.computeIfAbsent(
-                    tx.getAmount().compareTo(BigDecimal.ZERO) > 0 ? tx.getAccountId() : pairTx.getAccountId(),
-                    id -> accountRepository.findById(id).orElse(null)
-            );
-
-            Transaction fromTx = tx.getAmount().compareTo(BigDecimal.ZERO) < 0 ? tx : pairTx;
-            Transaction toTx = tx.getAmount().compareTo(BigDecimal.ZERO) > 0 ? tx : pairTx;
-
-            pairs.add(TransferPairDto.builder()
-                    .fromTransactionId(fromTx.getId())
-                    .fromAccountName(fromAccount != null ? fromAccount.getName() : "Unknown")
-                    .toTransactionId(toTx.getId())
-                    .toAccountName(toAccount != null ? toAccount.getName() : "Unknown")
-                    .amount(fromTx.getAmount().abs())
-                    .date(fromTx.getPostedAt())
-                    .description(fromTx.getDescription())
-                    .autoDetected(true)
-                    .build());
-        }
-
-        return pairs;
+    public List<TransferPairDto> getTransferPairs(Long userId, LocalDate startDate, LocalDate endDate,
+                                                  int limit, int offset) {
+        return transactionReadRepository.findTransferPairsByUserId(userId, startDate, endDate, limit, offset)
+                .stream()
+                .map(row -> TransferPairDto.builder()
+                        .fromTransactionId(row.fromTransactionId())
+                        .fromAccountName(row.fromAccountName())
+                        .toTransactionId(row.toTransactionId())
+                        .toAccountName(row.toAccountName())
+                        .amount(row.amount())
+                        .date(row.postedAt())
+                        .description(row.description())
+                        .autoDetected(true)
+                        .build())
+                .toList();
     }
 
     private record TransferCandidate(Transaction transaction, double score) {}
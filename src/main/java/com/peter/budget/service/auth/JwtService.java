@@ -2,6 +2,7 @@ package com.peter.budget.service.auth;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,24 +15,45 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
     private final long accessTokenExpirationMs;
     private final long refreshTokenExpirationMs;
     private final SecureRandom secureRandom = new SecureRandom();
 
+    // Access tokens already verified by this node, keyed by SHA-256 of the token. A page load
+    // sends the same bearer token on many parallel requests; only the first pays for parsing
+    // and the signature check. Least recently used entries make room for new tokens, so a
+    // full cache costs no more per request than an empty one.
+    private final Map<String, VerifiedToken> verifiedTokens;
+
     public JwtService(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-expiration-ms:900000}") long accessTokenExpirationMs,
-            @Value("${jwt.refresh-token-expiration-ms:604800000}") long refreshTokenExpirationMs) {
+            @Value("${jwt.refresh-token-expiration-ms:604800000}") long refreshTokenExpirationMs,
+            @Value("${jwt.verified-token-cache-size:10000}") int verifiedTokenCacheSize) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
         this.accessTokenExpirationMs = accessTokenExpirationMs;
         this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > verifiedTokenCacheSize;
+            }
+        });
     }
 
     public String generateAccessToken(Long userId, String email) {
@@ -52,13 +74,42 @@ public class JwtService {
     }
 
     public String hashRefreshToken(String token) {
+        return sha256Hex(token);
+    }
+
+    /**
+     * Verifies an access token and returns its claims, or empty if the token is malformed,
+     * wrongly signed or expired. Parses the token at most once while it stays cached.
+     */
+    public Optional<VerifiedToken> verifyAccessToken(String token) {
+        String cacheKey = sha256Hex(token);
+        Instant now = Instant.now();
+
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(cacheKey, cached);
+            return Optional.empty();
+        }
+
+        VerifiedToken verified;
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            return HexFormat.of().formatHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 not available", e);
+            Claims claims = extractClaims(token);
+            verified = new VerifiedToken(
+                    Long.valueOf(claims.getSubject()),
+                    claims.get("email", String.class),
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (!verified.expiresAt().isAfter(now)) {
+            return Optional.empty();
         }
+        verifiedTokens.put(cacheKey, verified);
+        return Optional.of(verified);
     }
 
     public Long extractUserId(String token) {
@@ -81,11 +132,17 @@ public class JwtService {
     }
 
     private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    private String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
     }
 
     public long getAccessTokenExpirationMs() {
@@ -95,4 +152,6 @@ public class JwtService {
     public Instant getRefreshTokenExpiration() {
         return Instant.now().plusMillis(refreshTokenExpirationMs);
     }
+
+    public record VerifiedToken(Long userId, String email, Instant expiresAt) {}
 }
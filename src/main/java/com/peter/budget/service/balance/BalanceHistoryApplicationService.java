@@ -0,0 +1,113 @@
+package com.peter.budget.service.balance;
+
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.repository.AccountBalanceHistoryRepository;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.DailyBalance;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.HistoryState;
+import com.peter.budget.repository.TransactionReadRepository;
+import com.peter.budget.repository.TransactionReadRepository.LedgerChanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+/**
+ * Keeps each account's stored end-of-day balances in step with its ledger. After the first
+ * build, a refresh only recomputes days from the earliest added or edited transaction (or the
+ * previous anchor day) through the new anchor day. If the recomputed boundary day moved, for
+ * example because the institution's balance includes interest the ledger lacks, every older
+ * day is shifted by the same amount in one statement. A full walk back from the new balance
+ * would give the same values. Deleted transactions, and changes older than the stored history,
+ * fall back to a full rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceHistoryApplicationService {
+
+    private final AccountBalanceHistoryRepository historyRepository;
+    private final TransactionReadRepository transactionReadRepository;
+    private final BalanceHistoryEngine engine;
+
+    @Transactional
+    public HistoryState refresh(Account account) {
+        Long accountId = account.getId();
+        HistoryState state = historyRepository.lockState(accountId);
+        Instant computedAt = Instant.now();
+        LocalDate anchorDate = engine.anchorDate(account, LocalDate.now(ZoneOffset.UTC));
+        BigDecimal anchorBalance = engine.anchorBalance(account);
+        LedgerChanges changes = transactionReadRepository.findLedgerChangesByAccountId(
+                accountId, state.computedAt() != null ? state.computedAt() : Instant.EPOCH);
+
+        Optional<LocalDate> incrementalStart = incrementalStart(state, changes, anchorDate);
+        if (incrementalStart.isEmpty()) {
+            return rebuild(accountId, anchorBalance, anchorDate, changes, computedAt);
+        }
+        if (changes.changedFrom() == null && anchorDate.equals(state.anchorDate())
+                && anchorBalance.compareTo(state.anchorBalance()) == 0) {
+            return state;
+        }
+
+        LocalDate fromDate = incrementalStart.get();
+        Optional<BigDecimal> storedBoundary = historyRepository.findBalanceOn(accountId, fromDate);
+        if (storedBoundary.isEmpty()) {
+            return rebuild(accountId, anchorBalance, anchorDate, changes, computedAt);
+        }
+
+        NavigableMap<LocalDate, BigDecimal> dailyNet =
+                transactionReadRepository.sumDailyAmountsByAccountId(accountId, fromDate, anchorDate);
+        List<DailyBalance> balances = engine.walkBack(anchorBalance, anchorDate, fromDate, dailyNet);
+        historyRepository.replaceFrom(accountId, fromDate, balances);
+
+        BigDecimal shift = balances.get(0).balance().subtract(storedBoundary.get());
+        if (shift.signum() != 0) {
+            historyRepository.shiftBefore(accountId, fromDate, shift);
+        }
+
+        HistoryState updated = new HistoryState(anchorDate, anchorBalance, state.firstDate(),
+                changes.totalCount(), computedAt);
+        historyRepository.saveState(accountId, updated);
+        return updated;
+    }
+
+    /** The first day to recompute, or empty when the history has to be rebuilt. */
+    private Optional<LocalDate> incrementalStart(HistoryState state, LedgerChanges changes, LocalDate anchorDate) {
+        if (state.computedAt() == null || state.firstDate() == null || state.anchorDate() == null) {
+            return Optional.empty();
+        }
+        if (changes.totalCount() != state.transactionCount() + changes.addedCount()) {
+            return Optional.empty();
+        }
+        if (anchorDate.isBefore(state.anchorDate())) {
+            return Optional.empty();
+        }
+
+        LocalDate fromDate = state.anchorDate();
+        if (changes.changedFrom() != null && changes.changedFrom().minusDays(1).isBefore(fromDate)) {
+            fromDate = changes.changedFrom().minusDays(1);
+        }
+        return fromDate.isBefore(state.firstDate()) ? Optional.empty() : Optional.of(fromDate);
+    }
+
+    private HistoryState rebuild(Long accountId, BigDecimal anchorBalance, LocalDate anchorDate,
+                                 LedgerChanges changes, Instant computedAt) {
+        NavigableMap<LocalDate, BigDecimal> dailyNet =
+                transactionReadRepository.sumDailyAmountsByAccountId(accountId, null, anchorDate);
+        // Start the day before the first posting, so the series includes the opening balance.
+        LocalDate firstDate = dailyNet.isEmpty() ? anchorDate : dailyNet.firstKey().minusDays(1);
+
+        historyRepository.replaceFrom(accountId, null,
+                engine.walkBack(anchorBalance, anchorDate, firstDate, dailyNet));
+
+        HistoryState rebuilt = new HistoryState(anchorDate, anchorBalance, firstDate,
+                changes.totalCount(), computedAt);
+        historyRepository.saveState(accountId, rebuilt);
+        return rebuilt;
+    }
+}
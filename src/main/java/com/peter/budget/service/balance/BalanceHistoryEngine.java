@@ -0,0 +1,59 @@
+package com.peter.budget.service.balance;
+
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.DailyBalance;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstructs end-of-day balances from an account's reported balance. The reported balance
+ * is the balance at the end of its anchor day, and each earlier day's balance is the next
+ * day's minus the net amount posted on that next day.
+ */
+@Component
+public class BalanceHistoryEngine {
+
+    /**
+     * End-of-day balances for every day from {@code fromDate} through {@code anchorDate},
+     * oldest first. Net amounts outside that range are ignored.
+     */
+    public List<DailyBalance> walkBack(BigDecimal anchorBalance, LocalDate anchorDate, LocalDate fromDate,
+                                       Map<LocalDate, BigDecimal> dailyNet) {
+        if (fromDate.isAfter(anchorDate)) {
+            throw new IllegalArgumentException("fromDate " + fromDate + " is after anchorDate " + anchorDate);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(fromDate, anchorDate) + 1;
+        DailyBalance[] balances = new DailyBalance[days];
+        BigDecimal balance = anchorBalance;
+        LocalDate date = anchorDate;
+        for (int i = days - 1; i >= 0; i--) {
+            balances[i] = new DailyBalance(date, balance);
+            BigDecimal net = dailyNet.get(date);
+            if (net != null) {
+                balance = balance.subtract(net);
+            }
+            date = date.minusDays(1);
+        }
+        return Arrays.asList(balances);
+    }
+
+    /** The day the account's reported balance applies to, in UTC like posted dates. */
+    public LocalDate anchorDate(Account account, LocalDate today) {
+        if (account.getBalanceUpdatedAt() == null) {
+            return today;
+        }
+        return account.getBalanceUpdatedAt().atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    public BigDecimal anchorBalance(Account account) {
+        return account.getCurrentBalance() != null ? account.getCurrentBalance() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,115 @@
+package com.peter.budget.service.event;
+
+import com.peter.budget.model.enums.UserEventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes per-user change notifications to connected clients over Server-Sent Events,
+ * so dashboards refresh when a sync or background job changes data instead of polling.
+ * <p>
+ * A sink exists only while the user has at least one open stream. Publishing for a
+ * user with no open stream does nothing. Events raised inside a transaction are sent
+ * after it commits, so a client that refetches on receipt sees the new data. Streams
+ * are node-local: a client only hears about work done on the node it is connected to.
+ */
+@Slf4j
+@Service
+public class UserEventService {
+
+    private final Map<Long, UserSink> sinks = new ConcurrentHashMap<>();
+
+    @Value("${app.events.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${app.events.stream-minutes:30}")
+    private long streamMinutes;
+
+    public Flux<ServerSentEvent<Object>> stream(Long userId) {
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.builder().comment("keep-alive").build());
+
+        // Each subscription holds a reference on the user's sink from subscribe to
+        // termination, so a tab closing cannot remove the sink a new tab is joining.
+        // Streams end after a while so the async request completes cleanly; EventSource
+        // clients reconnect on their own.
+        return Flux.defer(() -> {
+            UserSink userSink = acquire(userId);
+            return Flux.merge(userSink.sink.asFlux(), heartbeats)
+                    .take(Duration.ofMinutes(streamMinutes))
+                    .doFinally(signal -> release(userId, userSink));
+        });
+    }
+
+    public void publish(Long userId, UserEventType type, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emit(userId, type, payload);
+                }
+            });
+            return;
+        }
+        emit(userId, type, payload);
+    }
+
+    public void publishChanged(Long userId, UserEventType type) {
+        publish(userId, type, Map.of());
+    }
+
+    // Creating, counting and removing a user's sink all happen inside the map's atomic
+    // compute, so acquire and release for the same user never interleave.
+    private UserSink acquire(Long userId) {
+        return sinks.compute(userId, (id, current) -> {
+            UserSink userSink = current != null ? current : new UserSink();
+            userSink.streams++;
+            return userSink;
+        });
+    }
+
+    private void release(Long userId, UserSink userSink) {
+        sinks.computeIfPresent(userId, (id, current) -> {
+            if (current != userSink) {
+                return current;
+            }
+            current.streams--;
+            return current.streams == 0 ? null : current;
+        });
+    }
+
+    private void emit(Long userId, UserEventType type, Object payload) {
+        UserSink userSink = sinks.get(userId);
+        if (userSink == null) {
+            return;
+        }
+        Sinks.Many<ServerSentEvent<Object>> sink = userSink.sink;
+
+        ServerSentEvent<Object> event = ServerSentEvent.builder(payload)
+                .event(type.getEventName())
+                .build();
+        // Jobs for the same user can finish on different worker threads at once.
+        synchronized (sink) {
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                log.debug("Dropped {} event for user {}: {}", type, userId, result);
+            }
+        }
+    }
+
+    private static final class UserSink {
+        private final Sinks.Many<ServerSentEvent<Object>> sink = Sinks.many().multicast().directBestEffort();
+        // Only read or written inside sinks.compute / computeIfPresent for this user.
+        private int streams;
+    }
+}
@@ -0,0 +1,104 @@
+package com.peter.budget.service.job;
+
+import com.peter.budget.model.dto.SyncProgressDto;
+import com.peter.budget.model.dto.SyncResultDto;
+import com.peter.budget.model.entity.SyncJob;
+import com.peter.budget.model.enums.UserEventType;
+import com.peter.budget.service.BalanceHistoryService;
+import com.peter.budget.service.NetWorthSnapshotService;
+import com.peter.budget.service.RecurringDetectionService;
+import com.peter.budget.service.TransferDetectionService;
+import com.peter.budget.service.event.UserEventService;
+import com.peter.budget.service.profiling.QueryProfiler;
+import com.peter.budget.service.simplefin.SimpleFinSyncOrchestrator;
+import com.peter.budget.service.simplefin.SimpleFinSyncSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncJobRunner {
+
+    private final TransferDetectionService transferDetectionService;
+    private final RecurringDetectionService recurringDetectionService;
+    private final NetWorthSnapshotService netWorthSnapshotService;
+    private final BalanceHistoryService balanceHistoryService;
+    private final SimpleFinSyncSupport syncSupport;
+    private final SimpleFinSyncOrchestrator syncOrchestrator;
+    private final SyncJobService syncJobService;
+    private final UserEventService userEventService;
+    private final MeterRegistry meterRegistry;
+    private final QueryProfiler queryProfiler;
+
+    public void run(SyncJob job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            queryProfiler.profile("job", job.getJobType().name(), () -> execute(job));
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("budget.jobs.run")
+                    .description("Background job run time by job type")
+                    .tag("type", job.getJobType().name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void execute(SyncJob job) {
+        switch (job.getJobType()) {
+            case CONNECTION_SYNC -> {
+                SyncResultDto result = syncOrchestrator.syncConnection(
+                        job.getUserId(), job.getConnectionId(), job.isFullSync(),
+                        (message, accountsSynced, transactionsAdded) -> {
+                            syncJobService.recordProgress(job, message, accountsSynced, transactionsAdded);
+                            userEventService.publish(job.getUserId(), UserEventType.SYNC_PROGRESS,
+                                    SyncProgressDto.builder()
+                                            .jobId(job.getId())
+                                            .connectionId(job.getConnectionId())
+                                            .message(message)
+                                            .accountsSynced(accountsSynced)
+                                            .transactionsAdded(transactionsAdded)
+                                            .build());
+                        });
+                syncJobService.recordResult(job, result);
+                userEventService.publish(job.getUserId(), UserEventType.SYNC_COMPLETED, result);
+                log.info("Connection sync job {} for connection {}: accounts={}, added={}, updated={}",
+                        job.getId(), job.getConnectionId(), result.getAccountsSynced(),
+                        result.getTransactionsAdded(), result.getTransactionsUpdated());
+            }
+            case TRANSFER_DETECTION -> {
+                int detected = transferDetectionService.detectTransfers(job.getUserId());
+                log.info("Transfer detection job {} for user {}: detected={}", job.getId(), job.getUserId(), detected);
+            }
+            case RECURRING_DETECTION -> {
+                // The pending transfer job queues a fresh run when it succeeds.
+                if (syncJobService.isTransferDetectionPending(job.getUserId())) {
+                    syncJobService.recordDetectionDeferred(job);
+                    log.info("Recurring detection job {} for user {}: deferred until transfer detection finishes",
+                            job.getId(), job.getUserId());
+                    return;
+                }
+                long startedAt = System.nanoTime();
+                int detected = recurringDetectionService.detectRecurringPatterns(job.getUserId());
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+                syncJobService.recordDetectionResult(job, detected, elapsed);
+                log.info("Recurring detection job {} for user {}: detected={}, elapsedMs={}",
+                        job.getId(), job.getUserId(), detected, elapsed.toMillis());
+            }
+            case CONNECTION_SUMMARY -> syncSupport.refreshInstitutionSummary(job.getConnectionId());
+            case NET_WORTH_SNAPSHOT -> netWorthSnapshotService.recordSnapshot(job.getUserId());
+            case BALANCE_HISTORY -> {
+                int refreshed = balanceHistoryService.refreshConnection(job.getConnectionId());
+                log.info("Balance history job {} for connection {}: accounts={}",
+                        job.getId(), job.getConnectionId(), refreshed);
+            }
+        }
+    }
+}
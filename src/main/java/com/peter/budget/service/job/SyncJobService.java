@@ -0,0 +1,330 @@
+package com.peter.budget.service.job;
+
+import com.peter.budget.exception.ApiException;
+import com.peter.budget.model.dto.SyncJobDto;
+import com.peter.budget.model.dto.SyncResultDto;
+import com.peter.budget.model.entity.SimpleFinConnection;
+import com.peter.budget.model.entity.SyncJob;
+import com.peter.budget.model.enums.SyncJobStatus;
+import com.peter.budget.model.enums.SyncJobType;
+import com.peter.budget.repository.SimpleFinConnectionRepository;
+import com.peter.budget.repository.SyncJobRepository;
+import com.peter.budget.service.simplefin.SimpleFinSyncPolicy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncJobService {
+
+    private static final int RECENT_JOB_LIMIT = 20;
+    private static final Duration AWAIT_POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final SyncJobRepository jobRepository;
+    private final SimpleFinConnectionRepository connectionRepository;
+    private final SimpleFinSyncPolicy syncPolicy;
+
+    @Value("${app.sync-jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.sync-jobs.retry-backoff-seconds:60}")
+    private long retryBackoffSeconds;
+
+    @Value("${app.sync-jobs.manual-sync-wait-seconds:120}")
+    private long manualSyncWaitSeconds;
+
+    /**
+     * Queues the work that used to run inline at the end of a connection sync. The
+     * summary and balance history cover the synced connection's accounts. Transfer
+     * detection and the net-worth snapshot are user-wide, so they are queued without a
+     * connection and collapse when several connections finish back to back. Recurring
+     * detection is queued once transfer detection succeeds (see {@link #markSucceeded}).
+     */
+    public void enqueuePostSyncJobs(Long userId, Long connectionId) {
+        jobRepository.enqueueIfAbsent(userId, connectionId, SyncJobType.CONNECTION_SUMMARY);
+        jobRepository.enqueueIfAbsent(userId, connectionId, SyncJobType.BALANCE_HISTORY);
+        jobRepository.enqueueIfAbsent(userId, null, SyncJobType.TRANSFER_DETECTION);
+        jobRepository.enqueueIfAbsent(userId, null, SyncJobType.NET_WORTH_SNAPSHOT);
+    }
+
+    /**
+     * Whether transfer detection is still queued or running for the user. Recurring
+     * detection waits for it, because it folds each new transaction into the merchant
+     * aggregates once and would count transfer legs that are not marked yet.
+     */
+    public boolean isTransferDetectionPending(Long userId) {
+        return jobRepository.hasActiveJob(userId, SyncJobType.TRANSFER_DETECTION);
+    }
+
+    /**
+     * Queues one recurring detection job per user for the weekly sweep. Users who
+     * already have detection queued (for example after a recent sync) are not queued
+     * twice. The jobs run in parallel on the worker pools, and survive a restart like
+     * any other queued job.
+     *
+     * @return the number of jobs newly queued
+     */
+    public int enqueueRecurringDetection(Collection<Long> userIds) {
+        return enqueueForUsers(userIds, SyncJobType.RECURRING_DETECTION);
+    }
+
+    /**
+     * Queues one net-worth snapshot job per user for the nightly sweep, so users whose
+     * balances did not sync that day still get a point for it.
+     *
+     * @return the number of jobs newly queued
+     */
+    public int enqueueNetWorthSnapshots(Collection<Long> userIds) {
+        return enqueueForUsers(userIds, SyncJobType.NET_WORTH_SNAPSHOT);
+    }
+
+    private int enqueueForUsers(Collection<Long> userIds, SyncJobType jobType) {
+        int queued = 0;
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            if (jobRepository.enqueueIfAbsent(userId, null, jobType)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Queues a SimpleFIN sync for a connection and returns immediately. If a sync for
+     * the connection is already queued or running, that job is returned instead so
+     * repeated clicks do not stack up remote requests. A scheduled sync still waiting
+     * for its slot is moved up to run now.
+     * <p>
+     * Not transactional: a losing insert against the unique active key must not abort
+     * the transaction that then looks up the winning job.
+     */
+    public SyncJobDto enqueueConnectionSync(Long userId, Long connectionId, boolean fullSync) {
+        SimpleFinConnection connection = connectionRepository.findByIdAndUserId(connectionId, userId)
+                .orElseThrow(() -> ApiException.notFound("Connection not found"));
+
+        var active = jobRepository.findActiveByConnectionId(connectionId, SyncJobType.CONNECTION_SYNC);
+        if (active.isPresent()) {
+            if (active.get().getStatus() == SyncJobStatus.QUEUED) {
+                jobRepository.runNow(active.get().getId());
+            }
+            return toDto(active.get());
+        }
+
+        if (!syncPolicy.canMakeRequest(connection)) {
+            throw ApiException.tooManyRequests("Daily request limit reached. Try again tomorrow.");
+        }
+
+        try {
+            SyncJob job = jobRepository.insert(SyncJob.builder()
+                    .userId(userId)
+                    .connectionId(connectionId)
+                    .jobType(SyncJobType.CONNECTION_SYNC)
+                    .fullSync(fullSync)
+                    .build());
+            return toDto(job);
+        } catch (DuplicateKeyException e) {
+            // The scheduler or another request queued a sync in the meantime.
+            return jobRepository.findActiveByConnectionId(connectionId, SyncJobType.CONNECTION_SYNC)
+                    .map(this::toDto)
+                    .orElseThrow(() -> ApiException.conflict("A sync for this connection just finished. Try again."));
+        }
+    }
+
+    /**
+     * Queues a connection sync like {@link #enqueueConnectionSync} and waits for the job to
+     * finish, for the older synchronous sync endpoints. Going through the queue keeps them
+     * from running beside a queued or running sync of the same connection.
+     *
+     * @return the job as last read; still queued or running when the wait ran out
+     */
+    public SyncJobDto runConnectionSync(Long userId, Long connectionId, boolean fullSync) {
+        SyncJobDto job = enqueueConnectionSync(userId, connectionId, fullSync);
+        Instant deadline = Instant.now().plusSeconds(manualSyncWaitSeconds);
+        while (isActive(job.getStatus()) && Instant.now().isBefore(deadline)) {
+            try {
+                Thread.sleep(AWAIT_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            job = getJob(userId, job.getId());
+        }
+        return job;
+    }
+
+    /**
+     * Queues a regular sync for a connection picked by the scheduler, to start no
+     * earlier than {@code runAfter}. Connections with a sync already queued or running
+     * are skipped. Any node's worker pool can claim the job, so a cluster shares the
+     * scheduled sync load.
+     *
+     * @return {@code true} when a new job was queued
+     */
+    public boolean enqueueScheduledSync(Long userId, Long connectionId, Instant runAfter) {
+        if (jobRepository.findActiveByConnectionId(connectionId, SyncJobType.CONNECTION_SYNC).isPresent()) {
+            return false;
+        }
+        try {
+            jobRepository.insert(SyncJob.builder()
+                    .userId(userId)
+                    .connectionId(connectionId)
+                    .jobType(SyncJobType.CONNECTION_SYNC)
+                    .runAfter(runAfter)
+                    .build());
+            return true;
+        } catch (DuplicateKeyException e) {
+            // A manual sync was queued between the check and the insert.
+            return false;
+        }
+    }
+
+    public SyncJobDto getJob(Long userId, Long jobId) {
+        return jobRepository.findByIdAndUserId(jobId, userId)
+                .map(this::toDto)
+                .orElseThrow(() -> ApiException.notFound("Sync job not found"));
+    }
+
+    public List<SyncJobDto> getConnectionJobs(Long userId, Long connectionId) {
+        connectionRepository.findByIdAndUserId(connectionId, userId)
+                .orElseThrow(() -> ApiException.notFound("Connection not found"));
+        return jobRepository.findRecentByConnectionId(connectionId, RECENT_JOB_LIMIT).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    public void recordProgress(SyncJob job, String message, int accountsSynced, int transactionsAdded) {
+        jobRepository.recordProgress(job.getId(), job.getLockedBy(), message, accountsSynced, transactionsAdded);
+    }
+
+    public void recordResult(SyncJob job, SyncResultDto result) {
+        jobRepository.recordResult(job.getId(), job.getLockedBy(), result.getAccountsSynced(), result.getTransactionsAdded(),
+                result.getTransactionsUpdated(), result.getWritesSkipped(), result.getMessage());
+    }
+
+    public void recordDetectionResult(SyncJob job, int patternsDetected, Duration elapsed) {
+        jobRepository.recordResult(job.getId(), job.getLockedBy(), 0, 0, 0, 0,
+                "Detected %d recurring patterns in %d ms".formatted(patternsDetected, elapsed.toMillis()));
+    }
+
+    public void recordDetectionDeferred(SyncJob job) {
+        jobRepository.recordResult(job.getId(), job.getLockedBy(), 0, 0, 0, 0,
+                "Deferred until transfer detection finishes");
+    }
+
+    @Transactional
+    public List<SyncJob> claimRunnable(String workerId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return jobRepository.claimRunnable(workerId, limit);
+    }
+
+    public void markSucceeded(SyncJob job) {
+        if (!jobRepository.markSucceeded(job.getId(), job.getLockedBy())) {
+            logLostLease(job);
+            return;
+        }
+        if (job.getJobType() == SyncJobType.TRANSFER_DETECTION) {
+            jobRepository.enqueueIfAbsent(job.getUserId(), null, SyncJobType.RECURRING_DETECTION);
+        }
+    }
+
+    public void markFailed(SyncJob job, Exception exception) {
+        String message = exception.getMessage() != null ? exception.getMessage() : exception.getClass().getSimpleName();
+
+        // Client errors (missing connection, bad credentials, exhausted quota) will not
+        // succeed on a retry, so they fail the job straight away.
+        boolean retryable = !(exception instanceof ApiException apiException)
+                || apiException.getStatus().is5xxServerError();
+
+        if (retryable && job.getAttempts() < maxAttempts) {
+            Instant runAfter = Instant.now().plusSeconds(retryBackoffSeconds * job.getAttempts());
+            log.warn("Sync job {} ({}) failed on attempt {}; retrying at {}: {}",
+                    job.getId(), job.getJobType(), job.getAttempts(), runAfter, message);
+            if (!jobRepository.markForRetry(job, runAfter, message)) {
+                logLostLease(job);
+            }
+            return;
+        }
+
+        if (!retryable) {
+            log.warn("Sync job {} ({}) failed: {}", job.getId(), job.getJobType(), message);
+            if (!jobRepository.markFailed(job.getId(), job.getLockedBy(), message)) {
+                logLostLease(job);
+            }
+            return;
+        }
+
+        log.error("Sync job {} ({}) failed after {} attempts", job.getId(), job.getJobType(), job.getAttempts(), exception);
+        if (!jobRepository.markFailed(job.getId(), job.getLockedBy(), message)) {
+            logLostLease(job);
+        }
+    }
+
+    // The lease expired while the job ran, so it was requeued and possibly claimed
+    // again; the current owner decides its status.
+    private void logLostLease(SyncJob job) {
+        log.warn("Sync job {} ({}) finished after worker {} lost its lease; leaving its status to the current owner",
+                job.getId(), job.getJobType(), job.getLockedBy());
+    }
+
+    public int heartbeat(String workerId) {
+        return jobRepository.heartbeat(workerId);
+    }
+
+    /**
+     * Recovers jobs whose worker stopped renewing its lease. Jobs that have used
+     * their last attempt are failed; the rest go back on the queue.
+     *
+     * @return the number of jobs requeued
+     */
+    @Transactional
+    public int requeueStale(Duration lease) {
+        Instant lockedBefore = Instant.now().minus(lease);
+        int failed = jobRepository.failStale(lockedBefore, maxAttempts,
+                "Worker lease expired after %d attempts".formatted(maxAttempts));
+        if (failed > 0) {
+            log.warn("Failed {} sync jobs whose worker lease expired on their last attempt", failed);
+        }
+        return jobRepository.requeueStale(lockedBefore);
+    }
+
+    public int purgeFinishedBefore(Instant cutoff) {
+        return jobRepository.deleteFinishedBefore(cutoff);
+    }
+
+    private static boolean isActive(SyncJobStatus status) {
+        return status == SyncJobStatus.QUEUED || status == SyncJobStatus.RUNNING;
+    }
+
+    private SyncJobDto toDto(SyncJob job) {
+        return SyncJobDto.builder()
+                .id(job.getId())
+                .connectionId(job.getConnectionId())
+                .jobType(job.getJobType())
+                .status(job.getStatus())
+                .fullSync(job.isFullSync())
+                .attempts(job.getAttempts())
+                .progressMessage(job.getProgressMessage())
+                .accountsSynced(job.getAccountsSynced())
+                .transactionsAdded(job.getTransactionsAdded())
+                .transactionsUpdated(job.getTransactionsUpdated())
+                .writesSkipped(job.getWritesSkipped())
+                .resultMessage(job.getResultMessage())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.peter.budget.service.job;
+
+import com.peter.budget.model.entity.SyncJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls {@code sync_jobs} and runs claimed jobs on a small bounded pool, so
+ * post-sync work never holds up the request that triggered the sync.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncJobWorker {
+
+    private final SyncJobService jobService;
+    private final SyncJobRunner jobRunner;
+
+    @Value("${app.sync-jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sync-jobs.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${app.sync-jobs.lease-minutes:15}")
+    private long leaseMinutes;
+
+    private final String workerId = "worker-" + UUID.randomUUID();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "sync-job-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.sync-jobs.stale-check-interval-ms:300000}",
+            initialDelayString = "${app.sync-jobs.stale-check-interval-ms:300000}")
+    public void recoverStaleJobs() {
+        if (!enabled) {
+            return;
+        }
+        int requeued = jobService.requeueStale(Duration.ofMinutes(leaseMinutes));
+        if (requeued > 0) {
+            log.info("Requeued {} sync jobs whose worker lease expired", requeued);
+        }
+    }
+
+    // Renews the lease on every job this worker is running, whatever its type, so a
+    // long detection run is not requeued and run a second time by another worker.
+    @Scheduled(fixedDelayString = "${app.sync-jobs.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        if (!enabled || inFlight.get() == 0) {
+            return;
+        }
+        jobService.heartbeat(workerId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sync-jobs.poll-interval-ms:2000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+
+        int capacity = Math.max(1, workerThreads) - inFlight.get();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<SyncJob> jobs = jobService.claimRunnable(workerId, capacity);
+        for (SyncJob job : jobs) {
+            inFlight.incrementAndGet();
+            try {
+                executor.execute(() -> execute(job));
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                jobService.markFailed(job, e);
+            }
+        }
+    }
+
+    void execute(SyncJob job) {
+        try {
+            jobRunner.run(job);
+            jobService.markSucceeded(job);
+        } catch (Exception e) {
+            jobService.markFailed(job, e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
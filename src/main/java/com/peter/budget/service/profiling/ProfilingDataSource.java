@@ -0,0 +1,126 @@
+package com.peter.budget.service.profiling;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source so each statement execution is timed and reported to
+ * {@link QueryProfiler}. Prepared statements are reported with their {@code ?} placeholders,
+ * which is what the profiler fingerprints. Threads without an open profile only pay for a
+ * {@link ThreadLocal} lookup.
+ */
+public class ProfilingDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+
+    public ProfilingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return profiled(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return profiled(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /** Closes the pool when the context shuts down, as the unwrapped bean would have been. */
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static Connection profiled(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class},
+                new ConnectionHandler(connection));
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "getTargetConnection" -> {
+                    return target;
+                }
+                default -> {
+                }
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = PREPARE_METHODS.contains(method.getName()) ? (String) args[0] : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(
+                        ProfilingDataSource.class.getClassLoader(),
+                        new Class<?>[] {type},
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target, String preparedSql) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long started = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                QueryProfiler.recordStatement(sql, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.peter.budget.service.profiling;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} bean in a {@link ProfilingDataSource} unless
+ * {@code app.query-profiler.enabled=false}.
+ */
+@Component
+public class ProfilingDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private boolean enabled = true;
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        enabled = environment.getProperty("app.query-profiler.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+            return new ProfilingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,81 @@
+package com.peter.budget.service.profiling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Statements run by one HTTP request or background job, grouped by fingerprint: the SQL with
+ * literals and bind-parameter lists collapsed, so {@code WHERE id = 1} and {@code WHERE id = 2}
+ * count as the same statement.
+ */
+public final class QueryProfile {
+
+    // Bounds memory for units that build SQL dynamically; later shapes share one bucket.
+    private static final int MAX_FINGERPRINTS = 200;
+    private static final String OTHER = "(other statements)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Stats> statements = new HashMap<>();
+    private int statementCount;
+    private long dbNanos;
+
+    void record(String sql, long nanos) {
+        statementCount++;
+        dbNanos += nanos;
+        String fingerprint = fingerprint(sql);
+        Stats stats = statements.get(fingerprint);
+        if (stats == null) {
+            if (statements.size() >= MAX_FINGERPRINTS) {
+                fingerprint = OTHER;
+            }
+            stats = statements.computeIfAbsent(fingerprint, key -> new Stats());
+        }
+        stats.count++;
+        stats.nanos += nanos;
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+
+    public long dbNanos() {
+        return dbNanos;
+    }
+
+    /** Fingerprints run at least {@code threshold} times, most frequent first. */
+    public List<RepeatedStatement> repeatedStatements(int threshold) {
+        List<RepeatedStatement> repeated = new ArrayList<>();
+        statements.forEach((fingerprint, stats) -> {
+            if (stats.count >= threshold && !fingerprint.equals(OTHER)) {
+                repeated.add(new RepeatedStatement(fingerprint, stats.count, stats.nanos));
+            }
+        });
+        repeated.sort(Comparator.comparingInt(RepeatedStatement::count).reversed());
+        return repeated;
+    }
+
+    static String fingerprint(String sql) {
+        if (sql == null) {
+            return "(unknown)";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    public record RepeatedStatement(String fingerprint, int count, long nanos) {}
+
+    private static final class Stats {
+        private int count;
+        private long nanos;
+    }
+}
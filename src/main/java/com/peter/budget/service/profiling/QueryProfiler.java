@@ -0,0 +1,133 @@
+package com.peter.budget.service.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements each HTTP request and background job runs, with their database
+ * time and repeated fingerprints. {@link ProfilingDataSource} reports every statement executed
+ * on a thread with an open profile. When a unit crosses a threshold it is logged as a warning.
+ * The most common case is the same statement running once per row (an N+1).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryProfiler {
+
+    private static final ThreadLocal<QueryProfile> CURRENT = new ThreadLocal<>();
+    private static final int MAX_LOGGED_FINGERPRINT_LENGTH = 160;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query-profiler.statement-threshold:50}")
+    private int statementThreshold = 50;
+
+    @Value("${app.query-profiler.repeat-threshold:10}")
+    private int repeatThreshold = 10;
+
+    @Value("${app.query-profiler.db-time-threshold-ms:500}")
+    private long dbTimeThresholdMs = 500;
+
+    /** Called by {@link ProfilingDataSource} after each statement execution. */
+    static void recordStatement(String sql, long nanos) {
+        QueryProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.record(sql, nanos);
+        }
+    }
+
+    /**
+     * Opens a profile on this thread. Returns {@code false}, and changes nothing, if one is
+     * already open, so nested units are counted in the outer one.
+     */
+    public boolean begin() {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new QueryProfile());
+        return true;
+    }
+
+    /**
+     * Closes this thread's profile, records its meters and logs it if it crossed a threshold.
+     *
+     * @param kind {@code http}, {@code job} or {@code scheduler}
+     * @param name a bounded name for the unit, such as a route pattern or job type
+     */
+    public QueryProfile end(String kind, String name) {
+        QueryProfile profile = CURRENT.get();
+        CURRENT.remove();
+        if (profile == null) {
+            return null;
+        }
+        report(kind, name, profile);
+        return profile;
+    }
+
+    public void profile(String kind, String name, Runnable task) {
+        boolean owner = begin();
+        try {
+            task.run();
+        } finally {
+            if (owner) {
+                end(kind, name);
+            }
+        }
+    }
+
+    private void report(String kind, String name, QueryProfile profile) {
+        DistributionSummary.builder("budget.db.statements")
+                .description("SQL statements run per HTTP request or background job")
+                .tag("kind", kind)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(profile.statementCount());
+        Timer.builder("budget.db.time")
+                .description("Database time per HTTP request or background job")
+                .tag("kind", kind)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(profile.dbNanos(), TimeUnit.NANOSECONDS);
+
+        List<QueryProfile.RepeatedStatement> repeated = profile.repeatedStatements(repeatThreshold);
+        long dbMillis = TimeUnit.NANOSECONDS.toMillis(profile.dbNanos());
+        if (repeated.isEmpty() && profile.statementCount() < statementThreshold && dbMillis < dbTimeThresholdMs) {
+            return;
+        }
+
+        if (!repeated.isEmpty()) {
+            Counter.builder("budget.db.repeated.statements")
+                    .description("Units that ran one statement fingerprint at least the repeat threshold times")
+                    .tag("kind", kind)
+                    .tag("name", name)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        log.warn("Query profile {} {}: {} statements, {} ms in database{}",
+                kind, name, profile.statementCount(), dbMillis,
+                repeated.isEmpty() ? "" : "; repeated: " + describe(repeated));
+    }
+
+    private static String describe(List<QueryProfile.RepeatedStatement> repeated) {
+        return repeated.stream()
+                .limit(3)
+                .map(statement -> statement.count() + "x [" + abbreviate(statement.fingerprint()) + "]")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String abbreviate(String fingerprint) {
+        return fingerprint.length() <= MAX_LOGGED_FINGERPRINT_LENGTH
+                ? fingerprint
+                : fingerprint.substring(0, MAX_LOGGED_FINGERPRINT_LENGTH) + "...";
+    }
+}
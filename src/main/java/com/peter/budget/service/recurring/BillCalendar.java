@@ -0,0 +1,142 @@
+package com.peter.budget.service.recurring;
+
+import com.peter.budget.model.entity.RecurringPattern;
+import com.peter.budget.repository.RecurringPatternRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user projection of active bills over the next {@code app.recurring.calendar-months}.
+ * Range queries binary-search a date-sorted list, so a month or year view needs no
+ * database work once the user's calendar is built.
+ * <p>
+ * Pattern writes on this node invalidate the user's calendar after commit. Writes on
+ * other nodes are picked up when the entry expires after
+ * {@code app.recurring.calendar-ttl-minutes}. Calendars are also rebuilt when the
+ * date changes, since overdue and next-occurrence positions depend on today. At most
+ * {@code app.recurring.calendar-max-users} calendars are kept; the least recently read
+ * one is dropped first.
+ */
+@Component
+@RequiredArgsConstructor
+public class BillCalendar {
+
+    private static final Comparator<BillOccurrence> BY_DUE_DATE = Comparator
+            .comparing(BillOccurrence::dueDate)
+            .thenComparing(occurrence -> occurrence.pattern().getId());
+
+    private final RecurringPatternRepository patternRepository;
+    private final Map<Long, Projection> projections = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Projection> eldest) {
+                    return size() > maxUsers;
+                }
+            });
+
+    @Value("${app.recurring.calendar-months:12}")
+    private int horizonMonths;
+
+    @Value("${app.recurring.calendar-ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${app.recurring.calendar-max-users:10000}")
+    private int maxUsers;
+
+    /**
+     * Projected bill occurrences due between {@code from} and {@code to} inclusive,
+     * ordered by due date. An overdue bill appears once, on its missed date.
+     */
+    public List<BillOccurrence> between(Long userId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        Projection projection = projections.get(userId);
+        if (projection == null || !projection.isFreshFor(today, Instant.now())) {
+            List<RecurringPattern> bills = patternRepository.findActiveBillsByUserId(userId);
+            projection = project(bills, today, today.plusMonths(horizonMonths));
+            projections.put(userId, projection);
+        }
+
+        if (to.isAfter(projection.until())) {
+            // Views past the cached horizon are rare; project them without caching.
+            return slice(project(projection.bills(), today, to).occurrences(), from, to);
+        }
+        return slice(projection.occurrences(), from, to);
+    }
+
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    projections.remove(userId);
+                }
+            });
+            return;
+        }
+        projections.remove(userId);
+    }
+
+    private Projection project(List<RecurringPattern> bills, LocalDate today, LocalDate until) {
+        List<BillOccurrence> occurrences = new ArrayList<>();
+        for (RecurringPattern bill : bills) {
+            LocalDate next = bill.getNextExpectedDate();
+            if (next == null || next.isAfter(until)) {
+                continue;
+            }
+            occurrences.add(new BillOccurrence(bill, next));
+
+            int dayOfMonth = bill.getDayOfMonth() != null ? bill.getDayOfMonth() : next.getDayOfMonth();
+            long index = RecurrenceSchedule.firstIndexOnOrAfter(next, bill.getFrequency(), dayOfMonth, 1, today);
+            LocalDate due = RecurrenceSchedule.occurrence(next, bill.getFrequency(), dayOfMonth, index);
+            while (!due.isAfter(until)) {
+                occurrences.add(new BillOccurrence(bill, due));
+                due = RecurrenceSchedule.occurrence(next, bill.getFrequency(), dayOfMonth, ++index);
+            }
+        }
+        occurrences.sort(BY_DUE_DATE);
+        return new Projection(today, Instant.now().plus(Duration.ofMinutes(ttlMinutes)), until,
+                List.copyOf(bills), List.copyOf(occurrences));
+    }
+
+    private static List<BillOccurrence> slice(List<BillOccurrence> occurrences, LocalDate from, LocalDate to) {
+        int low = 0;
+        int high = occurrences.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (occurrences.get(mid).dueDate().isBefore(from)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        int end = low;
+        while (end < occurrences.size() && !occurrences.get(end).dueDate().isAfter(to)) {
+            end++;
+        }
+        return occurrences.subList(low, end);
+    }
+
+    public record BillOccurrence(RecurringPattern pattern, LocalDate dueDate) {}
+
+    private record Projection(LocalDate builtOn, Instant expiresAt, LocalDate until,
+                              List<RecurringPattern> bills, List<BillOccurrence> occurrences) {
+
+        boolean isFreshFor(LocalDate today, Instant now) {
+            return builtOn.equals(today) && now.isBefore(expiresAt);
+        }
+    }
+}
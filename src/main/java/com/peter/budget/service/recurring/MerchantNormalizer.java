@@ -0,0 +1,94 @@
+package com.peter.budget.service.recurring;
+
+/**
+ * Turns a transaction description into the merchant key that recurring patterns are
+ * grouped and looked up by.
+ * <p>
+ * It makes one character pass and gives the same result as the original pipeline:
+ * upper-case, then {@code replaceAll("[0-9]{4,}", "")}, then
+ * {@code replaceAll("\\s+", " ")}, then {@code replaceAll("[#*]+", "")}, then
+ * {@code trim()}, then truncate to 50 characters. Each stage is replayed in order
+ * on the fly. Digit runs are buffered until their length is known. Whitespace is
+ * collapsed against what survives the digit stage. {@code #} and {@code *} still
+ * split whitespace runs, because the original removed them only after collapsing.
+ */
+public final class MerchantNormalizer {
+
+    static final int MAX_LENGTH = 50;
+    private static final int MIN_STRIPPED_DIGIT_RUN = 4;
+
+    private MerchantNormalizer() {
+    }
+
+    public static String normalize(String description) {
+        // Returns the same instance when the description is already upper-case.
+        String upper = description.toUpperCase();
+        int length = upper.length();
+        char[] out = new char[length];
+        int size = 0;
+
+        boolean previousWasWhitespace = false;
+        boolean rewroteWhitespace = false;
+        int digitRunStart = -1;
+
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? upper.charAt(i) : '\0';
+            boolean isDigit = i < length && c >= '0' && c <= '9';
+
+            if (isDigit) {
+                if (digitRunStart < 0) {
+                    digitRunStart = i;
+                }
+                continue;
+            }
+
+            if (digitRunStart >= 0) {
+                int runLength = i - digitRunStart;
+                if (runLength < MIN_STRIPPED_DIGIT_RUN) {
+                    upper.getChars(digitRunStart, i, out, size);
+                    size += runLength;
+                    previousWasWhitespace = false;
+                }
+                digitRunStart = -1;
+            }
+
+            if (i == length) {
+                break;
+            }
+
+            if (isRegexWhitespace(c)) {
+                if (!previousWasWhitespace) {
+                    out[size++] = ' ';
+                    previousWasWhitespace = true;
+                    rewroteWhitespace |= c != ' ';
+                }
+                continue;
+            }
+
+            previousWasWhitespace = false;
+            if (c != '#' && c != '*') {
+                out[size++] = c;
+            }
+        }
+
+        int start = 0;
+        while (start < size && out[start] <= ' ') {
+            start++;
+        }
+        int end = size;
+        while (end > start && out[end - 1] <= ' ') {
+            end--;
+        }
+
+        int trimmedLength = Math.min(end - start, MAX_LENGTH);
+        if (start == 0 && trimmedLength == length && !rewroteWhitespace) {
+            return upper;
+        }
+        return new String(out, start, trimmedLength);
+    }
+
+    // Matches java.util.regex "\s" without UNICODE_CHARACTER_CLASS: [ \t\n\x0B\f\r].
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+}
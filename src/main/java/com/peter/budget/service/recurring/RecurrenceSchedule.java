@@ -0,0 +1,87 @@
+package com.peter.budget.service.recurring;
+
+import com.peter.budget.model.enums.Frequency;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Closed-form occurrence arithmetic for recurring patterns.
+ * <p>
+ * Weekly and biweekly patterns step by a fixed number of days. Monthly, quarterly and
+ * yearly patterns step by whole months and land on the pattern's day of month,
+ * clamped to the length of the target month. Day 31 therefore stays the last day of
+ * each month instead of drifting after February. Finding the first occurrence on or
+ * after a date is a division, not a loop.
+ */
+final class RecurrenceSchedule {
+
+    private RecurrenceSchedule() {
+    }
+
+    /**
+     * The {@code n}th occurrence counted from {@code anchor}: the anchor itself
+     * (re-pinned to {@code dayOfMonth} for month-based patterns) is occurrence zero.
+     */
+    static LocalDate occurrence(LocalDate anchor, Frequency frequency, int dayOfMonth, long n) {
+        long stepDays = stepDays(frequency);
+        if (stepDays > 0) {
+            return anchor.plusDays(stepDays * n);
+        }
+        YearMonth month = YearMonth.from(anchor).plusMonths(stepMonths(frequency) * n);
+        return month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+    }
+
+    /**
+     * Index of the first occurrence at or after {@code minIndex} that falls on or
+     * after {@code notBefore}.
+     */
+    static long firstIndexOnOrAfter(LocalDate anchor, Frequency frequency, int dayOfMonth,
+                                    long minIndex, LocalDate notBefore) {
+        long stepDays = stepDays(frequency);
+        if (stepDays > 0) {
+            long daysAhead = ChronoUnit.DAYS.between(anchor, notBefore);
+            return Math.max(minIndex, ceilDiv(daysAhead, stepDays));
+        }
+
+        // Every occurrence in a month before notBefore's month is too early, and at most
+        // one more step is needed when the occurrence in that month precedes notBefore.
+        long monthsAhead = ChronoUnit.MONTHS.between(YearMonth.from(anchor), YearMonth.from(notBefore));
+        long index = Math.max(minIndex, ceilDiv(monthsAhead, stepMonths(frequency)));
+        if (occurrence(anchor, frequency, dayOfMonth, index).isBefore(notBefore)) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * The first occurrence strictly after {@code lastDate} that is on or after
+     * {@code notBefore}.
+     */
+    static LocalDate nextOnOrAfter(LocalDate lastDate, Frequency frequency, int dayOfMonth, LocalDate notBefore) {
+        long index = firstIndexOnOrAfter(lastDate, frequency, dayOfMonth, 1, notBefore);
+        return occurrence(lastDate, frequency, dayOfMonth, index);
+    }
+
+    private static long stepDays(Frequency frequency) {
+        return switch (frequency) {
+            case WEEKLY -> 7;
+            case BIWEEKLY -> 14;
+            case MONTHLY, QUARTERLY, YEARLY -> 0;
+        };
+    }
+
+    private static long stepMonths(Frequency frequency) {
+        return switch (frequency) {
+            case MONTHLY -> 1;
+            case QUARTERLY -> 3;
+            case YEARLY -> 12;
+            case WEEKLY, BIWEEKLY -> 0;
+        };
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
@@ -1,83 +1,242 @@
 package com.peter.budget.service.recurring;
 
+import com.peter.budget.model.entity.RecurringMerchantState;
 import com.peter.budget.model.entity.RecurringPattern;
 import com.peter.budget.model.entity.Transaction;
-import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository.DetectionCursor;
 import com.peter.budget.repository.RecurringPatternRepository;
 import com.peter.budget.repository.TransactionReadRepository;
+import com.peter.budget.repository.TransactionWriteRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps running per-merchant aggregates and folds in only the transactions added
+ * since the previous run, so a detection pass costs time in proportion to new data.
+ * A periodic full rebuild picks up edits the incremental path cannot see: deleted or
+ * re-amounted transactions, and transactions later marked as transfers.
+ */
 @Service
 @RequiredArgsConstructor
 public class RecurringPatternApplicationService {
 
-    private static final int MIN_OCCURRENCES_FOR_PATTERN = 2;
+    static final Duration FULL_REBUILD_INTERVAL = Duration.ofDays(30);
 
     private final RecurringPatternRepository patternRepository;
     private final TransactionReadRepository transactionReadRepository;
-    private final AccountRepository accountRepository;
+    private final TransactionWriteRepository transactionWriteRepository;
+    private final RecurringMerchantStateRepository merchantStateRepository;
     private final RecurringPatternDetectionEngine detectionEngine;
+    private final BillCalendar billCalendar;
 
     @Transactional
     public int detectRecurringPatterns(Long userId) {
-        List<Transaction> transactions = new ArrayList<>();
-
-        for (var account : accountRepository.findActiveByUserId(userId)) {
-            transactions.addAll(transactionReadRepository.findByAccountId(account.getId()));
-        }
+        DetectionCursor cursor = merchantStateRepository.lockCursor(userId);
+        Instant now = Instant.now();
+        boolean fullRebuild = cursor.lastFullRebuildAt() == null
+                || cursor.lastFullRebuildAt().isBefore(now.minus(FULL_REBUILD_INTERVAL));
 
+        long afterId = fullRebuild ? 0 : cursor.lastTransactionId();
+        List<Transaction> transactions = transactionReadRepository.findByActiveAccountsAfterId(userId, afterId);
         Map<String, List<Transaction>> groupedByMerchant = detectionEngine.groupByMerchant(transactions);
-        int patternsDetected = 0;
 
-        for (Map.Entry<String, List<Transaction>> entry : groupedByMerchant.entrySet()) {
-            String merchant = entry.getKey();
-            List<Transaction> merchantTransactions = entry.getValue();
+        Map<String, RecurringMerchantState> states = new HashMap<>();
+        if (fullRebuild) {
+            merchantStateRepository.deleteByUserId(userId);
+        } else {
+            for (RecurringMerchantState state : merchantStateRepository.findByUserIdAndMerchantKeys(
+                    userId, groupedByMerchant.keySet())) {
+                states.put(state.getMerchantKey(), state);
+            }
+        }
 
-            if (merchantTransactions.size() < MIN_OCCURRENCES_FOR_PATTERN) {
-                continue;
+        for (Map.Entry<String, List<Transaction>> entry : groupedByMerchant.entrySet()) {
+            RecurringMerchantState state = states.computeIfAbsent(entry.getKey(), merchant ->
+                    RecurringMerchantState.builder().userId(userId).merchantKey(merchant).build());
+            for (Transaction transaction : entry.getValue()) {
+                detectionEngine.accumulate(state, transaction);
             }
+        }
+        merchantStateRepository.saveAll(states.values());
+
+        long lastTransactionId = transactions.stream()
+                .mapToLong(Transaction::getId)
+                .max()
+                .orElse(afterId);
+        merchantStateRepository.updateCursor(userId, new DetectionCursor(
+                lastTransactionId, fullRebuild ? now : cursor.lastFullRebuildAt()));
+
+        // One read of the user's patterns; everything below is diffed in memory and
+        // written back in two batches, skipping patterns whose values did not change.
+        Map<String, RecurringPattern> patternsByMerchant = new HashMap<>();
+        for (RecurringPattern pattern : patternRepository.findByUserId(userId)) {
+            patternsByMerchant.putIfAbsent(pattern.getMerchantPattern().toUpperCase(), pattern);
+        }
 
-            var detectedPattern = detectionEngine.analyze(merchantTransactions);
+        List<RecurringPattern> inserts = new ArrayList<>();
+        Map<Long, RecurringPattern> updates = new LinkedHashMap<>();
+        int patternsDetected = 0;
+        Set<String> analyzedMerchants = new HashSet<>();
+        for (RecurringMerchantState state : states.values()) {
+            var detectedPattern = detectionEngine.analyze(state);
             if (detectedPattern.isPresent()) {
-                saveOrUpdatePattern(userId, merchant, detectedPattern.get(), merchantTransactions);
+                String merchant = state.getMerchantKey().toUpperCase();
+                RecurringPattern existing = patternsByMerchant.get(merchant);
+                if (existing == null) {
+                    RecurringPattern created = newPattern(userId, state, detectedPattern.get());
+                    patternsByMerchant.put(merchant, created);
+                    inserts.add(created);
+                } else if (applyDetection(existing, detectedPattern.get())) {
+                    updates.put(existing.getId(), existing);
+                }
+                analyzedMerchants.add(merchant);
                 patternsDetected++;
             }
         }
 
+        rollForwardStalePatterns(patternsByMerchant, analyzedMerchants, updates);
+
+        patternRepository.insertAll(inserts);
+        patternRepository.updateAll(updates.values());
+        if (!inserts.isEmpty() || !updates.isEmpty()) {
+            billCalendar.invalidate(userId);
+        }
+
+        linkTransactions(userId, fullRebuild, afterId, groupedByMerchant, analyzedMerchants, inserts, patternsByMerchant);
         return patternsDetected;
     }
 
-    private void saveOrUpdatePattern(Long userId, String merchant, RecurringPatternDetectionEngine.DetectedPattern pattern,
-                                     List<Transaction> transactions) {
-        RecurringPattern existing = patternRepository.findByMerchantPattern(userId, merchant).orElse(null);
-
-        if (existing != null) {
-            existing.setExpectedAmount(pattern.expectedAmount());
-            existing.setAmountVariance(pattern.amountVariance());
-            existing.setFrequency(pattern.frequency());
-            existing.setDayOfMonth(pattern.dayOfMonth());
-            existing.setDayOfWeek(pattern.dayOfWeek());
-            existing.setNextExpectedDate(pattern.nextExpectedDate());
-            existing.setLastOccurrenceAt(pattern.lastOccurrenceAt());
-            if (existing.getCategoryId() == null && pattern.categoryId() != null) {
-                existing.setCategoryId(pattern.categoryId());
+    /**
+     * Points the transactions of each detected merchant at its pattern. Incremental runs
+     * only see new transactions, so when one creates a pattern, that merchant's earlier
+     * transactions are read too. Merchant keys are normalized in Java, so the earlier
+     * descriptions are matched against the new merchants first, and only the
+     * transactions with a matching description are loaded.
+     */
+    private void linkTransactions(Long userId, boolean fullRebuild, long afterId,
+                                  Map<String, List<Transaction>> groupedByMerchant,
+                                  Set<String> analyzedMerchants,
+                                  List<RecurringPattern> created,
+                                  Map<String, RecurringPattern> patternsByMerchant) {
+        Map<String, List<Transaction>> members = groupedByMerchant;
+        if (!fullRebuild && !created.isEmpty()) {
+            Set<String> createdMerchants = new HashSet<>();
+            created.forEach(pattern -> createdMerchants.add(pattern.getMerchantPattern().toUpperCase()));
+
+            List<String> earlierDescriptions = transactionReadRepository
+                    .findDistinctDescriptionsByActiveAccountsThroughId(userId, afterId).stream()
+                    .filter(description -> createdMerchants.contains(detectionEngine.merchantKey(description).toUpperCase()))
+                    .toList();
+            List<Transaction> earlier = transactionReadRepository
+                    .findByActiveAccountsAndDescriptionsThroughId(userId, earlierDescriptions, afterId);
+
+            members = new HashMap<>(groupedByMerchant);
+            for (Map.Entry<String, List<Transaction>> entry : detectionEngine.groupByMerchant(earlier).entrySet()) {
+                members.merge(entry.getKey(), entry.getValue(), (recent, older) -> {
+                    List<Transaction> merged = new ArrayList<>(older);
+                    merged.addAll(recent);
+                    return merged;
+                });
+            }
+        }
+
+        Map<Long, Long> patternIdByTransactionId = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Transaction>> entry : members.entrySet()) {
+            String merchant = entry.getKey().toUpperCase();
+            if (!analyzedMerchants.contains(merchant)) {
+                continue;
+            }
+            Long patternId = patternsByMerchant.get(merchant).getId();
+            for (Transaction transaction : entry.getValue()) {
+                if (!transaction.isRecurring() || !patternId.equals(transaction.getRecurringPatternId())) {
+                    patternIdByTransactionId.put(transaction.getId(), patternId);
+                }
+            }
+        }
+        transactionWriteRepository.linkRecurringPatterns(patternIdByTransactionId);
+    }
+
+    /**
+     * Advances the next expected date of patterns whose merchant had no new activity, as
+     * the full re-analysis used to, without loading their transactions.
+     */
+    private void rollForwardStalePatterns(Map<String, RecurringPattern> patternsByMerchant,
+                                          Set<String> analyzedMerchants,
+                                          Map<Long, RecurringPattern> updates) {
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<String, RecurringPattern> entry : patternsByMerchant.entrySet()) {
+            RecurringPattern pattern = entry.getValue();
+            if (pattern.getId() == null
+                    || !pattern.isActive()
+                    || pattern.getNextExpectedDate() == null
+                    || !pattern.getNextExpectedDate().isBefore(today)
+                    || pattern.getLastOccurrenceAt() == null
+                    || analyzedMerchants.contains(entry.getKey())) {
+                continue;
             }
-            patternRepository.save(existing);
-            return;
+            pattern.setNextExpectedDate(detectionEngine.nextExpectedDate(
+                    pattern.getLastOccurrenceAt(), pattern.getFrequency(), pattern.getDayOfMonth()));
+            updates.put(pattern.getId(), pattern);
+        }
+    }
+
+    /**
+     * Copies a fresh detection onto an existing pattern and reports whether anything
+     * actually changed. Amounts compare by value since stored amounts carry a wider scale.
+     */
+    private boolean applyDetection(RecurringPattern existing, RecurringPatternDetectionEngine.DetectedPattern pattern) {
+        Long categoryId = existing.getCategoryId() != null ? existing.getCategoryId() : pattern.categoryId();
+        boolean changed = !sameAmount(existing.getExpectedAmount(), pattern.expectedAmount())
+                || !sameAmount(existing.getAmountVariance(), pattern.amountVariance())
+                || existing.getFrequency() != pattern.frequency()
+                || !Objects.equals(existing.getDayOfMonth(), pattern.dayOfMonth())
+                || !Objects.equals(existing.getDayOfWeek(), pattern.dayOfWeek())
+                || !Objects.equals(existing.getNextExpectedDate(), pattern.nextExpectedDate())
+                || !Objects.equals(existing.getLastOccurrenceAt(), pattern.lastOccurrenceAt())
+                || !Objects.equals(existing.getCategoryId(), categoryId);
+        if (!changed) {
+            return false;
         }
 
-        String name = transactions.get(0).getDescription();
+        existing.setExpectedAmount(pattern.expectedAmount());
+        existing.setAmountVariance(pattern.amountVariance());
+        existing.setFrequency(pattern.frequency());
+        existing.setDayOfMonth(pattern.dayOfMonth());
+        existing.setDayOfWeek(pattern.dayOfWeek());
+        existing.setNextExpectedDate(pattern.nextExpectedDate());
+        existing.setLastOccurrenceAt(pattern.lastOccurrenceAt());
+        existing.setCategoryId(categoryId);
+        return true;
+    }
+
+    private static boolean sameAmount(BigDecimal left, BigDecimal right) {
+        return left == null ? right == null : right != null && left.compareTo(right) == 0;
+    }
+
+    private RecurringPattern newPattern(Long userId, RecurringMerchantState state,
+                                        RecurringPatternDetectionEngine.DetectedPattern pattern) {
+        String merchant = state.getMerchantKey();
+        String name = state.getDisplayName();
         if (name != null && name.length() > 100) {
             name = name.substring(0, 100);
         }
 
-        RecurringPattern newPattern = RecurringPattern.builder()
+        return RecurringPattern.builder()
                 .userId(userId)
                 .name(name != null ? name : merchant)
                 .merchantPattern(merchant)
@@ -92,6 +251,5 @@ public class RecurringPatternApplicationService {
                 .active(true)
                 .lastOccurrenceAt(pattern.lastOccurrenceAt())
                 .build();
-        patternRepository.save(newPattern);
     }
 }
@@ -1,18 +1,15 @@
 package com.peter.budget.service.recurring;
 
+import com.peter.budget.model.entity.RecurringMerchantState;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.Frequency;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.YearMonth;
 import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,13 +19,18 @@ import java.util.stream.Collectors;
 public class RecurringPatternDetectionEngine {
 
     private static final int MIN_OCCURRENCES_FOR_PATTERN = 2;
-    private static final double AMOUNT_VARIANCE_THRESHOLD = 0.1;
+    private static final int CENTS_SCALE = 2;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
 
     public Map<String, List<Transaction>> groupByMerchant(List<Transaction> transactions) {
+        // Recurring charges repeat the same description, so normalize each distinct one once.
+        Map<String, String> merchantKeys = new HashMap<>();
         return transactions.stream()
                 .filter(transaction -> !transaction.isInternalTransfer() && transaction.getDescription() != null)
                 .collect(Collectors.groupingBy(
-                        transaction -> normalizeDescription(transaction.getDescription()),
+                        transaction -> merchantKeys.computeIfAbsent(
+                                transaction.getDescription(), MerchantNormalizer::normalize),
                         Collectors.toList()
                 ));
     }
@@ -38,93 +40,155 @@ public class RecurringPatternDetectionEngine {
             return Optional.empty();
         }
 
-        List<Transaction> sorted = transactions.stream()
-                .sorted(Comparator.comparing(Transaction::getPostedAt))
-                .toList();
-
-        List<Long> intervals = new ArrayList<>();
-        for (int i = 1; i < sorted.size(); i++) {
-            long days = ChronoUnit.DAYS.between(
-                    sorted.get(i - 1).getPostedAt().atZone(ZoneOffset.UTC).toLocalDate(),
-                    sorted.get(i).getPostedAt().atZone(ZoneOffset.UTC).toLocalDate()
-            );
-            intervals.add(days);
+        RecurringMerchantState state = RecurringMerchantState.builder().build();
+        for (Transaction transaction : transactions) {
+            accumulate(state, transaction);
+        }
+        return analyze(state);
+    }
+
+    /**
+     * Folds one transaction into a merchant's running aggregates. Everything
+     * {@link #analyze(RecurringMerchantState)} needs is order-independent, so
+     * transactions may arrive in any order across runs.
+     */
+    public void accumulate(RecurringMerchantState state, Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        Instant postedAt = transaction.getPostedAt();
+
+        if (state.getTransactionCount() == 0) {
+            state.setAmountSum(amount);
+            state.setAmountMin(amount);
+            state.setAmountMax(amount);
+            state.setFirstPostedAt(postedAt);
+            state.setLastPostedAt(postedAt);
+        } else {
+            state.setAmountSum(state.getAmountSum().add(amount));
+            if (amount.compareTo(state.getAmountMin()) < 0) {
+                state.setAmountMin(amount);
+            }
+            if (amount.compareTo(state.getAmountMax()) > 0) {
+                state.setAmountMax(amount);
+            }
+            if (postedAt.isBefore(state.getFirstPostedAt())) {
+                state.setFirstPostedAt(postedAt);
+            }
+            if (!postedAt.isBefore(state.getLastPostedAt())) {
+                state.setLastPostedAt(postedAt);
+            }
         }
 
-        if (intervals.isEmpty()) {
+        if (state.getDisplayName() == null) {
+            state.setDisplayName(transaction.getDescription());
+        }
+        if (transaction.getCategoryId() != null) {
+            state.getCategoryCounts().merge(transaction.getCategoryId(), 1, Integer::sum);
+        }
+        state.setTransactionCount(state.getTransactionCount() + 1);
+    }
+
+    public Optional<DetectedPattern> analyze(RecurringMerchantState state) {
+        int count = state.getTransactionCount();
+        if (count < MIN_OCCURRENCES_FOR_PATTERN) {
             return Optional.empty();
         }
 
-        double avgInterval = intervals.stream().mapToLong(Long::longValue).average().orElse(0);
+        // The gaps between consecutive sorted dates telescope, so their mean is
+        // simply the first-to-last span divided by the number of gaps.
+        long lastEpochDay = epochDay(state.getLastPostedAt());
+        long spanDays = lastEpochDay - epochDay(state.getFirstPostedAt());
+        double avgInterval = (double) spanDays / (count - 1);
         Frequency frequency = determineFrequency(avgInterval);
         if (frequency == null) {
             return Optional.empty();
         }
 
-        BigDecimal averageAmount = transactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(transactions.size()), 2, RoundingMode.HALF_UP);
-
-        BigDecimal maxVariance = transactions.stream()
-                .map(transaction -> transaction.getAmount().subtract(averageAmount).abs())
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-
-        if (averageAmount.abs().compareTo(BigDecimal.ZERO) > 0 &&
-                maxVariance.divide(averageAmount.abs(), 2, RoundingMode.HALF_UP)
-                        .compareTo(BigDecimal.valueOf(AMOUNT_VARIANCE_THRESHOLD)) > 0) {
+        // Amounts are compared as unscaled longs at the widest scale in play (at least
+        // cents), which keeps every rounding step identical to the BigDecimal maths.
+        BigDecimal amountMin = state.getAmountMin();
+        BigDecimal amountMax = state.getAmountMax();
+        int scale = Math.max(CENTS_SCALE, Math.max(state.getAmountSum().scale(),
+                Math.max(amountMin.scale(), amountMax.scale())));
+        long centsFactor = POWERS_OF_TEN[scale - CENTS_SCALE];
+
+        long averageCents = divideHalfUp(unscaled(state.getAmountSum(), scale), count * centsFactor);
+        long average = averageCents * centsFactor;
+
+        // |amount - average| is largest at one of the extremes.
+        long aboveAverage = Math.abs(unscaled(amountMax, scale) - average);
+        long belowAverage = Math.abs(unscaled(amountMin, scale) - average);
+        long maxVariance = Math.max(aboveAverage, belowAverage);
+
+        // variance / |average| rounded HALF_UP to two places exceeds 0.10 exactly
+        // when the unrounded ratio reaches 0.105.
+        long absAverage = Math.abs(average);
+        if (absAverage > 0 && 200 * maxVariance >= 21 * absAverage) {
             return Optional.empty();
         }
 
-        Transaction lastTransaction = sorted.get(sorted.size() - 1);
-        Integer dayOfMonth = lastTransaction.getPostedAt().atZone(ZoneOffset.UTC).getDayOfMonth();
+        int varianceScale = aboveAverage >= belowAverage
+                ? Math.max(amountMax.scale(), CENTS_SCALE)
+                : Math.max(amountMin.scale(), CENTS_SCALE);
+
+        LocalDate lastDate = LocalDate.ofEpochDay(lastEpochDay);
+        Integer dayOfMonth = lastDate.getDayOfMonth();
         Integer dayOfWeek = frequency == Frequency.WEEKLY
-                ? lastTransaction.getPostedAt().atZone(ZoneOffset.UTC).getDayOfWeek().getValue()
+                ? lastDate.getDayOfWeek().getValue()
                 : null;
 
-        LocalDate nextExpected = calculateNextExpectedDate(
-                lastTransaction.getPostedAt().atZone(ZoneOffset.UTC).toLocalDate(),
-                frequency,
-                dayOfMonth
-        );
-
-        Long categoryId = transactions.stream()
-                .filter(transaction -> transaction.getCategoryId() != null)
-                .collect(Collectors.groupingBy(Transaction::getCategoryId, Collectors.counting()))
-                .entrySet()
-                .stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
+        LocalDate nextExpected = calculateNextExpectedDate(lastDate, frequency, dayOfMonth);
 
-        boolean isBill = averageAmount.compareTo(BigDecimal.ZERO) < 0;
+        Long categoryId = null;
+        int topCount = 0;
+        for (Map.Entry<Long, Integer> entry : state.getCategoryCounts().entrySet()) {
+            if (categoryId == null || entry.getValue() > topCount) {
+                categoryId = entry.getKey();
+                topCount = entry.getValue();
+            }
+        }
 
         return Optional.of(new DetectedPattern(
                 frequency,
-                averageAmount.abs(),
-                maxVariance,
+                BigDecimal.valueOf(Math.abs(averageCents), CENTS_SCALE),
+                BigDecimal.valueOf(maxVariance, scale).setScale(varianceScale),
                 dayOfMonth,
                 dayOfWeek,
                 nextExpected,
                 categoryId,
-                isBill,
-                lastTransaction.getPostedAt()
+                averageCents < 0,
+                state.getLastPostedAt()
         ));
     }
 
-    private String normalizeDescription(String description) {
-        String normalized = description.toUpperCase()
-                .replaceAll("[0-9]{4,}", "")
-                .replaceAll("\\s+", " ")
-                .replaceAll("[#*]+", "")
-                .trim();
+    public String merchantKey(String description) {
+        return MerchantNormalizer.normalize(description);
+    }
+
+    /**
+     * Rolls a pattern's next expected date forward from its last occurrence without
+     * re-reading transactions. Matches the date {@link #analyze} would produce.
+     */
+    public LocalDate nextExpectedDate(Instant lastOccurrenceAt, Frequency frequency, Integer dayOfMonth) {
+        LocalDate lastDate = lastOccurrenceAt.atZone(ZoneOffset.UTC).toLocalDate();
+        return calculateNextExpectedDate(lastDate, frequency,
+                dayOfMonth != null ? dayOfMonth : lastDate.getDayOfMonth());
+    }
 
-        if (normalized.length() > 50) {
-            return normalized.substring(0, 50);
-        }
+    private static long epochDay(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY);
+    }
 
-        return normalized;
+    private static long unscaled(BigDecimal amount, int scale) {
+        return amount.setScale(scale).unscaledValue().longValueExact();
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (2 * Math.abs(remainder) >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
     }
 
     private Frequency determineFrequency(double averageDays) {
@@ -147,35 +211,7 @@ public class RecurringPatternDetectionEngine {
     }
 
     private LocalDate calculateNextExpectedDate(LocalDate lastDate, Frequency frequency, Integer dayOfMonth) {
-        LocalDate now = LocalDate.now();
-
-        return switch (frequency) {
-            case WEEKLY -> advanceUntilOnOrAfter(lastDate.plusWeeks(1), now, frequency);
-            case BIWEEKLY -> advanceUntilOnOrAfter(lastDate.plusWeeks(2), now, frequency);
-            case MONTHLY -> {
-                YearMonth nextMonth = YearMonth.from(lastDate).plusMonths(1);
-                while (nextMonth.atDay(Math.min(dayOfMonth, nextMonth.lengthOfMonth())).isBefore(now)) {
-                    nextMonth = nextMonth.plusMonths(1);
-                }
-                yield nextMonth.atDay(Math.min(dayOfMonth, nextMonth.lengthOfMonth()));
-            }
-            case QUARTERLY -> advanceUntilOnOrAfter(lastDate.plusMonths(3), now, frequency);
-            case YEARLY -> advanceUntilOnOrAfter(lastDate.plusYears(1), now, frequency);
-        };
-    }
-
-    private LocalDate advanceUntilOnOrAfter(LocalDate value, LocalDate now, Frequency frequency) {
-        LocalDate result = value;
-        while (result.isBefore(now)) {
-            result = switch (frequency) {
-                case WEEKLY -> result.plusWeeks(1);
-                case BIWEEKLY -> result.plusWeeks(2);
-                case QUARTERLY -> result.plusMonths(3);
-                case YEARLY -> result.plusYears(1);
-                default -> result;
-            };
-        }
-        return result;
+        return RecurrenceSchedule.nextOnOrAfter(lastDate, frequency, dayOfMonth, LocalDate.now());
     }
 
     public record DetectedPattern(
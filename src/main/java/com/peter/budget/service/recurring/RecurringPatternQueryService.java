@@ -7,15 +7,19 @@ import com.peter.budget.model.dto.UpcomingBillDto;
 import com.peter.budget.model.entity.Category;
 import com.peter.budget.model.entity.RecurringPattern;
 import com.peter.budget.repository.RecurringPatternRepository;
+import com.peter.budget.repository.TransactionWriteRepository;
 import com.peter.budget.service.CategoryViewService;
+import com.peter.budget.service.recurring.BillCalendar.BillOccurrence;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +27,8 @@ public class RecurringPatternQueryService {
 
     private final RecurringPatternRepository patternRepository;
     private final CategoryViewService categoryViewService;
+    private final BillCalendar billCalendar;
+    private final TransactionWriteRepository transactionWriteRepository;
 
     public List<RecurringPatternDto> getRecurringPatterns(Long userId) {
         return patternRepository.findActiveByUserId(userId).stream()
@@ -34,28 +40,28 @@ public class RecurringPatternQueryService {
         LocalDate now = LocalDate.now();
         LocalDate endDate = now.plusDays(days);
 
-        return patternRepository.findUpcomingBills(userId, now.minusDays(7), endDate).stream()
-                .map(pattern -> toUpcomingBillDto(pattern, now))
-                .sorted(Comparator.comparing(UpcomingBillDto::getDueDate,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
+        // Only each bill's first due date in the window; the calendar may hold several.
+        Set<Long> seenPatterns = new HashSet<>();
+        List<BillOccurrence> occurrences = billCalendar.between(userId, now.minusDays(7), endDate).stream()
+                .filter(occurrence -> seenPatterns.add(occurrence.pattern().getId()))
                 .toList();
+        return toUpcomingBillDtos(userId, occurrences, now);
     }
 
     public List<UpcomingBillDto> getBillsForMonth(Long userId, int year, int month) {
-        LocalDate now = LocalDate.now();
+        LocalDate startOfMonth = LocalDate.of(year, month, 1);
+        LocalDate endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
 
-        return patternRepository.findBillsForMonth(userId, year, month).stream()
-                .map(pattern -> toUpcomingBillDto(pattern, now))
-                .sorted(Comparator.comparing(UpcomingBillDto::getDueDate,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
-                .toList();
+        return toUpcomingBillDtos(userId, billCalendar.between(userId, startOfMonth, endOfMonth), LocalDate.now());
     }
 
     @Transactional
     public void deletePattern(Long userId, Long patternId) {
         RecurringPattern pattern = patternRepository.findByIdAndUserId(patternId, userId)
                 .orElseThrow(() -> ApiException.notFound("Pattern not found"));
+        transactionWriteRepository.unlinkRecurringPattern(pattern.getId());
         patternRepository.deleteById(pattern.getId());
+        billCalendar.invalidate(userId);
     }
 
     @Transactional
@@ -64,31 +70,40 @@ public class RecurringPatternQueryService {
                 .orElseThrow(() -> ApiException.notFound("Pattern not found"));
         pattern.setActive(active);
         pattern = patternRepository.save(pattern);
+        billCalendar.invalidate(userId);
         return toDto(pattern);
     }
 
-    private UpcomingBillDto toUpcomingBillDto(RecurringPattern pattern, LocalDate now) {
-        boolean overdue = pattern.getNextExpectedDate() != null &&
-                pattern.getNextExpectedDate().isBefore(now);
-        int daysUntilDue = pattern.getNextExpectedDate() != null
-                ? (int) ChronoUnit.DAYS.between(now, pattern.getNextExpectedDate())
-                : 0;
+    private List<UpcomingBillDto> toUpcomingBillDtos(Long userId, List<BillOccurrence> occurrences, LocalDate now) {
+        boolean anyCategorized = occurrences.stream()
+                .anyMatch(occurrence -> occurrence.pattern().getCategoryId() != null);
+        Map<Long, Category> categories = anyCategorized
+                ? categoryViewService.getEffectiveCategoryMapForUser(userId)
+                : Map.of();
+
+        return occurrences.stream()
+                .map(occurrence -> toUpcomingBillDto(occurrence, now, categories))
+                .toList();
+    }
+
+    private UpcomingBillDto toUpcomingBillDto(BillOccurrence occurrence, LocalDate now, Map<Long, Category> categories) {
+        RecurringPattern pattern = occurrence.pattern();
+        LocalDate dueDate = occurrence.dueDate();
 
         CategoryDto categoryDto = null;
         if (pattern.getCategoryId() != null) {
-            categoryDto = categoryViewService.getEffectiveCategoryByIdForUser(pattern.getUserId(), pattern.getCategoryId())
-                    .map(this::toCategoryDto)
-                    .orElse(null);
+            Category category = categories.get(pattern.getCategoryId());
+            categoryDto = category != null ? toCategoryDto(category) : null;
         }
 
         return UpcomingBillDto.builder()
                 .patternId(pattern.getId())
                 .name(pattern.getName())
                 .expectedAmount(pattern.getExpectedAmount())
-                .dueDate(pattern.getNextExpectedDate())
-                .daysUntilDue(daysUntilDue)
+                .dueDate(dueDate)
+                .daysUntilDue((int) ChronoUnit.DAYS.between(now, dueDate))
                 .category(categoryDto)
-                .overdue(overdue)
+                .overdue(dueDate.isBefore(now))
                 .build();
     }
 
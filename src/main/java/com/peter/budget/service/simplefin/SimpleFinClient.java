@@ -1,7 +1,11 @@
 package com.peter.budget.service.simplefin;
 
 import com.peter.budget.exception.ApiException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -18,15 +22,38 @@ import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class SimpleFinClient {
 
     private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary fetchedAccounts;
+    private final DistributionSummary fetchedTransactions;
+    // Hosts allowed in addition to simplefin.org, over plain HTTP as well as HTTPS.
+    private final Set<String> testHosts;
+
+    @Autowired
+    public SimpleFinClient(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this(webClientBuilder, meterRegistry, Set.of());
+    }
 
-    public SimpleFinClient(WebClient.Builder webClientBuilder) {
+    /**
+     * Also accepts {@code testHosts}, over plain HTTP as well. Only for a local SimpleFIN
+     * emulator in tests and benchmarks; the application bean always uses the constructor above.
+     */
+    SimpleFinClient(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry, Set<String> testHosts) {
         this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+        this.testHosts = Set.copyOf(testHosts);
+        this.fetchedAccounts = DistributionSummary.builder("simplefin.fetch.accounts")
+                .description("Accounts returned per SimpleFIN /accounts call")
+                .register(meterRegistry);
+        this.fetchedTransactions = DistributionSummary.builder("simplefin.fetch.transactions")
+                .description("Transactions returned per SimpleFIN /accounts call")
+                .register(meterRegistry);
     }
 
     public String exchangeSetupToken(String setupToken) {
@@ -64,6 +91,8 @@ public class SimpleFinClient {
     }
 
     public SimpleFinAccountsResponse fetchAccounts(String accessUrl, LocalDate startDate, LocalDate endDate) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             URI baseUri = validateSimpleFinUri(accessUrl, true);
             String credentials = baseUri.getUserInfo();
@@ -99,8 +128,12 @@ public class SimpleFinClient {
                     .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
                     .block();
 
-            return parseAccountsResponse(response);
+            SimpleFinAccountsResponse parsed = parseAccountsResponse(response);
+            recordPayloadSize(parsed);
+            outcome = "success";
+            return parsed;
         } catch (WebClientResponseException e) {
+            outcome = e.getStatusCode().value() == 403 ? "unauthorized" : "error";
             log.error("SimpleFin API error during account fetch: {} - {}", e.getStatusCode(), e.getMessage());
             if (e.getStatusCode().value() == 403) {
                 throw ApiException.unauthorized("SimpleFin access token is invalid or expired");
@@ -109,7 +142,21 @@ public class SimpleFinClient {
         } catch (Exception e) {
             log.error("Error fetching accounts from SimpleFin", e);
             throw ApiException.internal("Failed to fetch accounts: " + e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("simplefin.fetch")
+                    .description("SimpleFIN /accounts request latency, including response parsing")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void recordPayloadSize(SimpleFinAccountsResponse response) {
+        fetchedAccounts.record(response.accounts().size());
+        int transactions = 0;
+        for (SimpleFinAccount account : response.accounts()) {
+            transactions += account.transactions().size();
         }
+        fetchedTransactions.record(transactions);
     }
 
     private URI validateSimpleFinUri(String rawUrl, boolean requireCredentials) {
@@ -128,10 +175,11 @@ public class SimpleFinClient {
         String host = uri.getHost();
         String userInfo = uri.getUserInfo();
 
-        if (scheme == null || !scheme.equalsIgnoreCase("https")) {
+        boolean testHost = host != null && isTestHost(host);
+        if (scheme == null || !(scheme.equalsIgnoreCase("https") || (testHost && scheme.equalsIgnoreCase("http")))) {
             throw ApiException.badRequest("SimpleFin URL must use HTTPS");
         }
-        if (host == null || !isAllowedSimpleFinHost(host)) {
+        if (host == null || !(isAllowedSimpleFinHost(host) || testHost)) {
             throw ApiException.badRequest("SimpleFin URL host is not allowed");
         }
         if (uri.getFragment() != null) {
@@ -153,6 +201,15 @@ public class SimpleFinClient {
         return normalized.equals("simplefin.org") || normalized.endsWith(".simplefin.org");
     }
 
+    private boolean isTestHost(String host) {
+        for (String testHost : testHosts) {
+            if (testHost.equalsIgnoreCase(host)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     private SimpleFinAccountsResponse parseAccountsResponse(Map<String, Object> response) {
         if (response == null) {
@@ -7,6 +7,7 @@ import com.peter.budget.model.enums.SyncStatus;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
 import com.peter.budget.service.EncryptionService;
+import com.peter.budget.service.job.SyncJobService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +23,7 @@ public class SimpleFinConnectionSetupService {
     private final AccountRepository accountRepository;
     private final EncryptionService encryptionService;
     private final SimpleFinSyncSupport syncSupport;
+    private final SyncJobService syncJobService;
 
     @Transactional
     public ConnectionDto setupConnection(Long userId, String setupToken) {
@@ -63,6 +65,8 @@ public class SimpleFinConnectionSetupService {
         connection.setLastSyncAt(Instant.now());
         connectionRepository.save(connection);
 
+        syncJobService.enqueuePostSyncJobs(userId, connection.getId());
+
         int accountCount = accountRepository.countByConnectionId(connection.getId());
 
         return ConnectionDto.builder()
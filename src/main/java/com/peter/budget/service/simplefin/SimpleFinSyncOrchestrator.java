@@ -2,22 +2,24 @@ package com.peter.budget.service.simplefin;
 
 import com.peter.budget.exception.ApiException;
 import com.peter.budget.model.dto.SyncResultDto;
-import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.SimpleFinConnection;
 import com.peter.budget.model.enums.SyncStatus;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.service.EncryptionService;
-import com.peter.budget.service.TransferDetectionService;
+import com.peter.budget.service.job.SyncJobService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -31,17 +33,22 @@ public class SimpleFinSyncOrchestrator {
     private final AccountRepository accountRepository;
     private final TransactionReadRepository transactionReadRepository;
     private final EncryptionService encryptionService;
-    private final TransferDetectionService transferDetectionService;
+    private final SyncJobService syncJobService;
     private final SimpleFinSyncPolicy syncPolicy;
     private final SimpleFinSyncSupport syncSupport;
+    private final SyncCadencePlanner cadencePlanner;
+    private final MeterRegistry meterRegistry;
 
-    @Transactional
     public SyncResultDto syncConnection(Long userId, Long connectionId) {
         return syncConnection(userId, connectionId, false);
     }
 
-    @Transactional
     public SyncResultDto syncConnection(Long userId, Long connectionId, boolean fullSync) {
+        return syncConnection(userId, connectionId, fullSync, SyncProgressListener.NONE);
+    }
+
+    public SyncResultDto syncConnection(Long userId, Long connectionId, boolean fullSync,
+                                        SyncProgressListener progressListener) {
         SimpleFinConnection connection = connectionRepository.findByIdAndUserId(connectionId, userId)
                 .orElseThrow(() -> ApiException.notFound("Connection not found"));
 
@@ -60,6 +67,8 @@ public class SimpleFinSyncOrchestrator {
         connection.setSyncStatus(SyncStatus.IN_PROGRESS);
         connectionRepository.save(connection);
 
+        Timer.Sample syncSample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
             String accessUrl = encryptionService.decrypt(connection.getAccessUrlEncrypted());
 
@@ -79,22 +88,20 @@ public class SimpleFinSyncOrchestrator {
 
             LocalDate incrementalEndDate = LocalDate.now();
 
-            int accountsSynced = 0;
-            int transactionsAdded = 0;
-            int transactionsUpdated = 0;
+            SyncTotals totals = new SyncTotals();
 
+            // Remote fetches run outside any transaction; each account is then
+            // ingested in its own short transaction by SimpleFinSyncSupport.
             syncPolicy.consumeRequestQuota(connection, connectionId);
             var response = simpleFinClient.fetchAccounts(accessUrl, incrementalStartDate, incrementalEndDate);
-            for (var sfAccount : response.accounts()) {
-                Account account = syncSupport.createOrUpdateAccount(userId, connectionId, sfAccount);
-                accountsSynced++;
-
-                var result = syncSupport.syncTransactions(account, sfAccount.transactions());
-                transactionsAdded += result.added();
-                transactionsUpdated += result.updated();
-            }
+            Timer.Sample stageSample = Timer.start(meterRegistry);
+            ingestAccounts(userId, connectionId, response.accounts(), totals);
+            stageSample.stop(stageTimer("ingest"));
+            progressListener.onProgress("Recent transactions synced",
+                    totals.accountsSynced, totals.transactionsAdded);
 
             if (!connection.isInitialSyncCompleted()) {
+                stageSample = Timer.start(meterRegistry);
                 LocalDate cursor = connection.getBackfillCursorDate();
                 int emptyBackfillWindows = 0;
                 if (cursor == null) {
@@ -107,18 +114,19 @@ public class SimpleFinSyncOrchestrator {
                     LocalDate windowStart = windowEnd.minusDays(syncPolicy.initialSyncDays());
                     int transactionsInWindow = 0;
 
-                    syncPolicy.consumeRequestQuota(connection, connectionId);
+                    // Another sync may have spent the remaining budget since the loop
+                    // check; stop the backfill here and resume from the cursor next time.
+                    if (!syncPolicy.tryConsumeRequestQuota(connection, connectionId)) {
+                        break;
+                    }
+                    progressListener.onProgress("Backfilling history from " + windowStart,
+                            totals.accountsSynced, totals.transactionsAdded);
                     var historicalResponse = simpleFinClient.fetchAccounts(accessUrl, windowStart, windowEnd);
 
                     for (var sfAccount : historicalResponse.accounts()) {
                         transactionsInWindow += sfAccount.transactions().size();
-                        Account account = syncSupport.createOrUpdateAccount(userId, connectionId, sfAccount);
-                        accountsSynced++;
-
-                        var result = syncSupport.syncTransactions(account, sfAccount.transactions());
-                        transactionsAdded += result.added();
-                        transactionsUpdated += result.updated();
                     }
+                    ingestAccounts(userId, connectionId, historicalResponse.accounts(), totals);
 
                     cursor = windowStart;
 
@@ -142,21 +150,23 @@ public class SimpleFinSyncOrchestrator {
                 } else {
                     connection.setBackfillCursorDate(cursor);
                 }
+                stageSample.stop(stageTimer("backfill"));
             }
 
-            int transfersDetected = transferDetectionService.detectTransfers(userId);
-
-            connection.setInstitutionName(syncSupport.summarizeInstitutionNames(
-                    accountRepository.findByConnectionId(connection.getId()).stream()
-                            .map(Account::getInstitutionName)
-                            .toList(),
-                    connection.getInstitutionName()
-            ));
+            Instant syncedAt = Instant.now();
+            stageSample = Timer.start(meterRegistry);
+            planNextSync(connection, totals.transactionsAdded > 0, syncedAt);
+            stageSample.stop(stageTimer("plan"));
             connection.setSyncStatus(SyncStatus.SUCCESS);
-            connection.setLastSyncAt(Instant.now());
+            connection.setConsecutiveFailedSyncs(0);
+            connection.setLastSyncAt(syncedAt);
             connection.setErrorMessage(null);
             connectionRepository.save(connection);
 
+            // Transfer detection, recurring detection and the institution summary
+            // run on the sync job worker once ingestion has committed.
+            syncJobService.enqueuePostSyncJobs(userId, connectionId);
+
             String successMessage;
             if (fullSync) {
                 successMessage = connection.isInitialSyncCompleted()
@@ -168,40 +178,96 @@ public class SimpleFinSyncOrchestrator {
                         : "Sync completed. Historical backfill is still in progress.";
             }
 
+            outcome = "success";
             return SyncResultDto.builder()
                     .success(true)
                     .message(successMessage)
-                    .accountsSynced(accountsSynced)
-                    .transactionsAdded(transactionsAdded)
-                    .transactionsUpdated(transactionsUpdated)
-                    .transfersDetected(transfersDetected)
+                    .accountsSynced(totals.accountsSynced)
+                    .transactionsAdded(totals.transactionsAdded)
+                    .transactionsUpdated(totals.transactionsUpdated)
+                    .writesSkipped(totals.writesSkipped)
                     .syncedAt(Instant.now())
                     .build();
         } catch (EncryptionOperationNotPossibleException e) {
             log.warn("Sync failed for connection {}: encrypted access URL could not be decrypted", connectionId);
-
-            connection.setSyncStatus(SyncStatus.FAILED);
-            connection.setErrorMessage(SIMPLEFIN_CREDENTIALS_ERROR);
-            connectionRepository.save(connection);
+            recordFailure(connection, SIMPLEFIN_CREDENTIALS_ERROR, true);
 
             throw ApiException.badRequest(SIMPLEFIN_CREDENTIALS_ERROR);
         } catch (ApiException e) {
             log.warn("Sync failed for connection {}: {}", connectionId, e.getMessage());
-
-            connection.setSyncStatus(SyncStatus.FAILED);
-            connection.setErrorMessage(e.getMessage());
-            connectionRepository.save(connection);
+            // Apart from running out of quota, client errors here mean the saved access
+            // URL was rejected, which a retry will not fix.
+            boolean credentialsRejected = e.getStatus().is4xxClientError()
+                    && e.getStatus() != HttpStatus.TOO_MANY_REQUESTS;
+            recordFailure(connection, e.getMessage(), credentialsRejected);
 
             throw e;
         } catch (Exception e) {
             log.error("Sync failed for connection {}", connectionId, e);
             String safeMessage = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
-
-            connection.setSyncStatus(SyncStatus.FAILED);
-            connection.setErrorMessage(safeMessage);
-            connectionRepository.save(connection);
+            recordFailure(connection, safeMessage, false);
 
             throw ApiException.internal("Sync failed: " + safeMessage);
+        } finally {
+            syncSample.stop(Timer.builder("budget.sync")
+                    .description("Connection sync duration, from decrypting credentials to planning the next sync")
+                    .tag("mode", fullSync ? "full" : "incremental")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
+
+    // Without a new due time the hourly scheduler would queue a failing connection again
+    // on every tick, and each attempt spends a SimpleFIN request.
+    private void recordFailure(SimpleFinConnection connection, String errorMessage, boolean credentialsRejected) {
+        connection.setSyncStatus(SyncStatus.FAILED);
+        connection.setErrorMessage(errorMessage);
+        connection.setConsecutiveFailedSyncs(connection.getConsecutiveFailedSyncs() + 1);
+        connection.setNextSyncAfter(cadencePlanner.planRetryAfterFailure(
+                connection.getConsecutiveFailedSyncs(), credentialsRejected, Instant.now()));
+        connectionRepository.save(connection);
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("budget.sync.stage")
+                .description("Time spent in each stage of a connection sync")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private void planNextSync(SimpleFinConnection connection, boolean foundNewData, Instant now) {
+        if (foundNewData) {
+            connection.setConsecutiveEmptySyncs(0);
+            connection.setLastNewDataAt(now);
+        } else {
+            connection.setConsecutiveEmptySyncs(connection.getConsecutiveEmptySyncs() + 1);
+        }
+
+        List<LocalDate> postingDates = transactionReadRepository.findDistinctPostedDatesByConnectionId(
+                connection.getId(), cadencePlanner.historyStartDate(LocalDate.now()));
+        connection.setNextSyncAfter(cadencePlanner.planNextSync(
+                postingDates,
+                connection.getConsecutiveEmptySyncs(),
+                syncPolicy.remainingRequests(connection),
+                connection.getRequestsResetAt(),
+                now));
+    }
+
+    private void ingestAccounts(Long userId, Long connectionId,
+                                List<SimpleFinClient.SimpleFinAccount> accounts, SyncTotals totals) {
+        for (var sfAccount : accounts) {
+            var result = syncSupport.ingestAccount(userId, connectionId, sfAccount);
+            totals.accountsSynced++;
+            totals.transactionsAdded += result.added();
+            totals.transactionsUpdated += result.updated();
+            totals.writesSkipped += result.skipped();
+        }
+    }
+
+    private static final class SyncTotals {
+        private int accountsSynced;
+        private int transactionsAdded;
+        private int transactionsUpdated;
+        private int writesSkipped;
+    }
 }
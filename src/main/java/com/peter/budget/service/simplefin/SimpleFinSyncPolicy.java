@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +25,10 @@ public class SimpleFinSyncPolicy {
 
     private final SimpleFinConnectionRepository connectionRepository;
 
+    // Connections whose daily budget the database reported as spent, keyed to the
+    // reset time, so repeat checks are answered locally until the window rolls over.
+    private final Map<Long, Instant> exhaustedUntil = new ConcurrentHashMap<>();
+
     public int initialSyncDays() {
         return INITIAL_SYNC_DAYS;
     }
@@ -35,7 +41,17 @@ public class SimpleFinSyncPolicy {
         return HISTORY_CUTOFF_DATE;
     }
 
+    public int remainingRequests(SimpleFinConnection connection) {
+        if (connection.getRequestsResetAt() == null || connection.getRequestsResetAt().isBefore(Instant.now())) {
+            return MAX_DAILY_REQUESTS;
+        }
+        return Math.max(0, MAX_DAILY_REQUESTS - connection.getRequestsToday());
+    }
+
     public boolean canMakeRequest(SimpleFinConnection connection) {
+        if (connection.getId() != null && isKnownExhausted(connection.getId())) {
+            return false;
+        }
         if (connection.getRequestsResetAt() == null ||
                 connection.getRequestsResetAt().isBefore(Instant.now())) {
             return true;
@@ -76,19 +92,52 @@ public class SimpleFinSyncPolicy {
     }
 
     public void consumeRequestQuota(SimpleFinConnection connection, Long connectionId) {
-        if (!canMakeRequest(connection)) {
+        if (!tryConsumeRequestQuota(connection, connectionId)) {
             throw ApiException.tooManyRequests("Daily request limit reached. Try again tomorrow.");
         }
+    }
 
-        connectionRepository.incrementRequestCount(connectionId);
+    /**
+     * Reserves one request from the connection's daily budget. The database row is the
+     * source of truth, so parallel syncs on any node never overspend it. The in-memory
+     * connection is updated to mirror the reservation.
+     *
+     * @return {@code false} if the budget is already spent
+     */
+    public boolean tryConsumeRequestQuota(SimpleFinConnection connection, Long connectionId) {
+        if (!canMakeRequest(connection)) {
+            return false;
+        }
 
         Instant now = Instant.now();
+        if (!connectionRepository.tryReserveRequest(connectionId, MAX_DAILY_REQUESTS)) {
+            Instant resetAt = connectionRepository.findRequestsResetAt(connectionId)
+                    .orElse(now.plusSeconds(24 * 60 * 60));
+            exhaustedUntil.put(connectionId, resetAt);
+            connection.setRequestsToday(MAX_DAILY_REQUESTS);
+            connection.setRequestsResetAt(resetAt);
+            return false;
+        }
+
         if (connection.getRequestsResetAt() == null || connection.getRequestsResetAt().isBefore(now)) {
             connection.setRequestsToday(1);
             connection.setRequestsResetAt(now.plusSeconds(24 * 60 * 60));
-            return;
+            return true;
         }
 
         connection.setRequestsToday(connection.getRequestsToday() + 1);
+        return true;
+    }
+
+    private boolean isKnownExhausted(Long connectionId) {
+        Instant until = exhaustedUntil.get(connectionId);
+        if (until == null) {
+            return false;
+        }
+        if (until.isAfter(Instant.now())) {
+            return true;
+        }
+        exhaustedUntil.remove(connectionId, until);
+        return false;
     }
 }
@@ -2,10 +2,10 @@ package com.peter.budget.service.simplefin;
 
 import com.peter.budget.exception.ApiException;
 import com.peter.budget.model.dto.ConnectionDto;
-import com.peter.budget.model.dto.SyncResultDto;
 import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.SimpleFinConnection;
 import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,9 +18,9 @@ import java.util.List;
 public class SimpleFinSyncService {
 
     private final SimpleFinConnectionSetupService setupService;
-    private final SimpleFinSyncOrchestrator syncOrchestrator;
     private final SimpleFinConnectionRepository connectionRepository;
     private final AccountRepository accountRepository;
+    private final RecurringMerchantStateRepository merchantStateRepository;
     private final SimpleFinSyncSupport syncSupport;
 
     @Transactional
@@ -28,16 +28,6 @@ public class SimpleFinSyncService {
         return setupService.setupConnection(userId, setupToken);
     }
 
-    @Transactional
-    public SyncResultDto syncConnection(Long userId, Long connectionId) {
-        return syncConnection(userId, connectionId, false);
-    }
-
-    @Transactional
-    public SyncResultDto syncConnection(Long userId, Long connectionId, boolean fullSync) {
-        return syncOrchestrator.syncConnection(userId, connectionId, fullSync);
-    }
-
     public List<ConnectionDto> getConnections(Long userId) {
         return connectionRepository.findByUserId(userId).stream()
                 .map(connection -> {
@@ -66,5 +56,6 @@ public class SimpleFinSyncService {
 
         accountRepository.deleteByConnectionId(connection.getId());
         connectionRepository.deleteById(connection.getId());
+        merchantStateRepository.resetForUser(userId);
     }
 }
@@ -4,16 +4,20 @@ import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.AccountType;
 import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.SimpleFinConnectionRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
 import com.peter.budget.service.AutoCategorizationService;
 import com.peter.budget.service.UncategorizedCategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 @Service
@@ -21,6 +25,7 @@ import java.util.Set;
 public class SimpleFinSyncSupport {
 
     private final AccountRepository accountRepository;
+    private final SimpleFinConnectionRepository connectionRepository;
     private final TransactionReadRepository transactionReadRepository;
     private final TransactionWriteRepository transactionWriteRepository;
     private final AutoCategorizationService categorizationService;
@@ -50,7 +55,44 @@ public class SimpleFinSyncSupport {
         return first + " + " + remaining + " other" + (remaining == 1 ? "" : "s");
     }
 
+    public void refreshInstitutionSummary(Long connectionId) {
+        connectionRepository.findById(connectionId).ifPresent(connection -> {
+            String summary = summarizeInstitutionNames(
+                    accountRepository.findByConnectionId(connectionId).stream()
+                            .map(Account::getInstitutionName)
+                            .toList(),
+                    connection.getInstitutionName()
+            );
+            if (!summary.equals(connection.getInstitutionName())) {
+                connectionRepository.updateInstitutionName(connectionId, summary);
+            }
+        });
+    }
+
+    /**
+     * Upserts one provider account and its transactions in a single short transaction,
+     * so a sync commits account by account instead of holding one transaction open
+     * across every remote fetch.
+     */
+    @Transactional
+    public SyncTransactionResult ingestAccount(Long userId, Long connectionId, SimpleFinClient.SimpleFinAccount sfAccount) {
+        AccountUpsertResult upsert = upsertAccount(userId, connectionId, sfAccount);
+        SyncTransactionResult result = syncTransactions(upsert.account(), sfAccount.transactions());
+        if (upsert.written()) {
+            return result;
+        }
+        return new SyncTransactionResult(result.added(), result.updated(), result.skipped() + 1);
+    }
+
     public Account createOrUpdateAccount(Long userId, Long connectionId, SimpleFinClient.SimpleFinAccount sfAccount) {
+        return upsertAccount(userId, connectionId, sfAccount).account();
+    }
+
+    /**
+     * Applies the provider's view of an account and only writes it back when a
+     * persisted column actually differs. New accounts are always inserted.
+     */
+    public AccountUpsertResult upsertAccount(Long userId, Long connectionId, SimpleFinClient.SimpleFinAccount sfAccount) {
         Account account = accountRepository
                 .findByConnectionIdAndExternalId(connectionId, sfAccount.id())
                 .orElse(Account.builder()
@@ -60,24 +102,56 @@ public class SimpleFinSyncSupport {
                         .active(true)
                         .build());
 
-        account.setName(sfAccount.name());
-        account.setInstitutionName(sfAccount.institutionName());
-        account.setAccountType(AccountType.valueOf(sfAccount.accountType()));
-        account.setCurrency(sfAccount.currency() != null ? sfAccount.currency() : "USD");
-        account.setCurrentBalance(sfAccount.balance());
-        account.setAvailableBalance(sfAccount.availableBalance());
+        boolean changed = account.getId() == null;
+
+        AccountType accountType = AccountType.valueOf(sfAccount.accountType());
+        String currency = sfAccount.currency() != null ? sfAccount.currency() : "USD";
+        Instant balanceUpdatedAt = account.getBalanceUpdatedAt();
         if (sfAccount.balanceDate() != null) {
-            account.setBalanceUpdatedAt(sfAccount.balanceDate());
-        } else if (account.getBalanceUpdatedAt() == null) {
-            account.setBalanceUpdatedAt(Instant.now());
+            balanceUpdatedAt = sfAccount.balanceDate();
+        } else if (balanceUpdatedAt == null) {
+            balanceUpdatedAt = Instant.now();
+        }
+
+        if (!Objects.equals(account.getName(), sfAccount.name())) {
+            account.setName(sfAccount.name());
+            changed = true;
+        }
+        if (!Objects.equals(account.getInstitutionName(), sfAccount.institutionName())) {
+            account.setInstitutionName(sfAccount.institutionName());
+            changed = true;
+        }
+        if (account.getAccountType() != accountType) {
+            account.setAccountType(accountType);
+            changed = true;
+        }
+        if (!Objects.equals(account.getCurrency(), currency)) {
+            account.setCurrency(currency);
+            changed = true;
+        }
+        if (!sameAmount(account.getCurrentBalance(), sfAccount.balance())) {
+            account.setCurrentBalance(sfAccount.balance());
+            changed = true;
+        }
+        if (!sameAmount(account.getAvailableBalance(), sfAccount.availableBalance())) {
+            account.setAvailableBalance(sfAccount.availableBalance());
+            changed = true;
+        }
+        if (!Objects.equals(account.getBalanceUpdatedAt(), balanceUpdatedAt)) {
+            account.setBalanceUpdatedAt(balanceUpdatedAt);
+            changed = true;
         }
 
-        return accountRepository.save(account);
+        if (!changed) {
+            return new AccountUpsertResult(account, false);
+        }
+        return new AccountUpsertResult(accountRepository.save(account), true);
     }
 
     public SyncTransactionResult syncTransactions(Account account, List<SimpleFinClient.SimpleFinTransaction> transactions) {
         int added = 0;
         int updated = 0;
+        int skipped = 0;
         Long uncategorizedCategoryId = uncategorizedCategoryService.requireSystemUncategorizedCategoryId();
 
         for (var sfTx : transactions) {
@@ -92,7 +166,7 @@ public class SimpleFinSyncSupport {
                     tx.setPending(sfTx.pending());
                     changed = true;
                 }
-                if (!tx.getAmount().equals(sfTx.amount())) {
+                if (!sameAmount(tx.getAmount(), sfTx.amount())) {
                     tx.setAmount(sfTx.amount());
                     changed = true;
                 }
@@ -100,13 +174,12 @@ public class SimpleFinSyncSupport {
                 if (!tx.isManuallyCategorized() && (tx.getCategoryId() == null || tx.getCategorizedByRuleId() != null)) {
                     AutoCategorizationService.CategorizationMatch match = categorizationService.categorize(
                             account.getUserId(), account.getId(), sfTx.amount(), sfTx.description(), sfTx.payee(), sfTx.memo());
-                    if (match != null) {
-                        tx.setCategoryId(match.categoryId());
-                        tx.setCategorizedByRuleId(match.ruleId());
-                        changed = true;
-                    } else {
-                        tx.setCategoryId(uncategorizedCategoryId);
-                        tx.setCategorizedByRuleId(null);
+                    Long categoryId = match != null ? match.categoryId() : uncategorizedCategoryId;
+                    Long ruleId = match != null ? match.ruleId() : null;
+                    if (!Objects.equals(tx.getCategoryId(), categoryId)
+                            || !Objects.equals(tx.getCategorizedByRuleId(), ruleId)) {
+                        tx.setCategoryId(categoryId);
+                        tx.setCategorizedByRuleId(ruleId);
                         changed = true;
                     }
                 }
@@ -114,6 +187,8 @@ public class SimpleFinSyncSupport {
                 if (changed) {
                     transactionWriteRepository.save(tx);
                     updated++;
+                } else {
+                    skipped++;
                 }
             } else {
                 Transaction tx = Transaction.builder()
@@ -145,8 +220,17 @@ public class SimpleFinSyncSupport {
             }
         }
 
-        return new SyncTransactionResult(added, updated);
+        return new SyncTransactionResult(added, updated, skipped);
+    }
+
+    private static boolean sameAmount(BigDecimal current, BigDecimal incoming) {
+        if (current == null || incoming == null) {
+            return current == incoming;
+        }
+        return current.compareTo(incoming) == 0;
     }
 
-    public record SyncTransactionResult(int added, int updated) {}
+    public record AccountUpsertResult(Account account, boolean written) {}
+
+    public record SyncTransactionResult(int added, int updated, int skipped) {}
 }
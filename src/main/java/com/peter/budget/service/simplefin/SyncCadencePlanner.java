@@ -0,0 +1,97 @@
+package com.peter.budget.service.simplefin;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plans when a connection should next be synced from how often its institution
+ * actually posts transactions and how recent syncs paid off.
+ * <p>
+ * The base interval follows the median gap between posting days (daily posters
+ * every 4 hours, weekly posters once a day). Each sync that returned nothing
+ * doubles it, up to a day. The interval is never shorter than an even share of
+ * the requests left before the daily quota resets.
+ * <p>
+ * Failed syncs back off separately: 4 hours after the first failure, doubling up to
+ * a day, and a week when the saved credentials are rejected, since those only
+ * recover once the user reconnects or syncs by hand.
+ */
+@Component
+public class SyncCadencePlanner {
+
+    static final int HISTORY_DAYS = 60;
+    static final Duration MIN_INTERVAL = Duration.ofHours(4);
+    static final Duration MAX_INTERVAL = Duration.ofHours(24);
+    static final Duration CREDENTIALS_FAILURE_INTERVAL = Duration.ofDays(7);
+    private static final int MAX_BACKOFF_STEPS = 3;
+
+    public LocalDate historyStartDate(LocalDate today) {
+        return today.minusDays(HISTORY_DAYS);
+    }
+
+    public Instant planNextSync(List<LocalDate> postingDates, int consecutiveEmptySyncs,
+                                int remainingRequests, Instant requestsResetAt, Instant now) {
+        if (remainingRequests <= 0 && requestsResetAt != null && requestsResetAt.isAfter(now)) {
+            return requestsResetAt;
+        }
+
+        Duration interval = clamp(MIN_INTERVAL.multipliedBy(medianPostingGapDays(postingDates)));
+
+        int backoffSteps = Math.min(Math.max(consecutiveEmptySyncs, 0), MAX_BACKOFF_STEPS);
+        interval = clamp(interval.multipliedBy(1L << backoffSteps));
+
+        if (remainingRequests > 0 && requestsResetAt != null && requestsResetAt.isAfter(now)) {
+            Duration fairShare = Duration.between(now, requestsResetAt).dividedBy(remainingRequests);
+            if (fairShare.compareTo(interval) > 0) {
+                interval = fairShare;
+            }
+        }
+
+        return now.plus(interval);
+    }
+
+    public Instant planRetryAfterFailure(int consecutiveFailedSyncs, boolean credentialsRejected, Instant now) {
+        if (credentialsRejected) {
+            return now.plus(CREDENTIALS_FAILURE_INTERVAL);
+        }
+
+        int backoffSteps = Math.min(Math.max(consecutiveFailedSyncs - 1, 0), MAX_BACKOFF_STEPS);
+        return now.plus(clamp(MIN_INTERVAL.multipliedBy(1L << backoffSteps)));
+    }
+
+    long medianPostingGapDays(List<LocalDate> postingDates) {
+        if (postingDates.size() < 2) {
+            return 1;
+        }
+
+        List<LocalDate> sorted = new ArrayList<>(postingDates);
+        Collections.sort(sorted);
+        List<Long> gaps = new ArrayList<>(sorted.size() - 1);
+        for (int i = 1; i < sorted.size(); i++) {
+            long gap = ChronoUnit.DAYS.between(sorted.get(i - 1), sorted.get(i));
+            if (gap > 0) {
+                gaps.add(gap);
+            }
+        }
+        if (gaps.isEmpty()) {
+            return 1;
+        }
+
+        Collections.sort(gaps);
+        return gaps.get(gaps.size() / 2);
+    }
+
+    private Duration clamp(Duration interval) {
+        if (interval.compareTo(MIN_INTERVAL) < 0) {
+            return MIN_INTERVAL;
+        }
+        return interval.compareTo(MAX_INTERVAL) > 0 ? MAX_INTERVAL : interval;
+    }
+}
@@ -0,0 +1,14 @@
+package com.peter.budget.service.simplefin;
+
+/**
+ * Receives progress updates while {@link SimpleFinSyncOrchestrator} works through
+ * the incremental fetch and historical backfill windows of a connection.
+ */
+@FunctionalInterface
+public interface SyncProgressListener {
+
+    SyncProgressListener NONE = (message, accountsSynced, transactionsAdded) -> {
+    };
+
+    void onProgress(String message, int accountsSynced, int transactionsAdded);
+}
@@ -0,0 +1,9 @@
+ALTER TABLE sync_jobs ADD COLUMN full_sync BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE sync_jobs ADD COLUMN progress_message VARCHAR(255);
+ALTER TABLE sync_jobs ADD COLUMN accounts_synced INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sync_jobs ADD COLUMN transactions_added INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sync_jobs ADD COLUMN transactions_updated INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sync_jobs ADD COLUMN writes_skipped INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sync_jobs ADD COLUMN result_message TEXT;
+
+CREATE INDEX idx_sync_jobs_connection_id ON sync_jobs(connection_id);
@@ -0,0 +1,6 @@
+CREATE TABLE scheduler_locks (
+    lock_name VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
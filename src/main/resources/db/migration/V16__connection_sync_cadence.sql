@@ -0,0 +1,5 @@
+ALTER TABLE simplefin_connections ADD COLUMN consecutive_empty_syncs INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE simplefin_connections ADD COLUMN last_new_data_at TIMESTAMP;
+ALTER TABLE simplefin_connections ADD COLUMN next_sync_after TIMESTAMP;
+
+CREATE INDEX idx_simplefin_connections_next_sync_after ON simplefin_connections(next_sync_after);
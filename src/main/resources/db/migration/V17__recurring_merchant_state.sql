@@ -0,0 +1,25 @@
+-- Running per-merchant aggregates used by incremental recurring detection
+CREATE TABLE recurring_merchant_states (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    merchant_key VARCHAR(100) NOT NULL,
+    display_name VARCHAR(255),
+    transaction_count INTEGER NOT NULL,
+    amount_sum DECIMAL(19, 4) NOT NULL,
+    amount_min DECIMAL(19, 4) NOT NULL,
+    amount_max DECIMAL(19, 4) NOT NULL,
+    first_posted_at TIMESTAMP NOT NULL,
+    last_posted_at TIMESTAMP NOT NULL,
+    category_counts VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (user_id, merchant_key)
+);
+
+-- Highest transaction id folded into a user's merchant states
+CREATE TABLE recurring_detection_cursors (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    last_transaction_id BIGINT NOT NULL DEFAULT 0,
+    last_full_rebuild_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
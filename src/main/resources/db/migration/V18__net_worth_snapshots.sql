@@ -0,0 +1,11 @@
+-- One row per user per day; the latest write of the day wins
+CREATE TABLE net_worth_snapshots (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    snapshot_date DATE NOT NULL,
+    total_assets DECIMAL(19, 4) NOT NULL,
+    total_liabilities DECIMAL(19, 4) NOT NULL,
+    net_worth DECIMAL(19, 4) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, snapshot_date)
+);
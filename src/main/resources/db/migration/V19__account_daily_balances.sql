@@ -0,0 +1,18 @@
+-- End-of-day balance per account per day, reconstructed backwards from the reported balance
+CREATE TABLE account_daily_balances (
+    account_id BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    balance_date DATE NOT NULL,
+    balance DECIMAL(19, 4) NOT NULL,
+    PRIMARY KEY (account_id, balance_date)
+);
+
+-- What each account's stored balances were computed from, so a refresh can redo only recent days
+CREATE TABLE account_balance_history_states (
+    account_id BIGINT PRIMARY KEY REFERENCES accounts(id) ON DELETE CASCADE,
+    anchor_date DATE,
+    anchor_balance DECIMAL(19, 4),
+    first_date DATE,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
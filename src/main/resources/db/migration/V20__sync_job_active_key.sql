@@ -0,0 +1,16 @@
+-- Enforces de-duplication of sync jobs in the database. A connection sync keeps its key
+-- while queued or running; other job types keep it only while queued, so new work can
+-- queue behind a running copy. Finished jobs clear the key, and NULL keys never conflict.
+ALTER TABLE sync_jobs ADD COLUMN active_key VARCHAR(120);
+
+UPDATE sync_jobs SET active_key = 'CONNECTION_SYNC:' || connection_id
+WHERE job_type = 'CONNECTION_SYNC'
+  AND status IN ('QUEUED', 'RUNNING')
+  AND id = (
+      SELECT MIN(active.id) FROM sync_jobs active
+      WHERE active.connection_id = sync_jobs.connection_id
+        AND active.job_type = 'CONNECTION_SYNC'
+        AND active.status IN ('QUEUED', 'RUNNING')
+  );
+
+CREATE UNIQUE INDEX uq_sync_jobs_active_key ON sync_jobs(active_key);
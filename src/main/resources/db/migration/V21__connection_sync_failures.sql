@@ -0,0 +1 @@
+ALTER TABLE simplefin_connections ADD COLUMN consecutive_failed_syncs INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,87 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.model.entity.CategorizationRule;
+import com.peter.budget.model.entity.Category;
+import com.peter.budget.model.entity.CategoryOverride;
+import com.peter.budget.model.entity.Transaction;
+import com.peter.budget.repository.CategorizationRuleRepository;
+import com.peter.budget.repository.CategoryOverrideRepository;
+import com.peter.budget.repository.CategoryRepository;
+import com.peter.budget.service.AutoCategorizationService;
+import com.peter.budget.service.CategoryViewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule evaluation over a rules x transactions grid, the work a sync does for every new
+ * transaction. Repositories return in-memory lists, so only the matching itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutoCategorizationBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int ruleCount;
+
+    @Param({"1000"})
+    private int transactionCount;
+
+    private AutoCategorizationService service;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        List<Category> categories = SyntheticData.categories(40, 20);
+        List<Long> categoryIds = categories.stream().map(Category::getId).toList();
+        List<CategorizationRule> rules = SyntheticData.rules(random, ruleCount, categoryIds);
+        transactions = SyntheticData.transactions(random, transactionCount, 8, 365);
+
+        CategorizationRuleRepository ruleRepository = new CategorizationRuleRepository(null, null) {
+            @Override
+            public List<CategorizationRule> findActiveRulesForUser(Long userId) {
+                return rules;
+            }
+        };
+        CategoryRepository categoryRepository = new CategoryRepository(null) {
+            @Override
+            public List<Category> findByUserId(Long userId) {
+                return categories;
+            }
+        };
+        CategoryOverrideRepository overrideRepository = new CategoryOverrideRepository(null) {
+            @Override
+            public List<CategoryOverride> findByUserId(Long userId) {
+                return List.of();
+            }
+        };
+        service = new AutoCategorizationService(ruleRepository,
+                new CategoryViewService(categoryRepository, overrideRepository));
+    }
+
+    @Benchmark
+    public void categorizeAll(Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(service.categorize(1L, transaction.getAccountId(), transaction.getAmount(),
+                    transaction.getDescription(), transaction.getPayee(), transaction.getMemo()));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.model.entity.Category;
+import com.peter.budget.model.entity.CategoryOverride;
+import com.peter.budget.repository.CategoryOverrideRepository;
+import com.peter.budget.repository.CategoryRepository;
+import com.peter.budget.service.CategoryViewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a user's effective category list: hiding and rewriting overridden system
+ * categories. Nearly every request that shows categories or checks one pays for this.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryViewBenchmark {
+
+    @Param({"60", "600"})
+    private int categoryCount;
+
+    private CategoryViewService service;
+
+    @Setup
+    public void setUp() {
+        List<Category> categories = SyntheticData.categories(categoryCount * 2 / 3, categoryCount / 3);
+        List<CategoryOverride> overrides = SyntheticData.overrides(categories, 4);
+
+        CategoryRepository categoryRepository = new CategoryRepository(null) {
+            @Override
+            public List<Category> findByUserId(Long userId) {
+                return categories;
+            }
+        };
+        CategoryOverrideRepository overrideRepository = new CategoryOverrideRepository(null) {
+            @Override
+            public List<CategoryOverride> findByUserId(Long userId) {
+                return overrides;
+            }
+        };
+        service = new CategoryViewService(categoryRepository, overrideRepository);
+    }
+
+    @Benchmark
+    public List<Category> effectiveCategories() {
+        return service.getEffectiveCategoriesForUser(1L);
+    }
+
+    @Benchmark
+    public Map<Long, Category> effectiveCategoryMap() {
+        return service.getEffectiveCategoryMapForUser(1L);
+    }
+}
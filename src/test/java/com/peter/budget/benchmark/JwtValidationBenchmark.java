@@ -0,0 +1,61 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.service.auth.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token checks as the auth filter does them. {@code verifyCached} is the usual case
+ * on a dashboard load; {@code verifyUncached} disables the cache to show the full parse and
+ * signature check; {@code legacyTripleParse} is the old filter's three separate parses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha256-signing";
+
+    private JwtService cachingService;
+    private JwtService uncachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingService = new JwtService(SECRET, 900_000, 604_800_000, 10_000);
+        uncachedService = new JwtService(SECRET, 900_000, 604_800_000, 0);
+        token = cachingService.generateAccessToken(42L, "benchmark.user@example.com");
+    }
+
+    @Benchmark
+    public Optional<JwtService.VerifiedToken> verifyCached() {
+        return cachingService.verifyAccessToken(token);
+    }
+
+    @Benchmark
+    public Optional<JwtService.VerifiedToken> verifyUncached() {
+        return uncachedService.verifyAccessToken(token);
+    }
+
+    @Benchmark
+    public String legacyTripleParse() {
+        if (!uncachedService.isTokenValid(token)) {
+            return null;
+        }
+        return uncachedService.extractUserId(token) + uncachedService.extractEmail(token);
+    }
+}
@@ -0,0 +1,103 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.model.entity.Transaction;
+import com.peter.budget.service.recurring.MerchantNormalizer;
+import com.peter.budget.service.recurring.RecurringPatternDetectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merchant key normalization over 100k synthetic bank descriptions.
+ * {@code regexPipeline} is the original chained-{@code replaceAll} baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MerchantNormalizationBenchmark {
+
+    private static final int DESCRIPTION_COUNT = 100_000;
+    private static final String[] MERCHANTS = {
+            "NETFLIX.COM", "Spotify USA", "SQ *BLUE BOTTLE COFFEE", "AMAZON MKTP US",
+            "ACH DEBIT PAYROLL", "Shell Oil", "TST* CHIPOTLE", "COMCAST CABLE COMM",
+            "UBER   TRIP", "Trader Joe's"
+    };
+
+    private List<String> descriptions;
+    private List<Transaction> transactions;
+    private final RecurringPatternDetectionEngine engine = new RecurringPatternDetectionEngine();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        descriptions = new ArrayList<>(DESCRIPTION_COUNT);
+        transactions = new ArrayList<>(DESCRIPTION_COUNT);
+        for (int i = 0; i < DESCRIPTION_COUNT; i++) {
+            String merchant = MERCHANTS[random.nextInt(MERCHANTS.length)];
+            String description = switch (random.nextInt(3)) {
+                case 0 -> merchant;
+                case 1 -> merchant + " #" + (1000 + random.nextInt(9000));
+                default -> merchant + " " + random.nextInt(100_000_000) + " CA";
+            };
+            descriptions.add(description);
+            transactions.add(Transaction.builder()
+                    .id((long) i)
+                    .description(description)
+                    .amount(new BigDecimal("-9.99"))
+                    .postedAt(Instant.EPOCH)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void regexPipeline(Blackhole blackhole) {
+        for (String description : descriptions) {
+            String normalized = description.toUpperCase()
+                    .replaceAll("[0-9]{4,}", "")
+                    .replaceAll("\\s+", " ")
+                    .replaceAll("[#*]+", "")
+                    .trim();
+            blackhole.consume(normalized.length() > 50 ? normalized.substring(0, 50) : normalized);
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String description : descriptions) {
+            blackhole.consume(MerchantNormalizer.normalize(description));
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<Transaction>> groupByMerchant() {
+        return engine.groupByMerchant(transactions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MerchantNormalizationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
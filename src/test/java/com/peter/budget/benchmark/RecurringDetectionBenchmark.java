@@ -0,0 +1,70 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.model.entity.Transaction;
+import com.peter.budget.service.recurring.RecurringPatternDetectionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full detection pass for one tenant: group a year of transactions by merchant, then
+ * analyze every group. {@code analyzeOnly} isolates the per-merchant statistics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecurringDetectionBenchmark {
+
+    @Param({"200", "2000"})
+    private int merchantCount;
+
+    private final RecurringPatternDetectionEngine engine = new RecurringPatternDetectionEngine();
+    private List<Transaction> transactions;
+    private List<List<Transaction>> groups;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(13);
+        transactions = new ArrayList<>();
+        for (int i = 0; i < merchantCount; i++) {
+            String merchant = SyntheticData.MERCHANTS[i % SyntheticData.MERCHANTS.length] + " " + i;
+            transactions.addAll(SyntheticData.monthlyHistory(random, merchant, 6 + random.nextInt(19)));
+        }
+        // One-off purchases make up most of a real ledger and are grouped but never recur.
+        transactions.addAll(SyntheticData.transactions(random, merchantCount * 10, 4, 365));
+        groups = List.copyOf(engine.groupByMerchant(transactions).values());
+    }
+
+    @Benchmark
+    public void groupAndAnalyze(Blackhole blackhole) {
+        Map<String, List<Transaction>> byMerchant = engine.groupByMerchant(transactions);
+        for (List<Transaction> group : byMerchant.values()) {
+            blackhole.consume(engine.analyze(group));
+        }
+    }
+
+    @Benchmark
+    public void analyzeOnly(Blackhole blackhole) {
+        for (List<Transaction> group : groups) {
+            blackhole.consume(engine.analyze(group));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.service.simplefin.SimpleFinClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a decoded {@code /accounts} body into records, which runs once per sync request
+ * and once per backfill window. JSON decoding itself belongs to WebClient and is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleFinParseBenchmark {
+
+    @Param({"5", "20"})
+    private int accountCount;
+
+    @Param({"50", "500"})
+    private int transactionsPerAccount;
+
+    private SimpleFinClient client;
+    private MethodHandle parseAccountsResponse;
+    private Map<String, Object> response;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        client = new SimpleFinClient(WebClient.builder(), new SimpleMeterRegistry());
+        parseAccountsResponse = MethodHandles.privateLookupIn(SimpleFinClient.class, MethodHandles.lookup())
+                .findVirtual(SimpleFinClient.class, "parseAccountsResponse", MethodType.methodType(
+                        SimpleFinClient.SimpleFinAccountsResponse.class, Map.class));
+        response = SyntheticData.simpleFinResponse(new Random(19), accountCount, transactionsPerAccount);
+    }
+
+    @Benchmark
+    public SimpleFinClient.SimpleFinAccountsResponse parse() throws Throwable {
+        return (SimpleFinClient.SimpleFinAccountsResponse) parseAccountsResponse.invoke(client, response);
+    }
+}
@@ -0,0 +1,212 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.BudgetApplication;
+import com.peter.budget.model.dto.SyncResultDto;
+import com.peter.budget.model.entity.SimpleFinConnection;
+import com.peter.budget.model.entity.User;
+import com.peter.budget.model.enums.SyncStatus;
+import com.peter.budget.repository.SimpleFinConnectionRepository;
+import com.peter.budget.repository.UserRepository;
+import com.peter.budget.service.EncryptionService;
+import com.peter.budget.service.simplefin.SimpleFinEmulator;
+import com.peter.budget.service.simplefin.SimpleFinSyncOrchestrator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full connection syncs through {@link SimpleFinSyncOrchestrator}, against a
+ * {@link SimpleFinEmulator} and an in-memory H2 database in a running application context.
+ * <ul>
+ *   <li>{@code firstSync}: the initial 60-day window into an empty connection</li>
+ *   <li>{@code backfill}: a new connection walking the whole emulated history</li>
+ *   <li>{@code incrementalSync}: a synced connection fetching the last few days, with a few new
+ *       transactions per account</li>
+ * </ul>
+ * The {@code transactions} counter reports transactions processed per second, whether they were
+ * added, updated or already stored unchanged. Use
+ * {@code -p latencyMillis=200} to add bridge round-trip time. Backfill stays within the daily
+ * request budget of 24 for up to about two years of {@code historyDays}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SimpleFinSyncBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Environment {
+
+        @Param({"5"})
+        public int accounts;
+
+        @Param({"3"})
+        public int transactionsPerDay;
+
+        @Param({"365"})
+        public int historyDays;
+
+        @Param({"0"})
+        public long latencyMillis;
+
+        SimpleFinEmulator emulator;
+        ConfigurableApplicationContext context;
+        SimpleFinSyncOrchestrator orchestrator;
+        NamedParameterJdbcTemplate jdbcTemplate;
+        Long userId;
+        Long connectionId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            emulator = new SimpleFinEmulator(SimpleFinEmulator.Settings.builder()
+                    .accounts(accounts)
+                    .transactionsPerDay(transactionsPerDay)
+                    .historyDays(historyDays)
+                    .latencyMillis(latencyMillis)
+                    .build());
+            context = new SpringApplicationBuilder(BudgetApplication.class)
+                    .initializers(emulator.clientInitializer())
+                    .run("--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:sync-benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                            "--app.sync-jobs.enabled=false",
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN");
+            orchestrator = context.getBean(SimpleFinSyncOrchestrator.class);
+            jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+
+            User user = context.getBean(UserRepository.class).save(User.builder()
+                    .email("sync-benchmark@example.com")
+                    .passwordHash("not-a-real-hash")
+                    .build());
+            userId = user.getId();
+            connectionId = context.getBean(SimpleFinConnectionRepository.class).save(SimpleFinConnection.builder()
+                    .userId(userId)
+                    .accessUrlEncrypted(context.getBean(EncryptionService.class).encrypt(emulator.accessUrl()))
+                    .institutionName("Emulated Bank")
+                    .syncStatus(SyncStatus.PENDING)
+                    .build()).getId();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+            emulator.close();
+        }
+
+        /** Drops the connection's accounts and transactions. */
+        void clearData() {
+            var params = new MapSqlParameterSource("connectionId", connectionId);
+            jdbcTemplate.update("""
+                    DELETE FROM transactions
+                    WHERE account_id IN (SELECT id FROM accounts WHERE connection_id = :connectionId)
+                    """, params);
+            jdbcTemplate.update("DELETE FROM accounts WHERE connection_id = :connectionId", params);
+        }
+
+        /** Resets sync progress and gives back the daily request budget. */
+        void resetConnection(boolean initialSyncCompleted, Instant lastSyncAt) {
+            jdbcTemplate.update("""
+                    UPDATE simplefin_connections SET
+                        initial_sync_completed = :initialSyncCompleted,
+                        backfill_cursor_date = :backfillCursorDate,
+                        last_sync_at = :lastSyncAt,
+                        requests_today = 0,
+                        requests_reset_at = NULL,
+                        consecutive_empty_syncs = 0
+                    WHERE id = :connectionId
+                    """, new MapSqlParameterSource()
+                    .addValue("connectionId", connectionId)
+                    .addValue("initialSyncCompleted", initialSyncCompleted)
+                    .addValue("backfillCursorDate", (Date) null)
+                    .addValue("lastSyncAt", lastSyncAt != null ? Timestamp.from(lastSyncAt) : null));
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Ingested {
+        public long transactions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            transactions = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmptyConnection {
+        @Setup(Level.Invocation)
+        public void reset(Environment environment) {
+            environment.clearData();
+            environment.resetConnection(true, null);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NewConnection {
+        @Setup(Level.Invocation)
+        public void reset(Environment environment) {
+            environment.clearData();
+            environment.resetConnection(false, null);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SyncedConnection {
+        @Setup(Level.Trial)
+        public void load(Environment environment) {
+            environment.clearData();
+            environment.resetConnection(false, null);
+            environment.orchestrator.syncConnection(environment.userId, environment.connectionId);
+        }
+
+        @Setup(Level.Invocation)
+        public void reset(Environment environment) {
+            environment.resetConnection(true, Instant.now());
+            environment.emulator.postTransactions(1);
+        }
+    }
+
+    @Benchmark
+    public SyncResultDto firstSync(Environment environment, EmptyConnection connection, Ingested ingested) {
+        return sync(environment, ingested);
+    }
+
+    @Benchmark
+    public SyncResultDto backfill(Environment environment, NewConnection connection, Ingested ingested) {
+        return sync(environment, ingested);
+    }
+
+    @Benchmark
+    public SyncResultDto incrementalSync(Environment environment, SyncedConnection connection, Ingested ingested) {
+        return sync(environment, ingested);
+    }
+
+    private static SyncResultDto sync(Environment environment, Ingested ingested) {
+        SyncResultDto result = environment.orchestrator.syncConnection(environment.userId, environment.connectionId);
+        ingested.transactions += result.getTransactionsAdded() + result.getTransactionsUpdated()
+                + result.getWritesSkipped();
+        return result;
+    }
+}
@@ -0,0 +1,262 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.model.entity.CategorizationRule;
+import com.peter.budget.model.entity.CategorizationRuleCondition;
+import com.peter.budget.model.entity.Category;
+import com.peter.budget.model.entity.CategoryOverride;
+import com.peter.budget.model.entity.Transaction;
+import com.peter.budget.model.enums.AccountType;
+import com.peter.budget.model.enums.CategoryType;
+import com.peter.budget.model.enums.MatchField;
+import com.peter.budget.model.enums.PatternType;
+import com.peter.budget.model.enums.RuleConditionOperator;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded generators for benchmark inputs. The same seed always produces the same data,
+ * so runs on different commits measure the same work.
+ */
+final class SyntheticData {
+
+    static final Instant NOW = Instant.parse("2026-01-15T12:00:00Z");
+
+    static final String[] MERCHANTS = {
+            "NETFLIX.COM", "Spotify USA", "SQ *BLUE BOTTLE COFFEE", "AMAZON MKTP US",
+            "ACH DEBIT PAYROLL", "Shell Oil", "TST* CHIPOTLE", "COMCAST CABLE COMM",
+            "UBER   TRIP", "Trader Joe's", "ONLINE TRANSFER TO SAVINGS", "PG&E WEB ONLINE",
+            "STATE FARM INSURANCE", "PLANET FITNESS", "CVS/PHARMACY", "DELTA AIR LINES"
+    };
+
+    private static final AccountType[] ACCOUNT_TYPES = {
+            AccountType.CHECKING, AccountType.SAVINGS, AccountType.CREDIT_CARD, AccountType.LOAN
+    };
+
+    private SyntheticData() {}
+
+    /** A bank-style description: a known merchant, optionally with a store number or reference. */
+    static String description(Random random) {
+        String merchant = MERCHANTS[random.nextInt(MERCHANTS.length)];
+        return switch (random.nextInt(3)) {
+            case 0 -> merchant;
+            case 1 -> merchant + " #" + (1000 + random.nextInt(9000));
+            default -> merchant + " " + random.nextInt(100_000_000) + " CA";
+        };
+    }
+
+    static BigDecimal amount(Random random, int maxDollars) {
+        return BigDecimal.valueOf(random.nextInt(maxDollars * 100) + 1, 2).negate();
+    }
+
+    static List<Transaction> transactions(Random random, int count, int accountCount, int days) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(Transaction.builder()
+                    .id((long) i + 1)
+                    .accountId((long) random.nextInt(accountCount) + 1)
+                    .description(description(random))
+                    .payee(random.nextInt(4) == 0 ? MERCHANTS[random.nextInt(MERCHANTS.length)] : null)
+                    .memo(random.nextInt(8) == 0 ? "REF " + random.nextInt(1_000_000) : null)
+                    .amount(random.nextInt(10) == 0
+                            ? amount(random, 3_000).negate()
+                            : amount(random, 300))
+                    .postedAt(NOW.minus(random.nextInt(days), ChronoUnit.DAYS))
+                    .build());
+        }
+        return transactions;
+    }
+
+    static List<Account> accounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(Account.builder()
+                    .id((long) i + 1)
+                    .name("Account " + (i + 1))
+                    .accountType(ACCOUNT_TYPES[i % ACCOUNT_TYPES.length])
+                    .active(true)
+                    .build());
+        }
+        return accounts;
+    }
+
+    /**
+     * Monthly charges for one merchant with a few days of posting jitter and, every few
+     * merchants, a price change, which is what the recurring engine sees per merchant.
+     */
+    static List<Transaction> monthlyHistory(Random random, String merchant, int months) {
+        BigDecimal amount = amount(random, 200);
+        List<Transaction> transactions = new ArrayList<>(months);
+        for (int month = 0; month < months; month++) {
+            if (month == months / 2 && random.nextInt(4) == 0) {
+                amount = amount.add(BigDecimal.valueOf(-100, 2));
+            }
+            transactions.add(Transaction.builder()
+                    .id((long) month + 1)
+                    .description(merchant + " #" + (1000 + random.nextInt(9000)))
+                    .amount(amount)
+                    .postedAt(NOW.minus((long) month * 30 + random.nextInt(4), ChronoUnit.DAYS))
+                    .build());
+        }
+        return transactions;
+    }
+
+    /**
+     * Rules spread across every condition type. Text values mostly miss the generated
+     * descriptions, so categorizing a transaction walks a realistic share of the rule list.
+     */
+    static List<CategorizationRule> rules(Random random, int count, List<Long> categoryIds) {
+        List<CategorizationRule> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<CategorizationRuleCondition> conditions = new ArrayList<>(2);
+            conditions.add(textCondition(random, i));
+            if (i % 3 == 0) {
+                conditions.add(CategorizationRuleCondition.builder()
+                        .field(MatchField.AMOUNT)
+                        .patternType(PatternType.LESS_THAN)
+                        .value("-" + (random.nextInt(500) + 1))
+                        .build());
+            }
+            if (i % 7 == 0) {
+                conditions.add(CategorizationRuleCondition.builder()
+                        .field(MatchField.ACCOUNT)
+                        .patternType(PatternType.EQUALS)
+                        .value(Integer.toString(random.nextInt(8) + 1))
+                        .build());
+            }
+
+            CategorizationRuleCondition primary = conditions.get(0);
+            rules.add(CategorizationRule.builder()
+                    .id((long) i + 1)
+                    .userId(1L)
+                    .name("Rule " + i)
+                    .pattern(primary.getValue())
+                    .patternType(primary.getPatternType())
+                    .matchField(primary.getField())
+                    .conditionOperator(i % 5 == 0 ? RuleConditionOperator.OR : RuleConditionOperator.AND)
+                    .conditions(conditions)
+                    .categoryId(categoryIds.get(random.nextInt(categoryIds.size())))
+                    .priority(count - i)
+                    .active(true)
+                    .build());
+        }
+        return rules;
+    }
+
+    private static CategorizationRuleCondition textCondition(Random random, int index) {
+        MatchField field = switch (index % 4) {
+            case 0, 1 -> MatchField.DESCRIPTION;
+            case 2 -> MatchField.PAYEE;
+            default -> MatchField.MEMO;
+        };
+        String merchantWord = MERCHANTS[random.nextInt(MERCHANTS.length)].split("[ .*]")[0];
+        // Most rules target merchants the tenant never sees; one in ten can match.
+        String value = random.nextInt(10) == 0 ? merchantWord : merchantWord + "-" + index;
+        PatternType patternType = switch (index % 5) {
+            case 0 -> PatternType.CONTAINS;
+            case 1 -> PatternType.STARTS_WITH;
+            case 2 -> PatternType.ENDS_WITH;
+            case 3 -> PatternType.EXACT;
+            default -> PatternType.REGEX;
+        };
+        if (patternType == PatternType.REGEX) {
+            value = "^" + value + ".*(#\\d+)?$";
+        }
+        return CategorizationRuleCondition.builder()
+                .field(field)
+                .patternType(patternType)
+                .value(value)
+                .build();
+    }
+
+    /** System categories first, then the user's custom ones, parents before children. */
+    static List<Category> categories(int systemCount, int customCount) {
+        List<Category> categories = new ArrayList<>(systemCount + customCount);
+        for (int i = 0; i < systemCount + customCount; i++) {
+            boolean system = i < systemCount;
+            long id = i + 1;
+            categories.add(Category.builder()
+                    .id(id)
+                    .userId(system ? null : 1L)
+                    .parentId(i % 4 == 0 ? null : (long) (i - i % 4) + 1)
+                    .name((system ? "System " : "Custom ") + id)
+                    .icon("tag")
+                    .color("#336699")
+                    .categoryType(i % 6 == 0 ? CategoryType.INCOME : CategoryType.EXPENSE)
+                    .system(system)
+                    .sortOrder(i)
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return categories;
+    }
+
+    /** Overrides for every {@code stride}-th system category; every third one hides it. */
+    static List<CategoryOverride> overrides(List<Category> categories, int stride) {
+        List<CategoryOverride> overrides = new ArrayList<>();
+        int index = 0;
+        for (Category category : categories) {
+            if (!category.isSystem() || index++ % stride != 0) {
+                continue;
+            }
+            overrides.add(CategoryOverride.builder()
+                    .id((long) overrides.size() + 1)
+                    .userId(1L)
+                    .categoryId(category.getId())
+                    .parentIdOverride(category.getParentId())
+                    .nameOverride(category.getName() + " (renamed)")
+                    .iconOverride(category.getIcon())
+                    .colorOverride("#993366")
+                    .categoryTypeOverride(category.getCategoryType())
+                    .hidden(overrides.size() % 3 == 2)
+                    .build());
+        }
+        return overrides;
+    }
+
+    /** A decoded SimpleFIN {@code /accounts} body, shaped like the JSON the bridge returns. */
+    static Map<String, Object> simpleFinResponse(Random random, int accountCount, int transactionsPerAccount) {
+        List<Map<String, Object>> accounts = new ArrayList<>(accountCount);
+        for (int a = 0; a < accountCount; a++) {
+            List<Map<String, Object>> transactions = new ArrayList<>(transactionsPerAccount);
+            for (int t = 0; t < transactionsPerAccount; t++) {
+                Map<String, Object> transaction = new HashMap<>();
+                long posted = NOW.minus(random.nextInt(90), ChronoUnit.DAYS).getEpochSecond();
+                transaction.put("id", "TRN-" + a + "-" + t);
+                transaction.put("posted", posted);
+                transaction.put("transacted_at", posted - random.nextInt(86_400));
+                transaction.put("amount", amount(random, 300).toPlainString());
+                transaction.put("description", description(random));
+                transaction.put("payee", MERCHANTS[random.nextInt(MERCHANTS.length)]);
+                transaction.put("memo", random.nextInt(4) == 0 ? "REF " + random.nextInt(1_000_000) : "");
+                transaction.put("pending", random.nextInt(20) == 0);
+                transactions.add(transaction);
+            }
+
+            Map<String, Object> account = new HashMap<>();
+            account.put("id", "ACT-" + a);
+            account.put("name", "Account " + a);
+            account.put("currency", "USD");
+            account.put("balance", amount(random, 10_000).negate().toPlainString());
+            account.put("available-balance", amount(random, 10_000).negate().toPlainString());
+            account.put("balance-date", NOW.getEpochSecond());
+            account.put("type", a % 2 == 0 ? "checking" : "credit");
+            account.put("org", Map.of("name", "Bank " + (a % 3), "domain", "bank" + (a % 3) + ".example"));
+            account.put("transactions", transactions);
+            accounts.add(account);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("errors", List.of());
+        response.put("accounts", accounts);
+        return response;
+    }
+}
@@ -0,0 +1,81 @@
+package com.peter.budget.benchmark;
+
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.model.entity.Transaction;
+import com.peter.budget.service.TransferDetectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring of 10k candidate transfer pairs. {@code calculateMatchScore} is private, so it is
+ * called through a method handle resolved once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferMatchScoreBenchmark {
+
+    private static final int PAIR_COUNT = 10_000;
+
+    private TransferDetectionService service;
+    private MethodHandle calculateMatchScore;
+    private Transaction[] outgoing;
+    private Transaction[] incoming;
+    private Account[] outgoingAccounts;
+    private Account[] incomingAccounts;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        service = new TransferDetectionService(null, null, null, null, null);
+        calculateMatchScore = MethodHandles.privateLookupIn(TransferDetectionService.class, MethodHandles.lookup())
+                .findVirtual(TransferDetectionService.class, "calculateMatchScore", MethodType.methodType(
+                        double.class, Transaction.class, Transaction.class, Account.class, Account.class));
+
+        Random random = new Random(17);
+        List<Transaction> sources = SyntheticData.transactions(random, PAIR_COUNT, 4, 90);
+        List<Transaction> targets = SyntheticData.transactions(random, PAIR_COUNT, 4, 90);
+        List<Account> accounts = SyntheticData.accounts(4);
+        outgoing = new Transaction[PAIR_COUNT];
+        incoming = new Transaction[PAIR_COUNT];
+        outgoingAccounts = new Account[PAIR_COUNT];
+        incomingAccounts = new Account[PAIR_COUNT];
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            outgoing[i] = sources.get(i);
+            incoming[i] = targets.get(i);
+            // Candidates come from the opposite-amount query, so most pairs net to zero.
+            if (random.nextInt(4) != 0) {
+                incoming[i].setAmount(outgoing[i].getAmount().negate());
+            }
+            outgoingAccounts[i] = accounts.get(i % accounts.size());
+            incomingAccounts[i] = accounts.get((i + 1) % accounts.size());
+        }
+    }
+
+    @Benchmark
+    public double scoreCandidates() throws Throwable {
+        double total = 0;
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            total += (double) calculateMatchScore.invoke(
+                    service, outgoing[i], incoming[i], outgoingAccounts[i], incomingAccounts[i]);
+        }
+        return total;
+    }
+}
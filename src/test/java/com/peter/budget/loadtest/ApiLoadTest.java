@@ -0,0 +1,144 @@
+package com.peter.budget.loadtest;
+
+import com.peter.budget.model.dto.MigrationImportRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Loads a generated large tenant through the migration import and reports p50/p99 latency
+ * for the main read endpoints. Excluded from the default build; run it with
+ * {@code mvn -Ploadtest test} (H2) or add {@code -Dspring.profiles.active=local} to run
+ * against the local PostgreSQL from {@code docker-compose.yml}.
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.sync-jobs.enabled=false",
+                "logging.level.com.peter.budget=WARN"
+        })
+class ApiLoadTest {
+
+    private static final long SEED = Long.getLong("loadtest.seed", 42L);
+    private static final int ACCOUNTS = Integer.getInteger("loadtest.accounts", 15);
+    private static final int YEARS = Integer.getInteger("loadtest.years", 5);
+    private static final int WARMUP = Integer.getInteger("loadtest.warmup", 5);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 50);
+
+    @LocalServerPort
+    private int port;
+
+    private String accessToken;
+
+    @BeforeAll
+    void loadTenant() {
+        RestAssured.port = port;
+
+        String email = "load-" + System.nanoTime() + "@example.com";
+        accessToken = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("email", email, "password", "load-test-password"))
+                .post("/api/v1/auth/register")
+                .then().statusCode(201)
+                .extract().path("accessToken");
+
+        MigrationImportRequest tenant = TenantGenerator.tenant(
+                SEED, ACCOUNTS, YEARS, LocalDate.now(ZoneOffset.UTC));
+        long started = System.nanoTime();
+        int imported = given()
+                .auth().oauth2(accessToken)
+                .contentType(ContentType.JSON)
+                .body(tenant)
+                .post("/api/v1/migration/import")
+                .then().statusCode(200)
+                .extract().path("transactionsImported");
+
+        assertEquals(tenant.getTransactions().size(), imported);
+        System.out.printf("Imported %d accounts, %d transactions, %d transfer pairs in %d ms%n",
+                tenant.getAccounts().size(), imported, tenant.getTransferPairs().size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Test
+    void readEndpointLatency() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        YearMonth month = YearMonth.from(today);
+
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("accounts", "/api/v1/accounts");
+        endpoints.put("accounts/summary", "/api/v1/accounts/summary");
+        endpoints.put("transactions", "/api/v1/transactions");
+        endpoints.put("transactions (1y, 500)", "/api/v1/transactions?startDate=" + today.minusYears(1) + "&limit=500");
+        endpoints.put("transactions (search)", "/api/v1/transactions?descriptionQuery=coffee");
+        endpoints.put("transactions/coverage", "/api/v1/transactions/coverage");
+        endpoints.put("transactions/transfers", "/api/v1/transactions/transfers");
+        endpoints.put("categories", "/api/v1/categories");
+        endpoints.put("categorization-rules", "/api/v1/categorization-rules");
+        endpoints.put("analytics/spending", "/api/v1/analytics/spending");
+        endpoints.put("analytics/trends (12)", "/api/v1/analytics/trends?months=12");
+        endpoints.put("analytics/cashflow", "/api/v1/analytics/cashflow");
+        endpoints.put("analytics/budget-insights", "/api/v1/analytics/budget-insights");
+        endpoints.put("budgets", "/api/v1/budgets?month=" + month);
+        endpoints.put("recurring", "/api/v1/recurring");
+        endpoints.put("recurring/upcoming", "/api/v1/recurring/upcoming");
+        endpoints.put("recurring/calendar", "/api/v1/recurring/calendar?year=" + month.getYear()
+                + "&month=" + month.getMonthValue());
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-28s %10s %10s %10s", "endpoint", "p50 ms", "p99 ms", "max ms"));
+        endpoints.forEach((name, path) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                get(path);
+            }
+            long[] nanos = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                long started = System.nanoTime();
+                get(path);
+                nanos[i] = System.nanoTime() - started;
+            }
+            Arrays.sort(nanos);
+            report.add(String.format("%-28s %10.1f %10.1f %10.1f", name,
+                    millis(percentile(nanos, 50)), millis(percentile(nanos, 99)), millis(nanos[nanos.length - 1])));
+        });
+
+        System.out.printf("%nAPI latency: %d accounts, %d years, %d iterations per endpoint%n",
+                ACCOUNTS, YEARS, ITERATIONS);
+        report.forEach(System.out::println);
+    }
+
+    private void get(String path) {
+        given()
+                .auth().oauth2(accessToken)
+                .get(path)
+                .then().statusCode(200);
+    }
+
+    /** Nearest-rank percentile of a sorted sample. */
+    private static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
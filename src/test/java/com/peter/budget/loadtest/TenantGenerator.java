@@ -0,0 +1,382 @@
+package com.peter.budget.loadtest;
+
+import com.peter.budget.model.dto.MigrationImportRequest;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotAccount;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotBudgetMonth;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotBudgetTarget;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotCategory;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotRecurringPattern;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotRule;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotTransaction;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotTransferPair;
+import com.peter.budget.model.enums.AccountNetWorthCategory;
+import com.peter.budget.model.enums.AccountType;
+import com.peter.budget.model.enums.CategoryType;
+import com.peter.budget.model.enums.Frequency;
+import com.peter.budget.model.enums.MatchField;
+import com.peter.budget.model.enums.PatternType;
+import com.peter.budget.model.enums.RuleConditionOperator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds a large, realistic tenant in the {@link MigrationImportRequest} snapshot format, so it
+ * can be loaded through {@code POST /api/v1/migration/import} like a real export.
+ *
+ * <p>The same seed, account count, history length and end date always produce the same
+ * snapshot. A tenant has a payroll checking account, a savings account, and a mix of credit
+ * cards, loans and investment accounts. Its history contains:
+ * <ul>
+ *   <li>biweekly salary and monthly rent</li>
+ *   <li>recurring bills with a little posting jitter</li>
+ *   <li>daily card and debit spending across a few dozen merchants</li>
+ *   <li>monthly savings transfers and card payments, recorded as transfer pairs</li>
+ * </ul>
+ * Rules, recurring patterns and the last year of budgets are generated alongside the history.
+ */
+final class TenantGenerator {
+
+    private record Merchant(String description, String category, int minDollars, int maxDollars) {}
+
+    private record Bill(String description, String category, BigDecimal amount, int dayOfMonth) {}
+
+    private static final Map<String, List<String>> CATEGORY_TREE = categoryTree();
+
+    private static final List<Merchant> MERCHANTS = List.of(
+            new Merchant("TRADER JOE'S #", "Groceries", 20, 180),
+            new Merchant("SAFEWAY STORE ", "Groceries", 15, 220),
+            new Merchant("WHOLEFDS MKT ", "Groceries", 10, 160),
+            new Merchant("TST* CHIPOTLE ", "Restaurants", 9, 35),
+            new Merchant("SQ *BLUE BOTTLE COFFEE ", "Coffee", 4, 14),
+            new Merchant("STARBUCKS STORE ", "Coffee", 4, 12),
+            new Merchant("DOORDASH*DASHPASS ", "Restaurants", 18, 70),
+            new Merchant("SHELL OIL ", "Fuel", 25, 90),
+            new Merchant("CHEVRON ", "Fuel", 25, 95),
+            new Merchant("UBER   TRIP ", "Rideshare", 8, 60),
+            new Merchant("LYFT   RIDE ", "Rideshare", 8, 55),
+            new Merchant("AMAZON MKTP US*", "Shopping", 8, 250),
+            new Merchant("TARGET        000", "Shopping", 10, 200),
+            new Merchant("CVS/PHARMACY #", "Pharmacy", 5, 80),
+            new Merchant("DELTA AIR LINES ", "Flights", 150, 900),
+            new Merchant("MARRIOTT HOTELS ", "Lodging", 120, 600)
+    );
+
+    private static final List<Bill> BILLS = List.of(
+            new Bill("NETFLIX.COM", "Streaming", new BigDecimal("15.49"), 3),
+            new Bill("Spotify USA", "Streaming", new BigDecimal("11.99"), 9),
+            new Bill("PLANET FITNESS", "Gym", new BigDecimal("24.99"), 17),
+            new Bill("COMCAST CABLE COMM", "Internet", new BigDecimal("79.99"), 12),
+            new Bill("PG&E WEB ONLINE", "Utilities", new BigDecimal("142.37"), 21),
+            new Bill("STATE FARM INSURANCE", "Insurance", new BigDecimal("118.00"), 1),
+            new Bill("VERIZON WIRELESS", "Phone", new BigDecimal("65.00"), 25)
+    );
+
+    private final Random random;
+    private final int accountCount;
+    private final int years;
+    private final LocalDate endDate;
+
+    private final Map<String, Long> categoryIds = new LinkedHashMap<>();
+    private final List<SnapshotCategory> categories = new ArrayList<>();
+    private final List<SnapshotAccount> accounts = new ArrayList<>();
+    private final List<SnapshotTransaction> transactions = new ArrayList<>();
+    private final List<SnapshotTransferPair> transferPairs = new ArrayList<>();
+
+    private TenantGenerator(long seed, int accountCount, int years, LocalDate endDate) {
+        if (accountCount < 3) {
+            throw new IllegalArgumentException("A tenant needs at least a checking, savings and card account");
+        }
+        this.random = new Random(seed);
+        this.accountCount = accountCount;
+        this.years = years;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Generates a tenant whose history ends on {@code endDate}. Pass today's date so that the
+     * current-month analytics and upcoming bills have data.
+     */
+    static MigrationImportRequest tenant(long seed, int accountCount, int years, LocalDate endDate) {
+        return new TenantGenerator(seed, accountCount, years, endDate).build();
+    }
+
+    private MigrationImportRequest build() {
+        buildCategories();
+        buildAccounts();
+        buildHistory();
+
+        return MigrationImportRequest.builder()
+                .capturedAt(endDate.atStartOfDay(ZoneOffset.UTC).toInstant().toString())
+                .sourceBackend("synthetic")
+                .accounts(accounts)
+                .categories(categories)
+                .rules(buildRules())
+                .transactions(transactions)
+                .transferPairs(transferPairs)
+                .budgets(buildBudgets())
+                .recurringPatterns(buildRecurringPatterns())
+                .build();
+    }
+
+    private void buildCategories() {
+        for (Map.Entry<String, List<String>> parent : CATEGORY_TREE.entrySet()) {
+            CategoryType type = switch (parent.getKey()) {
+                case "Income" -> CategoryType.INCOME;
+                case "Transfers" -> CategoryType.TRANSFER;
+                default -> CategoryType.EXPENSE;
+            };
+            Long parentId = addCategory(parent.getKey(), null, type);
+            for (String child : parent.getValue()) {
+                addCategory(child, parentId, type);
+            }
+        }
+    }
+
+    private Long addCategory(String name, Long parentId, CategoryType type) {
+        long id = categories.size() + 1;
+        categories.add(SnapshotCategory.builder()
+                .id(id)
+                .parentId(parentId)
+                .name(name)
+                .icon("tag")
+                .color(String.format("#%06x", random.nextInt(0x1000000)))
+                .categoryType(type)
+                .build());
+        categoryIds.put(name, id);
+        return id;
+    }
+
+    private void buildAccounts() {
+        addAccount("Everyday Checking", AccountType.CHECKING, "First National", new BigDecimal("4210.55"));
+        addAccount("High Yield Savings", AccountType.SAVINGS, "First National", new BigDecimal("18250.00"));
+        for (int i = 2; i < accountCount; i++) {
+            switch (i % 4) {
+                case 0 -> addAccount("Brokerage " + i, AccountType.INVESTMENT, "Index Brokers",
+                        BigDecimal.valueOf(20_000 + random.nextInt(80_000)));
+                case 3 -> addAccount("Auto Loan " + i, AccountType.LOAN, "Credit Union",
+                        BigDecimal.valueOf(-(5_000 + random.nextInt(20_000))));
+                default -> addAccount("Rewards Card " + i, AccountType.CREDIT_CARD, "Card Services",
+                        BigDecimal.valueOf(-random.nextInt(3_000)));
+            }
+        }
+    }
+
+    private void addAccount(String name, AccountType type, String institution, BigDecimal balance) {
+        accounts.add(SnapshotAccount.builder()
+                .id((long) accounts.size() + 1)
+                .name(name)
+                .institutionName(institution)
+                .accountType(type)
+                .netWorthCategory(switch (type) {
+                    case CREDIT_CARD, LOAN -> AccountNetWorthCategory.LIABILITY;
+                    case INVESTMENT -> AccountNetWorthCategory.INVESTMENT;
+                    default -> AccountNetWorthCategory.BANK_ACCOUNT;
+                })
+                .currency("USD")
+                .currentBalance(balance)
+                .availableBalance(balance)
+                .balanceUpdatedAt(endDate.atStartOfDay(ZoneOffset.UTC).toInstant().toString())
+                .active(true)
+                .build());
+    }
+
+    private void buildHistory() {
+        SnapshotAccount checking = accounts.get(0);
+        SnapshotAccount savings = accounts.get(1);
+        List<SnapshotAccount> spendingAccounts = accounts.stream()
+                .filter(account -> account.getAccountType() == AccountType.CREDIT_CARD)
+                .toList();
+        List<SnapshotAccount> loans = accounts.stream()
+                .filter(account -> account.getAccountType() == AccountType.LOAN)
+                .toList();
+
+        LocalDate start = endDate.minusYears(years);
+        BigDecimal salary = new BigDecimal("3150.00");
+        for (LocalDate day = start; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() == 5 && (day.toEpochDay() / 7) % 2 == 0) {
+                add(checking, day, salary, "ACME CORP PAYROLL PPD", "Salary");
+            }
+            if (day.getDayOfYear() == 1) {
+                salary = salary.multiply(new BigDecimal("1.03")).setScale(2, RoundingMode.HALF_UP);
+            }
+            if (day.getDayOfMonth() == 1) {
+                add(checking, day, new BigDecimal("-2100.00"), "ZELLE RENT PAYMENT", "Rent");
+            }
+            if (day.getDayOfMonth() == 28) {
+                add(savings, day, new BigDecimal("0." + (10 + random.nextInt(80))), "INTEREST PAYMENT", "Interest");
+                transfer(checking, savings, day, new BigDecimal("500.00"), "ONLINE TRANSFER TO SAVINGS");
+                for (SnapshotAccount card : spendingAccounts) {
+                    transfer(checking, card, day, BigDecimal.valueOf(200 + random.nextInt(1_200)), "CARD PAYMENT THANK YOU");
+                }
+                for (SnapshotAccount loan : loans) {
+                    transfer(checking, loan, day, new BigDecimal("385.00"), "AUTO LOAN PAYMENT");
+                }
+            }
+            for (int b = 0; b < BILLS.size(); b++) {
+                Bill bill = BILLS.get(b);
+                // Bills post a day or two late now and then, as the recurring engine sees them.
+                if (day.getDayOfMonth() == Math.min(bill.dayOfMonth() + (random.nextInt(6) == 0 ? 1 : 0), 28)) {
+                    SnapshotAccount account = spendingAccounts.isEmpty()
+                            ? checking
+                            : spendingAccounts.get(b % spendingAccounts.size());
+                    add(account, day, bill.amount().negate(), bill.description(), bill.category());
+                }
+            }
+
+            int purchases = 1 + random.nextInt(2 + spendingAccounts.size());
+            for (int p = 0; p < purchases; p++) {
+                Merchant merchant = MERCHANTS.get(random.nextInt(MERCHANTS.size()));
+                // Travel is rare; everything else is everyday spending.
+                if (merchant.maxDollars() > 500 && random.nextInt(20) != 0) {
+                    continue;
+                }
+                SnapshotAccount account = spendingAccounts.isEmpty() || random.nextInt(4) == 0
+                        ? checking
+                        : spendingAccounts.get(random.nextInt(spendingAccounts.size()));
+                int cents = merchant.minDollars() * 100
+                        + random.nextInt((merchant.maxDollars() - merchant.minDollars()) * 100);
+                // One in eight purchases is left for the user to categorize.
+                String category = random.nextInt(8) == 0 ? null : merchant.category();
+                add(account, day, BigDecimal.valueOf(-cents, 2),
+                        merchant.description() + (1000 + random.nextInt(9000)), category);
+            }
+        }
+    }
+
+    private SnapshotTransaction add(SnapshotAccount account, LocalDate day, BigDecimal amount,
+                                    String description, String category) {
+        SnapshotTransaction transaction = SnapshotTransaction.builder()
+                .id((long) transactions.size() + 1)
+                .accountId(account.getId())
+                .accountName(account.getName())
+                .postedAt(day.atTime(12, random.nextInt(60)).toInstant(ZoneOffset.UTC).toString())
+                .amount(amount)
+                .description(description)
+                .category(category != null ? categories.get(categoryIds.get(category).intValue() - 1) : null)
+                .build();
+        transactions.add(transaction);
+        return transaction;
+    }
+
+    private void transfer(SnapshotAccount from, SnapshotAccount to, LocalDate day, BigDecimal amount,
+                          String description) {
+        SnapshotTransaction out = add(from, day, amount.negate(), description, "Transfer");
+        SnapshotTransaction in = add(to, day, amount, description, "Transfer");
+        out.setInternalTransfer(true);
+        in.setInternalTransfer(true);
+        transferPairs.add(SnapshotTransferPair.builder()
+                .fromTransactionId(out.getId())
+                .fromAccountName(from.getName())
+                .toTransactionId(in.getId())
+                .toAccountName(to.getName())
+                .amount(amount)
+                .date(day.toString())
+                .description(description)
+                .autoDetected(true)
+                .build());
+    }
+
+    /** One rule per merchant and bill, plus unrelated rules so evaluation walks a long list. */
+    private List<SnapshotRule> buildRules() {
+        List<SnapshotRule> rules = new ArrayList<>();
+        for (Merchant merchant : MERCHANTS) {
+            rules.add(rule(rules.size(), merchant.description().trim(), PatternType.STARTS_WITH,
+                    merchant.category()));
+        }
+        for (Bill bill : BILLS) {
+            rules.add(rule(rules.size(), bill.description(), PatternType.CONTAINS, bill.category()));
+        }
+        List<String> expenseCategories = CATEGORY_TREE.get("Shopping");
+        for (int i = 0; i < 40; i++) {
+            rules.add(rule(rules.size(), "MERCHANT-" + i, PatternType.CONTAINS,
+                    expenseCategories.get(i % expenseCategories.size())));
+        }
+        return rules;
+    }
+
+    private SnapshotRule rule(int index, String pattern, PatternType patternType, String category) {
+        return SnapshotRule.builder()
+                .id((long) index + 1)
+                .name("Rule " + (index + 1))
+                .pattern(pattern)
+                .patternType(patternType)
+                .matchField(MatchField.DESCRIPTION)
+                .conditionOperator(RuleConditionOperator.AND)
+                .categoryId(categoryIds.get(category))
+                .priority(1_000 - index)
+                .active(true)
+                .build();
+    }
+
+    private List<SnapshotBudgetMonth> buildBudgets() {
+        List<SnapshotBudgetMonth> budgets = new ArrayList<>();
+        YearMonth current = YearMonth.from(endDate);
+        for (int m = 11; m >= 0; m--) {
+            List<SnapshotBudgetTarget> targets = new ArrayList<>();
+            for (Map.Entry<String, List<String>> parent : CATEGORY_TREE.entrySet()) {
+                if (parent.getKey().equals("Income") || parent.getKey().equals("Transfers")) {
+                    continue;
+                }
+                for (String child : parent.getValue()) {
+                    targets.add(SnapshotBudgetTarget.builder()
+                            .categoryId(categoryIds.get(child))
+                            .categoryName(child)
+                            .targetAmount(BigDecimal.valueOf(50 + random.nextInt(20) * 25L))
+                            .build());
+                }
+            }
+            budgets.add(SnapshotBudgetMonth.builder()
+                    .month(current.minusMonths(m).toString())
+                    .currency("USD")
+                    .targets(targets)
+                    .build());
+        }
+        return budgets;
+    }
+
+    private List<SnapshotRecurringPattern> buildRecurringPatterns() {
+        List<SnapshotRecurringPattern> patterns = new ArrayList<>();
+        for (Bill bill : BILLS) {
+            LocalDate next = endDate.withDayOfMonth(bill.dayOfMonth());
+            if (!next.isAfter(endDate)) {
+                next = next.plusMonths(1);
+            }
+            patterns.add(SnapshotRecurringPattern.builder()
+                    .id((long) patterns.size() + 1)
+                    .name(bill.description())
+                    .merchantPattern(bill.description().toUpperCase())
+                    .expectedAmount(bill.amount())
+                    .frequency(Frequency.MONTHLY)
+                    .dayOfMonth(bill.dayOfMonth())
+                    .nextExpectedDate(next.toString())
+                    .category(categories.get(categoryIds.get(bill.category()).intValue() - 1))
+                    .bill(true)
+                    .active(true)
+                    .lastOccurrenceAt(next.minusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant().toString())
+                    .build());
+        }
+        return patterns;
+    }
+
+    private static Map<String, List<String>> categoryTree() {
+        Map<String, List<String>> tree = new LinkedHashMap<>();
+        tree.put("Income", List.of("Salary", "Interest"));
+        tree.put("Housing", List.of("Rent", "Utilities", "Internet", "Insurance", "Phone"));
+        tree.put("Food", List.of("Groceries", "Restaurants", "Coffee"));
+        tree.put("Transportation", List.of("Fuel", "Rideshare"));
+        tree.put("Subscriptions", List.of("Streaming", "Gym"));
+        tree.put("Shopping", List.of("General", "Pharmacy"));
+        tree.put("Travel", List.of("Flights", "Lodging"));
+        tree.put("Transfers", List.of("Transfer"));
+        return tree;
+    }
+}
@@ -0,0 +1,80 @@
+package com.peter.budget.scheduler;
+
+import com.peter.budget.repository.SchedulerLockRepository;
+import com.peter.budget.service.profiling.QueryProfiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerLockServiceTest {
+
+    @Mock
+    private SchedulerLockRepository lockRepository;
+
+    @Spy
+    private QueryProfiler queryProfiler = new QueryProfiler(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private SchedulerLockService lockService;
+
+    @Test
+    void runsTaskAndHoldsLockForMinimumDuration() {
+        when(lockRepository.tryAcquire(eq("job"), anyString(), any(), any())).thenReturn(true);
+        AtomicBoolean ran = new AtomicBoolean();
+        Instant before = Instant.now();
+
+        boolean result = lockService.runExclusively("job", Duration.ofMinutes(30), Duration.ofMinutes(1),
+                () -> ran.set(true));
+
+        assertTrue(result);
+        assertTrue(ran.get());
+        ArgumentCaptor<Instant> releaseAt = ArgumentCaptor.forClass(Instant.class);
+        verify(lockRepository).release(eq("job"), anyString(), releaseAt.capture());
+        assertFalse(releaseAt.getValue().isBefore(before.plus(Duration.ofMinutes(1))));
+    }
+
+    @Test
+    void skipsTaskWhenLockHeldElsewhere() {
+        when(lockRepository.tryAcquire(eq("job"), anyString(), any(), any())).thenReturn(false);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        boolean result = lockService.runExclusively("job", Duration.ofMinutes(30), Duration.ofMinutes(1),
+                () -> ran.set(true));
+
+        assertFalse(result);
+        assertFalse(ran.get());
+        verify(lockRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void releasesLockWhenTaskFails() {
+        when(lockRepository.tryAcquire(eq("job"), anyString(), any(), any())).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> lockService.runExclusively("job",
+                Duration.ofMinutes(30), Duration.ZERO, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        verify(lockRepository).release(eq("job"), anyString(), any());
+    }
+}
@@ -0,0 +1,62 @@
+package com.peter.budget.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncDispatchSlotterTest {
+
+    private static final Instant WINDOW_START = Instant.parse("2026-03-10T06:30:00Z");
+
+    private final SyncDispatchSlotter slotter = new SyncDispatchSlotter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(slotter, "dispatchWindowMinutes", 30L);
+    }
+
+    @Test
+    void slotFallsInsideWindow() {
+        Instant windowEnd = WINDOW_START.plus(Duration.ofMinutes(30));
+        for (long id = 1; id <= 500; id++) {
+            Instant slot = slotter.slotFor(id, WINDOW_START);
+            assertFalse(slot.isBefore(WINDOW_START));
+            assertTrue(slot.isBefore(windowEnd));
+        }
+    }
+
+    @Test
+    void slotIsStableForAConnection() {
+        Instant later = WINDOW_START.plus(Duration.ofHours(13));
+
+        assertEquals(
+                Duration.between(WINDOW_START, slotter.slotFor(42L, WINDOW_START)),
+                Duration.between(later, slotter.slotFor(42L, later)));
+    }
+
+    @Test
+    void consecutiveIdsAreSpreadAcrossTheWindow() {
+        Set<Long> minutesUsed = new HashSet<>();
+        for (long id = 1; id <= 100; id++) {
+            minutesUsed.add(Duration.between(WINDOW_START, slotter.slotFor(id, WINDOW_START)).toMinutes());
+        }
+
+        assertTrue(minutesUsed.size() >= 25, "expected most minutes of the window to be used");
+    }
+
+    @Test
+    void zeroWindowDispatchesImmediately() {
+        ReflectionTestUtils.setField(slotter, "dispatchWindowMinutes", 0L);
+
+        assertEquals(WINDOW_START, slotter.slotFor(7L, WINDOW_START));
+    }
+}
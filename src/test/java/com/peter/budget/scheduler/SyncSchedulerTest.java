@@ -1,21 +1,27 @@
 package com.peter.budget.scheduler;
 
 import com.peter.budget.model.entity.SimpleFinConnection;
+import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.RefreshTokenRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
-import com.peter.budget.service.RecurringDetectionService;
-import com.peter.budget.service.simplefin.SimpleFinSyncService;
+import com.peter.budget.service.job.SyncJobService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,114 +30,139 @@ class SyncSchedulerTest {
     @Mock
     private SimpleFinConnectionRepository connectionRepository;
     @Mock
-    private SimpleFinSyncService syncService;
-    @Mock
-    private RecurringDetectionService recurringService;
+    private AccountRepository accountRepository;
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private SyncJobService syncJobService;
+    @Mock
+    private SchedulerLockService lockService;
+    @Mock
+    private SyncDispatchSlotter dispatchSlotter;
 
     @InjectMocks
     private SyncScheduler syncScheduler;
 
     @Test
-    void morningSyncAllSyncsAllDueConnections() {
+    void morningSyncAllQueuesAllDueConnections() {
+        holdLock();
         SimpleFinConnection conn = connection(1L, 10L);
         when(connectionRepository.findDueForSync()).thenReturn(List.of(conn));
 
         syncScheduler.morningSyncAll();
 
-        verify(syncService).syncConnection(10L, 1L);
+        verify(syncJobService).enqueueScheduledSync(eq(10L), eq(1L), any());
     }
 
     @Test
-    void eveningSyncAllSyncsAllDueConnections() {
+    void eveningSyncAllQueuesAllDueConnections() {
+        holdLock();
         SimpleFinConnection conn1 = connection(1L, 10L);
         SimpleFinConnection conn2 = connection(2L, 20L);
         when(connectionRepository.findDueForSync()).thenReturn(List.of(conn1, conn2));
 
         syncScheduler.eveningSyncAll();
 
-        verify(syncService).syncConnection(10L, 1L);
-        verify(syncService).syncConnection(20L, 2L);
+        verify(syncJobService).enqueueScheduledSync(eq(10L), eq(1L), any());
+        verify(syncJobService).enqueueScheduledSync(eq(20L), eq(2L), any());
     }
 
     @Test
     void morningSyncContinuesAfterFailure() {
+        holdLock();
         SimpleFinConnection conn1 = connection(1L, 10L);
         SimpleFinConnection conn2 = connection(2L, 20L);
         when(connectionRepository.findDueForSync()).thenReturn(List.of(conn1, conn2));
-        doThrow(new RuntimeException("API error")).when(syncService).syncConnection(10L, 1L);
+        doThrow(new RuntimeException("DB error")).when(syncJobService).enqueueScheduledSync(eq(10L), eq(1L), any());
 
         syncScheduler.morningSyncAll();
 
-        verify(syncService).syncConnection(10L, 1L);
-        verify(syncService).syncConnection(20L, 2L);
+        verify(syncJobService).enqueueScheduledSync(eq(10L), eq(1L), any());
+        verify(syncJobService).enqueueScheduledSync(eq(20L), eq(2L), any());
     }
 
     @Test
-    void periodicSyncSyncsEligibleConnections() {
+    void periodicSyncQueuesEligibleConnections() {
+        holdLock();
         SimpleFinConnection conn = connection(3L, 30L);
         when(connectionRepository.findDueForSync()).thenReturn(List.of(conn));
 
         syncScheduler.periodicSync();
 
-        verify(syncService).syncConnection(30L, 3L);
+        verify(syncJobService).enqueueScheduledSync(eq(30L), eq(3L), any());
     }
 
     @Test
-    void periodicSyncContinuesAfterFailure() {
-        SimpleFinConnection conn1 = connection(1L, 10L);
-        SimpleFinConnection conn2 = connection(2L, 20L);
-        when(connectionRepository.findDueForSync()).thenReturn(List.of(conn1, conn2));
-        doThrow(new RuntimeException("Timeout")).when(syncService).syncConnection(10L, 1L);
+    void scheduledSyncsAreQueuedAtTheirDispatchSlot() {
+        holdLock();
+        SimpleFinConnection conn = connection(3L, 30L);
+        Instant slot = Instant.now().plusSeconds(600);
+        when(connectionRepository.findDueForSync()).thenReturn(List.of(conn));
+        when(dispatchSlotter.slotFor(eq(3L), any())).thenReturn(slot);
 
         syncScheduler.periodicSync();
 
-        verify(syncService).syncConnection(20L, 2L);
+        verify(syncJobService).enqueueScheduledSync(30L, 3L, slot);
+    }
+
+    @Test
+    void periodicSyncSkippedWhenAnotherNodeHoldsLock() {
+        when(lockService.runExclusively(eq("periodicSync"), any(), any(), any())).thenReturn(false);
+
+        syncScheduler.periodicSync();
+
+        verifyNoInteractions(connectionRepository, syncJobService);
     }
 
     @Test
     void nightlyMaintenanceDeletesExpiredTokens() {
+        holdLock();
+
         syncScheduler.nightlyMaintenance();
 
         verify(refreshTokenRepository).deleteExpired();
+        verify(syncJobService).purgeFinishedBefore(any());
     }
 
     @Test
-    void weeklyRecurringDetectionRunsForAllConnections() {
-        SimpleFinConnection conn1 = connection(1L, 10L);
-        SimpleFinConnection conn2 = connection(2L, 20L);
-        when(connectionRepository.findDueForSync()).thenReturn(List.of(conn1, conn2));
-        when(recurringService.detectRecurringPatterns(10L)).thenReturn(3);
-        when(recurringService.detectRecurringPatterns(20L)).thenReturn(1);
+    void weeklyRecurringDetectionQueuesOneJobPerUser() {
+        holdLock();
+        when(connectionRepository.findDistinctUserIds()).thenReturn(List.of(10L, 20L));
+        when(syncJobService.enqueueRecurringDetection(List.of(10L, 20L))).thenReturn(2);
 
         syncScheduler.weeklyRecurringDetection();
 
-        verify(recurringService).detectRecurringPatterns(10L);
-        verify(recurringService).detectRecurringPatterns(20L);
+        verify(syncJobService).enqueueRecurringDetection(List.of(10L, 20L));
+        verify(connectionRepository, never()).findDueForSync();
     }
 
     @Test
-    void weeklyRecurringDetectionContinuesAfterFailure() {
-        SimpleFinConnection conn1 = connection(1L, 10L);
-        SimpleFinConnection conn2 = connection(2L, 20L);
-        when(connectionRepository.findDueForSync()).thenReturn(List.of(conn1, conn2));
-        doThrow(new RuntimeException("DB error")).when(recurringService).detectRecurringPatterns(10L);
-        when(recurringService.detectRecurringPatterns(20L)).thenReturn(2);
+    void dailyNetWorthSnapshotsQueuesEveryUserWithActiveAccounts() {
+        holdLock();
+        when(accountRepository.findDistinctUserIdsWithActiveAccounts()).thenReturn(List.of(10L, 30L));
 
-        syncScheduler.weeklyRecurringDetection();
+        syncScheduler.dailyNetWorthSnapshots();
 
-        verify(recurringService).detectRecurringPatterns(10L);
-        verify(recurringService).detectRecurringPatterns(20L);
+        verify(syncJobService).enqueueNetWorthSnapshots(List.of(10L, 30L));
+        verifyNoInteractions(connectionRepository);
     }
 
     @Test
     void syncHandlesEmptyConnectionList() {
+        holdLock();
         when(connectionRepository.findDueForSync()).thenReturn(List.of());
 
         syncScheduler.morningSyncAll();
 
-        verify(syncService, never()).syncConnection(org.mockito.ArgumentMatchers.anyLong(), org.mockito.ArgumentMatchers.anyLong());
+        verify(syncJobService, never()).enqueueScheduledSync(anyLong(), anyLong(), any());
+    }
+
+    private void holdLock() {
+        doAnswer(invocation -> {
+            Runnable task = invocation.getArgument(3);
+            task.run();
+            return true;
+        }).when(lockService).runExclusively(any(), any(), any(), any());
     }
 
     private SimpleFinConnection connection(Long id, Long userId) {
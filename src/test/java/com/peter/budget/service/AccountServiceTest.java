@@ -8,6 +8,7 @@ import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.enums.AccountNetWorthCategory;
 import com.peter.budget.model.enums.AccountType;
 import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,6 +38,8 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private TransactionReadRepository transactionReadRepository;
+    @Mock
+    private RecurringMerchantStateRepository merchantStateRepository;
 
     @InjectMocks
     private AccountService accountService;
@@ -211,6 +214,22 @@ class AccountServiceTest {
 
     // --- updateNetWorthCategory tests ---
 
+    @Test
+    void calculateNetWorthMatchesSummaryTotals() {
+        List<Account> accounts = List.of(
+                account(1L, AccountType.CHECKING, "1500.00"),
+                account(2L, AccountType.CREDIT_CARD, "-400.00"));
+        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(accounts);
+
+        AccountService.NetWorthTotals totals = accountService.calculateNetWorth(accounts);
+        AccountSummaryDto summary = accountService.getAccountSummary(USER_ID);
+
+        assertEquals(new BigDecimal("1500.00"), totals.totalAssets());
+        assertEquals(new BigDecimal("400.00"), totals.totalLiabilities());
+        assertEquals(new BigDecimal("1100.00"), totals.netWorth());
+        assertEquals(summary.getNetWorth(), totals.netWorth());
+    }
+
     @Test
     void updateNetWorthCategoryPersistsOverride() {
         Account account = account(1L, AccountType.CHECKING, "500.00");
@@ -278,6 +297,7 @@ class AccountServiceTest {
         accountService.deleteAccount(USER_ID, 4L);
 
         org.mockito.Mockito.verify(accountRepository).deleteByIdAndUserId(4L, USER_ID);
+        org.mockito.Mockito.verify(merchantStateRepository).resetForUser(USER_ID);
     }
 
     private Account account(Long id, AccountType type, String balance) {
@@ -0,0 +1,136 @@
+package com.peter.budget.service;
+
+import com.peter.budget.exception.ApiException;
+import com.peter.budget.model.dto.AccountBalanceDto;
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.repository.AccountBalanceHistoryRepository;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.HistoryState;
+import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.service.balance.BalanceHistoryApplicationService;
+import com.peter.budget.service.balance.BalanceHistoryEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHistoryServiceTest {
+
+    private static final long USER_ID = 42L;
+    private static final long ACCOUNT_ID = 7L;
+    private static final HistoryState CURRENT_STATE = new HistoryState(
+            LocalDate.of(2026, 3, 10), new BigDecimal("1000.00"), LocalDate.of(2026, 3, 4),
+            2, Instant.parse("2026-03-10T13:00:00Z"));
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountBalanceHistoryRepository historyRepository;
+    @Mock
+    private BalanceHistoryApplicationService applicationService;
+    @Spy
+    private BalanceHistoryEngine engine = new BalanceHistoryEngine();
+
+    @InjectMocks
+    private BalanceHistoryService balanceHistoryService;
+
+    @Test
+    void getBalanceOnReadsTheStoredDayWhenHistoryIsCurrent() {
+        when(accountRepository.findByIdAndUserId(ACCOUNT_ID, USER_ID)).thenReturn(Optional.of(account("1000.00")));
+        when(historyRepository.findState(ACCOUNT_ID)).thenReturn(Optional.of(CURRENT_STATE));
+        when(historyRepository.findBalanceOn(ACCOUNT_ID, LocalDate.of(2026, 3, 6)))
+                .thenReturn(Optional.of(new BigDecimal("700.00")));
+
+        AccountBalanceDto result = balanceHistoryService.getBalanceOn(USER_ID, ACCOUNT_ID, LocalDate.of(2026, 3, 6));
+
+        assertEquals(new BigDecimal("700.00"), result.getBalance());
+        verify(applicationService, never()).refresh(any());
+    }
+
+    @Test
+    void getBalanceOnRefreshesWhenTheReportedBalanceChanged() {
+        Account account = account("1200.00");
+        HistoryState refreshed = new HistoryState(
+                LocalDate.of(2026, 3, 10), new BigDecimal("1200.00"), LocalDate.of(2026, 3, 4),
+                3, Instant.parse("2026-03-10T14:00:00Z"));
+        when(accountRepository.findByIdAndUserId(ACCOUNT_ID, USER_ID)).thenReturn(Optional.of(account));
+        when(historyRepository.findState(ACCOUNT_ID)).thenReturn(Optional.of(CURRENT_STATE));
+        when(applicationService.refresh(account)).thenReturn(refreshed);
+
+        AccountBalanceDto result = balanceHistoryService.getBalanceOn(USER_ID, ACCOUNT_ID, LocalDate.of(2026, 4, 1));
+
+        assertEquals(new BigDecimal("1200.00"), result.getBalance());
+        verify(historyRepository, never()).findBalanceOn(any(), any());
+    }
+
+    @Test
+    void getBalanceOnBeforeHistoryReturnsTheOpeningBalance() {
+        when(accountRepository.findByIdAndUserId(ACCOUNT_ID, USER_ID)).thenReturn(Optional.of(account("1000.00")));
+        when(historyRepository.findState(ACCOUNT_ID)).thenReturn(Optional.of(CURRENT_STATE));
+        when(historyRepository.findBalanceOn(ACCOUNT_ID, LocalDate.of(2026, 3, 4)))
+                .thenReturn(Optional.of(new BigDecimal("800.00")));
+
+        AccountBalanceDto result = balanceHistoryService.getBalanceOn(USER_ID, ACCOUNT_ID, LocalDate.of(2025, 1, 1));
+
+        assertEquals(LocalDate.of(2025, 1, 1), result.getDate());
+        assertEquals(new BigDecimal("800.00"), result.getBalance());
+    }
+
+    @Test
+    void getBalanceOnThrowsNotFoundForAnotherUsersAccount() {
+        when(accountRepository.findByIdAndUserId(ACCOUNT_ID, USER_ID)).thenReturn(Optional.empty());
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> balanceHistoryService.getBalanceOn(USER_ID, ACCOUNT_ID, LocalDate.of(2026, 3, 6)));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+    @Test
+    void getBalanceHistoryRejectsStartAfterEnd() {
+        ApiException exception = assertThrows(ApiException.class, () -> balanceHistoryService.getBalanceHistory(
+                USER_ID, ACCOUNT_ID, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 3, 1)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void refreshConnectionSkipsInactiveAccounts() {
+        Account active = account("1000.00");
+        Account inactive = account("5.00");
+        inactive.setActive(false);
+        when(accountRepository.findByConnectionId(3L)).thenReturn(List.of(active, inactive));
+
+        int refreshed = balanceHistoryService.refreshConnection(3L);
+
+        assertEquals(1, refreshed);
+        verify(applicationService).refresh(active);
+        verify(applicationService, never()).refresh(inactive);
+    }
+
+    private static Account account(String balance) {
+        return Account.builder()
+                .id(ACCOUNT_ID)
+                .userId(USER_ID)
+                .currentBalance(new BigDecimal(balance))
+                .balanceUpdatedAt(Instant.parse("2026-03-10T12:00:00Z"))
+                .active(true)
+                .build();
+    }
+}
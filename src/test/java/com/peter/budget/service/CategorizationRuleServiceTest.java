@@ -9,6 +9,7 @@ import com.peter.budget.model.enums.MatchField;
 import com.peter.budget.model.enums.PatternType;
 import com.peter.budget.model.enums.RuleConditionOperator;
 import com.peter.budget.repository.CategorizationRuleRepository;
+import com.peter.budget.service.event.UserEventService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -40,6 +41,8 @@ class CategorizationRuleServiceTest {
     private CategoryViewService categoryViewService;
     @Mock
     private TransactionService transactionService;
+    @Mock
+    private UserEventService userEventService;
 
     @InjectMocks
     private CategorizationRuleService categorizationRuleService;
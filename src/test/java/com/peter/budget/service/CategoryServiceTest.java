@@ -11,6 +11,7 @@ import com.peter.budget.repository.CategoryOverrideRepository;
 import com.peter.budget.repository.CategoryRepository;
 import com.peter.budget.repository.RecurringPatternRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
+import com.peter.budget.service.event.UserEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -61,6 +62,8 @@ class CategoryServiceTest {
     private CategoryViewService categoryViewService;
     @Mock
     private UncategorizedCategoryService uncategorizedCategoryService;
+    @Mock
+    private UserEventService userEventService;
 
     @InjectMocks
     private CategoryService categoryService;
@@ -0,0 +1,127 @@
+package com.peter.budget.service;
+
+import com.peter.budget.exception.ApiException;
+import com.peter.budget.model.dto.NetWorthSnapshotDto;
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.model.entity.NetWorthSnapshot;
+import com.peter.budget.model.enums.AccountType;
+import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.NetWorthSnapshotRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
+import com.peter.budget.repository.TransactionReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NetWorthSnapshotServiceTest {
+
+    private static final long USER_ID = 42L;
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionReadRepository transactionReadRepository;
+    @Mock
+    private RecurringMerchantStateRepository merchantStateRepository;
+    @Mock
+    private NetWorthSnapshotRepository snapshotRepository;
+
+    private NetWorthSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        AccountService accountService = new AccountService(accountRepository, transactionReadRepository,
+                merchantStateRepository);
+        snapshotService = new NetWorthSnapshotService(accountRepository, accountService, snapshotRepository);
+    }
+
+    @Test
+    void recordSnapshotStoresTodaysTotals() {
+        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(
+                account(1L, AccountType.CHECKING, "2500.00"),
+                account(2L, AccountType.INVESTMENT, "10000.00"),
+                account(3L, AccountType.LOAN, "-7000.00")));
+
+        snapshotService.recordSnapshot(USER_ID);
+
+        ArgumentCaptor<NetWorthSnapshot> captor = ArgumentCaptor.forClass(NetWorthSnapshot.class);
+        verify(snapshotRepository).upsert(captor.capture());
+        NetWorthSnapshot snapshot = captor.getValue();
+        assertEquals(USER_ID, snapshot.getUserId());
+        assertEquals(LocalDate.now(ZoneOffset.UTC), snapshot.getSnapshotDate());
+        assertEquals(new BigDecimal("12500.00"), snapshot.getTotalAssets());
+        assertEquals(new BigDecimal("7000.00"), snapshot.getTotalLiabilities());
+        assertEquals(new BigDecimal("5500.00"), snapshot.getNetWorth());
+    }
+
+    @Test
+    void getHistoryReturnsStoredPointsForRange() {
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        LocalDate end = LocalDate.of(2026, 3, 31);
+        when(snapshotRepository.findByUserIdBetween(USER_ID, start, end)).thenReturn(List.of(
+                snapshot(LocalDate.of(2026, 3, 1), "1000.00"),
+                snapshot(LocalDate.of(2026, 3, 2), "1050.00")));
+
+        List<NetWorthSnapshotDto> history = snapshotService.getHistory(USER_ID, start, end);
+
+        assertEquals(2, history.size());
+        assertEquals(LocalDate.of(2026, 3, 2), history.get(1).getDate());
+        assertEquals(new BigDecimal("1050.00"), history.get(1).getNetWorth());
+    }
+
+    @Test
+    void getHistoryDefaultsToTheLastYear() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        snapshotService.getHistory(USER_ID, null, null);
+
+        verify(snapshotRepository).findByUserIdBetween(USER_ID, today.minusDays(364), today);
+    }
+
+    @Test
+    void getHistoryRejectsStartAfterEnd() {
+        ApiException exception = assertThrows(ApiException.class, () -> snapshotService.getHistory(
+                USER_ID, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 3, 1)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verify(snapshotRepository, never()).findByUserIdBetween(any(), any(), any());
+    }
+
+    private Account account(Long id, AccountType type, String balance) {
+        return Account.builder()
+                .id(id)
+                .userId(USER_ID)
+                .name("Account " + id)
+                .accountType(type)
+                .currentBalance(new BigDecimal(balance))
+                .active(true)
+                .build();
+    }
+
+    private NetWorthSnapshot snapshot(LocalDate date, String netWorth) {
+        return NetWorthSnapshot.builder()
+                .userId(USER_ID)
+                .snapshotDate(date)
+                .totalAssets(new BigDecimal(netWorth))
+                .totalLiabilities(BigDecimal.ZERO)
+                .netWorth(new BigDecimal(netWorth))
+                .build();
+    }
+}
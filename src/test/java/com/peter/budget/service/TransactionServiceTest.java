@@ -4,6 +4,7 @@ import com.peter.budget.exception.ApiException;
 import com.peter.budget.model.dto.TransactionCreateRequest;
 import com.peter.budget.model.dto.TransactionDto;
 import com.peter.budget.model.dto.TransactionUpdateRequest;
+import com.peter.budget.model.dto.TransferPairDto;
 import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.CategorizationRule;
 import com.peter.budget.model.entity.Category;
@@ -12,6 +13,7 @@ import com.peter.budget.model.enums.AccountType;
 import com.peter.budget.model.enums.CategoryType;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.CategorizationRuleRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +41,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -68,6 +72,8 @@ class TransactionServiceTest {
     private UncategorizedCategoryService uncategorizedCategoryService;
     @Mock
     private TransferDetectionService transferDetectionService;
+    @Mock
+    private RecurringMerchantStateRepository merchantStateRepository;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -79,8 +85,8 @@ class TransactionServiceTest {
     void setUp() {
         lenient().when(transactionWriteRepository.save(any(Transaction.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        lenient().when(accountRepository.findById(ACCOUNT_ID))
-                .thenReturn(Optional.of(Account.builder()
+        lenient().when(accountRepository.findByUserId(USER_ID))
+                .thenReturn(List.of(Account.builder()
                         .id(ACCOUNT_ID)
                         .name("Checking")
                         .accountType(AccountType.CHECKING)
@@ -552,6 +558,7 @@ class TransactionServiceTest {
         transactionService.deleteTransaction(USER_ID, TRANSACTION_ID);
 
         verify(transactionWriteRepository).deleteById(TRANSACTION_ID);
+        verify(merchantStateRepository).resetForUser(USER_ID);
         verify(transferDetectionService, never()).unlinkTransfer(any(Long.class), any(Long.class));
     }
 
@@ -611,11 +618,48 @@ class TransactionServiceTest {
 
     @Test
     void getTransfersDelegatesToTransferDetectionService() {
-        when(transferDetectionService.getTransferPairs(USER_ID)).thenReturn(List.of());
+        LocalDate startDate = LocalDate.of(2026, 1, 1);
+        when(transferDetectionService.getTransferPairs(USER_ID, startDate, null, 101, 0)).thenReturn(List.of());
+
+        TransactionService.TransferPairPage page = transactionService.getTransfers(USER_ID, startDate, null, 100, 0);
+
+        assertTrue(page.pairs().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void getTransfersReportsFurtherPairsPastTheLimit() {
+        TransferPairDto first = TransferPairDto.builder().build();
+        TransferPairDto second = TransferPairDto.builder().build();
+        TransferPairDto third = TransferPairDto.builder().build();
+        when(transferDetectionService.getTransferPairs(USER_ID, null, null, 3, 4))
+                .thenReturn(List.of(first, second, third));
+
+        TransactionService.TransferPairPage page = transactionService.getTransfers(USER_ID, null, null, 2, 4);
+
+        assertEquals(List.of(first, second), page.pairs());
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void getTransfersRejectsLimitAboveMaximum() {
+        ApiException ex = assertThrows(ApiException.class, () -> transactionService.getTransfers(
+                USER_ID, null, null, TransactionService.MAX_TRANSFER_PAGE_SIZE + 1, 0));
 
-        transactionService.getTransfers(USER_ID);
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(transferDetectionService, never()).getTransferPairs(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getTransfersRejectsNegativePaging() {
+        ApiException limitEx = assertThrows(ApiException.class,
+                () -> transactionService.getTransfers(USER_ID, null, null, -1, 0));
+        ApiException offsetEx = assertThrows(ApiException.class,
+                () -> transactionService.getTransfers(USER_ID, null, null, 10, -5));
 
-        verify(transferDetectionService).getTransferPairs(USER_ID);
+        assertEquals(HttpStatus.BAD_REQUEST, limitEx.getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, offsetEx.getStatus());
+        verify(transferDetectionService, never()).getTransferPairs(any(), any(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -649,6 +693,25 @@ class TransactionServiceTest {
 
     // --- Transfer pair account name in toDto ---
 
+    @Test
+    void getTransactionsLoadsAccountsOnceForThePage() {
+        Transaction first = baseTransaction();
+        Transaction second = baseTransaction();
+        second.setId(TRANSACTION_ID + 1);
+
+        when(transactionReadRepository.findByUserIdWithFilters(
+                USER_ID, false, null, null, null, null, null, false, null, null, null, 100, 0, false))
+                .thenReturn(List.of(first, second));
+
+        List<TransactionDto> result = transactionService.getTransactions(
+                USER_ID, false, null, null, null, null, null, false, null, null, null, 100, 0, "desc");
+
+        assertEquals(2, result.size());
+        assertEquals("Checking", result.get(1).getAccountName());
+        verify(accountRepository).findByUserId(USER_ID);
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
     @Test
     void getDtoIncludesTransferPairAccountName() {
         Transaction tx = baseTransaction();
@@ -657,17 +720,22 @@ class TransactionServiceTest {
         Transaction pairTx = Transaction.builder()
                 .id(200L).accountId(50L).build();
 
+        Account account = Account.builder().id(ACCOUNT_ID).name("Checking").build();
         Account pairAccount = Account.builder().id(50L).name("Savings").build();
 
         when(transactionReadRepository.findByIdAndUserId(TRANSACTION_ID, USER_ID))
                 .thenReturn(Optional.of(tx));
-        when(transactionReadRepository.findById(200L)).thenReturn(Optional.of(pairTx));
-        when(accountRepository.findById(50L)).thenReturn(Optional.of(pairAccount));
+        when(transactionReadRepository.findAccountIdsByIds(List.of(200L)))
+                .thenReturn(Map.of(200L, pairTx.getAccountId()));
+        when(accountRepository.findByUserId(USER_ID)).thenReturn(List.of(account, pairAccount));
 
         TransactionDto result = transactionService.getTransaction(USER_ID, TRANSACTION_ID);
 
+        assertEquals("Checking", result.getAccountName());
         assertEquals("Savings", result.getTransferPairAccountName());
         assertEquals(200L, result.getTransferPairId());
+        verify(transactionReadRepository, never()).findById(anyLong());
+        verify(accountRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -7,9 +7,11 @@ import com.peter.budget.model.entity.Category;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.AccountType;
 import com.peter.budget.model.enums.CategoryType;
+import com.peter.budget.model.enums.UserEventType;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
+import com.peter.budget.service.event.UserEventService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -19,15 +21,18 @@ import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +48,8 @@ class TransferDetectionServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private CategoryViewService categoryViewService;
+    @Mock
+    private UserEventService userEventService;
 
     @InjectMocks
     private TransferDetectionService transferDetectionService;
@@ -199,6 +206,7 @@ class TransferDetectionServiceTest {
         transferDetectionService.unlinkTransfer(USER_ID, 1L);
 
         verify(transactionWriteRepository).unlinkTransferPair(1L);
+        verify(userEventService).publishChanged(USER_ID, UserEventType.TRANSFERS_CHANGED);
     }
 
     // --- detectTransfers tests ---
@@ -233,6 +241,7 @@ class TransferDetectionServiceTest {
 
         assertEquals(1, result);
         verify(transactionWriteRepository).linkTransferPair(1L, 2L);
+        verify(userEventService).publishChanged(USER_ID, UserEventType.TRANSFERS_CHANGED);
     }
 
     @Test
@@ -287,6 +296,7 @@ class TransferDetectionServiceTest {
         int result = transferDetectionService.detectTransfers(USER_ID);
 
         assertEquals(0, result);
+        verifyNoInteractions(userEventService);
     }
 
     // --- markAsTransfer success path ---
@@ -310,27 +320,27 @@ class TransferDetectionServiceTest {
     }
 
     @Test
-    void getTransferPairsReturnsGroupedPairs() {
-        Transaction outgoing = baseTransaction(1L, 10L, new BigDecimal("-500.00"));
-        outgoing.setTransferPairId(2L);
-        outgoing.setDescription("Transfer out");
-        Transaction incoming = baseTransaction(2L, 20L, new BigDecimal("500.00"));
-        incoming.setTransferPairId(1L);
-
-        Account fromAccount = Account.builder().id(10L).name("Checking").accountType(AccountType.CHECKING).build();
-        Account toAccount = Account.builder().id(20L).name("Savings").accountType(AccountType.SAVINGS).build();
-
-        when(transactionReadRepository.findTransfersByUserId(USER_ID)).thenReturn(List.of(outgoing, incoming));
-        when(transactionReadRepository.findById(2L)).thenReturn(Optional.of(incoming));
-        when(accountRepository.findById(10L)).thenReturn(Optional.of(fromAccount));
-        when(accountRepository.findById(20L)).thenReturn(Optional.of(toAccount));
+    void getTransferPairsMapsJoinedRowsWithoutPerRowLookups() {
+        LocalDate startDate = LocalDate.of(2026, 1, 1);
+        LocalDate endDate = LocalDate.of(2026, 1, 31);
+        when(transactionReadRepository.findTransferPairsByUserId(USER_ID, startDate, endDate, 50, 0))
+                .thenReturn(List.of(new TransactionReadRepository.TransferPairRow(
+                        1L, "Checking", 2L, "Savings", new BigDecimal("500.00"),
+                        Instant.parse("2026-01-15T00:00:00Z"), "Transfer out")));
 
-        List<TransferPairDto> result = transferDetectionService.getTransferPairs(USER_ID);
+        List<TransferPairDto> result = transferDetectionService.getTransferPairs(USER_ID, startDate, endDate, 50, 0);
 
         assertEquals(1, result.size());
-        assertEquals("Checking", result.get(0).getFromAccountName());
-        assertEquals("Savings", result.get(0).getToAccountName());
-        assertEquals(new BigDecimal("500.00"), result.get(0).getAmount());
+        TransferPairDto pair = result.get(0);
+        assertEquals(1L, pair.getFromTransactionId());
+        assertEquals("Checking", pair.getFromAccountName());
+        assertEquals(2L, pair.getToTransactionId());
+        assertEquals("Savings", pair.getToAccountName());
+        assertEquals(new BigDecimal("500.00"), pair.getAmount());
+        assertEquals("Transfer out", pair.getDescription());
+        assertTrue(pair.isAutoDetected());
+        verify(transactionReadRepository, never()).findById(anyLong());
+        verifyNoInteractions(accountRepository);
     }
 
     private Transaction baseTransaction(Long id, Long accountId, BigDecimal amount) {
@@ -2,13 +2,17 @@ package com.peter.budget.service.auth;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JwtServiceTest {
@@ -16,12 +20,14 @@ class JwtServiceTest {
     private static final String SECRET = "this-is-a-very-long-secret-key-for-testing-jwt-tokens-minimum-256-bits";
     private static final long ACCESS_TOKEN_EXPIRATION_MS = 900000;
     private static final long REFRESH_TOKEN_EXPIRATION_MS = 604800000;
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
 
     private JwtService jwtService;
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService(SECRET, ACCESS_TOKEN_EXPIRATION_MS, REFRESH_TOKEN_EXPIRATION_MS);
+        jwtService = new JwtService(SECRET, ACCESS_TOKEN_EXPIRATION_MS, REFRESH_TOKEN_EXPIRATION_MS,
+                VERIFIED_TOKEN_CACHE_SIZE);
     }
 
     @Test
@@ -55,7 +61,8 @@ class JwtServiceTest {
     void isTokenValidReturnsFalseForTokenSignedWithDifferentKey() {
         JwtService otherService = new JwtService(
                 "a-completely-different-secret-key-that-is-long-enough-for-hmac-sha256",
-                ACCESS_TOKEN_EXPIRATION_MS, REFRESH_TOKEN_EXPIRATION_MS);
+                ACCESS_TOKEN_EXPIRATION_MS, REFRESH_TOKEN_EXPIRATION_MS,
+                VERIFIED_TOKEN_CACHE_SIZE);
         String token = otherService.generateAccessToken(1L, "test@example.com");
 
         assertFalse(jwtService.isTokenValid(token));
@@ -63,12 +70,69 @@ class JwtServiceTest {
 
     @Test
     void isTokenValidReturnsFalseForExpiredToken() {
-        JwtService shortLivedService = new JwtService(SECRET, 0, REFRESH_TOKEN_EXPIRATION_MS);
+        JwtService shortLivedService = new JwtService(SECRET, 0, REFRESH_TOKEN_EXPIRATION_MS,
+                VERIFIED_TOKEN_CACHE_SIZE);
         String token = shortLivedService.generateAccessToken(1L, "test@example.com");
 
         assertFalse(jwtService.isTokenValid(token));
     }
 
+    @Test
+    void verifyAccessTokenReturnsClaims() {
+        String token = jwtService.generateAccessToken(42L, "user@example.com");
+
+        JwtService.VerifiedToken verified = jwtService.verifyAccessToken(token).orElseThrow();
+
+        assertEquals(42L, verified.userId());
+        assertEquals("user@example.com", verified.email());
+        assertTrue(verified.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void verifyAccessTokenReusesCachedVerification() {
+        String token = jwtService.generateAccessToken(42L, "user@example.com");
+
+        JwtService.VerifiedToken first = jwtService.verifyAccessToken(token).orElseThrow();
+        JwtService.VerifiedToken second = jwtService.verifyAccessToken(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void verifyAccessTokenRejectsInvalidTokens() {
+        JwtService otherService = new JwtService(
+                "a-completely-different-secret-key-that-is-long-enough-for-hmac-sha256",
+                ACCESS_TOKEN_EXPIRATION_MS, REFRESH_TOKEN_EXPIRATION_MS,
+                VERIFIED_TOKEN_CACHE_SIZE);
+        JwtService shortLivedService = new JwtService(SECRET, 0, REFRESH_TOKEN_EXPIRATION_MS,
+                VERIFIED_TOKEN_CACHE_SIZE);
+
+        assertTrue(jwtService.verifyAccessToken("not-a-valid-token").isEmpty());
+        assertTrue(jwtService.verifyAccessToken(otherService.generateAccessToken(1L, "a@example.com")).isEmpty());
+        assertTrue(jwtService.verifyAccessToken(shortLivedService.generateAccessToken(1L, "a@example.com")).isEmpty());
+    }
+
+    @Test
+    void verifyAccessTokenCacheKeepsTheMostRecentlyUsedTokensWithinConfiguredSize() {
+        JwtService smallCacheService = new JwtService(SECRET, ACCESS_TOKEN_EXPIRATION_MS,
+                REFRESH_TOKEN_EXPIRATION_MS, 2);
+        String first = smallCacheService.generateAccessToken(1L, "user1@example.com");
+        smallCacheService.verifyAccessToken(first);
+
+        String last = null;
+        for (long userId = 2; userId <= 5; userId++) {
+            last = smallCacheService.generateAccessToken(userId, "user" + userId + "@example.com");
+            assertEquals(userId, smallCacheService.verifyAccessToken(last).orElseThrow().userId());
+            // Keep the first token in use so it outlives the others.
+            smallCacheService.verifyAccessToken(first);
+        }
+
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(smallCacheService, "verifiedTokens");
+        assertEquals(2, Objects.requireNonNull(cache).size());
+        assertTrue(cache.containsKey(smallCacheService.hashRefreshToken(first)));
+        assertTrue(cache.containsKey(smallCacheService.hashRefreshToken(last)));
+    }
+
     @Test
     void generateRefreshTokenProducesUniqueValues() {
         String token1 = jwtService.generateRefreshToken();
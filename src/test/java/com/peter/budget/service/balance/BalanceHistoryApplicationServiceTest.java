@@ -0,0 +1,187 @@
+package com.peter.budget.service.balance;
+
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.repository.AccountBalanceHistoryRepository;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.DailyBalance;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.HistoryState;
+import com.peter.budget.repository.TransactionReadRepository;
+import com.peter.budget.repository.TransactionReadRepository.LedgerChanges;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHistoryApplicationServiceTest {
+
+    private static final long ACCOUNT_ID = 7L;
+    private static final Instant COMPUTED_AT = Instant.parse("2026-03-10T13:00:00Z");
+
+    @Mock
+    private AccountBalanceHistoryRepository historyRepository;
+    @Mock
+    private TransactionReadRepository transactionReadRepository;
+    @Spy
+    private BalanceHistoryEngine engine = new BalanceHistoryEngine();
+
+    @InjectMocks
+    private BalanceHistoryApplicationService applicationService;
+
+    @Test
+    void firstRefreshWalksBackFromTheDayBeforeTheFirstPosting() {
+        Account account = account("1000.00", "2026-03-10T12:00:00Z");
+        when(historyRepository.lockState(ACCOUNT_ID)).thenReturn(new HistoryState(null, null, null, 0, null));
+        when(transactionReadRepository.findLedgerChangesByAccountId(ACCOUNT_ID, Instant.EPOCH))
+                .thenReturn(new LedgerChanges(2, 2, LocalDate.of(2026, 3, 5)));
+        when(transactionReadRepository.sumDailyAmountsByAccountId(ACCOUNT_ID, null, LocalDate.of(2026, 3, 10)))
+                .thenReturn(dailyNet(LocalDate.of(2026, 3, 5), "-100.00", LocalDate.of(2026, 3, 8), "300.00"));
+
+        HistoryState state = applicationService.refresh(account);
+
+        assertEquals(LocalDate.of(2026, 3, 4), state.firstDate());
+        assertEquals(2, state.transactionCount());
+        List<DailyBalance> balances = capturedReplacement(null);
+        assertEquals(7, balances.size());
+        assertEquals(new BigDecimal("800.00"), balances.get(0).balance());
+        verify(historyRepository).saveState(ACCOUNT_ID, state);
+    }
+
+    @Test
+    void newTransactionsOnlyRecomputeRecentDaysAndShiftOlderOnesWhenTheBalanceDrifts() {
+        // Stored: EOD 2026-03-10 was 1000. Since then -50 posted on 03-11 and the bank reports 960
+        // on 03-12, so the ledger explains only -40 of the change and older days move by +10.
+        Account account = account("960.00", "2026-03-12T12:00:00Z");
+        when(historyRepository.lockState(ACCOUNT_ID)).thenReturn(storedState(LocalDate.of(2026, 3, 10), "1000.00", 2));
+        when(transactionReadRepository.findLedgerChangesByAccountId(ACCOUNT_ID, COMPUTED_AT))
+                .thenReturn(new LedgerChanges(3, 1, LocalDate.of(2026, 3, 11)));
+        when(historyRepository.findBalanceOn(ACCOUNT_ID, LocalDate.of(2026, 3, 10)))
+                .thenReturn(Optional.of(new BigDecimal("1000.00")));
+        when(transactionReadRepository.sumDailyAmountsByAccountId(
+                ACCOUNT_ID, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 12)))
+                .thenReturn(dailyNet(LocalDate.of(2026, 3, 11), "-50.00"));
+
+        HistoryState state = applicationService.refresh(account);
+
+        List<DailyBalance> balances = capturedReplacement(LocalDate.of(2026, 3, 10));
+        assertEquals(List.of(
+                new DailyBalance(LocalDate.of(2026, 3, 10), new BigDecimal("1010.00")),
+                new DailyBalance(LocalDate.of(2026, 3, 11), new BigDecimal("960.00")),
+                new DailyBalance(LocalDate.of(2026, 3, 12), new BigDecimal("960.00"))), balances);
+        verify(historyRepository).shiftBefore(ACCOUNT_ID, LocalDate.of(2026, 3, 10), new BigDecimal("10.00"));
+        assertEquals(LocalDate.of(2026, 3, 1), state.firstDate());
+        assertEquals(LocalDate.of(2026, 3, 12), state.anchorDate());
+    }
+
+    @Test
+    void editedOlderTransactionRecomputesFromTheDayBeforeIt() {
+        Account account = account("1000.00", "2026-03-10T12:00:00Z");
+        when(historyRepository.lockState(ACCOUNT_ID)).thenReturn(storedState(LocalDate.of(2026, 3, 10), "1000.00", 2));
+        when(transactionReadRepository.findLedgerChangesByAccountId(ACCOUNT_ID, COMPUTED_AT))
+                .thenReturn(new LedgerChanges(2, 0, LocalDate.of(2026, 3, 6)));
+        when(historyRepository.findBalanceOn(ACCOUNT_ID, LocalDate.of(2026, 3, 5)))
+                .thenReturn(Optional.of(new BigDecimal("700.00")));
+        when(transactionReadRepository.sumDailyAmountsByAccountId(
+                ACCOUNT_ID, LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 10)))
+                .thenReturn(dailyNet(LocalDate.of(2026, 3, 8), "300.00"));
+
+        applicationService.refresh(account);
+
+        assertEquals(6, capturedReplacement(LocalDate.of(2026, 3, 5)).size());
+        verify(historyRepository, never()).shiftBefore(any(), any(), any());
+    }
+
+    @Test
+    void unchangedLedgerAndBalanceWritesNothing() {
+        Account account = account("1000.00", "2026-03-10T12:00:00Z");
+        HistoryState stored = storedState(LocalDate.of(2026, 3, 10), "1000.00", 2);
+        when(historyRepository.lockState(ACCOUNT_ID)).thenReturn(stored);
+        when(transactionReadRepository.findLedgerChangesByAccountId(ACCOUNT_ID, COMPUTED_AT))
+                .thenReturn(new LedgerChanges(2, 0, null));
+
+        assertSame(stored, applicationService.refresh(account));
+
+        verify(historyRepository, never()).replaceFrom(any(), any(), anyList());
+        verify(historyRepository, never()).saveState(any(), any());
+    }
+
+    @Test
+    void deletedTransactionTriggersFullRebuild() {
+        Account account = account("1000.00", "2026-03-10T12:00:00Z");
+        when(historyRepository.lockState(ACCOUNT_ID)).thenReturn(storedState(LocalDate.of(2026, 3, 10), "1000.00", 2));
+        when(transactionReadRepository.findLedgerChangesByAccountId(ACCOUNT_ID, COMPUTED_AT))
+                .thenReturn(new LedgerChanges(1, 0, null));
+        when(transactionReadRepository.sumDailyAmountsByAccountId(ACCOUNT_ID, null, LocalDate.of(2026, 3, 10)))
+                .thenReturn(dailyNet(LocalDate.of(2026, 3, 8), "300.00"));
+
+        HistoryState state = applicationService.refresh(account);
+
+        assertEquals(LocalDate.of(2026, 3, 7), state.firstDate());
+        assertEquals(4, capturedReplacement(null).size());
+        verify(historyRepository, never()).findBalanceOn(any(), any());
+    }
+
+    @Test
+    void changeOlderThanStoredHistoryTriggersFullRebuild() {
+        Account account = account("1000.00", "2026-03-10T12:00:00Z");
+        when(historyRepository.lockState(ACCOUNT_ID)).thenReturn(storedState(LocalDate.of(2026, 3, 10), "1000.00", 2));
+        when(transactionReadRepository.findLedgerChangesByAccountId(ACCOUNT_ID, COMPUTED_AT))
+                .thenReturn(new LedgerChanges(3, 1, LocalDate.of(2026, 2, 20)));
+        when(transactionReadRepository.sumDailyAmountsByAccountId(ACCOUNT_ID, null, LocalDate.of(2026, 3, 10)))
+                .thenReturn(dailyNet(LocalDate.of(2026, 2, 20), "-25.00"));
+
+        HistoryState state = applicationService.refresh(account);
+
+        assertEquals(LocalDate.of(2026, 2, 19), state.firstDate());
+        verify(historyRepository).replaceFrom(eq(ACCOUNT_ID), isNull(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DailyBalance> capturedReplacement(LocalDate fromDate) {
+        ArgumentCaptor<List<DailyBalance>> captor = ArgumentCaptor.forClass(List.class);
+        verify(historyRepository).replaceFrom(eq(ACCOUNT_ID), fromDate == null ? isNull() : eq(fromDate),
+                captor.capture());
+        return captor.getValue();
+    }
+
+    private static HistoryState storedState(LocalDate anchorDate, String anchorBalance, long transactionCount) {
+        return new HistoryState(anchorDate, new BigDecimal(anchorBalance), LocalDate.of(2026, 3, 1),
+                transactionCount, COMPUTED_AT);
+    }
+
+    private static TreeMap<LocalDate, BigDecimal> dailyNet(Object... dateAmountPairs) {
+        TreeMap<LocalDate, BigDecimal> dailyNet = new TreeMap<>();
+        for (int i = 0; i < dateAmountPairs.length; i += 2) {
+            dailyNet.put((LocalDate) dateAmountPairs[i], new BigDecimal((String) dateAmountPairs[i + 1]));
+        }
+        return dailyNet;
+    }
+
+    private static Account account(String balance, String balanceUpdatedAt) {
+        return Account.builder()
+                .id(ACCOUNT_ID)
+                .currentBalance(new BigDecimal(balance))
+                .balanceUpdatedAt(Instant.parse(balanceUpdatedAt))
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.peter.budget.service.balance;
+
+import com.peter.budget.model.entity.Account;
+import com.peter.budget.repository.AccountBalanceHistoryRepository.DailyBalance;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalanceHistoryEngineTest {
+
+    private final BalanceHistoryEngine engine = new BalanceHistoryEngine();
+
+    @Test
+    void walkBackSubtractsEachDaysPostingsFromTheFollowingDay() {
+        List<DailyBalance> balances = engine.walkBack(
+                new BigDecimal("1000.00"),
+                LocalDate.of(2026, 3, 10),
+                LocalDate.of(2026, 3, 4),
+                Map.of(
+                        LocalDate.of(2026, 3, 5), new BigDecimal("-100.00"),
+                        LocalDate.of(2026, 3, 8), new BigDecimal("300.00")));
+
+        assertEquals(7, balances.size());
+        assertEquals(new DailyBalance(LocalDate.of(2026, 3, 4), new BigDecimal("800.00")), balances.get(0));
+        assertEquals(new DailyBalance(LocalDate.of(2026, 3, 5), new BigDecimal("700.00")), balances.get(1));
+        assertEquals(new DailyBalance(LocalDate.of(2026, 3, 7), new BigDecimal("700.00")), balances.get(3));
+        assertEquals(new DailyBalance(LocalDate.of(2026, 3, 8), new BigDecimal("1000.00")), balances.get(4));
+        assertEquals(new DailyBalance(LocalDate.of(2026, 3, 10), new BigDecimal("1000.00")), balances.get(6));
+    }
+
+    @Test
+    void walkBackIgnoresPostingsOutsideTheRange() {
+        List<DailyBalance> balances = engine.walkBack(
+                new BigDecimal("50.00"),
+                LocalDate.of(2026, 3, 2),
+                LocalDate.of(2026, 3, 1),
+                Map.of(
+                        LocalDate.of(2026, 3, 1), new BigDecimal("-999.00"),
+                        LocalDate.of(2026, 3, 3), new BigDecimal("-999.00")));
+
+        assertEquals(new BigDecimal("50.00"), balances.get(0).balance());
+        assertEquals(new BigDecimal("50.00"), balances.get(1).balance());
+    }
+
+    @Test
+    void walkBackRejectsStartAfterAnchor() {
+        assertThrows(IllegalArgumentException.class, () -> engine.walkBack(
+                BigDecimal.ZERO, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2), Map.of()));
+    }
+
+    @Test
+    void anchorDateUsesTheUtcDayOfTheBalanceUpdate() {
+        Account account = Account.builder()
+                .balanceUpdatedAt(Instant.parse("2026-03-10T23:30:00Z"))
+                .build();
+
+        assertEquals(LocalDate.of(2026, 3, 10), engine.anchorDate(account, LocalDate.of(2026, 4, 1)));
+        assertEquals(LocalDate.of(2026, 4, 1), engine.anchorDate(Account.builder().build(), LocalDate.of(2026, 4, 1)));
+    }
+}
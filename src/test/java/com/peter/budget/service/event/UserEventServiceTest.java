@@ -0,0 +1,126 @@
+package com.peter.budget.service.event;
+
+import com.peter.budget.model.enums.UserEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserEventServiceTest {
+
+    private UserEventService userEventService;
+
+    @BeforeEach
+    void setUp() {
+        userEventService = new UserEventService();
+        ReflectionTestUtils.setField(Objects.requireNonNull(userEventService), "heartbeatSeconds", 25L);
+        ReflectionTestUtils.setField(Objects.requireNonNull(userEventService), "streamMinutes", 30L);
+    }
+
+    @Test
+    void publishDeliversNamedEventToUsersStream() throws Exception {
+        CompletableFuture<ServerSentEvent<Object>> received = firstNamedEvent(7L);
+
+        userEventService.publish(7L, UserEventType.SYNC_COMPLETED, Map.of("accountsSynced", 2));
+
+        ServerSentEvent<Object> event = received.get(5, TimeUnit.SECONDS);
+        assertEquals("sync-completed", event.event());
+        assertEquals(Map.of("accountsSynced", 2), event.data());
+    }
+
+    @Test
+    void publishDoesNotReachOtherUsers() throws Exception {
+        CompletableFuture<ServerSentEvent<Object>> otherUser = firstNamedEvent(8L);
+        CompletableFuture<ServerSentEvent<Object>> received = firstNamedEvent(7L);
+
+        userEventService.publishChanged(7L, UserEventType.CATEGORIES_CHANGED);
+
+        assertEquals("categories-changed", received.get(5, TimeUnit.SECONDS).event());
+        assertFalse(otherUser.isDone());
+        otherUser.cancel(true);
+    }
+
+    @Test
+    void publishWithoutOpenStreamIsIgnored() {
+        assertDoesNotThrow(() -> userEventService.publishChanged(7L, UserEventType.TRANSFERS_CHANGED));
+    }
+
+    @Test
+    void streamCanBeReopenedAfterClientDisconnects() throws Exception {
+        Disposable first = userEventService.stream(7L).subscribe();
+        first.dispose();
+
+        CompletableFuture<ServerSentEvent<Object>> received = firstNamedEvent(7L);
+        userEventService.publishChanged(7L, UserEventType.TRANSFERS_CHANGED);
+
+        assertEquals("transfers-changed", received.get(5, TimeUnit.SECONDS).event());
+    }
+
+    @Test
+    void tabConnectingWhileAnotherDisconnectsStillReceivesEvents() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 200; i++) {
+                Disposable closing = userEventService.stream(7L).subscribe();
+                CountDownLatch start = new CountDownLatch(1);
+
+                Future<?> disconnect = executor.submit(() -> {
+                    start.await();
+                    closing.dispose();
+                    return null;
+                });
+                Future<CompletableFuture<ServerSentEvent<Object>>> connect = executor.submit(() -> {
+                    start.await();
+                    return firstNamedEvent(7L);
+                });
+                start.countDown();
+                disconnect.get(5, TimeUnit.SECONDS);
+                CompletableFuture<ServerSentEvent<Object>> received = connect.get(5, TimeUnit.SECONDS);
+
+                userEventService.publishChanged(7L, UserEventType.TRANSFERS_CHANGED);
+
+                assertEquals("transfers-changed", received.get(5, TimeUnit.SECONDS).event());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sinkIsRemovedOnceTheLastStreamCloses() {
+        Disposable first = userEventService.stream(7L).subscribe();
+        Disposable second = userEventService.stream(7L).subscribe();
+
+        first.dispose();
+        assertFalse(sinks().isEmpty());
+
+        second.dispose();
+        assertTrue(sinks().isEmpty());
+    }
+
+    private Map<?, ?> sinks() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(Objects.requireNonNull(userEventService), "sinks");
+    }
+
+    private CompletableFuture<ServerSentEvent<Object>> firstNamedEvent(Long userId) {
+        return userEventService.stream(userId)
+                .filter(event -> event.event() != null)
+                .next()
+                .toFuture();
+    }
+}
@@ -0,0 +1,351 @@
+package com.peter.budget.service.job;
+
+import com.peter.budget.exception.ApiException;
+import com.peter.budget.model.dto.SyncJobDto;
+import com.peter.budget.model.entity.SimpleFinConnection;
+import com.peter.budget.model.entity.SyncJob;
+import com.peter.budget.model.enums.SyncJobStatus;
+import com.peter.budget.model.enums.SyncJobType;
+import com.peter.budget.repository.SimpleFinConnectionRepository;
+import com.peter.budget.repository.SyncJobRepository;
+import com.peter.budget.service.simplefin.SimpleFinSyncPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SyncJobServiceTest {
+
+    @Mock
+    private SyncJobRepository jobRepository;
+
+    @Mock
+    private SimpleFinConnectionRepository connectionRepository;
+
+    @Mock
+    private SimpleFinSyncPolicy syncPolicy;
+
+    @InjectMocks
+    private SyncJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(Objects.requireNonNull(jobService), "maxAttempts", 3);
+        ReflectionTestUtils.setField(Objects.requireNonNull(jobService), "retryBackoffSeconds", 60L);
+    }
+
+    @Test
+    void enqueuePostSyncJobsQueuesUserWideDetectionWithoutConnection() {
+        jobService.enqueuePostSyncJobs(7L, 10L);
+
+        verify(jobRepository).enqueueIfAbsent(7L, 10L, SyncJobType.CONNECTION_SUMMARY);
+        verify(jobRepository).enqueueIfAbsent(7L, 10L, SyncJobType.BALANCE_HISTORY);
+        verify(jobRepository).enqueueIfAbsent(7L, null, SyncJobType.TRANSFER_DETECTION);
+        verify(jobRepository).enqueueIfAbsent(7L, null, SyncJobType.NET_WORTH_SNAPSHOT);
+        verify(jobRepository, never()).enqueueIfAbsent(7L, null, SyncJobType.RECURRING_DETECTION);
+    }
+
+    @Test
+    void successfulTransferDetectionQueuesRecurringDetection() {
+        SyncJob job = job(1);
+        when(jobRepository.markSucceeded(5L, "worker-1")).thenReturn(true);
+
+        jobService.markSucceeded(job);
+
+        verify(jobRepository).enqueueIfAbsent(7L, null, SyncJobType.RECURRING_DETECTION);
+    }
+
+    @Test
+    void failedTransferDetectionDoesNotQueueRecurringDetection() {
+        SyncJob job = job(3);
+        when(jobRepository.markFailed(5L, "worker-1", "boom")).thenReturn(true);
+
+        jobService.markFailed(job, new RuntimeException("boom"));
+
+        verify(jobRepository, never()).enqueueIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void enqueueRecurringDetectionQueuesEachUserOnceAndCountsNewJobs() {
+        when(jobRepository.enqueueIfAbsent(7L, null, SyncJobType.RECURRING_DETECTION)).thenReturn(true);
+        when(jobRepository.enqueueIfAbsent(8L, null, SyncJobType.RECURRING_DETECTION)).thenReturn(false);
+
+        int queued = jobService.enqueueRecurringDetection(List.of(7L, 8L, 7L));
+
+        assertEquals(1, queued);
+        verify(jobRepository).enqueueIfAbsent(7L, null, SyncJobType.RECURRING_DETECTION);
+        verify(jobRepository).enqueueIfAbsent(8L, null, SyncJobType.RECURRING_DETECTION);
+    }
+
+    @Test
+    void enqueueNetWorthSnapshotsQueuesOneJobPerUser() {
+        when(jobRepository.enqueueIfAbsent(7L, null, SyncJobType.NET_WORTH_SNAPSHOT)).thenReturn(true);
+        when(jobRepository.enqueueIfAbsent(8L, null, SyncJobType.NET_WORTH_SNAPSHOT)).thenReturn(true);
+
+        int queued = jobService.enqueueNetWorthSnapshots(List.of(7L, 8L));
+
+        assertEquals(2, queued);
+    }
+
+    @Test
+    void claimRunnableSkipsRepositoryWhenNoCapacity() {
+        jobService.claimRunnable("worker-1", 0);
+
+        verify(jobRepository, never()).claimRunnable(anyString(), anyInt());
+    }
+
+    @Test
+    void markFailedRequeuesWithBackoffWhileAttemptsRemain() {
+        SyncJob job = job(2);
+        Instant before = Instant.now();
+        when(jobRepository.markForRetry(eq(job), any(), eq("boom"))).thenReturn(true);
+
+        jobService.markFailed(job, new RuntimeException("boom"));
+
+        ArgumentCaptor<Instant> runAfter = ArgumentCaptor.forClass(Instant.class);
+        verify(jobRepository).markForRetry(eq(job), runAfter.capture(), eq("boom"));
+        assertFalse(runAfter.getValue().isBefore(before.plusSeconds(120)));
+        verify(jobRepository, never()).markFailed(any(), any(), any());
+    }
+
+    @Test
+    void markFailedGivesUpAfterMaxAttempts() {
+        SyncJob job = job(3);
+
+        jobService.markFailed(job, new IllegalStateException());
+
+        verify(jobRepository).markFailed(5L, "worker-1", "IllegalStateException");
+        verify(jobRepository, never()).markForRetry(any(), any(), any());
+    }
+
+    @Test
+    void markFailedDoesNotRetryClientErrors() {
+        SyncJob job = job(1);
+
+        jobService.markFailed(job, ApiException.tooManyRequests("Daily request limit reached."));
+
+        verify(jobRepository).markFailed(5L, "worker-1", "Daily request limit reached.");
+        verify(jobRepository, never()).markForRetry(any(), any(), any());
+    }
+
+    @Test
+    void markSucceededOnlyUpdatesJobsStillLeasedToTheWorker() {
+        SyncJob job = job(1);
+        when(jobRepository.markSucceeded(5L, "worker-1")).thenReturn(false);
+
+        jobService.markSucceeded(job);
+
+        verify(jobRepository).markSucceeded(5L, "worker-1");
+        verify(jobRepository, never()).enqueueIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    void requeueStaleFailsJobsOnTheirLastAttemptBeforeRequeueingTheRest() {
+        when(jobRepository.requeueStale(any())).thenReturn(2);
+
+        int requeued = jobService.requeueStale(Duration.ofMinutes(15));
+
+        assertEquals(2, requeued);
+        ArgumentCaptor<Instant> failedBefore = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> requeuedBefore = ArgumentCaptor.forClass(Instant.class);
+        InOrder inOrder = inOrder(jobRepository);
+        inOrder.verify(jobRepository).failStale(failedBefore.capture(), eq(3), anyString());
+        inOrder.verify(jobRepository).requeueStale(requeuedBefore.capture());
+        assertEquals(failedBefore.getValue(), requeuedBefore.getValue());
+    }
+
+    @Test
+    void enqueueConnectionSyncInsertsQueuedJob() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.empty());
+        when(syncPolicy.canMakeRequest(connection)).thenReturn(true);
+        when(jobRepository.insert(any(SyncJob.class))).thenAnswer(invocation -> {
+            SyncJob inserted = invocation.getArgument(0);
+            inserted.setId(42L);
+            inserted.setStatus(SyncJobStatus.QUEUED);
+            return inserted;
+        });
+
+        SyncJobDto result = jobService.enqueueConnectionSync(7L, 10L, true);
+
+        assertEquals(42L, result.getId());
+        assertEquals(SyncJobType.CONNECTION_SYNC, result.getJobType());
+        assertEquals(SyncJobStatus.QUEUED, result.getStatus());
+        assertTrue(result.isFullSync());
+    }
+
+    @Test
+    void enqueueConnectionSyncReturnsActiveJobInsteadOfQueueingAnother() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        SyncJob running = SyncJob.builder()
+                .id(41L)
+                .userId(7L)
+                .connectionId(10L)
+                .jobType(SyncJobType.CONNECTION_SYNC)
+                .status(SyncJobStatus.RUNNING)
+                .progressMessage("Recent transactions synced")
+                .build();
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.of(running));
+
+        SyncJobDto result = jobService.enqueueConnectionSync(7L, 10L, false);
+
+        assertEquals(41L, result.getId());
+        assertEquals("Recent transactions synced", result.getProgressMessage());
+        verify(jobRepository, never()).insert(any());
+    }
+
+    @Test
+    void enqueueConnectionSyncMovesUpAScheduledSyncWaitingForItsSlot() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        SyncJob scheduled = SyncJob.builder()
+                .id(42L)
+                .userId(7L)
+                .connectionId(10L)
+                .jobType(SyncJobType.CONNECTION_SYNC)
+                .status(SyncJobStatus.QUEUED)
+                .runAfter(Instant.now().plusSeconds(1800))
+                .build();
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.of(scheduled));
+
+        SyncJobDto result = jobService.enqueueConnectionSync(7L, 10L, false);
+
+        assertEquals(42L, result.getId());
+        verify(jobRepository).runNow(42L);
+        verify(jobRepository, never()).insert(any());
+    }
+
+    @Test
+    void runConnectionSyncWaitsForTheQueuedJobToFinish() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        SyncJob queued = SyncJob.builder()
+                .id(44L).userId(7L).connectionId(10L)
+                .jobType(SyncJobType.CONNECTION_SYNC).status(SyncJobStatus.QUEUED)
+                .build();
+        SyncJob succeeded = SyncJob.builder()
+                .id(44L).userId(7L).connectionId(10L)
+                .jobType(SyncJobType.CONNECTION_SYNC).status(SyncJobStatus.SUCCEEDED)
+                .accountsSynced(2).resultMessage("Sync completed successfully")
+                .build();
+        ReflectionTestUtils.setField(Objects.requireNonNull(jobService), "manualSyncWaitSeconds", 5L);
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.empty());
+        when(syncPolicy.canMakeRequest(connection)).thenReturn(true);
+        when(jobRepository.insert(any(SyncJob.class))).thenReturn(queued);
+        when(jobRepository.findByIdAndUserId(44L, 7L)).thenReturn(Optional.of(succeeded));
+
+        SyncJobDto result = jobService.runConnectionSync(7L, 10L, false);
+
+        assertEquals(SyncJobStatus.SUCCEEDED, result.getStatus());
+        assertEquals(2, result.getAccountsSynced());
+    }
+
+    @Test
+    void runConnectionSyncReturnsTheJobStillQueuedWhenTheWaitRunsOut() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        SyncJob running = SyncJob.builder()
+                .id(45L).userId(7L).connectionId(10L)
+                .jobType(SyncJobType.CONNECTION_SYNC).status(SyncJobStatus.RUNNING)
+                .build();
+        ReflectionTestUtils.setField(Objects.requireNonNull(jobService), "manualSyncWaitSeconds", 0L);
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.of(running));
+
+        SyncJobDto result = jobService.runConnectionSync(7L, 10L, false);
+
+        assertEquals(SyncJobStatus.RUNNING, result.getStatus());
+        verify(jobRepository, never()).runNow(any());
+    }
+
+    @Test
+    void enqueueConnectionSyncReturnsTheJobThatWonAConcurrentInsert() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        SyncJob scheduled = SyncJob.builder()
+                .id(43L)
+                .userId(7L)
+                .connectionId(10L)
+                .jobType(SyncJobType.CONNECTION_SYNC)
+                .status(SyncJobStatus.QUEUED)
+                .build();
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC))
+                .thenReturn(Optional.empty(), Optional.of(scheduled));
+        when(syncPolicy.canMakeRequest(connection)).thenReturn(true);
+        when(jobRepository.insert(any(SyncJob.class))).thenThrow(new DuplicateKeyException("uq_sync_jobs_active_key"));
+
+        SyncJobDto result = jobService.enqueueConnectionSync(7L, 10L, false);
+
+        assertEquals(43L, result.getId());
+    }
+
+    @Test
+    void enqueueScheduledSyncTreatsDuplicateKeyAsAlreadyQueued() {
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.empty());
+        when(jobRepository.insert(any(SyncJob.class))).thenThrow(new DuplicateKeyException("uq_sync_jobs_active_key"));
+
+        assertFalse(jobService.enqueueScheduledSync(7L, 10L, Instant.now()));
+    }
+
+    @Test
+    void enqueueConnectionSyncRejectsWhenQuotaExhausted() {
+        SimpleFinConnection connection = SimpleFinConnection.builder().id(10L).userId(7L).build();
+        when(connectionRepository.findByIdAndUserId(10L, 7L)).thenReturn(Optional.of(connection));
+        when(jobRepository.findActiveByConnectionId(10L, SyncJobType.CONNECTION_SYNC)).thenReturn(Optional.empty());
+        when(syncPolicy.canMakeRequest(connection)).thenReturn(false);
+
+        ApiException exception = assertThrows(ApiException.class,
+                () -> jobService.enqueueConnectionSync(7L, 10L, false));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        verify(jobRepository, never()).insert(any());
+    }
+
+    @Test
+    void getJobThrowsNotFoundForOtherUsersJob() {
+        when(jobRepository.findByIdAndUserId(41L, 7L)).thenReturn(Optional.empty());
+
+        ApiException exception = assertThrows(ApiException.class, () -> jobService.getJob(7L, 41L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+    private SyncJob job(int attempts) {
+        return SyncJob.builder()
+                .id(5L)
+                .userId(7L)
+                .jobType(SyncJobType.TRANSFER_DETECTION)
+                .status(SyncJobStatus.RUNNING)
+                .attempts(attempts)
+                .lockedBy("worker-1")
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.peter.budget.service.job;
+
+import com.peter.budget.model.entity.SyncJob;
+import com.peter.budget.model.enums.SyncJobStatus;
+import com.peter.budget.model.enums.SyncJobType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SyncJobWorkerTest {
+
+    @Mock
+    private SyncJobService jobService;
+    @Mock
+    private SyncJobRunner jobRunner;
+
+    @InjectMocks
+    private SyncJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(Objects.requireNonNull(worker), "enabled", true);
+        ReflectionTestUtils.setField(Objects.requireNonNull(worker), "workerThreads", 2);
+        ReflectionTestUtils.setField(Objects.requireNonNull(worker), "leaseMinutes", 15L);
+        worker.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.stop();
+    }
+
+    @Test
+    void pollRunsClaimedJobsAndMarksThemSucceeded() {
+        SyncJob job = job();
+        when(jobService.claimRunnable(anyString(), eq(2))).thenReturn(List.of(job));
+
+        worker.poll();
+
+        verify(jobRunner, timeout(1000)).run(job);
+        verify(jobService, timeout(1000)).markSucceeded(job);
+    }
+
+    @Test
+    void executeMarksJobFailedWhenRunnerThrows() {
+        SyncJob job = job();
+        RuntimeException failure = new RuntimeException("boom");
+        doThrow(failure).when(jobRunner).run(job);
+
+        worker.execute(job);
+
+        verify(jobService).markFailed(job, failure);
+        verify(jobService, never()).markSucceeded(any());
+    }
+
+    @Test
+    void pollDoesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(Objects.requireNonNull(worker), "enabled", false);
+
+        worker.poll();
+
+        verify(jobService, never()).claimRunnable(anyString(), anyInt());
+    }
+
+    @Test
+    void recoverStaleJobsRequeuesExpiredLeases() {
+        worker.recoverStaleJobs();
+
+        verify(jobService).requeueStale(Duration.ofMinutes(15));
+    }
+
+    @Test
+    void heartbeatRenewsLeasesOnlyWhileJobsAreRunning() {
+        worker.heartbeat();
+        verify(jobService, never()).heartbeat(anyString());
+
+        CountDownLatch release = new CountDownLatch(1);
+        SyncJob job = job();
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jobRunner).run(job);
+        when(jobService.claimRunnable(anyString(), eq(2))).thenReturn(List.of(job));
+
+        worker.poll();
+        worker.heartbeat();
+        release.countDown();
+
+        verify(jobService).heartbeat(anyString());
+    }
+
+    private SyncJob job() {
+        return SyncJob.builder()
+                .id(5L)
+                .userId(7L)
+                .jobType(SyncJobType.TRANSFER_DETECTION)
+                .status(SyncJobStatus.RUNNING)
+                .attempts(1)
+                .build();
+    }
+}
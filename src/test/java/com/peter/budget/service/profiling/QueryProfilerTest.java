@@ -0,0 +1,115 @@
+package com.peter.budget.service.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryProfilerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryProfiler queryProfiler = new QueryProfiler(meterRegistry);
+
+    @AfterEach
+    void closeProfile() {
+        queryProfiler.end("test", "cleanup");
+    }
+
+    @Test
+    void fingerprintCollapsesLiteralsAndParameterLists() {
+        assertEquals("SELECT * FROM transactions WHERE id = ? AND description = ?",
+                QueryProfile.fingerprint("SELECT *  FROM transactions\n WHERE id = 42 AND description = 'it''s'"));
+        assertEquals("SELECT * FROM accounts WHERE id IN (?...)",
+                QueryProfile.fingerprint("SELECT * FROM accounts WHERE id IN (?, ?, ?)"));
+        assertEquals(QueryProfile.fingerprint("SELECT * FROM accounts WHERE id IN (?, ?)"),
+                QueryProfile.fingerprint("SELECT * FROM accounts WHERE id IN (?,?,?,?)"));
+    }
+
+    @Test
+    void flagsStatementRepeatedPerRow() {
+        queryProfiler.begin();
+        QueryProfiler.recordStatement("SELECT * FROM transfer_pairs WHERE user_id = ?", 1_000);
+        for (int i = 0; i < 12; i++) {
+            QueryProfiler.recordStatement("SELECT * FROM transactions WHERE id = ?", 1_000);
+        }
+
+        QueryProfile profile = queryProfiler.end("http", "GET /api/v1/transactions/transfers");
+
+        assertEquals(13, profile.statementCount());
+        assertEquals(13_000, profile.dbNanos());
+        List<QueryProfile.RepeatedStatement> repeated = profile.repeatedStatements(10);
+        assertEquals(1, repeated.size());
+        assertEquals("SELECT * FROM transactions WHERE id = ?", repeated.get(0).fingerprint());
+        assertEquals(12, repeated.get(0).count());
+        assertEquals(1.0, meterRegistry.get("budget.db.repeated.statements")
+                .tag("name", "GET /api/v1/transactions/transfers").counter().count());
+        assertEquals(13.0, meterRegistry.get("budget.db.statements")
+                .tag("kind", "http").summary().totalAmount());
+    }
+
+    @Test
+    void doesNotFlagDistinctStatementsBelowThresholds() {
+        queryProfiler.begin();
+        QueryProfiler.recordStatement("SELECT * FROM accounts WHERE user_id = ?", 1_000);
+        QueryProfiler.recordStatement("SELECT * FROM categories WHERE user_id = ?", 1_000);
+
+        QueryProfile profile = queryProfiler.end("http", "GET /api/v1/accounts");
+
+        assertTrue(profile.repeatedStatements(10).isEmpty());
+        assertTrue(meterRegistry.find("budget.db.repeated.statements").counters().isEmpty());
+    }
+
+    @Test
+    void nestedUnitsAreCountedInTheOuterProfile() {
+        assertTrue(queryProfiler.begin());
+        queryProfiler.profile("job", "TRANSFER_DETECTION",
+                () -> QueryProfiler.recordStatement("SELECT 1", 1_000));
+
+        QueryProfile outer = queryProfiler.end("scheduler", "periodicSync");
+
+        assertEquals(1, outer.statementCount());
+        assertTrue(meterRegistry.find("budget.db.statements").tag("kind", "job").summaries().isEmpty());
+    }
+
+    @Test
+    void statementsOutsideAProfileAreIgnored() {
+        QueryProfiler.recordStatement("SELECT 1", 1_000);
+
+        assertNull(queryProfiler.end("http", "GET /"));
+    }
+
+    @Test
+    void profilingDataSourceReportsPreparedAndPlainStatements() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:query-profiler-test;DB_CLOSE_DELAY=-1");
+        ProfilingDataSource dataSource = new ProfilingDataSource(h2);
+
+        queryProfiler.begin();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS items (id BIGINT PRIMARY KEY)");
+            try (PreparedStatement insert = connection.prepareStatement("MERGE INTO items (id) VALUES (?)")) {
+                for (int i = 0; i < 3; i++) {
+                    insert.setLong(1, i);
+                    insert.executeUpdate();
+                }
+            }
+            assertFalse(connection.equals(h2.getConnection()));
+        }
+        QueryProfile profile = queryProfiler.end("test", "jdbc");
+
+        assertEquals(4, profile.statementCount());
+        assertEquals("MERGE INTO items (id) VALUES (?)", profile.repeatedStatements(3).get(0).fingerprint());
+    }
+}
@@ -0,0 +1,139 @@
+package com.peter.budget.service.recurring;
+
+import com.peter.budget.model.entity.RecurringPattern;
+import com.peter.budget.model.enums.Frequency;
+import com.peter.budget.repository.RecurringPatternRepository;
+import com.peter.budget.service.recurring.BillCalendar.BillOccurrence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BillCalendarTest {
+
+    private static final long USER_ID = 7L;
+
+    @Mock
+    private RecurringPatternRepository patternRepository;
+
+    @InjectMocks
+    private BillCalendar billCalendar;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(billCalendar, "horizonMonths", 12);
+        ReflectionTestUtils.setField(billCalendar, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(billCalendar, "maxUsers", 10_000);
+    }
+
+    @Test
+    void projectsEveryOccurrenceInRangeInDueDateOrder() {
+        LocalDate today = LocalDate.now();
+        RecurringPattern weekly = bill(1L, Frequency.WEEKLY, today.plusDays(2));
+        RecurringPattern monthly = bill(2L, Frequency.MONTHLY, today.plusDays(5));
+        when(patternRepository.findActiveBillsByUserId(USER_ID)).thenReturn(List.of(weekly, monthly));
+
+        List<BillOccurrence> occurrences = billCalendar.between(USER_ID, today, today.plusDays(27));
+
+        assertEquals(5, occurrences.size());
+        assertEquals(today.plusDays(2), occurrences.get(0).dueDate());
+        assertEquals(today.plusDays(5), occurrences.get(1).dueDate());
+        assertEquals(monthly, occurrences.get(1).pattern());
+        assertEquals(today.plusDays(23), occurrences.get(4).dueDate());
+    }
+
+    @Test
+    void overdueBillAppearsOnceOnItsMissedDate() {
+        LocalDate today = LocalDate.now();
+        RecurringPattern overdue = bill(1L, Frequency.WEEKLY, today.minusDays(15));
+        when(patternRepository.findActiveBillsByUserId(USER_ID)).thenReturn(List.of(overdue));
+
+        List<BillOccurrence> occurrences = billCalendar.between(USER_ID, today.minusDays(30), today.plusDays(6));
+
+        assertEquals(2, occurrences.size());
+        assertEquals(today.minusDays(15), occurrences.get(0).dueDate());
+        assertEquals(today.plusDays(6), occurrences.get(1).dueDate());
+    }
+
+    @Test
+    void skipsBillsWithoutNextExpectedDate() {
+        when(patternRepository.findActiveBillsByUserId(USER_ID))
+                .thenReturn(List.of(bill(1L, Frequency.MONTHLY, null)));
+
+        assertTrue(billCalendar.between(USER_ID, LocalDate.now(), LocalDate.now().plusDays(30)).isEmpty());
+    }
+
+    @Test
+    void reusesCalendarUntilInvalidated() {
+        LocalDate today = LocalDate.now();
+        when(patternRepository.findActiveBillsByUserId(USER_ID))
+                .thenReturn(List.of(bill(1L, Frequency.MONTHLY, today.plusDays(1))));
+
+        billCalendar.between(USER_ID, today, today.plusMonths(1));
+        billCalendar.between(USER_ID, today, today.plusMonths(6));
+        verify(patternRepository, times(1)).findActiveBillsByUserId(USER_ID);
+
+        billCalendar.invalidate(USER_ID);
+        billCalendar.between(USER_ID, today, today.plusMonths(1));
+        verify(patternRepository, times(2)).findActiveBillsByUserId(USER_ID);
+    }
+
+    @Test
+    void evictsLeastRecentlyReadCalendarPastMaxUsers() {
+        ReflectionTestUtils.setField(billCalendar, "maxUsers", 2);
+        LocalDate today = LocalDate.now();
+        when(patternRepository.findActiveBillsByUserId(any())).thenReturn(List.of());
+
+        billCalendar.between(1L, today, today.plusMonths(1));
+        billCalendar.between(2L, today, today.plusMonths(1));
+        billCalendar.between(1L, today, today.plusMonths(1));
+        billCalendar.between(3L, today, today.plusMonths(1));
+        billCalendar.between(1L, today, today.plusMonths(1));
+        billCalendar.between(2L, today, today.plusMonths(1));
+
+        verify(patternRepository, times(1)).findActiveBillsByUserId(1L);
+        verify(patternRepository, times(2)).findActiveBillsByUserId(2L);
+        verify(patternRepository, times(1)).findActiveBillsByUserId(3L);
+    }
+
+    @Test
+    void projectsBeyondHorizonWithoutReloading() {
+        LocalDate today = LocalDate.now();
+        when(patternRepository.findActiveBillsByUserId(USER_ID))
+                .thenReturn(List.of(bill(1L, Frequency.YEARLY, today.plusDays(1))));
+
+        List<BillOccurrence> occurrences = billCalendar.between(USER_ID, today, today.plusYears(3));
+
+        assertEquals(3, occurrences.size());
+        verify(patternRepository, times(1)).findActiveBillsByUserId(USER_ID);
+    }
+
+    private RecurringPattern bill(Long id, Frequency frequency, LocalDate nextExpectedDate) {
+        return RecurringPattern.builder()
+                .id(id)
+                .userId(USER_ID)
+                .name("Bill " + id)
+                .expectedAmount(new BigDecimal("10.00"))
+                .frequency(frequency)
+                .dayOfMonth(nextExpectedDate != null ? nextExpectedDate.getDayOfMonth() : null)
+                .nextExpectedDate(nextExpectedDate)
+                .bill(true)
+                .active(true)
+                .build();
+    }
+}
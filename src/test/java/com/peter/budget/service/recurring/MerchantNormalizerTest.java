@@ -0,0 +1,66 @@
+package com.peter.budget.service.recurring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MerchantNormalizerTest {
+
+    @Test
+    void stripsLongDigitRunsAndStoreMarkers() {
+        assertEquals("NETFLIX.COM", MerchantNormalizer.normalize("Netflix.com #1234"));
+        assertEquals("SQ COFFEE 12", MerchantNormalizer.normalize("SQ *COFFEE 12"));
+    }
+
+    @Test
+    void collapsesWhitespaceLeftBehindByRemovedDigits() {
+        assertEquals("ACH DEBIT PAYROLL", MerchantNormalizer.normalize("ACH DEBIT 99887766 PAYROLL"));
+    }
+
+    @Test
+    void keepsDoubleSpaceWhenMarkerSeparatedWhitespace() {
+        // Markers were removed after whitespace collapsed, so the two spaces survive.
+        assertEquals("AMAZON  MKTP", MerchantNormalizer.normalize("AMAZON # MKTP"));
+    }
+
+    @Test
+    void doesNotJoinDigitsAcrossMarkersIntoStrippableRun() {
+        assertEquals("1234", MerchantNormalizer.normalize("12#34"));
+        assertEquals("12", MerchantNormalizer.normalize("12#3456"));
+    }
+
+    @Test
+    void truncatesAfterTrimming() {
+        String normalized = MerchantNormalizer.normalize("   " + "A".repeat(80));
+
+        assertEquals("A".repeat(MerchantNormalizer.MAX_LENGTH), normalized);
+    }
+
+    @Test
+    void matchesRegexPipelineOnRandomDescriptions() {
+        Random random = new Random(42);
+        String alphabet = "abcXYZ0123456789 #*\t\n\u000B\f\r.-&'\u0001éß";
+
+        for (int i = 0; i < 20_000; i++) {
+            int length = random.nextInt(90);
+            StringBuilder description = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                description.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String input = description.toString();
+
+            assertEquals(regexNormalize(input), MerchantNormalizer.normalize(input), () -> "input: " + input);
+        }
+    }
+
+    private static String regexNormalize(String description) {
+        String normalized = description.toUpperCase()
+                .replaceAll("[0-9]{4,}", "")
+                .replaceAll("\\s+", " ")
+                .replaceAll("[#*]+", "")
+                .trim();
+        return normalized.length() > 50 ? normalized.substring(0, 50) : normalized;
+    }
+}
@@ -0,0 +1,71 @@
+package com.peter.budget.service.recurring;
+
+import com.peter.budget.model.enums.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecurrenceScheduleTest {
+
+    @Test
+    void weeklyNextOnOrAfterMatchesSteppingLoop() {
+        LocalDate last = LocalDate.of(2025, 1, 3);
+        for (int offset = -10; offset < 400; offset++) {
+            LocalDate notBefore = last.plusDays(offset);
+            LocalDate expected = last.plusWeeks(1);
+            while (expected.isBefore(notBefore)) {
+                expected = expected.plusWeeks(1);
+            }
+
+            assertEquals(expected, RecurrenceSchedule.nextOnOrAfter(last, Frequency.WEEKLY, 3, notBefore));
+        }
+    }
+
+    @Test
+    void monthlyNextOnOrAfterMatchesSteppingLoop() {
+        LocalDate last = LocalDate.of(2025, 1, 31);
+        for (int offset = -10; offset < 800; offset++) {
+            LocalDate notBefore = last.plusDays(offset);
+            YearMonth month = YearMonth.from(last).plusMonths(1);
+            while (month.atDay(Math.min(31, month.lengthOfMonth())).isBefore(notBefore)) {
+                month = month.plusMonths(1);
+            }
+
+            assertEquals(month.atDay(Math.min(31, month.lengthOfMonth())),
+                    RecurrenceSchedule.nextOnOrAfter(last, Frequency.MONTHLY, 31, notBefore));
+        }
+    }
+
+    @Test
+    void quarterlyKeepsDayOfMonthAfterShortMonth() {
+        LocalDate last = LocalDate.of(2025, 11, 30);
+
+        assertEquals(LocalDate.of(2026, 2, 28),
+                RecurrenceSchedule.occurrence(last, Frequency.QUARTERLY, 30, 1));
+        assertEquals(LocalDate.of(2026, 5, 30),
+                RecurrenceSchedule.occurrence(last, Frequency.QUARTERLY, 30, 2));
+    }
+
+    @Test
+    void yearlyReturnsToLeapDayInLeapYears() {
+        LocalDate last = LocalDate.of(2024, 2, 29);
+
+        assertEquals(LocalDate.of(2025, 2, 28),
+                RecurrenceSchedule.nextOnOrAfter(last, Frequency.YEARLY, 29, LocalDate.of(2024, 3, 1)));
+        assertEquals(LocalDate.of(2028, 2, 29),
+                RecurrenceSchedule.nextOnOrAfter(last, Frequency.YEARLY, 29, LocalDate.of(2027, 3, 1)));
+    }
+
+    @Test
+    void firstIndexRespectsMinimumIndex() {
+        LocalDate anchor = LocalDate.of(2026, 3, 10);
+
+        assertEquals(1, RecurrenceSchedule.firstIndexOnOrAfter(
+                anchor, Frequency.BIWEEKLY, 10, 1, LocalDate.of(2026, 1, 1)));
+        assertEquals(2, RecurrenceSchedule.firstIndexOnOrAfter(
+                anchor, Frequency.BIWEEKLY, 10, 1, LocalDate.of(2026, 3, 25)));
+    }
+}
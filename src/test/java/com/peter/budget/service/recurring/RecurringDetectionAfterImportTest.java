@@ -0,0 +1,126 @@
+package com.peter.budget.service.recurring;
+
+import com.peter.budget.model.dto.MigrationImportRequest;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotAccount;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotRecurringPattern;
+import com.peter.budget.model.dto.MigrationImportRequest.SnapshotTransaction;
+import com.peter.budget.model.entity.RecurringPattern;
+import com.peter.budget.model.entity.User;
+import com.peter.budget.model.enums.AccountType;
+import com.peter.budget.model.enums.Frequency;
+import com.peter.budget.repository.RecurringPatternRepository;
+import com.peter.budget.repository.UserRepository;
+import com.peter.budget.service.MigrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A migration import replaces every transaction and recurring pattern under new ids. Detection
+ * right after it must rebuild the merchant states rather than fold the re-imported rows into the
+ * old ones, and the cached bill calendar must not keep showing the replaced patterns.
+ */
+@SpringBootTest(properties = "app.sync-jobs.enabled=false")
+class RecurringDetectionAfterImportTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MigrationService migrationService;
+    @Autowired
+    private RecurringPatternApplicationService applicationService;
+    @Autowired
+    private RecurringPatternRepository patternRepository;
+    @Autowired
+    private BillCalendar billCalendar;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reimportDoesNotCountTransactionsTwice() {
+        Long userId = userRepository.save(User.builder()
+                .email("recurring-import-" + System.nanoTime() + "@example.com")
+                .passwordHash("not-a-real-hash")
+                .build()).getId();
+        MigrationImportRequest snapshot = monthlyBillSnapshot(6);
+
+        migrationService.importSnapshot(userId, snapshot);
+        applicationService.detectRecurringPatterns(userId);
+        migrationService.importSnapshot(userId, snapshot);
+        applicationService.detectRecurringPatterns(userId);
+
+        assertEquals(6, jdbcTemplate.queryForObject(
+                "SELECT transaction_count FROM recurring_merchant_states WHERE user_id = ?",
+                Integer.class, userId));
+        List<RecurringPattern> patterns = patternRepository.findByUserId(userId);
+        assertEquals(1, patterns.size());
+        assertEquals(Frequency.MONTHLY, patterns.get(0).getFrequency());
+        assertEquals(0, new BigDecimal("15.49").compareTo(patterns.get(0).getExpectedAmount()));
+    }
+
+    @Test
+    void reimportReplacesCachedBillCalendar() {
+        Long userId = userRepository.save(User.builder()
+                .email("recurring-calendar-" + System.nanoTime() + "@example.com")
+                .passwordHash("not-a-real-hash")
+                .build()).getId();
+        LocalDate today = LocalDate.now();
+
+        migrationService.importSnapshot(userId, billSnapshot("Rent", today.plusDays(3)));
+        assertEquals("Rent", billCalendar.between(userId, today, today.plusDays(10)).get(0).pattern().getName());
+        migrationService.importSnapshot(userId, billSnapshot("Mortgage", today.plusDays(3)));
+
+        List<BillCalendar.BillOccurrence> occurrences = billCalendar.between(userId, today, today.plusDays(10));
+        assertEquals(1, occurrences.size());
+        assertEquals("Mortgage", occurrences.get(0).pattern().getName());
+    }
+
+    private MigrationImportRequest billSnapshot(String name, LocalDate nextExpectedDate) {
+        return MigrationImportRequest.builder()
+                .recurringPatterns(List.of(SnapshotRecurringPattern.builder()
+                        .id(1L)
+                        .name(name)
+                        .merchantPattern(name.toUpperCase())
+                        .expectedAmount(new BigDecimal("1200.00"))
+                        .frequency(Frequency.MONTHLY)
+                        .dayOfMonth(nextExpectedDate.getDayOfMonth())
+                        .nextExpectedDate(nextExpectedDate.toString())
+                        .bill(true)
+                        .active(true)
+                        .build()))
+                .build();
+    }
+
+    private MigrationImportRequest monthlyBillSnapshot(int months) {
+        LocalDate firstBill = LocalDate.now(ZoneOffset.UTC).minusMonths(months).withDayOfMonth(5);
+        List<SnapshotTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < months; i++) {
+            transactions.add(SnapshotTransaction.builder()
+                    .id((long) i + 1)
+                    .accountId(1L)
+                    .postedAt(firstBill.plusMonths(i).atStartOfDay(ZoneOffset.UTC).toInstant().toString())
+                    .amount(new BigDecimal("-15.49"))
+                    .description("NETFLIX.COM")
+                    .build());
+        }
+        return MigrationImportRequest.builder()
+                .accounts(List.of(SnapshotAccount.builder()
+                        .id(1L)
+                        .name("Checking")
+                        .accountType(AccountType.CHECKING)
+                        .currentBalance(new BigDecimal("1000.00"))
+                        .active(true)
+                        .build()))
+                .transactions(transactions)
+                .build();
+    }
+}
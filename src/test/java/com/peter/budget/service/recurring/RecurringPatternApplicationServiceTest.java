@@ -1,31 +1,41 @@
 package com.peter.budget.service.recurring;
 
-import com.peter.budget.model.entity.Account;
+import com.peter.budget.model.entity.RecurringMerchantState;
 import com.peter.budget.model.entity.RecurringPattern;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.Frequency;
-import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository.DetectionCursor;
 import com.peter.budget.repository.RecurringPatternRepository;
 import com.peter.budget.repository.TransactionReadRepository;
+import com.peter.budget.repository.TransactionWriteRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,75 +51,77 @@ class RecurringPatternApplicationServiceTest {
     @Mock
     private TransactionReadRepository transactionReadRepository;
     @Mock
-    private AccountRepository accountRepository;
+    private TransactionWriteRepository transactionWriteRepository;
     @Mock
-    private RecurringPatternDetectionEngine detectionEngine;
+    private RecurringMerchantStateRepository merchantStateRepository;
+    @Mock
+    private BillCalendar billCalendar;
+    @Spy
+    private RecurringPatternDetectionEngine detectionEngine = new RecurringPatternDetectionEngine();
 
     @InjectMocks
     private RecurringPatternApplicationService applicationService;
 
     @Captor
-    private ArgumentCaptor<RecurringPattern> patternCaptor;
-
-    @Test
-    void detectRecurringPatternsCreatesNewPatternFromDetection() {
-        Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).active(true).build();
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(account));
+    private ArgumentCaptor<Collection<RecurringPattern>> patternsCaptor;
 
-        List<Transaction> transactions = List.of(
-                txn(1L, "Netflix", "-15.99", "2025-11-01"),
-                txn(2L, "Netflix", "-15.99", "2025-12-01"),
-                txn(3L, "Netflix", "-15.99", "2026-01-01")
-        );
-        when(transactionReadRepository.findByAccountId(ACCOUNT_ID)).thenReturn(transactions);
-
-        Map<String, List<Transaction>> grouped = Map.of("NETFLIX", transactions);
-        when(detectionEngine.groupByMerchant(transactions)).thenReturn(grouped);
+    @Captor
+    private ArgumentCaptor<DetectionCursor> cursorCaptor;
 
-        RecurringPatternDetectionEngine.DetectedPattern detected = new RecurringPatternDetectionEngine.DetectedPattern(
-                Frequency.MONTHLY, new BigDecimal("15.99"), BigDecimal.ZERO, 1, null,
-                LocalDate.of(2026, 2, 1), 10L, true,
-                Instant.parse("2026-01-01T00:00:00Z")
-        );
-        when(detectionEngine.analyze(transactions)).thenReturn(Optional.of(detected));
-        when(patternRepository.findByMerchantPattern(USER_ID, "NETFLIX")).thenReturn(Optional.empty());
-        when(patternRepository.save(any(RecurringPattern.class))).thenAnswer(i -> i.getArgument(0));
+    @Test
+    void firstRunRebuildsStateAndCreatesPattern() {
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of(
+                txn(1L, "Netflix", "-15.99", "2025-11-01", 10L),
+                txn(2L, "Netflix", "-15.99", "2025-12-01", 10L),
+                txn(3L, "Netflix", "-15.99", "2026-01-01", null)
+        ));
+        assignIdsOnInsert(90L);
 
         int result = applicationService.detectRecurringPatterns(USER_ID);
 
         assertEquals(1, result);
-        verify(patternRepository).save(patternCaptor.capture());
-        RecurringPattern saved = patternCaptor.getValue();
+        verify(merchantStateRepository).deleteByUserId(USER_ID);
+        verify(transactionWriteRepository).linkRecurringPatterns(Map.of(1L, 90L, 2L, 90L, 3L, 90L));
+        verify(patternRepository).insertAll(patternsCaptor.capture());
+        verify(billCalendar).invalidate(USER_ID);
+        RecurringPattern saved = single(patternsCaptor.getValue());
         assertEquals(USER_ID, saved.getUserId());
         assertEquals("NETFLIX", saved.getMerchantPattern());
+        assertEquals("Netflix", saved.getName());
         assertEquals(Frequency.MONTHLY, saved.getFrequency());
         assertEquals(new BigDecimal("15.99"), saved.getExpectedAmount());
         assertTrue(saved.isBill());
         assertTrue(saved.isActive());
         assertEquals(10L, saved.getCategoryId());
+
+        verify(merchantStateRepository).updateCursor(eq(USER_ID), cursorCaptor.capture());
+        assertEquals(3L, cursorCaptor.getValue().lastTransactionId());
+        assertNotNull(cursorCaptor.getValue().lastFullRebuildAt());
     }
 
     @Test
-    void detectRecurringPatternsUpdatesExistingPattern() {
-        Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).active(true).build();
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(account));
-
-        List<Transaction> transactions = List.of(
-                txn(1L, "Spotify", "-9.99", "2025-11-01"),
-                txn(2L, "Spotify", "-9.99", "2025-12-01"),
-                txn(3L, "Spotify", "-9.99", "2026-01-01")
-        );
-        when(transactionReadRepository.findByAccountId(ACCOUNT_ID)).thenReturn(transactions);
-
-        Map<String, List<Transaction>> grouped = Map.of("SPOTIFY", transactions);
-        when(detectionEngine.groupByMerchant(transactions)).thenReturn(grouped);
-
-        RecurringPatternDetectionEngine.DetectedPattern detected = new RecurringPatternDetectionEngine.DetectedPattern(
-                Frequency.MONTHLY, new BigDecimal("9.99"), BigDecimal.ZERO, 1, null,
-                LocalDate.of(2026, 2, 1), 20L, true,
-                Instant.parse("2026-01-01T00:00:00Z")
-        );
-        when(detectionEngine.analyze(transactions)).thenReturn(Optional.of(detected));
+    void incrementalRunFoldsOnlyNewTransactionsIntoExistingState() {
+        Instant lastRebuild = Instant.now().minusSeconds(3600);
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(2, lastRebuild));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 2)).thenReturn(List.of(
+                txn(3L, "Spotify", "-9.99", "2026-01-01", null)
+        ));
+        RecurringMerchantState existingState = RecurringMerchantState.builder()
+                .id(70L)
+                .userId(USER_ID)
+                .merchantKey("SPOTIFY")
+                .displayName("Spotify")
+                .transactionCount(2)
+                .amountSum(new BigDecimal("-19.98"))
+                .amountMin(new BigDecimal("-9.99"))
+                .amountMax(new BigDecimal("-9.99"))
+                .firstPostedAt(date("2025-11-01"))
+                .lastPostedAt(date("2025-12-01"))
+                .categoryCounts(new HashMap<>(Map.of(20L, 2)))
+                .build();
+        when(merchantStateRepository.findByUserIdAndMerchantKeys(eq(USER_ID), any()))
+                .thenReturn(List.of(existingState));
 
         RecurringPattern existing = RecurringPattern.builder()
                 .id(55L)
@@ -118,134 +130,235 @@ class RecurringPatternApplicationServiceTest {
                 .name("Spotify Premium")
                 .frequency(Frequency.MONTHLY)
                 .expectedAmount(new BigDecimal("8.99"))
-                .categoryId(20L) // already set
+                .categoryId(20L)
                 .active(true)
                 .build();
-        when(patternRepository.findByMerchantPattern(USER_ID, "SPOTIFY")).thenReturn(Optional.of(existing));
-        when(patternRepository.save(any(RecurringPattern.class))).thenAnswer(i -> i.getArgument(0));
+        when(patternRepository.findByUserId(USER_ID)).thenReturn(List.of(existing));
 
         int result = applicationService.detectRecurringPatterns(USER_ID);
 
         assertEquals(1, result);
-        verify(patternRepository).save(patternCaptor.capture());
-        RecurringPattern saved = patternCaptor.getValue();
+        verify(merchantStateRepository, never()).deleteByUserId(anyLong());
+        assertEquals(3, existingState.getTransactionCount());
+        assertEquals(date("2026-01-01"), existingState.getLastPostedAt());
+
+        verify(patternRepository).updateAll(patternsCaptor.capture());
+        RecurringPattern saved = single(patternsCaptor.getValue());
         assertEquals(55L, saved.getId());
-        assertEquals(new BigDecimal("9.99"), saved.getExpectedAmount()); // updated
-        assertEquals(20L, saved.getCategoryId()); // preserved (was already set)
+        assertEquals(new BigDecimal("9.99"), saved.getExpectedAmount());
+        assertEquals(20L, saved.getCategoryId());
+
+        verify(merchantStateRepository).updateCursor(eq(USER_ID), cursorCaptor.capture());
+        assertEquals(3L, cursorCaptor.getValue().lastTransactionId());
+        assertEquals(lastRebuild, cursorCaptor.getValue().lastFullRebuildAt());
+        verify(transactionWriteRepository).linkRecurringPatterns(Map.of(3L, 55L));
+        verify(transactionReadRepository, never()).findByActiveAccountsAfterId(USER_ID, 0);
     }
 
     @Test
-    void detectRecurringPatternsUpdatesCategoryOnExistingIfNull() {
-        Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).active(true).build();
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(account));
+    void incrementalRunLinksEarlierTransactionsWhenPatternIsNew() {
+        Instant lastRebuild = Instant.now().minusSeconds(3600);
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(1, lastRebuild));
+        Transaction first = txn(1L, "Hulu", "-7.99", "2025-12-01", null);
+        Transaction second = txn(2L, "Hulu", "-7.99", "2026-01-01", null);
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 1)).thenReturn(List.of(second));
+        RecurringMerchantState existingState = RecurringMerchantState.builder()
+                .id(71L).userId(USER_ID).merchantKey("HULU").displayName("Hulu")
+                .transactionCount(1)
+                .amountSum(new BigDecimal("-7.99"))
+                .amountMin(new BigDecimal("-7.99"))
+                .amountMax(new BigDecimal("-7.99"))
+                .firstPostedAt(date("2025-12-01"))
+                .lastPostedAt(date("2025-12-01"))
+                .build();
+        when(merchantStateRepository.findByUserIdAndMerchantKeys(eq(USER_ID), any()))
+                .thenReturn(List.of(existingState));
+        when(transactionReadRepository.findDistinctDescriptionsByActiveAccountsThroughId(USER_ID, 1))
+                .thenReturn(List.of("Hulu", "Grocery Store"));
+        when(transactionReadRepository.findByActiveAccountsAndDescriptionsThroughId(USER_ID, List.of("Hulu"), 1))
+                .thenReturn(List.of(first));
+        assignIdsOnInsert(92L);
 
-        List<Transaction> transactions = List.of(
-                txn(1L, "Service", "-25.00", "2025-11-01"),
-                txn(2L, "Service", "-25.00", "2025-12-01")
-        );
-        when(transactionReadRepository.findByAccountId(ACCOUNT_ID)).thenReturn(transactions);
-        when(detectionEngine.groupByMerchant(transactions)).thenReturn(Map.of("SERVICE", transactions));
+        int result = applicationService.detectRecurringPatterns(USER_ID);
 
-        RecurringPatternDetectionEngine.DetectedPattern detected = new RecurringPatternDetectionEngine.DetectedPattern(
-                Frequency.MONTHLY, new BigDecimal("25.00"), BigDecimal.ZERO, 1, null,
-                LocalDate.of(2026, 2, 1), 30L, true,
-                Instant.parse("2025-12-01T00:00:00Z")
-        );
-        when(detectionEngine.analyze(transactions)).thenReturn(Optional.of(detected));
+        assertEquals(1, result);
+        verify(transactionWriteRepository).linkRecurringPatterns(Map.of(1L, 92L, 2L, 92L));
+        verify(transactionReadRepository, never()).findByActiveAccountsAfterId(USER_ID, 0);
+    }
+
+    @Test
+    void skipsLinkingTransactionsAlreadyOnTheirPattern() {
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        Transaction linked = txn(1L, "Phone", "-30.00", "2025-11-01", null);
+        linked.setRecurring(true);
+        linked.setRecurringPatternId(68L);
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of(
+                linked,
+                txn(2L, "Phone", "-30.00", "2025-12-01", null)
+        ));
+        when(patternRepository.findByUserId(USER_ID)).thenReturn(List.of(RecurringPattern.builder()
+                .id(68L).userId(USER_ID).merchantPattern("PHONE").name("Phone").active(true).build()));
+
+        applicationService.detectRecurringPatterns(USER_ID);
+
+        verify(transactionWriteRepository).linkRecurringPatterns(Map.of(2L, 68L));
+    }
+
+    @Test
+    void staleStateTriggersFullRebuild() {
+        Instant oldRebuild = Instant.now().minus(RecurringPatternApplicationService.FULL_REBUILD_INTERVAL).minusSeconds(60);
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(500, oldRebuild));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of());
+
+        applicationService.detectRecurringPatterns(USER_ID);
+
+        verify(merchantStateRepository).deleteByUserId(USER_ID);
+        verify(merchantStateRepository).updateCursor(eq(USER_ID), cursorCaptor.capture());
+        assertEquals(0L, cursorCaptor.getValue().lastTransactionId());
+    }
 
+    @Test
+    void updatesCategoryOnExistingPatternIfNull() {
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of(
+                txn(1L, "Service", "-25.00", "2025-11-01", 30L),
+                txn(2L, "Service", "-25.00", "2025-12-01", 30L)
+        ));
         RecurringPattern existing = RecurringPattern.builder()
                 .id(66L).userId(USER_ID).merchantPattern("SERVICE")
                 .name("Service").categoryId(null).active(true).build();
-        when(patternRepository.findByMerchantPattern(USER_ID, "SERVICE")).thenReturn(Optional.of(existing));
-        when(patternRepository.save(any(RecurringPattern.class))).thenAnswer(i -> i.getArgument(0));
+        when(patternRepository.findByUserId(USER_ID)).thenReturn(List.of(existing));
 
         applicationService.detectRecurringPatterns(USER_ID);
 
-        verify(patternRepository).save(patternCaptor.capture());
-        assertEquals(30L, patternCaptor.getValue().getCategoryId()); // updated from null
+        verify(patternRepository).updateAll(patternsCaptor.capture());
+        assertEquals(30L, single(patternsCaptor.getValue()).getCategoryId());
     }
 
     @Test
-    void detectRecurringPatternsSkipsGroupsWithFewerThanTwoTransactions() {
-        Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).active(true).build();
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(account));
-
-        Transaction single = txn(1L, "One-off", "-99.00", "2026-01-01");
-        when(transactionReadRepository.findByAccountId(ACCOUNT_ID)).thenReturn(List.of(single));
-        when(detectionEngine.groupByMerchant(List.of(single))).thenReturn(Map.of("ONE-OFF", List.of(single)));
+    void skipsWriteForPatternWhoseDetectionIsUnchanged() {
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        List<Transaction> transactions = List.of(
+                txn(1L, "Water", "-40.00", "2025-11-01", 30L),
+                txn(2L, "Water", "-40.00", "2025-12-01", 30L)
+        );
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(transactions);
+        var detected = detectionEngine.analyze(transactions).orElseThrow();
+        RecurringPattern existing = RecurringPattern.builder()
+                .id(67L).userId(USER_ID).merchantPattern("WATER").name("Water")
+                .expectedAmount(new BigDecimal("40.0000"))
+                .amountVariance(new BigDecimal("0.0000"))
+                .frequency(detected.frequency())
+                .dayOfMonth(detected.dayOfMonth())
+                .nextExpectedDate(detected.nextExpectedDate())
+                .lastOccurrenceAt(detected.lastOccurrenceAt())
+                .categoryId(30L).active(true).build();
+        when(patternRepository.findByUserId(USER_ID)).thenReturn(List.of(existing));
 
         int result = applicationService.detectRecurringPatterns(USER_ID);
 
-        assertEquals(0, result);
-        verify(patternRepository, never()).save(any(RecurringPattern.class));
+        assertEquals(1, result);
+        verify(patternRepository).insertAll(argThat(Collection::isEmpty));
+        verify(patternRepository).updateAll(argThat(Collection::isEmpty));
+        verify(billCalendar, never()).invalidate(anyLong());
     }
 
     @Test
-    void detectRecurringPatternsReturnsZeroWhenNoAccounts() {
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of());
+    void skipsMerchantsWithFewerThanTwoTransactions() {
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of(
+                txn(1L, "One-off", "-99.00", "2026-01-01", null)
+        ));
 
         int result = applicationService.detectRecurringPatterns(USER_ID);
 
         assertEquals(0, result);
+        verify(patternRepository).insertAll(argThat(Collection::isEmpty));
+        verify(patternRepository).updateAll(argThat(Collection::isEmpty));
     }
 
     @Test
-    void detectRecurringPatternsSkipsWhenAnalysisReturnsEmpty() {
-        Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).active(true).build();
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(account));
-
-        List<Transaction> transactions = List.of(
-                txn(1L, "Random", "-50.00", "2026-01-01"),
-                txn(2L, "Random", "-50.00", "2026-01-20")
-        );
-        when(transactionReadRepository.findByAccountId(ACCOUNT_ID)).thenReturn(transactions);
-        when(detectionEngine.groupByMerchant(transactions)).thenReturn(Map.of("RANDOM", transactions));
-        when(detectionEngine.analyze(transactions)).thenReturn(Optional.empty());
+    void skipsMerchantsWhoseAnalysisFindsNoPattern() {
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of(
+                txn(1L, "Random", "-50.00", "2026-01-01", null),
+                txn(2L, "Random", "-50.00", "2026-01-20", null)
+        ));
 
         int result = applicationService.detectRecurringPatterns(USER_ID);
 
         assertEquals(0, result);
-        verify(patternRepository, never()).save(any(RecurringPattern.class));
+        verify(patternRepository).insertAll(argThat(Collection::isEmpty));
+        verify(patternRepository).updateAll(argThat(Collection::isEmpty));
     }
 
     @Test
-    void detectRecurringPatternsTruncatesLongDescriptionForName() {
-        Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).active(true).build();
-        when(accountRepository.findActiveByUserId(USER_ID)).thenReturn(List.of(account));
-
+    void truncatesLongDescriptionForName() {
         String longDesc = "A".repeat(150);
-        List<Transaction> transactions = List.of(
-                txn(1L, longDesc, "-10.00", "2025-11-01"),
-                txn(2L, longDesc, "-10.00", "2025-12-01")
-        );
-        when(transactionReadRepository.findByAccountId(ACCOUNT_ID)).thenReturn(transactions);
-        when(detectionEngine.groupByMerchant(transactions)).thenReturn(Map.of("LONG", transactions));
-
-        RecurringPatternDetectionEngine.DetectedPattern detected = new RecurringPatternDetectionEngine.DetectedPattern(
-                Frequency.MONTHLY, new BigDecimal("10.00"), BigDecimal.ZERO, 1, null,
-                LocalDate.of(2026, 2, 1), null, true,
-                Instant.parse("2025-12-01T00:00:00Z")
-        );
-        when(detectionEngine.analyze(transactions)).thenReturn(Optional.of(detected));
-        when(patternRepository.findByMerchantPattern(USER_ID, "LONG")).thenReturn(Optional.empty());
-        when(patternRepository.save(any(RecurringPattern.class))).thenAnswer(i -> i.getArgument(0));
+        when(merchantStateRepository.lockCursor(USER_ID)).thenReturn(new DetectionCursor(0, null));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 0)).thenReturn(List.of(
+                txn(1L, longDesc, "-10.00", "2025-11-01", null),
+                txn(2L, longDesc, "-10.00", "2025-12-01", null)
+        ));
+        assignIdsOnInsert(91L);
 
         applicationService.detectRecurringPatterns(USER_ID);
 
-        verify(patternRepository).save(patternCaptor.capture());
-        assertEquals(100, patternCaptor.getValue().getName().length());
+        verify(patternRepository).insertAll(patternsCaptor.capture());
+        assertEquals(100, single(patternsCaptor.getValue()).getName().length());
+    }
+
+    @Test
+    void rollsForwardPatternsWithoutNewActivity() {
+        when(merchantStateRepository.lockCursor(USER_ID))
+                .thenReturn(new DetectionCursor(9, Instant.now().minusSeconds(60)));
+        when(transactionReadRepository.findByActiveAccountsAfterId(USER_ID, 9)).thenReturn(List.of());
+        RecurringPattern stale = RecurringPattern.builder()
+                .id(80L).userId(USER_ID).merchantPattern("GYM")
+                .frequency(Frequency.MONTHLY).dayOfMonth(5)
+                .nextExpectedDate(LocalDate.now().minusDays(3))
+                .lastOccurrenceAt(LocalDate.now().minusMonths(2).atStartOfDay().toInstant(ZoneOffset.UTC))
+                .active(true).build();
+        when(patternRepository.findByUserId(USER_ID)).thenReturn(List.of(stale));
+
+        int result = applicationService.detectRecurringPatterns(USER_ID);
+
+        assertEquals(0, result);
+        verify(patternRepository).updateAll(patternsCaptor.capture());
+        assertEquals(stale, single(patternsCaptor.getValue()));
+        assertFalse(stale.getNextExpectedDate().isBefore(LocalDate.now()));
+        assertEquals(5, stale.getNextExpectedDate().getDayOfMonth());
+    }
+
+    private void assignIdsOnInsert(long firstId) {
+        doAnswer(invocation -> {
+            long id = firstId;
+            for (RecurringPattern pattern : invocation.<Collection<RecurringPattern>>getArgument(0)) {
+                pattern.setId(id++);
+            }
+            return null;
+        }).when(patternRepository).insertAll(any());
     }
 
-    private Transaction txn(Long id, String description, String amount, String date) {
-        Instant posted = LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC);
+    private RecurringPattern single(Collection<RecurringPattern> patterns) {
+        assertEquals(1, patterns.size());
+        return patterns.iterator().next();
+    }
+
+    private Transaction txn(Long id, String description, String amount, String date, Long categoryId) {
         return Transaction.builder()
                 .id(id)
                 .accountId(ACCOUNT_ID)
                 .description(description)
                 .amount(new BigDecimal(amount))
-                .postedAt(posted)
+                .postedAt(date(date))
+                .categoryId(categoryId)
                 .pending(false)
                 .internalTransfer(false)
                 .build();
     }
+
+    private Instant date(String date) {
+        return LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
 }
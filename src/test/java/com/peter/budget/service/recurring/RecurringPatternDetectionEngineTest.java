@@ -1,16 +1,20 @@
 package com.peter.budget.service.recurring;
 
+import com.peter.budget.model.entity.RecurringMerchantState;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.Frequency;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -249,6 +253,99 @@ class RecurringPatternDetectionEngineTest {
         assertFalse(result.get().nextExpectedDate().isBefore(LocalDate.now()));
     }
 
+    @Test
+    void analyzeStateMatchesAnalyzeListRegardlessOfArrivalOrder() {
+        List<Transaction> txns = List.of(
+                txn(1L, "Utility", "-80.00", "2025-10-03"),
+                txn(2L, "Utility", "-84.50", "2025-11-02"),
+                txn(3L, "Utility", "-78.25", "2025-12-04"),
+                txn(4L, "Utility", "-82.00", "2026-01-03")
+        );
+        RecurringMerchantState state = RecurringMerchantState.builder().build();
+        engine.accumulate(state, txns.get(2));
+        engine.accumulate(state, txns.get(0));
+        engine.accumulate(state, txns.get(3));
+        engine.accumulate(state, txns.get(1));
+
+        Optional<RecurringPatternDetectionEngine.DetectedPattern> fromList = engine.analyze(txns);
+        Optional<RecurringPatternDetectionEngine.DetectedPattern> fromState = engine.analyze(state);
+
+        assertTrue(fromList.isPresent());
+        assertEquals(fromList, fromState);
+        assertEquals(4, state.getTransactionCount());
+        assertEquals("Utility", state.getDisplayName());
+    }
+
+    @Test
+    void analyzeRejectsVarianceThatRoundsAboveTenPercent() {
+        // Average 100.00; a 10.50 swing rounds to 0.11 of the average, 10.49 to 0.10.
+        Optional<RecurringPatternDetectionEngine.DetectedPattern> rejected = engine.analyze(List.of(
+                txn(1L, "GYM", "-89.50", "2026-01-01"),
+                txn(2L, "GYM", "-110.50", "2026-02-01")));
+        Optional<RecurringPatternDetectionEngine.DetectedPattern> accepted = engine.analyze(List.of(
+                txn(1L, "GYM", "-89.51", "2026-01-01"),
+                txn(2L, "GYM", "-110.49", "2026-02-01")));
+
+        assertTrue(rejected.isEmpty());
+        assertTrue(accepted.isPresent());
+        assertEquals(new BigDecimal("10.49"), accepted.get().amountVariance());
+    }
+
+    @Test
+    void analyzeMatchesBigDecimalAmountMathsAcrossScales() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            int scale = random.nextInt(5);
+            BigDecimal base = BigDecimal.valueOf(random.nextInt(200_000) - 100_000, scale);
+            int count = 2 + random.nextInt(5);
+            List<Transaction> transactions = new ArrayList<>();
+            for (int j = 0; j < count; j++) {
+                BigDecimal jitter = BigDecimal.valueOf(random.nextInt(2_001) - 1_000, 4);
+                String amount = base.add(base.abs().multiply(jitter).setScale(scale, RoundingMode.DOWN)).toPlainString();
+                transactions.add(txn((long) j, "BILL", amount, LocalDate.of(2025, 1, 1).plusMonths(j).toString()));
+            }
+
+            Optional<RecurringPatternDetectionEngine.DetectedPattern> expected = referenceAmounts(transactions);
+            Optional<RecurringPatternDetectionEngine.DetectedPattern> actual = engine.analyze(transactions);
+
+            assertEquals(expected.isPresent(), actual.isPresent(), () -> "amounts: " + transactions);
+            if (expected.isPresent()) {
+                assertEquals(expected.get().expectedAmount(), actual.get().expectedAmount());
+                assertEquals(expected.get().amountVariance(), actual.get().amountVariance());
+                assertEquals(expected.get().isBill(), actual.get().isBill());
+            }
+        }
+    }
+
+    @Test
+    void nextExpectedDateRollsForwardFromLastOccurrence() {
+        Instant lastOccurrence = LocalDate.now().minusMonths(3).withDayOfMonth(15)
+                .atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        LocalDate next = engine.nextExpectedDate(lastOccurrence, Frequency.MONTHLY, 15);
+
+        assertFalse(next.isBefore(LocalDate.now()));
+        assertEquals(15, next.getDayOfMonth());
+    }
+
+    private Optional<RecurringPatternDetectionEngine.DetectedPattern> referenceAmounts(List<Transaction> transactions) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Transaction transaction : transactions) {
+            sum = sum.add(transaction.getAmount());
+        }
+        BigDecimal average = sum.divide(BigDecimal.valueOf(transactions.size()), 2, RoundingMode.HALF_UP);
+        BigDecimal maxVariance = transactions.stream()
+                .map(transaction -> transaction.getAmount().subtract(average).abs())
+                .reduce((a, b) -> a.compareTo(b) >= 0 ? a : b)
+                .orElseThrow();
+        if (average.abs().compareTo(BigDecimal.ZERO) > 0
+                && maxVariance.divide(average.abs(), 2, RoundingMode.HALF_UP).compareTo(BigDecimal.valueOf(0.1)) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new RecurringPatternDetectionEngine.DetectedPattern(Frequency.MONTHLY, average.abs(),
+                maxVariance, null, null, null, null, average.compareTo(BigDecimal.ZERO) < 0, null));
+    }
+
     private Transaction txn(Long id, String description, String amount, String date) {
         Instant posted = LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC);
         return Transaction.builder()
@@ -8,7 +8,9 @@ import com.peter.budget.model.entity.RecurringPattern;
 import com.peter.budget.model.enums.CategoryType;
 import com.peter.budget.model.enums.Frequency;
 import com.peter.budget.repository.RecurringPatternRepository;
+import com.peter.budget.repository.TransactionWriteRepository;
 import com.peter.budget.service.CategoryViewService;
+import com.peter.budget.service.recurring.BillCalendar.BillOccurrence;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,6 +22,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -29,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,6 +45,10 @@ class RecurringPatternQueryServiceTest {
     private RecurringPatternRepository patternRepository;
     @Mock
     private CategoryViewService categoryViewService;
+    @Mock
+    private BillCalendar billCalendar;
+    @Mock
+    private TransactionWriteRepository transactionWriteRepository;
 
     @InjectMocks
     private RecurringPatternQueryService queryService;
@@ -94,34 +102,31 @@ class RecurringPatternQueryServiceTest {
     }
 
     @Test
-    void getUpcomingBillsReturnsSortedByDueDate() {
-        RecurringPattern bill1 = pattern(1L, "Rent", Frequency.MONTHLY, "1500.00");
-        bill1.setNextExpectedDate(LocalDate.now().plusDays(10));
-        bill1.setBill(true);
+    void getUpcomingBillsReturnsFirstDueDatePerBillInCalendarOrder() {
+        RecurringPattern rent = pattern(1L, "Rent", Frequency.MONTHLY, "1500.00");
+        RecurringPattern gym = pattern(2L, "Gym", Frequency.WEEKLY, "15.00");
+        LocalDate today = LocalDate.now();
 
-        RecurringPattern bill2 = pattern(2L, "Netflix", Frequency.MONTHLY, "15.99");
-        bill2.setNextExpectedDate(LocalDate.now().plusDays(3));
-        bill2.setBill(true);
-
-        when(patternRepository.findUpcomingBills(any(), any(), any()))
-                .thenReturn(List.of(bill1, bill2));
+        when(billCalendar.between(USER_ID, today.minusDays(7), today.plusDays(30))).thenReturn(List.of(
+                new BillOccurrence(gym, today.plusDays(3)),
+                new BillOccurrence(rent, today.plusDays(10)),
+                new BillOccurrence(gym, today.plusDays(10))
+        ));
 
         List<UpcomingBillDto> result = queryService.getUpcomingBills(USER_ID, 30);
 
         assertEquals(2, result.size());
-        // Should be sorted: Netflix (3 days) before Rent (10 days)
-        assertEquals("Netflix", result.get(0).getName());
+        assertEquals("Gym", result.get(0).getName());
+        assertEquals(3, result.get(0).getDaysUntilDue());
         assertEquals("Rent", result.get(1).getName());
     }
 
     @Test
     void getUpcomingBillsMarksOverdueBills() {
         RecurringPattern overdue = pattern(1L, "Overdue Bill", Frequency.MONTHLY, "50.00");
-        overdue.setNextExpectedDate(LocalDate.now().minusDays(2));
-        overdue.setBill(true);
 
-        when(patternRepository.findUpcomingBills(any(), any(), any()))
-                .thenReturn(List.of(overdue));
+        when(billCalendar.between(any(), any(), any()))
+                .thenReturn(List.of(new BillOccurrence(overdue, LocalDate.now().minusDays(2))));
 
         List<UpcomingBillDto> result = queryService.getUpcomingBills(USER_ID, 30);
 
@@ -131,34 +136,38 @@ class RecurringPatternQueryServiceTest {
     }
 
     @Test
-    void getUpcomingBillsHandlesNullNextExpectedDate() {
-        RecurringPattern noDate = pattern(1L, "No Date", Frequency.MONTHLY, "25.00");
-        noDate.setNextExpectedDate(null);
-        noDate.setBill(true);
-
-        when(patternRepository.findUpcomingBills(any(), any(), any()))
-                .thenReturn(List.of(noDate));
+    void getUpcomingBillsResolvesCategoriesOncePerRequest() {
+        RecurringPattern rent = pattern(1L, "Rent", Frequency.MONTHLY, "1500.00");
+        rent.setCategoryId(10L);
+        RecurringPattern power = pattern(2L, "Power", Frequency.MONTHLY, "80.00");
+        power.setCategoryId(10L);
+
+        when(billCalendar.between(any(), any(), any())).thenReturn(List.of(
+                new BillOccurrence(rent, LocalDate.now().plusDays(1)),
+                new BillOccurrence(power, LocalDate.now().plusDays(2))));
+        when(categoryViewService.getEffectiveCategoryMapForUser(USER_ID)).thenReturn(Map.of(10L,
+                Category.builder().id(10L).name("Housing").categoryType(CategoryType.EXPENSE).build()));
 
         List<UpcomingBillDto> result = queryService.getUpcomingBills(USER_ID, 30);
 
-        assertEquals(1, result.size());
-        assertFalse(result.get(0).isOverdue());
-        assertEquals(0, result.get(0).getDaysUntilDue());
+        assertEquals("Housing", result.get(0).getCategory().getName());
+        assertEquals("Housing", result.get(1).getCategory().getName());
+        verify(categoryViewService, times(1)).getEffectiveCategoryMapForUser(USER_ID);
     }
 
     @Test
-    void getBillsForMonthReturnsPatterns() {
-        RecurringPattern bill = pattern(1L, "Rent", Frequency.MONTHLY, "1500.00");
-        bill.setNextExpectedDate(LocalDate.of(2026, 3, 1));
-        bill.setBill(true);
+    void getBillsForMonthReturnsEveryOccurrenceInMonth() {
+        RecurringPattern gym = pattern(1L, "Gym", Frequency.WEEKLY, "15.00");
 
-        when(patternRepository.findBillsForMonth(USER_ID, 2026, 3))
-                .thenReturn(List.of(bill));
+        when(billCalendar.between(USER_ID, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .thenReturn(List.of(
+                        new BillOccurrence(gym, LocalDate.of(2026, 3, 2)),
+                        new BillOccurrence(gym, LocalDate.of(2026, 3, 9))));
 
         List<UpcomingBillDto> result = queryService.getBillsForMonth(USER_ID, 2026, 3);
 
-        assertEquals(1, result.size());
-        assertEquals("Rent", result.get(0).getName());
+        assertEquals(2, result.size());
+        assertEquals(LocalDate.of(2026, 3, 9), result.get(1).getDueDate());
     }
 
     @Test
@@ -168,7 +177,9 @@ class RecurringPatternQueryServiceTest {
 
         queryService.deletePattern(USER_ID, 10L);
 
+        verify(transactionWriteRepository).unlinkRecurringPattern(10L);
         verify(patternRepository).deleteById(10L);
+        verify(billCalendar).invalidate(USER_ID);
     }
 
     @Test
@@ -195,6 +206,7 @@ class RecurringPatternQueryServiceTest {
 
         assertFalse(result.isActive());
         assertEquals("Netflix", result.getName());
+        verify(billCalendar).invalidate(USER_ID);
     }
 
     @Test
@@ -7,6 +7,7 @@ import com.peter.budget.model.enums.SyncStatus;
 import com.peter.budget.repository.AccountRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
 import com.peter.budget.service.EncryptionService;
+import com.peter.budget.service.job.SyncJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -47,6 +48,8 @@ class SimpleFinConnectionSetupServiceTest {
     private EncryptionService encryptionService;
     @Mock
     private SimpleFinSyncSupport syncSupport;
+    @Mock
+    private SyncJobService syncJobService;
 
     @InjectMocks
     private SimpleFinConnectionSetupService setupService;
@@ -94,6 +97,7 @@ class SimpleFinConnectionSetupServiceTest {
         verify(simpleFinClient).fetchAccounts(ACCESS_URL);
         verify(encryptionService).encrypt(ACCESS_URL);
         verify(syncSupport).createOrUpdateAccount(eq(USER_ID), eq(CONNECTION_ID), eq(sfAccount));
+        verify(syncJobService).enqueuePostSyncJobs(USER_ID, CONNECTION_ID);
         verify(connectionRepository, times(2)).save(any(SimpleFinConnection.class));
     }
 
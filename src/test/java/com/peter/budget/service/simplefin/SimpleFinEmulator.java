@@ -0,0 +1,291 @@
+package com.peter.budget.service.simplefin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the SimpleFIN bridge, served over HTTP on the loopback interface.
+ * {@link SimpleFinClient} only reaches it when built with {@link #host()} as a test host, or
+ * through {@link #clientInitializer()}.
+ *
+ * <p>It implements the two calls the client makes:
+ * <ul>
+ *   <li>{@code POST /claim} returns the access URL for {@link #setupToken()}</li>
+ *   <li>{@code GET /simplefin/accounts} checks basic auth, then returns the accounts with the
+ *       transactions posted between {@code start-date} and {@code end-date}</li>
+ * </ul>
+ * Transactions are derived from the seed, account and posting day. Every request for the
+ * same range returns the same ids, as the real bridge does. {@link Settings} adds response
+ * latency, random 500s and a cap on the days one request may cover. Over the cap, only the
+ * newest days are returned and a message is added to {@code errors}, like the bridge's paging.
+ */
+public final class SimpleFinEmulator implements AutoCloseable {
+
+    private static final String USERNAME = "emulator";
+    private static final String PASSWORD = "emulator-secret";
+    private static final String[] MERCHANTS = {
+            "NETFLIX.COM", "Spotify USA", "SQ *BLUE BOTTLE COFFEE", "AMAZON MKTP US",
+            "ACH DEBIT PAYROLL", "Shell Oil", "TST* CHIPOTLE", "COMCAST CABLE COMM",
+            "UBER   TRIP", "Trader Joe's", "ONLINE TRANSFER TO SAVINGS", "PG&E WEB ONLINE"
+    };
+
+    @Getter
+    @Builder
+    public static class Settings {
+        @Builder.Default
+        private final long seed = 42L;
+        @Builder.Default
+        private final int accounts = 5;
+        /** Average transactions per account per day. */
+        @Builder.Default
+        private final int transactionsPerDay = 2;
+        /** Days of history before {@link #today}; older requests return no transactions. */
+        @Builder.Default
+        private final int historyDays = 365;
+        @Builder.Default
+        private final long latencyMillis = 0;
+        /** Fraction of {@code /accounts} requests answered with a 500, from 0 to 1. */
+        @Builder.Default
+        private final double errorRate = 0;
+        /** Most days one {@code /accounts} request may cover; 0 for no limit. */
+        @Builder.Default
+        private final int maxWindowDays = 0;
+        @Builder.Default
+        private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger accountRequests = new AtomicInteger();
+    private final Map<Integer, Integer> postedToday = new HashMap<>();
+
+    public SimpleFinEmulator(Settings settings) {
+        this.settings = settings;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "simplefin-emulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/claim", this::handleClaim);
+        server.createContext("/simplefin/accounts", this::handleAccounts);
+        server.start();
+    }
+
+    public static SimpleFinEmulator start() {
+        return new SimpleFinEmulator(Settings.builder().build());
+    }
+
+    public String host() {
+        return server.getAddress().getAddress().getHostAddress();
+    }
+
+    public String accessUrl() {
+        return "http://" + USERNAME + ":" + PASSWORD + "@" + host() + ":" + server.getAddress().getPort() + "/simplefin";
+    }
+
+    /** A setup token whose claim URL points at this emulator. */
+    public String setupToken() {
+        String claimUrl = "http://" + host() + ":" + server.getAddress().getPort() + "/claim";
+        return Base64.getUrlEncoder().encodeToString(claimUrl.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Registers a primary {@link SimpleFinClient} that also accepts this emulator's host, for
+     * benchmarks that start the whole application. The application's own client bean stays as it is.
+     */
+    public ApplicationContextInitializer<GenericApplicationContext> clientInitializer() {
+        return context -> context.registerBean("emulatorSimpleFinClient", SimpleFinClient.class,
+                () -> new SimpleFinClient(context.getBean(WebClient.Builder.class),
+                        context.getBean(MeterRegistry.class), Set.of(host())),
+                definition -> definition.setPrimary(true));
+    }
+
+    /** Posts {@code count} new transactions to every account today, for incremental syncs to find. */
+    public synchronized void postTransactions(int count) {
+        for (int account = 0; account < settings.getAccounts(); account++) {
+            postedToday.merge(account, count, Integer::sum);
+        }
+    }
+
+    /** Number of {@code /accounts} requests served so far, including failed ones. */
+    public int accountRequests() {
+        return accountRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleClaim(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, 405, "text/plain", "POST only");
+            return;
+        }
+        respond(exchange, 200, "text/plain", accessUrl());
+    }
+
+    private void handleAccounts(HttpExchange exchange) throws IOException {
+        accountRequests.incrementAndGet();
+        String expected = "Basic " + Base64.getEncoder()
+                .encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        if (!expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            respond(exchange, 403, "text/plain", "Forbidden");
+            return;
+        }
+
+        if (settings.getLatencyMillis() > 0) {
+            try {
+                Thread.sleep(settings.getLatencyMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (settings.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.getErrorRate()) {
+            respond(exchange, 500, "text/plain", "Internal Server Error");
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        LocalDate end = query.containsKey("end-date")
+                ? epochDate(query.get("end-date")).minusDays(1)
+                : settings.getToday();
+        LocalDate start = query.containsKey("start-date")
+                ? epochDate(query.get("start-date"))
+                : end.minusDays(30);
+
+        List<String> errors = new ArrayList<>();
+        if (settings.getMaxWindowDays() > 0 && start.plusDays(settings.getMaxWindowDays()).isBefore(end)) {
+            start = end.minusDays(settings.getMaxWindowDays() - 1L);
+            errors.add("Date range limited to " + settings.getMaxWindowDays() + " days; request older data separately.");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("errors", errors);
+        body.put("accounts", accounts(start, end));
+        respond(exchange, 200, "application/json", objectMapper.writeValueAsString(body));
+    }
+
+    private List<Map<String, Object>> accounts(LocalDate start, LocalDate end) {
+        LocalDate oldest = settings.getToday().minusDays(settings.getHistoryDays());
+        LocalDate from = start.isBefore(oldest) ? oldest : start;
+        LocalDate to = end.isAfter(settings.getToday()) ? settings.getToday() : end;
+
+        List<Map<String, Object>> accounts = new ArrayList<>(settings.getAccounts());
+        for (int account = 0; account < settings.getAccounts(); account++) {
+            List<Map<String, Object>> transactions = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                addTransactionsForDay(transactions, account, day);
+            }
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", "ACT-" + account);
+            data.put("name", "Emulated Account " + account);
+            data.put("currency", "USD");
+            data.put("balance", String.valueOf(1_000 + account * 250) + ".00");
+            data.put("available-balance", String.valueOf(900 + account * 250) + ".00");
+            data.put("balance-date", settings.getToday().atStartOfDay(ZoneOffset.UTC).toEpochSecond());
+            data.put("type", account % 3 == 2 ? "credit" : "checking");
+            data.put("org", Map.of("name", "Emulated Bank", "domain", "bank.example"));
+            data.put("transactions", transactions);
+            accounts.add(data);
+        }
+        return accounts;
+    }
+
+    private void addTransactionsForDay(List<Map<String, Object>> transactions, int account, LocalDate day) {
+        long epochDay = day.toEpochDay();
+        Random random = new Random(settings.getSeed() * 31 + account * 1_000_003L + epochDay);
+        int count = random.nextInt(settings.getTransactionsPerDay() * 2 + 1);
+        for (int i = 0; i < count; i++) {
+            transactions.add(transaction("TRN-" + account + "-" + epochDay + "-" + i, day, random));
+        }
+        if (day.equals(settings.getToday())) {
+            int extra;
+            synchronized (this) {
+                extra = postedToday.getOrDefault(account, 0);
+            }
+            for (int i = 0; i < extra; i++) {
+                transactions.add(transaction("TRN-" + account + "-new-" + i, day, random));
+            }
+        }
+    }
+
+    private Map<String, Object> transaction(String id, LocalDate day, Random random) {
+        long posted = day.atStartOfDay(ZoneOffset.UTC).toEpochSecond() + random.nextInt(86_400);
+        String merchant = MERCHANTS[random.nextInt(MERCHANTS.length)];
+        Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("id", id);
+        transaction.put("posted", posted);
+        transaction.put("transacted_at", posted - random.nextInt(3_600));
+        transaction.put("amount", "-" + (1 + random.nextInt(300)) + "." + String.format("%02d", random.nextInt(100)));
+        transaction.put("description", merchant + " #" + (1000 + random.nextInt(9000)));
+        transaction.put("payee", merchant);
+        transaction.put("memo", "");
+        transaction.put("pending", false);
+        return transaction;
+    }
+
+    private static LocalDate epochDate(String seconds) {
+        return LocalDate.ofEpochDay(Long.parseLong(seconds) / 86_400);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isBlank()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -13,12 +13,15 @@ import org.springframework.http.HttpStatus;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class SimpleFinSyncPolicyTest {
@@ -159,9 +162,11 @@ class SimpleFinSyncPolicyTest {
                 .requestsToday(0)
                 .build();
 
+        when(connectionRepository.tryReserveRequest(1L, 24)).thenReturn(true);
+
         syncPolicy.consumeRequestQuota(connection, 1L);
 
-        verify(connectionRepository).incrementRequestCount(1L);
+        verify(connectionRepository).tryReserveRequest(1L, 24);
         assertEquals(1, connection.getRequestsToday());
         assertTrue(connection.getRequestsResetAt().isAfter(Instant.now()));
     }
@@ -174,9 +179,11 @@ class SimpleFinSyncPolicyTest {
                 .requestsToday(5)
                 .build();
 
+        when(connectionRepository.tryReserveRequest(1L, 24)).thenReturn(true);
+
         syncPolicy.consumeRequestQuota(connection, 1L);
 
-        verify(connectionRepository).incrementRequestCount(1L);
+        verify(connectionRepository).tryReserveRequest(1L, 24);
         assertEquals(6, connection.getRequestsToday());
     }
 
@@ -195,4 +202,47 @@ class SimpleFinSyncPolicyTest {
 
         assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
     }
+
+    @Test
+    void consumeRequestQuotaThrowsWhenConcurrentSyncSpentBudget() {
+        Instant resetAt = Instant.now().plusSeconds(3600);
+        SimpleFinConnection connection = SimpleFinConnection.builder()
+                .id(1L)
+                .requestsResetAt(resetAt)
+                .requestsToday(10)
+                .build();
+        when(connectionRepository.tryReserveRequest(1L, 24)).thenReturn(false);
+        when(connectionRepository.findRequestsResetAt(1L)).thenReturn(Optional.of(resetAt));
+
+        ApiException exception = assertThrows(
+                ApiException.class,
+                () -> syncPolicy.consumeRequestQuota(connection, 1L)
+        );
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals(24, connection.getRequestsToday());
+    }
+
+    @Test
+    void exhaustedConnectionIsRejectedLocallyUntilReset() {
+        Instant resetAt = Instant.now().plusSeconds(3600);
+        SimpleFinConnection connection = SimpleFinConnection.builder()
+                .id(1L)
+                .requestsResetAt(resetAt)
+                .requestsToday(10)
+                .build();
+        when(connectionRepository.tryReserveRequest(1L, 24)).thenReturn(false);
+        when(connectionRepository.findRequestsResetAt(1L)).thenReturn(Optional.of(resetAt));
+        assertFalse(syncPolicy.tryConsumeRequestQuota(connection, 1L));
+
+        SimpleFinConnection reloaded = SimpleFinConnection.builder()
+                .id(1L)
+                .requestsResetAt(resetAt)
+                .requestsToday(10)
+                .build();
+
+        assertFalse(syncPolicy.canMakeRequest(reloaded));
+        assertFalse(syncPolicy.tryConsumeRequestQuota(reloaded, 1L));
+        verify(connectionRepository, times(1)).tryReserveRequest(1L, 24);
+    }
 }
@@ -2,11 +2,11 @@ package com.peter.budget.service.simplefin;
 
 import com.peter.budget.exception.ApiException;
 import com.peter.budget.model.dto.ConnectionDto;
-import com.peter.budget.model.dto.SyncResultDto;
 import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.SimpleFinConnection;
 import com.peter.budget.model.enums.SyncStatus;
 import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.RecurringMerchantStateRepository;
 import com.peter.budget.repository.SimpleFinConnectionRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,12 +33,12 @@ class SimpleFinSyncServiceTest {
     @Mock
     private SimpleFinConnectionSetupService setupService;
     @Mock
-    private SimpleFinSyncOrchestrator syncOrchestrator;
-    @Mock
     private SimpleFinConnectionRepository connectionRepository;
     @Mock
     private AccountRepository accountRepository;
     @Mock
+    private RecurringMerchantStateRepository merchantStateRepository;
+    @Mock
     private SimpleFinSyncSupport syncSupport;
 
     @InjectMocks
@@ -56,32 +56,6 @@ class SimpleFinSyncServiceTest {
         verify(setupService).setupConnection(USER_ID, "setup-token");
     }
 
-    @Test
-    void syncConnectionDelegatesToOrchestrator() {
-        SyncResultDto expected = SyncResultDto.builder()
-                .success(true).accountsSynced(2).transactionsAdded(10).build();
-        when(syncOrchestrator.syncConnection(USER_ID, CONNECTION_ID, false)).thenReturn(expected);
-
-        SyncResultDto result = syncService.syncConnection(USER_ID, CONNECTION_ID);
-
-        assertEquals(true, result.isSuccess());
-        assertEquals(2, result.getAccountsSynced());
-        verify(syncOrchestrator).syncConnection(USER_ID, CONNECTION_ID, false);
-    }
-
-    @Test
-    void fullSyncConnectionDelegatesToOrchestrator() {
-        SyncResultDto expected = SyncResultDto.builder()
-                .success(true).message("Full sync started. Historical backfill is still in progress.").build();
-        when(syncOrchestrator.syncConnection(USER_ID, CONNECTION_ID, true)).thenReturn(expected);
-
-        SyncResultDto result = syncService.syncConnection(USER_ID, CONNECTION_ID, true);
-
-        assertEquals(true, result.isSuccess());
-        assertEquals("Full sync started. Historical backfill is still in progress.", result.getMessage());
-        verify(syncOrchestrator).syncConnection(USER_ID, CONNECTION_ID, true);
-    }
-
     @Test
     void getConnectionsReturnsConnectionDtos() {
         SimpleFinConnection conn = SimpleFinConnection.builder()
@@ -131,6 +105,7 @@ class SimpleFinSyncServiceTest {
 
         verify(accountRepository).deleteByConnectionId(CONNECTION_ID);
         verify(connectionRepository).deleteById(CONNECTION_ID);
+        verify(merchantStateRepository).resetForUser(USER_ID);
     }
 
     @Test
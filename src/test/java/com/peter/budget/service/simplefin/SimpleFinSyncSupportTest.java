@@ -3,7 +3,9 @@ package com.peter.budget.service.simplefin;
 import com.peter.budget.model.entity.Account;
 import com.peter.budget.model.entity.Transaction;
 import com.peter.budget.model.enums.AccountType;
+import com.peter.budget.model.entity.SimpleFinConnection;
 import com.peter.budget.repository.AccountRepository;
+import com.peter.budget.repository.SimpleFinConnectionRepository;
 import com.peter.budget.repository.TransactionReadRepository;
 import com.peter.budget.repository.TransactionWriteRepository;
 import com.peter.budget.service.AutoCategorizationService;
@@ -26,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
@@ -44,6 +47,8 @@ class SimpleFinSyncSupportTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
+    private SimpleFinConnectionRepository connectionRepository;
+    @Mock
     private TransactionReadRepository transactionReadRepository;
     @Mock
     private TransactionWriteRepository transactionWriteRepository;
@@ -114,6 +119,31 @@ class SimpleFinSyncSupportTest {
         assertEquals("Chase", result);
     }
 
+    @Test
+    void refreshInstitutionSummaryUpdatesChangedName() {
+        when(connectionRepository.findById(CONNECTION_ID)).thenReturn(Optional.of(
+                SimpleFinConnection.builder().id(CONNECTION_ID).institutionName("Chase").build()));
+        when(accountRepository.findByConnectionId(CONNECTION_ID)).thenReturn(List.of(
+                Account.builder().institutionName("Chase").build(),
+                Account.builder().institutionName("Wells Fargo").build()));
+
+        syncSupport.refreshInstitutionSummary(CONNECTION_ID);
+
+        verify(connectionRepository).updateInstitutionName(CONNECTION_ID, "Chase + 1 other");
+    }
+
+    @Test
+    void refreshInstitutionSummarySkipsWriteWhenUnchanged() {
+        when(connectionRepository.findById(CONNECTION_ID)).thenReturn(Optional.of(
+                SimpleFinConnection.builder().id(CONNECTION_ID).institutionName("Chase").build()));
+        when(accountRepository.findByConnectionId(CONNECTION_ID)).thenReturn(List.of(
+                Account.builder().institutionName("Chase").build()));
+
+        syncSupport.refreshInstitutionSummary(CONNECTION_ID);
+
+        verify(connectionRepository, never()).updateInstitutionName(any(), any());
+    }
+
     // --- createOrUpdateAccount tests ---
 
     @Test
@@ -239,6 +269,112 @@ class SimpleFinSyncSupportTest {
         assertEquals(existingBalanceDate, accountCaptor.getValue().getBalanceUpdatedAt());
     }
 
+    @Test
+    void upsertAccountSkipsWriteWhenNothingChanged() {
+        Instant balanceDate = Instant.parse("2026-01-20T12:00:00Z");
+        Account existing = Account.builder()
+                .id(ACCOUNT_ID)
+                .userId(USER_ID)
+                .connectionId(CONNECTION_ID)
+                .externalId("ext-123")
+                .name("My Checking")
+                .institutionName("Chase")
+                .accountType(AccountType.CHECKING)
+                .currency("USD")
+                .currentBalance(new BigDecimal("750.00"))
+                .availableBalance(new BigDecimal("700.00"))
+                .balanceUpdatedAt(balanceDate)
+                .active(true)
+                .build();
+
+        SimpleFinClient.SimpleFinAccount sfAccount = new SimpleFinClient.SimpleFinAccount(
+                "ext-123", "My Checking", "Chase", "USD",
+                new BigDecimal("750.0"), new BigDecimal("700"), balanceDate, "CHECKING", List.of()
+        );
+
+        when(accountRepository.findByConnectionIdAndExternalId(CONNECTION_ID, "ext-123"))
+                .thenReturn(Optional.of(existing));
+
+        SimpleFinSyncSupport.AccountUpsertResult result =
+                syncSupport.upsertAccount(USER_ID, CONNECTION_ID, sfAccount);
+
+        assertFalse(result.written());
+        assertEquals(ACCOUNT_ID, result.account().getId());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void upsertAccountWritesWhenBalanceChanges() {
+        Instant balanceDate = Instant.parse("2026-01-20T12:00:00Z");
+        Account existing = Account.builder()
+                .id(ACCOUNT_ID)
+                .userId(USER_ID)
+                .connectionId(CONNECTION_ID)
+                .externalId("ext-123")
+                .name("My Checking")
+                .institutionName("Chase")
+                .accountType(AccountType.CHECKING)
+                .currency("USD")
+                .currentBalance(new BigDecimal("750.00"))
+                .balanceUpdatedAt(balanceDate)
+                .active(true)
+                .build();
+
+        SimpleFinClient.SimpleFinAccount sfAccount = new SimpleFinClient.SimpleFinAccount(
+                "ext-123", "My Checking", "Chase", "USD",
+                new BigDecimal("800.00"), null, balanceDate, "CHECKING", List.of()
+        );
+
+        when(accountRepository.findByConnectionIdAndExternalId(CONNECTION_ID, "ext-123"))
+                .thenReturn(Optional.of(existing));
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArgument(0));
+
+        SimpleFinSyncSupport.AccountUpsertResult result =
+                syncSupport.upsertAccount(USER_ID, CONNECTION_ID, sfAccount);
+
+        assertTrue(result.written());
+        assertEquals(new BigDecimal("800.00"), result.account().getCurrentBalance());
+    }
+
+    @Test
+    void ingestAccountCountsUnchangedAccountAsSkippedWrite() {
+        Instant balanceDate = Instant.parse("2026-01-20T12:00:00Z");
+        Account existing = Account.builder()
+                .id(ACCOUNT_ID)
+                .userId(USER_ID)
+                .connectionId(CONNECTION_ID)
+                .externalId("ext-123")
+                .name("My Checking")
+                .institutionName("Chase")
+                .accountType(AccountType.CHECKING)
+                .currency("USD")
+                .currentBalance(new BigDecimal("750.00"))
+                .balanceUpdatedAt(balanceDate)
+                .active(true)
+                .build();
+
+        SimpleFinClient.SimpleFinTransaction sfTx = new SimpleFinClient.SimpleFinTransaction(
+                "tx-001", Instant.parse("2026-01-15T00:00:00Z"), null,
+                new BigDecimal("-25.00"), false, "Coffee Shop", null, null
+        );
+        SimpleFinClient.SimpleFinAccount sfAccount = new SimpleFinClient.SimpleFinAccount(
+                "ext-123", "My Checking", "Chase", "USD",
+                new BigDecimal("750.00"), null, balanceDate, "CHECKING", List.of(sfTx)
+        );
+
+        when(accountRepository.findByConnectionIdAndExternalId(CONNECTION_ID, "ext-123"))
+                .thenReturn(Optional.of(existing));
+        when(transactionReadRepository.findByAccountIdAndExternalId(ACCOUNT_ID, "tx-001"))
+                .thenReturn(Optional.empty());
+
+        SimpleFinSyncSupport.SyncTransactionResult result =
+                syncSupport.ingestAccount(USER_ID, CONNECTION_ID, sfAccount);
+
+        assertEquals(1, result.added());
+        assertEquals(1, result.skipped());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
     // --- syncTransactions tests ---
 
     @Test
@@ -419,4 +555,38 @@ class SimpleFinSyncSupportTest {
         verify(transactionWriteRepository).save(transactionCaptor.capture());
         assertNull(transactionCaptor.getValue().getCategorizedByRuleId());
     }
+
+    @Test
+    void syncTransactionsSkipsWriteWhenRuleCategoryIsUnchanged() {
+        Account account = Account.builder()
+                .id(ACCOUNT_ID).userId(USER_ID).build();
+
+        Transaction existing = Transaction.builder()
+                .id(500L)
+                .accountId(ACCOUNT_ID)
+                .externalId("tx-001")
+                .amount(new BigDecimal("-25.00"))
+                .pending(false)
+                .manuallyCategorized(false)
+                .categoryId(10L)
+                .categorizedByRuleId(42L)
+                .build();
+
+        SimpleFinClient.SimpleFinTransaction sfTx = new SimpleFinClient.SimpleFinTransaction(
+                "tx-001", Instant.parse("2026-01-15T00:00:00Z"), null,
+                new BigDecimal("-25.0"), false, "Coffee Shop", null, null
+        );
+
+        when(transactionReadRepository.findByAccountIdAndExternalId(ACCOUNT_ID, "tx-001"))
+                .thenReturn(Optional.of(existing));
+        when(categorizationService.categorize(eq(USER_ID), eq(ACCOUNT_ID), any(), any(), any(), any()))
+                .thenReturn(new AutoCategorizationService.CategorizationMatch(42L, 10L));
+
+        SimpleFinSyncSupport.SyncTransactionResult result =
+                syncSupport.syncTransactions(account, List.of(sfTx));
+
+        assertEquals(0, result.updated());
+        assertEquals(1, result.skipped());
+        verify(transactionWriteRepository, never()).save(any(Transaction.class));
+    }
 }
@@ -0,0 +1,93 @@
+package com.peter.budget.service.simplefin;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SyncCadencePlannerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+    private static final Instant RESET_AT = NOW.plus(Duration.ofHours(20));
+
+    private final SyncCadencePlanner planner = new SyncCadencePlanner();
+
+    @Test
+    void dailyPosterSyncsEveryFourHours() {
+        List<LocalDate> dates = consecutiveDates(LocalDate.of(2026, 3, 1), 9, 1);
+
+        Instant next = planner.planNextSync(dates, 0, 24, RESET_AT, NOW);
+
+        assertEquals(NOW.plus(Duration.ofHours(4)), next);
+    }
+
+    @Test
+    void weeklyPosterSyncsOncePerDay() {
+        List<LocalDate> dates = consecutiveDates(LocalDate.of(2026, 1, 6), 9, 7);
+
+        Instant next = planner.planNextSync(dates, 0, 24, RESET_AT, NOW);
+
+        assertEquals(NOW.plus(Duration.ofHours(24)), next);
+    }
+
+    @Test
+    void emptySyncsBackOffExponentiallyUpToADay() {
+        List<LocalDate> dates = consecutiveDates(LocalDate.of(2026, 3, 1), 9, 1);
+
+        assertEquals(NOW.plus(Duration.ofHours(8)), planner.planNextSync(dates, 1, 24, RESET_AT, NOW));
+        assertEquals(NOW.plus(Duration.ofHours(16)), planner.planNextSync(dates, 2, 24, RESET_AT, NOW));
+        assertEquals(NOW.plus(Duration.ofHours(24)), planner.planNextSync(dates, 10, 24, RESET_AT, NOW));
+    }
+
+    @Test
+    void intervalNeverShorterThanFairShareOfRemainingQuota() {
+        List<LocalDate> dates = consecutiveDates(LocalDate.of(2026, 3, 1), 9, 1);
+
+        Instant next = planner.planNextSync(dates, 0, 2, RESET_AT, NOW);
+
+        assertEquals(NOW.plus(Duration.ofHours(10)), next);
+    }
+
+    @Test
+    void exhaustedQuotaWaitsForReset() {
+        Instant next = planner.planNextSync(List.of(), 0, 0, RESET_AT, NOW);
+
+        assertEquals(RESET_AT, next);
+    }
+
+    @Test
+    void failedSyncsBackOffFromFourHoursUpToADay() {
+        assertEquals(NOW.plus(Duration.ofHours(4)), planner.planRetryAfterFailure(1, false, NOW));
+        assertEquals(NOW.plus(Duration.ofHours(8)), planner.planRetryAfterFailure(2, false, NOW));
+        assertEquals(NOW.plus(Duration.ofHours(16)), planner.planRetryAfterFailure(3, false, NOW));
+        assertEquals(NOW.plus(Duration.ofHours(24)), planner.planRetryAfterFailure(9, false, NOW));
+    }
+
+    @Test
+    void rejectedCredentialsWaitAWeek() {
+        assertEquals(NOW.plus(Duration.ofDays(7)), planner.planRetryAfterFailure(1, true, NOW));
+    }
+
+    @Test
+    void medianGapIgnoresOutliers() {
+        List<LocalDate> dates = List.of(
+                LocalDate.of(2026, 1, 1),
+                LocalDate.of(2026, 1, 3),
+                LocalDate.of(2026, 1, 5),
+                LocalDate.of(2026, 1, 7),
+                LocalDate.of(2026, 2, 20)
+        );
+
+        assertEquals(2, planner.medianPostingGapDays(dates));
+    }
+
+    private List<LocalDate> consecutiveDates(LocalDate start, int count, int stepDays) {
+        return java.util.stream.IntStream.range(0, count)
+                .mapToObj(i -> start.plusDays((long) i * stepDays))
+                .toList();
+    }
+}